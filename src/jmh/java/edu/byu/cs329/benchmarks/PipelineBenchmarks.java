@@ -0,0 +1,142 @@
+package edu.byu.cs329.benchmarks;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantpropagation.ConstantPropagation;
+import edu.byu.cs329.rd.ReachingDefinitions;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import edu.byu.cs329.workload.ProgramGenerator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of each stage of the constant propagation pipeline.
+ *
+ * <p>Run with {@code java -jar target/benchmarks.jar -prof gc} after
+ * {@code mvn -P jmh package} to also report the allocation rate. Folding and
+ * propagation change the tree, so they get a fresh copy of the program for
+ * every invocation; building graphs and reaching definitions only reads it.
+ *
+ * <p>The programs are shaped by the method size, the deepest nesting of if
+ * and while statements, and the most while statements in the method. Loops
+ * may nest as deep as the other statements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmarks {
+
+  private static final long SEED = 329;
+  private static final double BRANCH_FRACTION = 0.3;
+  private static final double FOLDABLE_FRACTION = 0.5;
+
+  /**
+   * A generated program shaped by the benchmark parameters.
+   */
+  @State(Scope.Thread)
+  public abstract static class ProgramState {
+    @Param({"100", "1000", "10000"})
+    int methodSize;
+
+    @Param({"2", "8"})
+    int nestingDepth;
+
+    @Param({"0", "100"})
+    int loopCount;
+
+    ASTNode program;
+
+    void parseProgram() {
+      program = new ProgramGenerator(SEED, methodSize, BRANCH_FRACTION, nestingDepth,
+          FOLDABLE_FRACTION, nestingDepth, loopCount).generateCompilationUnit();
+    }
+  }
+
+  /**
+   * A copy of the program for benchmarks that change it.
+   */
+  @State(Scope.Thread)
+  public static class FreshTree extends ProgramState {
+    ASTNode tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      parseProgram();
+    }
+
+    @Setup(Level.Invocation)
+    public void copyProgram() {
+      tree = ASTNode.copySubtree(AST.newAST(AST.JLS3), program);
+    }
+  }
+
+  /**
+   * The program with its control flow graphs already built.
+   */
+  @State(Scope.Thread)
+  public static class Graphs extends ProgramState {
+    List<ControlFlowGraph> cfgList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      parseProgram();
+      cfgList = new ControlFlowGraphBuilder().build(program);
+    }
+  }
+
+  /**
+   * The reaching definitions solver to measure.
+   */
+  @State(Scope.Thread)
+  public static class SolverChoice {
+    @Param({"HASH_SET", "BIT_VECTOR", "BASIC_BLOCK"})
+    ReachingDefinitionsBuilder.Solver solver;
+  }
+
+  /**
+   * The constant propagation engine to measure.
+   */
+  @State(Scope.Thread)
+  public static class EngineChoice {
+    @Param({"ITERATIVE", "SPARSE_CONDITIONAL"})
+    ConstantPropagation.Engine engine;
+  }
+
+  @Benchmark
+  public ASTNode fold(FreshTree state) {
+    return ConstantFolding.fold(state.tree);
+  }
+
+  @Benchmark
+  public List<ControlFlowGraph> buildControlFlowGraphs(Graphs state) {
+    return new ControlFlowGraphBuilder().build(state.program);
+  }
+
+  @Benchmark
+  public List<ReachingDefinitions> buildReachingDefinitions(Graphs state, SolverChoice choice) {
+    return new ReachingDefinitionsBuilder(choice.solver).build(state.cfgList);
+  }
+
+  @Benchmark
+  public ASTNode propagate(FreshTree state, EngineChoice choice) {
+    ConstantPropagation.propagate(state.tree, choice.engine);
+    return state.tree;
+  }
+}
@@ -0,0 +1,195 @@
+package edu.byu.cs329.cfg;
+
+import java.util.Arrays;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Basic blocks of a compact control flow graph.
+ *
+ * <p>A basic block is a maximal run of statements that is entered only at its
+ * first statement and left only at its last: every other statement has one
+ * predecessor, the statement before it, which has no other successor. A
+ * depth-first search leaves such a run without branching off, so the ids of
+ * its statements are consecutive in the reverse postorder numbering of
+ * {@link CompactControlFlowGraph}. Block b therefore holds the ids
+ * {@code firstId(b) .. lastId(b)}, and blocks are numbered in the order of
+ * their first statements, starting with the block of the start.
+ *
+ * <p>Dataflow solved over blocks needs one set per block instead of one per
+ * statement; the facts of a statement inside a block are recovered by a
+ * forward scan from the first statement of the block.
+ */
+public final class BasicBlockGraph {
+  private final CompactControlFlowGraph cfg;
+  private final int[] blocks;
+  private final int[] firstIds;
+  private final int[] succOffsets;
+  private final int[] succTargets;
+  private final int[] predOffsets;
+  private final int[] predTargets;
+
+  /**
+   * Groups the statements of a graph into basic blocks.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph.
+   */
+  BasicBlockGraph(CompactControlFlowGraph cfg) {
+    this.cfg = cfg;
+    int size = cfg.size();
+    blocks = new int[size];
+    int[] leaders = new int[size + 1];
+    int blockCount = 0;
+    for (int id = 0; id < size; ++id) {
+      if (isLeader(id)) {
+        leaders[blockCount++] = id;
+      }
+      blocks[id] = blockCount - 1;
+    }
+    leaders[blockCount] = size;
+    firstIds = Arrays.copyOf(leaders, blockCount + 1);
+
+    // edges leave a block at its last statement and enter at its first
+    succOffsets = new int[blockCount + 1];
+    predOffsets = new int[blockCount + 1];
+    for (int b = 0; b < blockCount; ++b) {
+      succOffsets[b + 1] = succOffsets[b] + cfg.succCount(lastId(b));
+      predOffsets[b + 1] = predOffsets[b] + cfg.predCount(firstIds[b]);
+    }
+    succTargets = new int[succOffsets[blockCount]];
+    predTargets = new int[predOffsets[blockCount]];
+    for (int b = 0; b < blockCount; ++b) {
+      int last = lastId(b);
+      for (int k = 0; k < cfg.succCount(last); ++k) {
+        succTargets[succOffsets[b] + k] = blocks[cfg.succId(last, k)];
+      }
+      for (int k = 0; k < cfg.predCount(firstIds[b]); ++k) {
+        predTargets[predOffsets[b] + k] = blocks[cfg.predId(firstIds[b], k)];
+      }
+    }
+  }
+
+  /**
+   * Returns the basic blocks of a graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph.
+   * @return the blocks cached on the compact form of cfg. A graph that is
+   *     neither compact nor built by {@link ControlFlowGraphBuilder} has no
+   *     compact form to keep, so its blocks are grouped again on every
+   *     call.
+   */
+  public static BasicBlockGraph of(ControlFlowGraph cfg) {
+    return CompactControlFlowGraph.of(cfg).getBasicBlockGraph();
+  }
+
+  public CompactControlFlowGraph getControlFlowGraph() {
+    return cfg;
+  }
+
+  /**
+   * Returns the number of blocks.
+   *
+   * @return the number of block ids.
+   */
+  public int size() {
+    return firstIds.length - 1;
+  }
+
+  public int startBlock() {
+    return blocks[cfg.startId()];
+  }
+
+  public int endBlock() {
+    return blocks[cfg.endId()];
+  }
+
+  /**
+   * Returns the block of a statement.
+   *
+   * @requires 0 <= id < getControlFlowGraph().size()
+   *
+   * @param id the id of the statement.
+   * @return the block that holds it.
+   */
+  public int blockOf(int id) {
+    return blocks[id];
+  }
+
+  /**
+   * Returns the block of a statement.
+   *
+   * @param s the statement.
+   * @return the block that holds s, or -1 if s is not in the graph.
+   */
+  public int blockOf(Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return -1;
+    }
+    return blocks[id];
+  }
+
+  public int firstId(int block) {
+    return firstIds[block];
+  }
+
+  public int lastId(int block) {
+    return firstIds[block + 1] - 1;
+  }
+
+  public int statementCount(int block) {
+    return firstIds[block + 1] - firstIds[block];
+  }
+
+  public int succCount(int block) {
+    return succOffsets[block + 1] - succOffsets[block];
+  }
+
+  /**
+   * Returns a successor block, entered at its first statement.
+   *
+   * @requires 0 <= k < succCount(block)
+   *
+   * @param block the block.
+   * @param k the index of the successor.
+   * @return the k-th successor, in the order of the successors of the last
+   *     statement of block.
+   */
+  public int succId(int block, int k) {
+    return succTargets[succOffsets[block] + k];
+  }
+
+  public int predCount(int block) {
+    return predOffsets[block + 1] - predOffsets[block];
+  }
+
+  /**
+   * Returns a predecessor block, left at its last statement.
+   *
+   * @requires 0 <= k < predCount(block)
+   *
+   * @param block the block.
+   * @param k the index of the predecessor.
+   * @return the k-th predecessor, in the order of the predecessors of the
+   *     first statement of block.
+   */
+  public int predId(int block, int k) {
+    return predTargets[predOffsets[block] + k];
+  }
+
+  /**
+   * Decides if a statement starts a block: it is the start, it is entered
+   * from several statements, or from a statement that is not just before it
+   * or that branches.
+   */
+  private boolean isLeader(int id) {
+    if (id == cfg.startId() || cfg.predCount(id) != 1) {
+      return true;
+    }
+    int pred = cfg.predId(id, 0);
+    return pred != id - 1 || cfg.succCount(pred) != 1;
+  }
+}
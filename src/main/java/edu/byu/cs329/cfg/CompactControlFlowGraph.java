@@ -0,0 +1,368 @@
+package edu.byu.cs329.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Control flow graph with dense integer ids and compressed sparse row edges.
+ *
+ * <p>Every statement reachable from the start, and the end, is numbered with
+ * an id in {@code [0, size())}. The successors of id {@code i} are
+ * {@code succTargets[succOffsets[i] .. succOffsets[i + 1])}, and likewise for
+ * the predecessors, so the int-based queries never touch a hash map.
+ *
+ * <p>The Statement-based methods of {@link ControlFlowGraph} keep the contract
+ * of the graph built by {@link ControlFlowGraphBuilder}: they return null for
+ * a statement with no successors (or predecessors) and the returned sets are
+ * unmodifiable.
+ *
+ * <p>The dominator and post-dominator trees and the basic blocks are
+ * computed on first use and then kept with the graph, which never changes.
+ */
+public final class CompactControlFlowGraph implements ControlFlowGraph {
+  private final MethodDeclaration methodDeclaration;
+  private final Statement[] statements;
+  private final Map<Statement, Integer> ids;
+  private final int startId;
+  private final int endId;
+  private final int[] succOffsets;
+  private final int[] succTargets;
+  private final int[] predOffsets;
+  private final int[] predTargets;
+  private volatile DominatorTree dominatorTree = null;
+  private volatile DominatorTree postDominatorTree = null;
+  private volatile BasicBlockGraph basicBlockGraph = null;
+
+  private CompactControlFlowGraph(MethodDeclaration methodDeclaration,
+      List<Statement> statementList, Map<Statement, Integer> ids, int startId, int endId,
+      int[] succOffsets, int[] succTargets) {
+    this.methodDeclaration = methodDeclaration;
+    this.statements = statementList.toArray(new Statement[0]);
+    this.ids = ids;
+    this.startId = startId;
+    this.endId = endId;
+    this.succOffsets = succOffsets;
+    this.succTargets = succTargets;
+
+    // invert the successor edges
+    int size = statements.length;
+    predOffsets = new int[size + 1];
+    for (int target : succTargets) {
+      predOffsets[target + 1]++;
+    }
+    for (int i = 0; i < size; ++i) {
+      predOffsets[i + 1] += predOffsets[i];
+    }
+    predTargets = new int[succTargets.length];
+    int[] next = Arrays.copyOf(predOffsets, size);
+    for (int source = 0; source < size; ++source) {
+      for (int k = succOffsets[source]; k < succOffsets[source + 1]; ++k) {
+        predTargets[next[succTargets[k]]++] = source;
+      }
+    }
+  }
+
+  /**
+   * Creates a compact copy of a control flow graph.
+   *
+   * <p>Statements are numbered in reverse postorder of a depth-first search
+   * from the start, so the start is always id 0 and, except along back edges,
+   * every statement has a smaller id than its successors. The end is numbered
+   * last if it is not reachable.
+   *
+   * <p>A graph built by {@link ControlFlowGraphBuilder} keeps its compact
+   * form, so it is copied only once. Any other graph is copied on every
+   * call.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph to copy.
+   * @return cfg itself if it is already compact, the compact form kept by a
+   *     graph from the builder, otherwise a new compact copy.
+   */
+  public static CompactControlFlowGraph of(ControlFlowGraph cfg) {
+    if (cfg instanceof CompactControlFlowGraph) {
+      return (CompactControlFlowGraph) cfg;
+    }
+    if (cfg instanceof ControlFlowGraphBuilder.LinkedGraph) {
+      return ((ControlFlowGraphBuilder.LinkedGraph) cfg).getCompactForm();
+    }
+    return copyOf(cfg);
+  }
+
+  /**
+   * Creates a new compact copy of a graph that is not compact.
+   */
+  static CompactControlFlowGraph copyOf(ControlFlowGraph cfg) {
+    Map<Statement, Integer> ids = new IdentityHashMap<Statement, Integer>();
+    List<Statement> statementList =
+        new ArrayList<Statement>(new DepthFirstOrder(cfg).getReversePostorder());
+    for (Statement s : statementList) {
+      ids.put(s, ids.size());
+    }
+    if (!ids.containsKey(cfg.getEnd())) {
+      ids.put(cfg.getEnd(), statementList.size());
+      statementList.add(cfg.getEnd());
+    }
+
+    int size = statementList.size();
+    int[] succOffsets = new int[size + 1];
+    int[] succTargets = new int[size];
+    int edgeCount = 0;
+    for (int i = 0; i < size; ++i) {
+      Set<Statement> succs = cfg.getSuccs(statementList.get(i));
+      if (succs != null) {
+        for (Statement succ : succs) {
+          if (edgeCount == succTargets.length) {
+            succTargets = Arrays.copyOf(succTargets, 2 * edgeCount);
+          }
+          succTargets[edgeCount++] = ids.get(succ);
+        }
+      }
+      succOffsets[i + 1] = edgeCount;
+    }
+
+    return new CompactControlFlowGraph(cfg.getMethodDeclaration(), statementList, ids,
+        ids.get(cfg.getStart()), ids.get(cfg.getEnd()), succOffsets,
+        Arrays.copyOf(succTargets, edgeCount));
+  }
+
+  @Override
+  public Statement getStart() {
+    return statements[startId];
+  }
+
+  @Override
+  public Statement getEnd() {
+    return statements[endId];
+  }
+
+  @Override
+  public MethodDeclaration getMethodDeclaration() {
+    return methodDeclaration;
+  }
+
+  @Override
+  public Set<Statement> getSuccs(Statement s) {
+    int id = idOf(s);
+    if (id < 0 || succOffsets[id] == succOffsets[id + 1]) {
+      return null;
+    }
+    return new StatementSet(succTargets, succOffsets[id], succOffsets[id + 1]);
+  }
+
+  @Override
+  public Set<Statement> getPreds(Statement s) {
+    int id = idOf(s);
+    if (id < 0 || predOffsets[id] == predOffsets[id + 1]) {
+      return null;
+    }
+    return new StatementSet(predTargets, predOffsets[id], predOffsets[id + 1]);
+  }
+
+  /**
+   * Returns the number of statements in the graph.
+   *
+   * @return the number of ids.
+   */
+  public int size() {
+    return statements.length;
+  }
+
+  public int startId() {
+    return startId;
+  }
+
+  public int endId() {
+    return endId;
+  }
+
+  /**
+   * Returns the id of a statement.
+   *
+   * @param s the statement.
+   * @return the id of s or -1 if s is not in the graph.
+   */
+  public int idOf(Statement s) {
+    Integer id = ids.get(s);
+    if (id == null) {
+      return -1;
+    }
+    return id;
+  }
+
+  /**
+   * Returns the statement with an id.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id.
+   * @return the statement numbered id.
+   */
+  public Statement statementOf(int id) {
+    return statements[id];
+  }
+
+  /**
+   * Returns a copy of the successor ids of a statement.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id of the statement.
+   * @return the successor ids.
+   */
+  public int[] succIds(int id) {
+    return Arrays.copyOfRange(succTargets, succOffsets[id], succOffsets[id + 1]);
+  }
+
+  /**
+   * Returns a copy of the predecessor ids of a statement.
+   *
+   * @requires 0 <= id < size()
+   *
+   * @param id the id of the statement.
+   * @return the predecessor ids.
+   */
+  public int[] predIds(int id) {
+    return Arrays.copyOfRange(predTargets, predOffsets[id], predOffsets[id + 1]);
+  }
+
+  public int succCount(int id) {
+    return succOffsets[id + 1] - succOffsets[id];
+  }
+
+  /**
+   * Returns a successor id without allocating.
+   *
+   * @requires 0 <= k < succCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the successor.
+   * @return the id of the k-th successor.
+   */
+  public int succId(int id, int k) {
+    return succTargets[succOffsets[id] + k];
+  }
+
+  public int predCount(int id) {
+    return predOffsets[id + 1] - predOffsets[id];
+  }
+
+  /**
+   * Returns a predecessor id without allocating.
+   *
+   * @requires 0 <= k < predCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the predecessor.
+   * @return the id of the k-th predecessor.
+   */
+  public int predId(int id, int k) {
+    return predTargets[predOffsets[id] + k];
+  }
+
+  /**
+   * Returns the dominator tree, computing it on the first call.
+   *
+   * @return the dominator tree rooted at the start.
+   */
+  public DominatorTree getDominatorTree() {
+    DominatorTree tree = dominatorTree;
+    if (tree == null) {
+      tree = new DominatorTree(this, false);
+      dominatorTree = tree;
+    }
+    return tree;
+  }
+
+  /**
+   * Returns the post-dominator tree, computing it on the first call.
+   *
+   * @return the post-dominator tree rooted at the end.
+   */
+  public DominatorTree getPostDominatorTree() {
+    DominatorTree tree = postDominatorTree;
+    if (tree == null) {
+      tree = new DominatorTree(this, true);
+      postDominatorTree = tree;
+    }
+    return tree;
+  }
+
+  /**
+   * Returns the basic blocks, grouping them on the first call.
+   *
+   * @return the basic block graph.
+   */
+  public BasicBlockGraph getBasicBlockGraph() {
+    BasicBlockGraph blocks = basicBlockGraph;
+    if (blocks == null) {
+      blocks = new BasicBlockGraph(this);
+      basicBlockGraph = blocks;
+    }
+    return blocks;
+  }
+
+  Set<Statement> statementSet(int[] targets, int from, int to) {
+    return new StatementSet(targets, from, to);
+  }
+
+  /**
+   * Unmodifiable view of one row of the successor or predecessor arrays.
+   */
+  private class StatementSet extends AbstractSet<Statement> {
+    private final int[] targets;
+    private final int from;
+    private final int to;
+
+    StatementSet(int[] targets, int from, int to) {
+      this.targets = targets;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      for (int k = from; k < to; ++k) {
+        if (statements[targets[k]] == o) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<Statement> iterator() {
+      return new Iterator<Statement>() {
+        int index = from;
+
+        @Override
+        public boolean hasNext() {
+          return index < to;
+        }
+
+        @Override
+        public Statement next() {
+          if (index >= to) {
+            throw new NoSuchElementException();
+          }
+          return statements[targets[index++]];
+        }
+      };
+    }
+  }
+}
@@ -7,6 +7,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Block;
@@ -20,12 +22,90 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Builder for a control flow graph from a method declaration.
+ *
+ * <p>Each method is linked in one pass over its statements. Every statement
+ * list is linked with the statement that follows it, so an if or while
+ * statement links its branches to its next statement without looking up or
+ * removing edges, and the successors and predecessors are recorded as the
+ * edges are found.
+ *
+ * <p>The state of the visitor belongs to the method being linked, so the
+ * methods of a tree can also be linked by separate visitors in parallel.
  */
 public class ControlFlowGraphBuilder {
   Logger log = LoggerFactory.getLogger(ControlFlowGraphBuilder.class);
-  
+
+  /**
+   * A graph linked by the builder. Its compact form is made on first use
+   * and kept with the graph, so the trees and blocks cached on the compact
+   * form are computed once for the graph.
+   */
+  static class LinkedGraph implements ControlFlowGraph {
+    private final Statement start;
+    private final Statement end;
+    private final MethodDeclaration methodDeclaration;
+    private final Map<Statement, Set<Statement>> successors;
+    private final Map<Statement, Set<Statement>> predecessors;
+    private volatile CompactControlFlowGraph compactForm = null;
+
+    LinkedGraph(Statement start, Statement end, MethodDeclaration methodDeclaration,
+        Map<Statement, Set<Statement>> successors, Map<Statement, Set<Statement>> predecessors) {
+      this.start = start;
+      this.end = end;
+      this.methodDeclaration = methodDeclaration;
+      this.successors = Collections.unmodifiableMap(successors);
+      this.predecessors = Collections.unmodifiableMap(predecessors);
+    }
+
+    @Override
+    public Statement getStart() {
+      return start;
+    }
+
+    @Override
+    public Statement getEnd() {
+      return end;
+    }
+
+    @Override
+    public MethodDeclaration getMethodDeclaration() {
+      return methodDeclaration;
+    }
+
+    @Override
+    public Set<Statement> getSuccs(Statement s) {
+      Set<Statement> returnValue = null;
+      if (successors.containsKey(s)) {
+        returnValue = successors.get(s);
+      }
+      return returnValue;
+    }
+
+    @Override
+    public Set<Statement> getPreds(Statement s) {
+      Set<Statement> returnValue = null;
+      if (predecessors.containsKey(s)) {
+        returnValue = predecessors.get(s);
+      }
+      return returnValue;
+    }
+
+    /**
+     * Returns the compact form of the graph, copying it on the first call.
+     *
+     * @return the compact copy of this graph.
+     */
+    CompactControlFlowGraph getCompactForm() {
+      CompactControlFlowGraph compact = compactForm;
+      if (compact == null) {
+        compact = CompactControlFlowGraph.copyOf(this);
+        compactForm = compact;
+      }
+      return compact;
+    }
+  }
+
   class Visitor extends ASTVisitor {
-    Map<Statement, Set<Statement>> edges = new HashMap<Statement, Set<Statement>>();
     Statement start = null;
     Statement end = null;
     MethodDeclaration methodDeclaration = null;
@@ -36,211 +116,156 @@ public class ControlFlowGraphBuilder {
     public List<ControlFlowGraph> cgfList = new ArrayList<ControlFlowGraph>();
 
     /**
-     * Visit method declaration.
+     * End visit to method declaration. The methods of classes declared in the
+     * method are visited first, so their graphs come before its graph. An
+     * abstract or interface method has no body and no graph.
      *
      * @requires node != null
      * 
+     * @ensures node.getBody() != null ==> cgfList = old(cgfList) + link(node)
+     * @ensures node.getBody() == null ==> cgfList = old(cgfList)
+     * 
+     * @param node the method declaration.
+     */
+    @Override
+    public void endVisit(MethodDeclaration node) {
+      if (node.getBody() != null) {
+        cgfList.add(link(node));
+      }
+    }
+
+    /**
+     * Links the statements of one method. Methods of classes declared in the
+     * method are not linked.
+     *
+     * @requires node != null
+     * @requires node.getBody() != null
+     * 
      * @ensures methodDeclaration = node
-     * @ensures defined(first(S)) ==> start = first(S) /\ edges = {(last(S), end)}
+     * @ensures defined(first(S)) ==> start = first(S) /\ link(S, end)
      * @ensures !defined(first(S)) ==> start = end /\ edges = \emptyset
      * @ensures end = Block(S)
      * 
      * @param node the method declaration.
+     * @return the control flow graph of the method.
      */
-    @Override
-    public boolean visit(MethodDeclaration node) {
+    ControlFlowGraph link(MethodDeclaration node) {
       initAll();
       methodDeclaration = node;
       end = node.getBody();
       List<Statement> statementList = getStatementList(node.getBody().statements());
-    
-      if (statementList.isEmpty()) {
-        start = end;
-        return false;
-      }
-      
-      start = first(statementList);
-      Statement last = last(statementList);
-      addEdge(last, end);
-  
-      return true;
+      start = statementList.isEmpty() ? end : first(statementList);
+      linkStatementList(statementList, end);
+      return buildControlFlowGraph();
     }
 
     /**
-     * Visit block.
+     * Links the reachable statements of a statement list to their successors.
      *
-     * <p>firstReturn(S) := the index of the first return statement,
-     *                      if any, and otherwise the size of the list.
+     * <p>A statement is reachable if it is the start or an edge from a
+     * reachable statement enters it. Statements are linked in source order
+     * and only the edge back to a while statement goes backward, so every
+     * edge that enters a statement is known when the statement is linked.
+     * Statements after a return, or after an if statement whose branches
+     * all return, are left out of the graph.
      *
-     * @requires node != null
+     * <p>next(s_i) := if i < |S| - 1 then s_{i+1} else next
+     *
+     * @requires next != null
+     * 
+     * @ensures \forall i, reachable(s_i) ==> edges = old(edges) \cup link(s_i, next(s_i))
      * 
-     * @enures edges = old(edges) \cup 
-     *     {(s_i,s_{i+1}) | \forall i, 0 <= i < firstReturn(S) - 1}
+     * @param statementList the statements.
+     * @param next the statement that follows the list.
      */
-    @Override
-    public boolean visit(Block node) {
-      List<Statement> statementList = getStatementList(node.statements());
-      for (int i = 0; i < statementList.size() - 1; ++i) {
+    private void linkStatementList(List<Statement> statementList, Statement next) {
+      for (int i = 0; i < statementList.size(); ++i) {
         Statement statement = statementList.get(i);
+        if (statement != start && !predecessors.containsKey(statement)) {
+          continue;
+        }
+        Statement nextStatement = i < statementList.size() - 1 ? statementList.get(i + 1) : next;
         if (isReturn(statement)) {
-          return true;
+          addEdge(statement, end);
+        } else if (statement instanceof IfStatement) {
+          linkIf((IfStatement) statement, nextStatement);
+        } else if (statement instanceof WhileStatement) {
+          linkWhile((WhileStatement) statement, nextStatement);
+        } else {
+          addEdge(statement, nextStatement);
         }
-        Statement nextStatement = statementList.get(i + 1);
-        addEdge(statement, nextStatement);
       }
-      return true;
     }
 
     /**
-     * Visit while-statement.
+     * Links a while-statement.
      *
      * @requires node != null
-     * @requires node.getBody() instanceof Block
      * 
-     * @ensures defined(first(S)) /\ !isReturn(last(S)) ==> 
-     *     edges = old(edges) \cup {(node, first(S)), (last(S), node)}
-     * @ensures defined(first(S)) /\ isReturn(last(S)) ==>
-     *     edges = old(edges) \cup {(node, first(S))}
+     * @ensures defined(first(S)) ==> 
+     *     edges = old(edges) \cup {(node, first(S)), (node, next)} \cup link(S, node)
      * @ensures !defined(first(S)) ==> 
-     *     edges = old(edges) \cup {(node, node)}
+     *     edges = old(edges) \cup {(node, node), (node, next)}
      * 
      * @param node the while-statement.
+     * @param next the statement that follows it.
      */
-    @Override
-    public boolean visit(WhileStatement node) {
-      Set<Statement> set = getStatements(edges, node);
-      Statement nextStatement = set.iterator().next();
-      edges.remove(node);
-
-      Block block = (Block) (node.getBody());
-      List<Statement> statementList = getStatementList(block.statements());
-      insertStatementList(node, statementList, node);
-      addEdge(node, nextStatement);
-
-      return true;
+    private void linkWhile(WhileStatement node, Statement next) {
+      linkBranch(node, node.getBody(), node);
+      addEdge(node, next);
     }
 
     /**
-     * Visit if-statement.
-     * 
-     * <p>next(node) := statement following
-     * 
-     * <p>then(node) := if defined(first(S_Then)) /\ !isReturn(last(S_Then)) then
-     *                    {(node, first(S_Then)), (last(S_Then), next(node))} 
-     *                  else if defined(first(S_Then)) /\ isReturn(last(S_Then)) then 
-     *                    {(node, first(S_Then))} 
-     *                  else if !defined(first(S_Then)) then 
-     *                    {(node, next(node))}
+     * Links an if-statement.
+     *
+     * <p>then(node) := if defined(first(S_Then)) then
+     *                    {(node, first(S_Then))} \cup link(S_Then, next)
+     *                  else
+     *                    {(node, next)}
      * 
-     * <p>else(node) is defined similarly to then(node).
+     * <p>else(node) is defined similarly to then(node), and is {(node, next)}
+     * when there is no else statement.
      *
      * @requires node != null
-     * @requires node.getThenStatement() instanceof Block
-     * @requires node.getElseStatement() != null ==> node.getElseStatement() instanceof Block
      * 
      * @ensures edges = old(edges) \cup then(node) \cup else(node)
      * 
      * @param node the if-statement.
+     * @param next the statement that follows it.
      */
-    @Override
-    public boolean visit(IfStatement node) {
-      Set<Statement> set = getStatements(edges, node);
-      Statement nextStatement = set.iterator().next();
-      edges.remove(node);
-
-      Block block = (Block) (node.getThenStatement());
-      List<Statement> statementList = getStatementList(block.statements());
-      insertStatementList(node, statementList, nextStatement);
-
+    private void linkIf(IfStatement node, Statement next) {
+      linkBranch(node, node.getThenStatement(), next);
       Statement elseStatement = node.getElseStatement();
       if (elseStatement != null) {
-        block = (Block) (elseStatement);
-        statementList = getStatementList(block.statements());
-        insertStatementList(node, statementList, nextStatement);
+        linkBranch(node, elseStatement, next);
       } else {
         // case - no else statement
-        addEdge(node, nextStatement);
+        addEdge(node, next);
       }
-
-      return true;
     }
 
     /**
-     * Visit return statement.
-     *
-     * @requires node != null
-     * 
-     * @ensures edges = old(edges) \cup {(node, end)}
-     * 
-     * @param node the return statement.
+     * Links a branch of an if-statement or the body of a while-statement. A
+     * branch that is not a block, e.g., the if-statement of an else-if, is
+     * a list of one statement.
      */
-    public boolean visit(ReturnStatement node) {
-      addEdge(node, end);
-      return false;
-    }
-
-    /**
-     * End visit to method declartion.
-     *
-     * @param node the method declaration.
-     */
-    @Override
-    public void endVisit(MethodDeclaration node) {
-      Set<Statement> reachableSet = new HashSet<Statement>();
-      computeSucessorsAndPredecessors(reachableSet, start);
-      ControlFlowGraph cfg = buildControlFlowGraph();
-      cgfList.add(cfg);
+    private void linkBranch(Statement source, Statement branch, Statement next) {
+      List<Statement> statementList = branch instanceof Block
+          ? getStatementList(((Block) branch).statements())
+          : Collections.singletonList(branch);
+      if (statementList.isEmpty()) {
+        addEdge(source, next);
+        return;
+      }
+      addEdge(source, first(statementList));
+      linkStatementList(statementList, next);
     }
 
     private ControlFlowGraph buildControlFlowGraph() {
-      return new ControlFlowGraph() {
-
-        final Map<Statement, Set<Statement>> successors = 
-            Collections.unmodifiableMap(Visitor.this.successors);
-        final Map<Statement, Set<Statement>> predecessors = 
-            Collections.unmodifiableMap(Visitor.this.predecessors);
-
-        final Statement start = Visitor.this.start;
-        final Statement end = Visitor.this.end;
-        final MethodDeclaration methodDeclaration = Visitor.this.methodDeclaration;
-
-        @Override
-        public Statement getStart() {
-          return start;
-        }
-
-        @Override
-        public Statement getEnd() {
-          return end;
-        }
-
-        @Override
-        public MethodDeclaration getMethodDeclaration() {
-          return methodDeclaration;
-        }
-
-        @Override
-        public Set<Statement> getSuccs(Statement s) {
-          Set<Statement> returnValue = null;
-          if (successors.containsKey(s)) {
-            returnValue = successors.get(s);
-          }
-          return returnValue;
-        }
-
-        @Override
-        public Set<Statement> getPreds(Statement s) {
-          Set<Statement> returnValue = null;
-          if (predecessors.containsKey(s)) {
-            returnValue = predecessors.get(s);
-          }
-          return returnValue;
-        }
-      };
+      return new LinkedGraph(start, end, methodDeclaration, successors, predecessors);
     }
 
     private void initAll() {
-      edges = new HashMap<Statement, Set<Statement>>();
       start = null;
       end = null;
       methodDeclaration = null;
@@ -248,23 +273,13 @@ public class ControlFlowGraphBuilder {
       predecessors = new HashMap<Statement, Set<Statement>>();
     }
 
-    private void computeSucessorsAndPredecessors(Set<Statement> set, Statement s) {
-      if (set.contains(s)) {
-        return;
-      }
-      set.add(s);
-      for (Statement successor : getStatements(edges, s)) {
-        getStatements(successors, s).add(successor);
-        getStatements(predecessors, successor).add(s);
-        computeSucessorsAndPredecessors(set, successor);
-      }
-    }
-
     private Set<Statement> getStatements(Map<Statement, Set<Statement>> map, Statement statement) {
-      if (!map.containsKey(statement)) {
-        map.put(statement, new HashSet<Statement>());
+      Set<Statement> statements = map.get(statement);
+      if (statements == null) {
+        statements = new HashSet<Statement>();
+        map.put(statement, statements);
       }
-      return map.get(statement);
+      return statements;
     }
 
     private List<Statement> getStatementList(Object list) {
@@ -274,8 +289,9 @@ public class ControlFlowGraphBuilder {
     }
 
     private void addEdge(Statement statement, Statement nextStatement) {
-      log.debug("Adding to edges\nSource:\t" + statement + "\nDestination\t" + nextStatement);
-      getStatements(edges, statement).add(nextStatement);
+      log.debug("Adding edge\nSource:\t{}\nDestination\t{}", statement, nextStatement);
+      getStatements(successors, statement).add(nextStatement);
+      getStatements(predecessors, nextStatement).add(statement);
     }
 
     private boolean isReturn(Statement statement) {
@@ -285,26 +301,6 @@ public class ControlFlowGraphBuilder {
     private Statement first(List<Statement> statementList) {
       return statementList.get(0);
     }
-
-    private Statement last(List<Statement> statementList) {
-      int size = statementList.size();
-      return statementList.get(size - 1);
-    }
-
-    private void insertStatementList(Statement source, List<Statement> statementList, 
-        Statement destination) {
-      if (statementList.isEmpty()) {
-        addEdge(source, destination);
-        return;
-      } 
-      
-      addEdge(source, first(statementList));
-
-      Statement last = last(statementList);
-      if (!isReturn(last)) {
-        addEdge(last, destination); 
-      }
-    }
   }
 
   /**
@@ -318,4 +314,83 @@ public class ControlFlowGraphBuilder {
     node.accept(visitor);
     return visitor.cgfList;
   }
+
+  /**
+   * Creates a control flow graph for every method, linking each method as
+   * its own task on a pool. Every task links with its own visitor, so tasks
+   * share only the tree, which they read.
+   *
+   * @requires pool != null
+   * @requires node is not being modified
+   *
+   * @param node compilation unit.
+   * @param pool the pool that runs the tasks.
+   * @return list of control flow graphs in the order of {@link #build(ASTNode)}.
+   */
+  public List<ControlFlowGraph> build(ASTNode node, ForkJoinPool pool) {
+    List<ForkJoinTask<ControlFlowGraph>> tasks = new ArrayList<ForkJoinTask<ControlFlowGraph>>();
+    for (MethodDeclaration method : getMethodDeclarations(node)) {
+      tasks.add(pool.submit(() -> new Visitor().link(method)));
+    }
+    return joinAll(tasks);
+  }
+
+  /**
+   * Creates a compact, integer-indexed control flow graph for every method.
+   *
+   * @param node compilation unit.
+   * @return list of compact control flow graphs in source order.
+   */
+  public List<CompactControlFlowGraph> buildCompact(ASTNode node) {
+    List<CompactControlFlowGraph> compactList = new ArrayList<CompactControlFlowGraph>();
+    for (ControlFlowGraph cfg : build(node)) {
+      compactList.add(CompactControlFlowGraph.of(cfg));
+    }
+    return compactList;
+  }
+
+  /**
+   * Creates a compact control flow graph for every method, building each one
+   * as its own task on a pool.
+   *
+   * @requires pool != null
+   * @requires node is not being modified
+   *
+   * @param node compilation unit.
+   * @param pool the pool that runs the tasks.
+   * @return list of compact control flow graphs in source order.
+   */
+  public List<CompactControlFlowGraph> buildCompact(ASTNode node, ForkJoinPool pool) {
+    List<ForkJoinTask<CompactControlFlowGraph>> tasks =
+        new ArrayList<ForkJoinTask<CompactControlFlowGraph>>();
+    for (MethodDeclaration method : getMethodDeclarations(node)) {
+      tasks.add(pool.submit(() -> CompactControlFlowGraph.of(new Visitor().link(method))));
+    }
+    return joinAll(tasks);
+  }
+
+  /**
+   * Lists the method declarations with a body in the order their visits end,
+   * which is the order of the graphs of {@link #build(ASTNode)}.
+   */
+  private static List<MethodDeclaration> getMethodDeclarations(ASTNode node) {
+    final List<MethodDeclaration> methods = new ArrayList<MethodDeclaration>();
+    node.accept(new ASTVisitor() {
+      @Override
+      public void endVisit(MethodDeclaration method) {
+        if (method.getBody() != null) {
+          methods.add(method);
+        }
+      }
+    });
+    return methods;
+  }
+
+  private static <T> List<T> joinAll(List<ForkJoinTask<T>> tasks) {
+    List<T> results = new ArrayList<T>(tasks.size());
+    for (ForkJoinTask<T> task : tasks) {
+      results.add(task.join());
+    }
+    return results;
+  }
 }
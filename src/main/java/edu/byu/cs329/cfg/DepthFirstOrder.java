@@ -0,0 +1,132 @@
+package edu.byu.cs329.cfg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Depth-first order of the statements reachable from the start of a control
+ * flow graph.
+ *
+ * <p>The search uses an explicit stack so long methods do not overflow the
+ * thread stack. In reverse postorder every statement comes before its
+ * successors except along back edges, which is the order in which forward
+ * dataflow problems converge fastest.
+ *
+ * <p>The search also keeps the order in which it first reaches the
+ * statements and numbers every statement in preorder and postorder, so later
+ * phases can reuse them without searching again.
+ */
+public final class DepthFirstOrder {
+  private final List<Statement> preorder;
+  private final List<Statement> reversePostorder;
+  private final Map<Statement, Integer> preorderNumbers;
+  private final Map<Statement, Integer> postorderNumbers;
+
+  /**
+   * Searches a control flow graph from its start.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph to search.
+   */
+  public DepthFirstOrder(ControlFlowGraph cfg) {
+    List<Statement> pre = new ArrayList<Statement>();
+    List<Statement> postorder = new ArrayList<Statement>();
+    preorderNumbers = new IdentityHashMap<Statement, Integer>();
+    postorderNumbers = new IdentityHashMap<Statement, Integer>();
+
+    Statement start = cfg.getStart();
+    preorderNumbers.put(start, pre.size());
+    pre.add(start);
+    Deque<Statement> statementStack = new ArrayDeque<Statement>();
+    statementStack.push(start);
+    Deque<Iterator<Statement>> successorStack = new ArrayDeque<Iterator<Statement>>();
+    successorStack.push(successors(cfg, start));
+    while (!statementStack.isEmpty()) {
+      Iterator<Statement> successors = successorStack.peek();
+      if (successors.hasNext()) {
+        Statement succ = successors.next();
+        if (!preorderNumbers.containsKey(succ)) {
+          preorderNumbers.put(succ, pre.size());
+          pre.add(succ);
+          statementStack.push(succ);
+          successorStack.push(successors(cfg, succ));
+        }
+      } else {
+        successorStack.pop();
+        Statement s = statementStack.pop();
+        postorderNumbers.put(s, postorder.size());
+        postorder.add(s);
+      }
+    }
+
+    preorder = Collections.unmodifiableList(pre);
+    Collections.reverse(postorder);
+    reversePostorder = Collections.unmodifiableList(postorder);
+  }
+
+  /**
+   * Returns the reachable statements in the order the search first reaches
+   * them.
+   *
+   * @return the statements, starting with the start of the graph.
+   */
+  public List<Statement> getPreorder() {
+    return preorder;
+  }
+
+  /**
+   * Returns the reachable statements in reverse postorder.
+   *
+   * @return the statements, starting with the start of the graph.
+   */
+  public List<Statement> getReversePostorder() {
+    return reversePostorder;
+  }
+
+  /**
+   * Returns the position of a statement in preorder.
+   *
+   * @param s the statement.
+   * @return its preorder number, or -1 if s is not reachable.
+   */
+  public int getPreorderNumber(Statement s) {
+    Integer number = preorderNumbers.get(s);
+    if (number == null) {
+      return -1;
+    }
+    return number;
+  }
+
+  /**
+   * Returns the position of a statement in postorder. The reverse
+   * postorder number of s is {@code getReversePostorder().size() - 1 -
+   * getPostorderNumber(s)}.
+   *
+   * @param s the statement.
+   * @return its postorder number, or -1 if s is not reachable.
+   */
+  public int getPostorderNumber(Statement s) {
+    Integer number = postorderNumbers.get(s);
+    if (number == null) {
+      return -1;
+    }
+    return number;
+  }
+
+  private static Iterator<Statement> successors(ControlFlowGraph cfg, Statement s) {
+    Set<Statement> succs = cfg.getSuccs(s);
+    if (succs == null) {
+      return Collections.emptyIterator();
+    }
+    return succs.iterator();
+  }
+}
@@ -0,0 +1,427 @@
+package edu.byu.cs329.cfg;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Dominator or post-dominator tree and dominance frontiers of a compact
+ * control flow graph.
+ *
+ * <p>A statement d dominates a statement n if every path from the start to n
+ * goes through d, and post-dominates n if every path from n to the end goes
+ * through d. The post-dominator tree is the dominator tree of the reversed
+ * graph rooted at the end, so both are computed by the same code, with the
+ * algorithm of Cooper, Harvey and Kennedy: it walks the statements in
+ * reverse postorder of a search from the root until no immediate dominator
+ * changes.
+ *
+ * <p>The tree is then numbered in preorder, so d dominates n exactly when
+ * the preorder number of n falls in the interval of the subtree of d, which
+ * answers {@link #dominates(int, int)} in constant time.
+ *
+ * <p>The dominance frontier of n holds the statements where the dominance of
+ * n ends: a statement is in it if n dominates one of its predecessors but
+ * does not strictly dominate it. The method is entered from outside the
+ * graph, so a start with predecessors is in the frontier of the statements
+ * on the loops through it. In the post-dominator tree the frontier of n holds
+ * the branches that n is control dependent on. A statement that is not
+ * reachable from the root has no immediate dominator, is dominated by
+ * nothing and has an empty frontier.
+ *
+ * <p>Trees are immutable; {@link CompactControlFlowGraph#getDominatorTree()}
+ * and {@link CompactControlFlowGraph#getPostDominatorTree()} compute each one
+ * once per graph.
+ */
+public final class DominatorTree {
+  private final CompactControlFlowGraph cfg;
+  private final boolean post;
+  private final int root;
+  private final int[] idoms;
+  private final int[] childOffsets;
+  private final int[] children;
+  private final int[] frontierOffsets;
+  private final int[] frontiers;
+  private final int[] preorder;
+  private final int[] subtreeEnds;
+
+  /**
+   * Computes the dominator or post-dominator tree of a graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph.
+   * @param post true for the post-dominator tree.
+   */
+  DominatorTree(CompactControlFlowGraph cfg, boolean post) {
+    this.cfg = cfg;
+    this.post = post;
+    this.root = post ? cfg.endId() : cfg.startId();
+    int size = cfg.size();
+    int[] order = computeReversePostorder();
+    int[] ranks = new int[size];
+    Arrays.fill(ranks, -1);
+    for (int k = 0; k < order.length; ++k) {
+      ranks[order[k]] = k;
+    }
+    idoms = computeIdoms(order, ranks);
+
+    childOffsets = new int[size + 1];
+    for (int id = 0; id < size; ++id) {
+      if (idoms[id] >= 0) {
+        childOffsets[idoms[id] + 1]++;
+      }
+    }
+    for (int id = 0; id < size; ++id) {
+      childOffsets[id + 1] += childOffsets[id];
+    }
+    children = new int[childOffsets[size]];
+    int[] next = Arrays.copyOf(childOffsets, size);
+    for (int id = 0; id < size; ++id) {
+      if (idoms[id] >= 0) {
+        children[next[idoms[id]]++] = id;
+      }
+    }
+
+    preorder = new int[size];
+    subtreeEnds = new int[size];
+    numberTree();
+
+    int[][] frontierSets = computeFrontiers(ranks);
+    frontierOffsets = new int[size + 1];
+    for (int id = 0; id < size; ++id) {
+      frontierOffsets[id + 1] = frontierOffsets[id] + frontierSets[id].length;
+    }
+    frontiers = new int[frontierOffsets[size]];
+    for (int id = 0; id < size; ++id) {
+      System.arraycopy(frontierSets[id], 0, frontiers, frontierOffsets[id],
+          frontierSets[id].length);
+    }
+  }
+
+  /**
+   * Returns the dominator tree of a graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph.
+   * @return the tree cached on the compact form of cfg. A graph that is
+   *     neither compact nor built by {@link ControlFlowGraphBuilder} has no
+   *     compact form to keep, so its tree is built again on every call.
+   */
+  public static DominatorTree of(ControlFlowGraph cfg) {
+    return CompactControlFlowGraph.of(cfg).getDominatorTree();
+  }
+
+  /**
+   * Returns the post-dominator tree of a graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph.
+   * @return the tree cached on the compact form of cfg. A graph that is
+   *     neither compact nor built by {@link ControlFlowGraphBuilder} has no
+   *     compact form to keep, so its tree is built again on every call.
+   */
+  public static DominatorTree postDominatorsOf(ControlFlowGraph cfg) {
+    return CompactControlFlowGraph.of(cfg).getPostDominatorTree();
+  }
+
+  public CompactControlFlowGraph getControlFlowGraph() {
+    return cfg;
+  }
+
+  public boolean isPostDominatorTree() {
+    return post;
+  }
+
+  /**
+   * Returns the root of the tree.
+   *
+   * @return the id of the start, or of the end for the post-dominator tree.
+   */
+  public int rootId() {
+    return root;
+  }
+
+  /**
+   * Returns the immediate dominator of a statement.
+   *
+   * @requires 0 <= id < getControlFlowGraph().size()
+   *
+   * @param id the id of the statement.
+   * @return the id of its immediate dominator, or -1 if id is the root or
+   *     is not reachable from it.
+   */
+  public int idom(int id) {
+    return idoms[id];
+  }
+
+  /**
+   * Returns the immediate dominator of a statement.
+   *
+   * @param s the statement.
+   * @return its immediate dominator, or null if s is the root, is not
+   *     reachable from it or is not in the graph.
+   */
+  public Statement idom(Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0 || idoms[id] < 0) {
+      return null;
+    }
+    return cfg.statementOf(idoms[id]);
+  }
+
+  /**
+   * Decides if a statement dominates another in constant time. Every
+   * statement in the tree dominates itself.
+   *
+   * @requires 0 <= a, b < getControlFlowGraph().size()
+   *
+   * @param a the id of the dominating statement.
+   * @param b the id of the dominated statement.
+   * @return true if a and b are in the tree and every path from the root
+   *     to b, or from b to the root for post-dominators, goes through a.
+   */
+  public boolean dominates(int a, int b) {
+    return preorder[a] >= 0 && preorder[b] >= preorder[a] && preorder[b] < subtreeEnds[a];
+  }
+
+  /**
+   * Decides if a statement dominates another in constant time.
+   *
+   * @param a the dominating statement.
+   * @param b the dominated statement.
+   * @return false if a or b is not in the graph, else dominates(idOf(a),
+   *     idOf(b)).
+   */
+  public boolean dominates(Statement a, Statement b) {
+    int aid = cfg.idOf(a);
+    int bid = cfg.idOf(b);
+    return aid >= 0 && bid >= 0 && dominates(aid, bid);
+  }
+
+  /**
+   * Decides if a statement dominates another and is not the same statement.
+   *
+   * @requires 0 <= a, b < getControlFlowGraph().size()
+   *
+   * @param a the id of the dominating statement.
+   * @param b the id of the dominated statement.
+   * @return a != b and dominates(a, b).
+   */
+  public boolean strictlyDominates(int a, int b) {
+    return a != b && dominates(a, b);
+  }
+
+  public int childCount(int id) {
+    return childOffsets[id + 1] - childOffsets[id];
+  }
+
+  /**
+   * Returns a statement immediately dominated by a statement.
+   *
+   * @requires 0 <= k < childCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the child.
+   * @return the id of the k-th child, in increasing order of ids.
+   */
+  public int childId(int id, int k) {
+    return children[childOffsets[id] + k];
+  }
+
+  public int frontierCount(int id) {
+    return frontierOffsets[id + 1] - frontierOffsets[id];
+  }
+
+  /**
+   * Returns a statement in the dominance frontier of a statement.
+   *
+   * @requires 0 <= k < frontierCount(id)
+   *
+   * @param id the id of the statement.
+   * @param k the index of the statement in the frontier.
+   * @return the id of the k-th statement of the frontier.
+   */
+  public int frontierId(int id, int k) {
+    return frontiers[frontierOffsets[id] + k];
+  }
+
+  /**
+   * Returns the dominance frontier of a statement.
+   *
+   * @param s the statement.
+   * @return an unmodifiable view of its frontier, empty if s is not in the
+   *     graph.
+   */
+  public Set<Statement> getFrontier(Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return cfg.statementSet(frontiers, 0, 0);
+    }
+    return cfg.statementSet(frontiers, frontierOffsets[id], frontierOffsets[id + 1]);
+  }
+
+  private int inCount(int id) {
+    return post ? cfg.succCount(id) : cfg.predCount(id);
+  }
+
+  private int inId(int id, int k) {
+    return post ? cfg.succId(id, k) : cfg.predId(id, k);
+  }
+
+  private int outCount(int id) {
+    return post ? cfg.predCount(id) : cfg.succCount(id);
+  }
+
+  private int outId(int id, int k) {
+    return post ? cfg.predId(id, k) : cfg.succId(id, k);
+  }
+
+  /**
+   * Searches the graph from the root, along the reversed edges for
+   * post-dominators, with an explicit stack.
+   */
+  private int[] computeReversePostorder() {
+    int size = cfg.size();
+    int[] postorder = new int[size];
+    int count = 0;
+    boolean[] visited = new boolean[size];
+    int[] stack = new int[size];
+    int[] edges = new int[size];
+    int top = 0;
+    stack[0] = root;
+    visited[root] = true;
+    while (top >= 0) {
+      int id = stack[top];
+      if (edges[top] < outCount(id)) {
+        int next = outId(id, edges[top]++);
+        if (!visited[next]) {
+          visited[next] = true;
+          stack[++top] = next;
+          edges[top] = 0;
+        }
+      } else {
+        postorder[count++] = id;
+        top--;
+      }
+    }
+    int[] order = new int[count];
+    for (int k = 0; k < count; ++k) {
+      order[k] = postorder[count - 1 - k];
+    }
+    return order;
+  }
+
+  private int[] computeIdoms(int[] order, int[] ranks) {
+    int[] idoms = new int[cfg.size()];
+    Arrays.fill(idoms, -1);
+    idoms[root] = root;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int id : order) {
+        if (id == root) {
+          continue;
+        }
+        int newIdom = -1;
+        for (int k = 0; k < inCount(id); ++k) {
+          int in = inId(id, k);
+          if (idoms[in] < 0) {
+            continue;
+          }
+          newIdom = newIdom < 0 ? in : intersect(idoms, ranks, in, newIdom);
+        }
+        if (idoms[id] != newIdom) {
+          idoms[id] = newIdom;
+          changed = true;
+        }
+      }
+    }
+    idoms[root] = -1;
+    return idoms;
+  }
+
+  /**
+   * Returns the nearest common dominator of two statements. The deeper of
+   * the two has the larger rank in reverse postorder.
+   */
+  private static int intersect(int[] idoms, int[] ranks, int left, int right) {
+    while (left != right) {
+      while (ranks[left] > ranks[right]) {
+        left = idoms[left];
+      }
+      while (ranks[right] > ranks[left]) {
+        right = idoms[right];
+      }
+    }
+    return left;
+  }
+
+  /**
+   * Numbers the tree in preorder and records, for every statement, the
+   * number after the last one in its subtree. Statements outside the tree
+   * are numbered -1.
+   */
+  private void numberTree() {
+    int size = cfg.size();
+    Arrays.fill(preorder, -1);
+    int[] stack = new int[size];
+    int[] next = new int[size];
+    int top = 0;
+    int count = 0;
+    stack[0] = root;
+    preorder[root] = count++;
+    while (top >= 0) {
+      int id = stack[top];
+      if (next[top] < childCount(id)) {
+        int child = childId(id, next[top]++);
+        preorder[child] = count++;
+        stack[++top] = child;
+        next[top] = 0;
+      } else {
+        subtreeEnds[id] = count;
+        top--;
+      }
+    }
+  }
+
+  private int[][] computeFrontiers(int[] ranks) {
+    int size = cfg.size();
+    int[][] frontierSets = new int[size][];
+    int[] frontierSizes = new int[size];
+    int[] lastAdded = new int[size];
+    Arrays.fill(lastAdded, -1);
+    for (int id = 0; id < size; ++id) {
+      frontierSets[id] = new int[0];
+    }
+    for (int id = 0; id < size; ++id) {
+      boolean isJoin = id == root ? inCount(id) > 0 : inCount(id) > 1;
+      if (!isJoin || ranks[id] < 0) {
+        continue;
+      }
+      for (int k = 0; k < inCount(id); ++k) {
+        int in = inId(id, k);
+        if (ranks[in] < 0) {
+          continue;
+        }
+        for (int runner = in; runner != idoms[id]; runner = idoms[runner]) {
+          if (lastAdded[runner] == id) {
+            break;
+          }
+          lastAdded[runner] = id;
+          if (frontierSizes[runner] == frontierSets[runner].length) {
+            frontierSets[runner] = Arrays.copyOf(frontierSets[runner],
+                Math.max(2, 2 * frontierSizes[runner]));
+          }
+          frontierSets[runner][frontierSizes[runner]++] = id;
+        }
+      }
+    }
+    for (int id = 0; id < size; ++id) {
+      frontierSets[id] = Arrays.copyOf(frontierSets[id], frontierSizes[id]);
+    }
+    return frontierSets;
+  }
+}
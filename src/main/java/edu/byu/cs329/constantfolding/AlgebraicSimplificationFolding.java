@@ -0,0 +1,318 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+
+/**
+ * Simplifies algebraic identities where one operand is not a literal.
+ *
+ * <p>The identities are {@code x + 0}, {@code x - 0}, {@code x * 1},
+ * {@code x * 0}, {@code x - x}, {@code b && true}, {@code b && false},
+ * {@code b || false}, {@code b || true} and {@code !!b}, in either order
+ * and anywhere in a chain of extended operands. The arithmetic identities
+ * hold only when every operand is an int, or every operand is a long, since
+ * otherwise removing an operand changes the type of the expression, e.g.,
+ * {@code c + 0} is an int for a char {@code c}. The types come from
+ * {@link ExpressionTypes}. An operand is dropped only if evaluating it has
+ * no effect, or if Java would not evaluate it because of short circuiting.
+ *
+ * <p>The operand that is kept is moved rather than copied, so a name in it
+ * is the same node before and after the simplification.
+ */
+public class AlgebraicSimplificationFolding implements Folding {
+
+  class Visitor extends ASTVisitor {
+    boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
+
+    @Override
+    public void endVisit(InfixExpression node) {
+      didFold = foldNode(node, rewriter) || didFold;
+    }
+
+    @Override
+    public void endVisit(PrefixExpression node) {
+      didFold = foldNode(node, rewriter) || didFold;
+    }
+  }
+
+  /**
+   * Simplifies an infix expression with an identity or absorbing operand.
+   *
+   * @param node the infix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is rewritten.
+   */
+  static boolean foldNode(InfixExpression node, FoldingRewriter rewriter) {
+    InfixExpression.Operator operator = node.getOperator();
+    List<Expression> operands = ExpressionTypes.getOperands(node);
+    if (operator == InfixExpression.Operator.PLUS) {
+      return removeOperands(node, operands, 0, 0, rewriter);
+    }
+    if (operator == InfixExpression.Operator.MINUS) {
+      return removeOperands(node, operands, 1, 0, rewriter)
+          || foldSelfSubtraction(node, operands, rewriter);
+    }
+    if (operator == InfixExpression.Operator.TIMES) {
+      return foldAbsorbing(node, operands, rewriter)
+          || removeOperands(node, operands, 0, 1, rewriter);
+    }
+    if (operator == InfixExpression.Operator.CONDITIONAL_AND) {
+      return foldShortCircuit(node, operands, false, rewriter)
+          || removeOperands(node, operands, true, rewriter);
+    }
+    if (operator == InfixExpression.Operator.CONDITIONAL_OR) {
+      return foldShortCircuit(node, operands, true, rewriter)
+          || removeOperands(node, operands, false, rewriter);
+    }
+    return false;
+  }
+
+  /**
+   * Replaces a double negation of a boolean with the boolean.
+   *
+   * @param node the prefix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(PrefixExpression node, FoldingRewriter rewriter) {
+    if (node.getOperator() != PrefixExpression.Operator.NOT) {
+      return false;
+    }
+    Expression operand = node.getOperand();
+    while (operand instanceof ParenthesizedExpression) {
+      operand = ((ParenthesizedExpression) operand).getExpression();
+    }
+    if (!(operand instanceof PrefixExpression)
+        || ((PrefixExpression) operand).getOperator() != PrefixExpression.Operator.NOT) {
+      return false;
+    }
+    Expression negated = ((PrefixExpression) operand).getOperand();
+    if (ExpressionTypes.typeOf(negated) != PrimitiveType.BOOLEAN) {
+      return false;
+    }
+    rewriter.replaceWithDescendant(node, negated);
+    return true;
+  }
+
+  /**
+   * Simplifies the identities and absorbing elements in the tree.
+   *
+   * <p>top := all nodes reachable from root such that each node is an
+   *           infix expression with an identity or absorbing operand as
+   *           described above, or a double negation of a boolean
+   *
+   * @modifies nodes in top and in parents of old(top)
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   *
+   * @ensures fold(root) == (old(top) != emptyset)
+   * @ensures forall n in old(top), the expression in place of n has the
+   *          type and value of n, and evaluates the operands of n that
+   *          have effects in the same order
+   *
+   * @param root the root of the tree to traverse.
+   * @return true if any expression was simplified in the rooted tree
+   */
+  @Override
+  public boolean fold(final ASTNode root) {
+    checkRequires(root);
+    Visitor visitor = new Visitor();
+    root.accept(visitor);
+    return visitor.didFold;
+  }
+
+  /**
+   * Removes the int or long operands equal to an identity, at or after an
+   * index, from an arithmetic expression of one type.
+   */
+  private static boolean removeOperands(InfixExpression node, List<Expression> operands,
+      int first, long identity, FoldingRewriter rewriter) {
+    List<Expression> kept = new ArrayList<Expression>();
+    for (int i = 0; i < operands.size(); ++i) {
+      if (i < first || !isIntegralLiteral(operands.get(i), identity)) {
+        kept.add(operands.get(i));
+      }
+    }
+    if (kept.size() == operands.size() || getIntegralType(operands) == null) {
+      return false;
+    }
+    return setOperands(node, kept, operands, rewriter);
+  }
+
+  /**
+   * Removes the boolean operands equal to an identity from a conditional
+   * expression on booleans.
+   */
+  private static boolean removeOperands(InfixExpression node, List<Expression> operands,
+      boolean identity, FoldingRewriter rewriter) {
+    List<Expression> kept = new ArrayList<Expression>();
+    for (Expression operand : operands) {
+      if (!isBooleanLiteral(operand, identity)) {
+        kept.add(operand);
+      }
+    }
+    if (kept.size() == operands.size() || !isBoolean(operands)) {
+      return false;
+    }
+    return setOperands(node, kept, operands, rewriter);
+  }
+
+  /**
+   * Replaces a product with a zero operand by the zero when no operand has
+   * an effect.
+   */
+  private static boolean foldAbsorbing(InfixExpression node, List<Expression> operands,
+      FoldingRewriter rewriter) {
+    for (Expression operand : operands) {
+      if (isIntegralLiteral(operand, 0)) {
+        if (getIntegralType(operands) == null || !arePure(operands, operands.size())) {
+          return false;
+        }
+        rewriter.replaceWithDescendant(node, operand);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Replaces a conditional expression by the first operand that decides it
+   * when no operand before it has an effect. The operands after it are
+   * never evaluated.
+   */
+  private static boolean foldShortCircuit(InfixExpression node, List<Expression> operands,
+      boolean decisive, FoldingRewriter rewriter) {
+    for (int i = 0; i < operands.size(); ++i) {
+      if (isBooleanLiteral(operands.get(i), decisive)) {
+        if (!isBoolean(operands) || !arePure(operands, i)) {
+          return false;
+        }
+        rewriter.replaceWithDescendant(node, operands.get(i));
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Replaces {@code x - x} by zero when {@code x} has no effect.
+   */
+  private static boolean foldSelfSubtraction(InfixExpression node, List<Expression> operands,
+      FoldingRewriter rewriter) {
+    if (operands.size() != 2
+        || !operands.get(0).subtreeMatch(new ASTMatcher(), operands.get(1))
+        || !ExpressionTypes.isPure(operands.get(0))) {
+      return false;
+    }
+    PrimitiveType.Code type = getIntegralType(operands);
+    if (type == null) {
+      return false;
+    }
+    AST ast = node.getAST();
+    ConstantValue zero = type == PrimitiveType.LONG
+        ? ConstantValue.ofLong(0) : ConstantValue.ofInt(0);
+    rewriter.replace(node, zero.toExpression(ast));
+    return true;
+  }
+
+  /**
+   * Keeps some of the operands of an infix expression. A single operand
+   * replaces the expression.
+   */
+  private static boolean setOperands(InfixExpression node, List<Expression> kept,
+      List<Expression> operands, FoldingRewriter rewriter) {
+    if (kept.isEmpty()) {
+      kept.add(operands.get(0));
+    }
+    if (kept.size() == 1) {
+      rewriter.replaceWithDescendant(node, kept.get(0));
+      return true;
+    }
+    AST ast = node.getAST();
+    List<Expression> extendedOperands = getExpressionList(node.extendedOperands());
+    extendedOperands.clear();
+    node.setLeftOperand(ast.newNullLiteral());
+    node.setRightOperand(ast.newNullLiteral());
+    node.setLeftOperand(kept.get(0));
+    node.setRightOperand(kept.get(1));
+    extendedOperands.addAll(kept.subList(2, kept.size()));
+    rewriter.markDirty(node);
+    return true;
+  }
+
+  /**
+   * Returns int if every operand is an int, long if every operand is a
+   * long, and null otherwise.
+   */
+  private static PrimitiveType.Code getIntegralType(List<Expression> operands) {
+    PrimitiveType.Code type = ExpressionTypes.typeOf(operands.get(0));
+    if (type != PrimitiveType.INT && type != PrimitiveType.LONG) {
+      return null;
+    }
+    for (Expression operand : operands) {
+      if (ExpressionTypes.typeOf(operand) != type) {
+        return null;
+      }
+    }
+    return type;
+  }
+
+  private static boolean isBoolean(List<Expression> operands) {
+    for (Expression operand : operands) {
+      if (ExpressionTypes.typeOf(operand) != PrimitiveType.BOOLEAN) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean arePure(List<Expression> operands, int end) {
+    for (int i = 0; i < end; ++i) {
+      if (!ExpressionTypes.isPure(operands.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isIntegralLiteral(Expression exp, long value) {
+    ConstantValue constant = ConstantValue.of(exp);
+    return (constant.getKind() == ConstantValue.Kind.INT
+        || constant.getKind() == ConstantValue.Kind.LONG)
+        && constant.longValue() == value;
+  }
+
+  private static boolean isBooleanLiteral(Expression exp, boolean value) {
+    ConstantValue constant = ConstantValue.of(exp);
+    return constant.getKind() == ConstantValue.Kind.BOOLEAN && constant.booleanValue() == value;
+  }
+
+  private static List<Expression> getExpressionList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<Expression> expressionList = (List<Expression>) (list);
+    return expressionList;
+  }
+
+  private void checkRequires(final ASTNode root) {
+    ExceptionUtils.requiresNonNull(root,
+        "Null root passed to AlgebraicSimplificationFolding.fold");
+
+    if (!(root instanceof CompilationUnit) && root.getParent() == null) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-CompilationUnit root with no parent passed to AlgebraicSimplificationFolding.fold");
+    }
+  }
+}
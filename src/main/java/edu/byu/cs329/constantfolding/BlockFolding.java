@@ -1,9 +1,8 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.ArrayList;
 import java.util.List;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Block;
@@ -17,42 +16,71 @@ public class BlockFolding implements Folding {
   
   class Visitor extends ASTVisitor {
     boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
     
     @Override
     public void endVisit(Block node) {
-      List<Statement> statements = getStatementList(node.statements());
-      AST ast = node.getAST();
-      Block block  = ast.newBlock();
-      List<Statement> newStatements = getStatementList(block.statements());
-      for (Statement statement : statements) {
-        addStatements(statement, newStatements);
-      }
-      TreeModificationUtils.replaceChildInParent(node, block);
+      didFold = foldNode(node, rewriter) || didFold;
     }
+  }
 
-    private void addStatements(Statement statement, List<Statement> newStatements) {
-      AST ast = statement.getAST();
-      if (!(statement instanceof Block)) {
-        Statement newStatement = (Statement) (ASTNode.copySubtree(ast, statement));
-        newStatements.add(newStatement);
-        return;
+  /**
+   * Replaces each block that is a statement of a block with its statements.
+   *
+   * <p>The statements are moved, not copied, and the block itself stays in
+   * the tree and is marked dirty. A block without nested blocks is not
+   * touched.
+   *
+   * @param node the block.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node had nested blocks.
+   */
+  static boolean foldNode(Block node, FoldingRewriter rewriter) {
+    List<Statement> statements = getStatementList(node.statements());
+    if (!containsBlock(statements)) {
+      return false;
+    }
+    List<Statement> flattened = new ArrayList<Statement>(statements.size());
+    for (Statement statement : statements) {
+      if (statement instanceof Block) {
+        List<Statement> statementsInBlock = getStatementList(((Block) statement).statements());
+        flattened.addAll(statementsInBlock);
+        clear(statementsInBlock);
+      } else {
+        flattened.add(statement);
       }
-      didFold = true;
-      Block block = (Block) statement;
-      List<Statement> statements = getStatementList(block.statements());
-      for (Statement statementInBlock : statements) {
-        Statement newStatement = (Statement) (ASTNode.copySubtree(ast, statementInBlock));
-        newStatements.add(newStatement);
+    }
+    clear(statements);
+    statements.addAll(flattened);
+    rewriter.markDirty(node);
+    return true;
+  }
+
+  private static boolean containsBlock(List<Statement> statements) {
+    for (Statement statement : statements) {
+      if (statement instanceof Block) {
+        return true;
       }
     }
+    return false;
+  }
 
-    private List<Statement> getStatementList(Object list) {
-      @SuppressWarnings("unchecked")
-      List<Statement> statementList = (List<Statement>) (list);
-      return statementList;
+  /**
+   * Removes the statements of a list from the end so that no statement is
+   * shifted and each one is detached from its parent.
+   */
+  private static void clear(List<Statement> statements) {
+    for (int i = statements.size() - 1; i >= 0; --i) {
+      statements.remove(i);
     }
   }
 
+  private static List<Statement> getStatementList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<Statement> statementList = (List<Statement>) (list);
+    return statementList;
+  }
+
   /**
    * Folds block when parent is a Block
    * 
@@ -0,0 +1,171 @@
+package edu.byu.cs329.constantfolding;
+
+import java.util.List;
+import java.util.function.Function;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CastExpression;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+/**
+ * Evaluation of expressions whose names have known constant values.
+ *
+ * <p>The operators have the semantics of {@link OperatorTable}. A value
+ * stored in a variable is converted to the declared type of the variable as
+ * by a cast, so e.g. a long variable assigned {@code 5} holds {@code 5L}.
+ * Only int, long, char and boolean variables hold constants.
+ */
+public final class ConstantEvaluator {
+
+  private ConstantEvaluator() {
+  }
+
+  /**
+   * Fills the caches that evaluation keeps on the nodes of a tree: the value
+   * of every literal and the declared types of the locals of every method.
+   * Evaluating the expressions of the tree afterwards only reads it, so the
+   * methods of one tree may be evaluated at the same time.
+   *
+   * @requires root != null
+   *
+   * @param root the root of the tree.
+   */
+  public static void cacheProperties(ASTNode root) {
+    root.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(MethodDeclaration node) {
+        ExpressionTypes.getLocalTypes(node);
+        return true;
+      }
+
+      @Override
+      public boolean visit(NumberLiteral node) {
+        ConstantValue.of(node);
+        return false;
+      }
+
+      @Override
+      public boolean visit(BooleanLiteral node) {
+        ConstantValue.of(node);
+        return false;
+      }
+
+      @Override
+      public boolean visit(CharacterLiteral node) {
+        ConstantValue.of(node);
+        return false;
+      }
+    });
+  }
+
+  /**
+   * Evaluates an expression.
+   *
+   * @requires lookup != null
+   *
+   * @param exp the expression.
+   * @param lookup the value of each name, NOT_CONSTANT if it is unknown.
+   * @return the value of exp, or NOT_CONSTANT if it is not constant.
+   */
+  public static ConstantValue evaluate(Expression exp, Function<SimpleName, ConstantValue> lookup) {
+    if (exp instanceof SimpleName) {
+      return lookup.apply((SimpleName) exp);
+    }
+    if (exp instanceof ParenthesizedExpression) {
+      return evaluate(((ParenthesizedExpression) exp).getExpression(), lookup);
+    }
+    if (exp instanceof CastExpression) {
+      CastExpression cast = (CastExpression) exp;
+      if (!(cast.getType() instanceof PrimitiveType)) {
+        return ConstantValue.NOT_CONSTANT;
+      }
+      return cast(evaluate(cast.getExpression(), lookup),
+          ((PrimitiveType) cast.getType()).getPrimitiveTypeCode());
+    }
+    if (exp instanceof PrefixExpression) {
+      PrefixExpression prefix = (PrefixExpression) exp;
+      return orNotConstant(OperatorTable.get(prefix.getOperator())
+          .apply(evaluate(prefix.getOperand(), lookup)));
+    }
+    if (exp instanceof InfixExpression) {
+      InfixExpression infix = (InfixExpression) exp;
+      List<Expression> operands = ExpressionTypes.getOperands(infix);
+      OperatorTable.BinaryEvaluator evaluator = OperatorTable.get(infix.getOperator());
+      ConstantValue value = evaluate(operands.get(0), lookup);
+      for (int i = 1; value != null && i < operands.size(); ++i) {
+        value = evaluator.apply(value, evaluate(operands.get(i), lookup));
+      }
+      return orNotConstant(value);
+    }
+    return ConstantValue.of(exp);
+  }
+
+  /**
+   * Returns the value a variable holds after an assignment.
+   *
+   * @requires variable != null
+   * @requires operator != Assignment.Operator.ASSIGN ==> current != null
+   *
+   * @param variable the assigned name.
+   * @param operator the assignment operator, e.g., {@code +=}.
+   * @param current the value of the variable before the assignment.
+   * @param value the value of the right hand side.
+   * @return the new value, or NOT_CONSTANT if it is not constant.
+   */
+  public static ConstantValue assign(SimpleName variable, Assignment.Operator operator,
+      ConstantValue current, ConstantValue value) {
+    if (operator != Assignment.Operator.ASSIGN) {
+      value = orNotConstant(OperatorTable.get(getInfixOperator(operator)).apply(current, value));
+    }
+    return cast(value, ExpressionTypes.typeOf(variable));
+  }
+
+  /**
+   * Converts a value to a primitive type as a cast does.
+   *
+   * @param value the value.
+   * @param type the type, or null if it is not known.
+   * @return the converted value, or NOT_CONSTANT if the type does not hold
+   *     constants or the value does not convert to it.
+   */
+  static ConstantValue cast(ConstantValue value, PrimitiveType.Code type) {
+    ConstantValue.Kind kind = value.getKind();
+    boolean integral = kind == ConstantValue.Kind.INT || kind == ConstantValue.Kind.LONG
+        || kind == ConstantValue.Kind.CHAR;
+    if (type == PrimitiveType.BOOLEAN && kind == ConstantValue.Kind.BOOLEAN) {
+      return value;
+    }
+    if (!integral) {
+      return ConstantValue.NOT_CONSTANT;
+    }
+    if (type == PrimitiveType.INT) {
+      return ConstantValue.ofInt((int) value.longValue());
+    }
+    if (type == PrimitiveType.LONG) {
+      return ConstantValue.ofLong(value.longValue());
+    }
+    if (type == PrimitiveType.CHAR) {
+      return ConstantValue.ofChar((char) value.longValue());
+    }
+    return ConstantValue.NOT_CONSTANT;
+  }
+
+  private static ConstantValue orNotConstant(ConstantValue value) {
+    return value == null ? ConstantValue.NOT_CONSTANT : value;
+  }
+
+  private static InfixExpression.Operator getInfixOperator(Assignment.Operator operator) {
+    String token = operator.toString();
+    return InfixExpression.Operator.toOperator(token.substring(0, token.length() - 1));
+  }
+}
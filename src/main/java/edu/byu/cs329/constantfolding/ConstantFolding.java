@@ -3,8 +3,10 @@ package edu.byu.cs329.constantfolding;
 import edu.byu.cs329.utils.JavaSourceUtils;
 import java.io.File;
 import java.io.PrintWriter;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,38 +24,61 @@ public class ConstantFolding {
   /**
    * Performs constant folding.
    *
+   * <p>All of the foldings are applied together by {@link FusedFolding}. The
+   * first traversal visits the whole tree, and every later traversal visits
+   * only the statements the one before it rewrote, until nothing folds.
+   *
    * @requires root != null
    * @requires (root instanceof CompilationUnit) \/ parent(root) != null
    * 
    * @ensures forall fold in specification in BlockFolding, ParenthesizedExpressoinFolding,
-   *          NegationPrefixExpressionFolding, PlusInfixExpressionFolding, 
-   *          LessThanInfixExpressionFolding, IfStatementFolding
+   *          OperatorExpressionFolding, AlgebraicSimplificationFolding,
+   *          IfStatementFolding
    *          :: fold is completed
    *
    * @param compilationUnit ASTNode for the compliation unit. 
    * @return The root ASTNode for the constant folded version of the input.
    */
   public static ASTNode fold(ASTNode compilationUnit) {
-    boolean isChanged = true;
-    List<Folding> foldingList = List.of(
-        new BlockFolding(),
-        new ParenthesizedExpressionFolding(),
-        new NegationPrefixExpressionFolding(),
-        new PlusInfixExpressionFolding(),
-        new LessThanInfixExpressionFolding(),
-        new IfStatementFolding()
-    );
-  
-    while (isChanged == true) {
-      isChanged = false;
-      for (Folding folding : foldingList) {
-        isChanged = isChanged || folding.fold(compilationUnit);
-      }
-    } 
+    FusedFolding folding = new FusedFolding();
+    if (folding.fold(compilationUnit)) {
+      foldRegions(compilationUnit, folding.getDirtyStatements());
+    }
 
     return compilationUnit;
   }
 
+  /**
+   * Performs constant folding on some statements of a tree, e.g., the
+   * statements where constant propagation replaced names with literals.
+   *
+   * <p>The statements are folded, then the statements rewritten by that fold,
+   * and so on until nothing folds.
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   * @requires regions != null
+   * @requires every region in the tree of root is a descendant of root
+   *
+   * @ensures the regions and everything the folding of them rewrites are
+   *          folded as by fold
+   *
+   * @param root the root of the tree the statements are in.
+   * @param regions the statements to fold.
+   * @return the statements rewritten by folding, some of which may have been
+   *     replaced by later rewrites.
+   */
+  public static Set<Statement> foldRegions(ASTNode root, Set<Statement> regions) {
+    FusedFolding folding = new FusedFolding();
+    Set<Statement> rewritten = new LinkedHashSet<Statement>();
+    Set<Statement> dirty = regions;
+    while (folding.foldRegions(root, dirty)) {
+      dirty = folding.getDirtyStatements();
+      rewritten.addAll(dirty);
+    }
+    return rewritten;
+  }
+
   /**
    * Performs constant folding an a Java file.
    *
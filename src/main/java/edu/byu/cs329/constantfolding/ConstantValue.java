@@ -0,0 +1,308 @@
+package edu.byu.cs329.constantfolding;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+
+/**
+ * The value of a constant expression.
+ *
+ * <p>The value of a literal is computed the first time it is asked for and
+ * cached on the literal node, so the token of a literal is parsed at most
+ * once no matter how many foldings and propagations look at it. Every
+ * literal created by {@link #toExpression(AST)} is cached as it is created.
+ * Any expression that is not a literal of a primitive type is
+ * {@link #NOT_CONSTANT}.
+ *
+ * <p>Number literals may be decimal, hexadecimal, octal or binary, may have
+ * underscores, and may have a sign from an earlier fold. A literal outside
+ * the range of its type is not constant.
+ */
+public final class ConstantValue {
+
+  /**
+   * The type of a constant.
+   */
+  public enum Kind {
+    INT, LONG, FLOAT, DOUBLE, BOOLEAN, CHAR, NOT_CONSTANT
+  }
+
+  /** The value of every expression that is not constant. */
+  public static final ConstantValue NOT_CONSTANT = new ConstantValue(Kind.NOT_CONSTANT, 0, 0);
+
+  private static final ConstantValue TRUE = new ConstantValue(Kind.BOOLEAN, 1, 0);
+  private static final ConstantValue FALSE = new ConstantValue(Kind.BOOLEAN, 0, 0);
+
+  static final String PROPERTY = "edu.byu.cs329.constantfolding.ConstantValue";
+
+  private final Kind kind;
+  private final long bits;
+  private final double real;
+
+  private ConstantValue(Kind kind, long bits, double real) {
+    this.kind = kind;
+    this.bits = bits;
+    this.real = real;
+  }
+
+  public static ConstantValue ofInt(int value) {
+    return new ConstantValue(Kind.INT, value, 0);
+  }
+
+  public static ConstantValue ofLong(long value) {
+    return new ConstantValue(Kind.LONG, value, 0);
+  }
+
+  public static ConstantValue ofFloat(float value) {
+    return new ConstantValue(Kind.FLOAT, 0, value);
+  }
+
+  public static ConstantValue ofDouble(double value) {
+    return new ConstantValue(Kind.DOUBLE, 0, value);
+  }
+
+  public static ConstantValue ofBoolean(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  public static ConstantValue ofChar(char value) {
+    return new ConstantValue(Kind.CHAR, value, 0);
+  }
+
+  /**
+   * Returns the value of an expression.
+   *
+   * @param exp the expression, may be null.
+   * @return the value of the literal, or NOT_CONSTANT if exp is not a
+   *     literal of a primitive type.
+   */
+  public static ConstantValue of(Expression exp) {
+    if (!(exp instanceof NumberLiteral || exp instanceof BooleanLiteral
+        || exp instanceof CharacterLiteral)) {
+      return NOT_CONSTANT;
+    }
+    ConstantValue value = (ConstantValue) exp.getProperty(PROPERTY);
+    if (value == null) {
+      value = compute(exp);
+      exp.setProperty(PROPERTY, value);
+    }
+    return value;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public boolean isConstant() {
+    return kind != Kind.NOT_CONSTANT;
+  }
+
+  /**
+   * Returns the value as an int.
+   *
+   * @requires kind == INT \/ kind == CHAR
+   *
+   * @return the value.
+   */
+  public int intValue() {
+    return (int) bits;
+  }
+
+  /**
+   * Returns the value as a long.
+   *
+   * @requires kind == INT \/ kind == LONG \/ kind == CHAR
+   *
+   * @return the value.
+   */
+  public long longValue() {
+    return bits;
+  }
+
+  /**
+   * Returns the value as a double.
+   *
+   * @requires kind == FLOAT \/ kind == DOUBLE
+   *
+   * @return the value.
+   */
+  public double doubleValue() {
+    return real;
+  }
+
+  /**
+   * Returns the value as a boolean.
+   *
+   * @requires kind == BOOLEAN
+   *
+   * @return the value.
+   */
+  public boolean booleanValue() {
+    return bits != 0;
+  }
+
+  /**
+   * Returns the value as a char.
+   *
+   * @requires kind == CHAR
+   *
+   * @return the value.
+   */
+  public char charValue() {
+    return (char) bits;
+  }
+
+  /**
+   * Creates a literal with this value and caches the value on it.
+   *
+   * @requires isConstant()
+   * @requires kind is FLOAT or DOUBLE ==> the value is finite
+   *
+   * @param ast the AST to create the literal in.
+   * @return the new literal.
+   */
+  public Expression toExpression(AST ast) {
+    Expression literal;
+    switch (kind) {
+      case BOOLEAN:
+        literal = ast.newBooleanLiteral(booleanValue());
+        break;
+      case CHAR:
+        CharacterLiteral characterLiteral = ast.newCharacterLiteral();
+        characterLiteral.setCharValue(charValue());
+        literal = characterLiteral;
+        break;
+      case LONG:
+        literal = ast.newNumberLiteral(Long.toString(bits) + "L");
+        break;
+      case FLOAT:
+        literal = ast.newNumberLiteral(Float.toString((float) real) + "F");
+        break;
+      case DOUBLE:
+        literal = ast.newNumberLiteral(Double.toString(real));
+        break;
+      default:
+        literal = ast.newNumberLiteral(Integer.toString(intValue()));
+        break;
+    }
+    literal.setProperty(PROPERTY, this);
+    return literal;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ConstantValue)) {
+      return false;
+    }
+    ConstantValue other = (ConstantValue) obj;
+    return kind == other.kind && bits == other.bits
+        && Double.doubleToLongBits(real) == Double.doubleToLongBits(other.real);
+  }
+
+  @Override
+  public int hashCode() {
+    return kind.hashCode() * 31 + Long.hashCode(bits) + Double.hashCode(real);
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case BOOLEAN:
+        return Boolean.toString(booleanValue());
+      case CHAR:
+        return "'" + charValue() + "'";
+      case FLOAT:
+      case DOUBLE:
+        return kind + " " + real;
+      default:
+        return kind + " " + bits;
+    }
+  }
+
+  private static ConstantValue compute(Expression exp) {
+    if (exp instanceof BooleanLiteral) {
+      return ofBoolean(((BooleanLiteral) exp).booleanValue());
+    }
+    if (exp instanceof CharacterLiteral) {
+      try {
+        return ofChar(((CharacterLiteral) exp).charValue());
+      } catch (IllegalArgumentException e) {
+        return NOT_CONSTANT;
+      }
+    }
+    try {
+      return parseNumber(((NumberLiteral) exp).getToken());
+    } catch (NumberFormatException e) {
+      return NOT_CONSTANT;
+    }
+  }
+
+  /**
+   * Parses the token of a number literal.
+   *
+   * @param token the token, possibly with a leading minus sign.
+   * @return the value of the token.
+   * @throws NumberFormatException if the token is not a literal in range.
+   */
+  static ConstantValue parseNumber(String token) {
+    String text = token.replace("_", "");
+    boolean isNegative = text.startsWith("-");
+    if (isNegative) {
+      text = text.substring(1);
+    }
+    String lower = text.toLowerCase();
+    boolean isHex = lower.startsWith("0x");
+
+    if (!isHex && (lower.endsWith("f") || lower.endsWith("d")
+        || lower.contains(".") || lower.contains("e"))
+        || isHex && lower.contains("p")) {
+      return parseReal(text, isNegative);
+    }
+
+    boolean isLong = lower.endsWith("l");
+    if (isLong) {
+      lower = lower.substring(0, lower.length() - 1);
+    }
+    int radix = 10;
+    String digits = lower;
+    if (isHex) {
+      radix = 16;
+      digits = lower.substring(2);
+    } else if (lower.startsWith("0b")) {
+      radix = 2;
+      digits = lower.substring(2);
+    } else if (lower.length() > 1 && lower.startsWith("0")) {
+      radix = 8;
+      digits = lower.substring(1);
+    }
+
+    if (radix == 10) {
+      String signed = isNegative ? "-" + digits : digits;
+      return isLong ? ofLong(Long.parseLong(signed)) : ofInt(Integer.parseInt(signed));
+    }
+    if (isLong) {
+      long value = Long.parseUnsignedLong(digits, radix);
+      return ofLong(isNegative ? -value : value);
+    }
+    int value = Integer.parseUnsignedInt(digits, radix);
+    return ofInt(isNegative ? -value : value);
+  }
+
+  private static ConstantValue parseReal(String text, boolean isNegative) {
+    String signed = isNegative ? "-" + text : text;
+    if (text.toLowerCase().endsWith("f")) {
+      float value = Float.parseFloat(signed);
+      if (Float.isInfinite(value)) {
+        throw new NumberFormatException("Float literal out of range: " + text);
+      }
+      return ofFloat(value);
+    }
+    double value = Double.parseDouble(signed);
+    if (Double.isInfinite(value)) {
+      throw new NumberFormatException("Double literal out of range: " + text);
+    }
+    return ofDouble(value);
+  }
+}
@@ -0,0 +1,372 @@
+package edu.byu.cs329.constantfolding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CastExpression;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NullLiteral;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.ThisExpression;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+/**
+ * Primitive types and purity of expressions without bindings.
+ *
+ * <p>The type of a name comes from the declarations of its identifier in
+ * the enclosing methods and then in the fields of the enclosing classes.
+ * A name declared with different types, or with a type that is not
+ * primitive, has no known type. The declarations of a method are collected
+ * once and cached on the method.
+ */
+final class ExpressionTypes {
+  static final String PROPERTY = "edu.byu.cs329.constantfolding.ExpressionTypes";
+
+  private ExpressionTypes() {
+  }
+
+  /**
+   * Returns the primitive type of an expression.
+   *
+   * @param exp the expression.
+   * @return the type, or null if it is not known to be primitive.
+   */
+  static PrimitiveType.Code typeOf(Expression exp) {
+    if (exp instanceof NumberLiteral || exp instanceof BooleanLiteral
+        || exp instanceof CharacterLiteral) {
+      return literalType(ConstantValue.of(exp));
+    }
+    if (exp instanceof SimpleName) {
+      return declaredType((SimpleName) exp);
+    }
+    if (exp instanceof ParenthesizedExpression) {
+      return typeOf(((ParenthesizedExpression) exp).getExpression());
+    }
+    if (exp instanceof Assignment) {
+      return typeOf(((Assignment) exp).getLeftHandSide());
+    }
+    if (exp instanceof PostfixExpression) {
+      return typeOf(((PostfixExpression) exp).getOperand());
+    }
+    if (exp instanceof CastExpression) {
+      return primitiveCode(((CastExpression) exp).getType());
+    }
+    if (exp instanceof PrefixExpression) {
+      return prefixType((PrefixExpression) exp);
+    }
+    if (exp instanceof InfixExpression) {
+      return infixType((InfixExpression) exp);
+    }
+    return null;
+  }
+
+  /**
+   * Returns the type of an expression after unary numeric promotion, which
+   * is also the type of a shift with the expression as its left operand.
+   *
+   * @param exp the expression.
+   * @return int, long, float or double, or null if it is not numeric.
+   */
+  static PrimitiveType.Code promotedTypeOf(Expression exp) {
+    return promote(typeOf(exp), PrimitiveType.INT);
+  }
+
+  /**
+   * Decides if evaluating an expression can have no effect: it cannot
+   * assign, call, allocate or throw.
+   *
+   * @param exp the expression.
+   * @return true if removing the expression cannot change the program.
+   */
+  static boolean isPure(Expression exp) {
+    if (exp instanceof NumberLiteral || exp instanceof BooleanLiteral
+        || exp instanceof CharacterLiteral || exp instanceof StringLiteral
+        || exp instanceof NullLiteral || exp instanceof ThisExpression
+        || exp instanceof SimpleName) {
+      return true;
+    }
+    if (exp instanceof ParenthesizedExpression) {
+      return isPure(((ParenthesizedExpression) exp).getExpression());
+    }
+    if (exp instanceof PrefixExpression) {
+      PrefixExpression.Operator operator = ((PrefixExpression) exp).getOperator();
+      return operator != PrefixExpression.Operator.INCREMENT
+          && operator != PrefixExpression.Operator.DECREMENT
+          && typeOf(exp) != null
+          && isPure(((PrefixExpression) exp).getOperand());
+    }
+    if (exp instanceof InfixExpression) {
+      InfixExpression infix = (InfixExpression) exp;
+      // string concatenation may call toString and division may throw
+      if (infixType(infix) == null
+          || infix.getOperator() == InfixExpression.Operator.DIVIDE
+          || infix.getOperator() == InfixExpression.Operator.REMAINDER) {
+        return false;
+      }
+      for (Expression operand : getOperands(infix)) {
+        if (!isPure(operand)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the operands of an infix expression in order.
+   *
+   * @param node the infix expression.
+   * @return the left, right and extended operands.
+   */
+  static List<Expression> getOperands(InfixExpression node) {
+    List<Expression> operands = new ArrayList<Expression>();
+    operands.add(node.getLeftOperand());
+    operands.add(node.getRightOperand());
+    @SuppressWarnings("unchecked")
+    List<Expression> extendedOperands = node.extendedOperands();
+    operands.addAll(extendedOperands);
+    return operands;
+  }
+
+  private static PrimitiveType.Code literalType(ConstantValue value) {
+    switch (value.getKind()) {
+      case INT:
+        return PrimitiveType.INT;
+      case LONG:
+        return PrimitiveType.LONG;
+      case FLOAT:
+        return PrimitiveType.FLOAT;
+      case DOUBLE:
+        return PrimitiveType.DOUBLE;
+      case BOOLEAN:
+        return PrimitiveType.BOOLEAN;
+      case CHAR:
+        return PrimitiveType.CHAR;
+      default:
+        return null;
+    }
+  }
+
+  private static PrimitiveType.Code prefixType(PrefixExpression node) {
+    PrefixExpression.Operator operator = node.getOperator();
+    PrimitiveType.Code operandType = typeOf(node.getOperand());
+    if (operator == PrefixExpression.Operator.NOT) {
+      return operandType == PrimitiveType.BOOLEAN ? PrimitiveType.BOOLEAN : null;
+    }
+    if (operator == PrefixExpression.Operator.INCREMENT
+        || operator == PrefixExpression.Operator.DECREMENT) {
+      return operandType;
+    }
+    return promote(operandType, PrimitiveType.INT);
+  }
+
+  private static PrimitiveType.Code infixType(InfixExpression node) {
+    InfixExpression.Operator operator = node.getOperator();
+    if (operator == InfixExpression.Operator.LESS
+        || operator == InfixExpression.Operator.LESS_EQUALS
+        || operator == InfixExpression.Operator.GREATER
+        || operator == InfixExpression.Operator.GREATER_EQUALS
+        || operator == InfixExpression.Operator.EQUALS
+        || operator == InfixExpression.Operator.NOT_EQUALS
+        || operator == InfixExpression.Operator.CONDITIONAL_AND
+        || operator == InfixExpression.Operator.CONDITIONAL_OR) {
+      return PrimitiveType.BOOLEAN;
+    }
+    if (operator == InfixExpression.Operator.LEFT_SHIFT
+        || operator == InfixExpression.Operator.RIGHT_SHIFT_SIGNED
+        || operator == InfixExpression.Operator.RIGHT_SHIFT_UNSIGNED) {
+      return promotedTypeOf(node.getLeftOperand());
+    }
+    PrimitiveType.Code type = null;
+    for (Expression operand : getOperands(node)) {
+      PrimitiveType.Code operandType = typeOf(operand);
+      if (operandType == null) {
+        return null;
+      }
+      type = type == null ? operandType : promote(type, operandType);
+    }
+    return type;
+  }
+
+  /**
+   * Applies binary numeric promotion. Booleans only promote with booleans.
+   */
+  private static PrimitiveType.Code promote(PrimitiveType.Code left, PrimitiveType.Code right) {
+    if (left == null || right == null) {
+      return null;
+    }
+    if (left == PrimitiveType.BOOLEAN || right == PrimitiveType.BOOLEAN) {
+      return left == right ? PrimitiveType.BOOLEAN : null;
+    }
+    if (left == PrimitiveType.DOUBLE || right == PrimitiveType.DOUBLE) {
+      return PrimitiveType.DOUBLE;
+    }
+    if (left == PrimitiveType.FLOAT || right == PrimitiveType.FLOAT) {
+      return PrimitiveType.FLOAT;
+    }
+    if (left == PrimitiveType.LONG || right == PrimitiveType.LONG) {
+      return PrimitiveType.LONG;
+    }
+    return PrimitiveType.INT;
+  }
+
+  private static PrimitiveType.Code primitiveCode(Type type) {
+    if (type instanceof PrimitiveType) {
+      return ((PrimitiveType) type).getPrimitiveTypeCode();
+    }
+    return null;
+  }
+
+  private static PrimitiveType.Code declaredType(SimpleName name) {
+    String identifier = name.getIdentifier();
+    for (ASTNode node = name.getParent(); node != null; node = node.getParent()) {
+      if (node instanceof MethodDeclaration) {
+        Map<String, PrimitiveType.Code> locals = getLocalTypes((MethodDeclaration) node);
+        if (locals.containsKey(identifier)) {
+          return locals.get(identifier);
+        }
+      } else if (node instanceof AbstractTypeDeclaration) {
+        List<?> declarations = ((AbstractTypeDeclaration) node).bodyDeclarations();
+        if (hasField(declarations, identifier)) {
+          return fieldType(declarations, identifier);
+        }
+      } else if (node instanceof AnonymousClassDeclaration) {
+        List<?> declarations = ((AnonymousClassDeclaration) node).bodyDeclarations();
+        if (hasField(declarations, identifier)) {
+          return fieldType(declarations, identifier);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasField(List<?> declarations, String identifier) {
+    for (Object declaration : declarations) {
+      if (declaration instanceof FieldDeclaration) {
+        for (Object fragment : ((FieldDeclaration) declaration).fragments()) {
+          if (((VariableDeclarationFragment) fragment).getName().getIdentifier()
+              .equals(identifier)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static PrimitiveType.Code fieldType(List<?> declarations, String identifier) {
+    Map<String, PrimitiveType.Code> types = new HashMap<String, PrimitiveType.Code>();
+    for (Object declaration : declarations) {
+      if (declaration instanceof FieldDeclaration) {
+        FieldDeclaration field = (FieldDeclaration) declaration;
+        for (Object fragment : field.fragments()) {
+          declare(types, (VariableDeclarationFragment) fragment, field.getType());
+        }
+      }
+    }
+    return types.get(identifier);
+  }
+
+  /**
+   * Collects the types of the parameters and local variables of a method,
+   * skipping the bodies of classes declared in it.
+   */
+  static Map<String, PrimitiveType.Code> getLocalTypes(MethodDeclaration method) {
+    @SuppressWarnings("unchecked")
+    Map<String, PrimitiveType.Code> cached =
+        (Map<String, PrimitiveType.Code>) method.getProperty(PROPERTY);
+    if (cached != null) {
+      return cached;
+    }
+    final Map<String, PrimitiveType.Code> types = new HashMap<String, PrimitiveType.Code>();
+    for (Object parameter : method.parameters()) {
+      declare(types, (SingleVariableDeclaration) parameter);
+    }
+    if (method.getBody() != null) {
+      method.getBody().accept(new ASTVisitor() {
+        @Override
+        public boolean visit(AnonymousClassDeclaration node) {
+          return false;
+        }
+
+        @Override
+        public boolean visit(TypeDeclarationStatement node) {
+          return false;
+        }
+
+        @Override
+        public boolean visit(SingleVariableDeclaration node) {
+          declare(types, node);
+          return true;
+        }
+
+        @Override
+        public boolean visit(VariableDeclarationStatement node) {
+          for (Object fragment : node.fragments()) {
+            declare(types, (VariableDeclarationFragment) fragment, node.getType());
+          }
+          return true;
+        }
+
+        @Override
+        public boolean visit(VariableDeclarationExpression node) {
+          for (Object fragment : node.fragments()) {
+            declare(types, (VariableDeclarationFragment) fragment, node.getType());
+          }
+          return true;
+        }
+      });
+    }
+    method.setProperty(PROPERTY, types);
+    return types;
+  }
+
+  private static void declare(Map<String, PrimitiveType.Code> types,
+      SingleVariableDeclaration declaration) {
+    PrimitiveType.Code code = declaration.getExtraDimensions() == 0 && !declaration.isVarargs()
+        ? primitiveCode(declaration.getType()) : null;
+    declare(types, declaration.getName().getIdentifier(), code);
+  }
+
+  private static void declare(Map<String, PrimitiveType.Code> types,
+      VariableDeclarationFragment fragment, Type type) {
+    PrimitiveType.Code code = fragment.getExtraDimensions() == 0 ? primitiveCode(type) : null;
+    declare(types, fragment.getName().getIdentifier(), code);
+  }
+
+  /**
+   * Records a declaration. An identifier declared with two different
+   * types maps to null.
+   */
+  private static void declare(Map<String, PrimitiveType.Code> types, String identifier,
+      PrimitiveType.Code code) {
+    if (types.containsKey(identifier) && types.get(identifier) != code) {
+      types.put(identifier, null);
+    } else {
+      types.put(identifier, code);
+    }
+  }
+}
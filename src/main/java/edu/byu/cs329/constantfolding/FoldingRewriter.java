@@ -0,0 +1,114 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Performs the rewrites of the foldings and keeps track of them.
+ *
+ * <p>It counts the nodes created by copying subtrees and records the
+ * nearest statement enclosing every rewrite, which is the dirty region a
+ * later round has to visit again. A block that gets a block as a statement
+ * is recorded as well so that it is flattened even when only its dirty
+ * statements are visited.
+ */
+final class FoldingRewriter {
+  private int copiedNodeCount = 0;
+  private final Set<Statement> dirtyStatements = new LinkedHashSet<Statement>();
+  private final Set<Block> blocksToFlatten =
+      Collections.newSetFromMap(new IdentityHashMap<Block, Boolean>());
+
+  /**
+   * Copies a subtree into the AST of the node.
+   *
+   * @param node the root of the subtree.
+   * @return the copy.
+   */
+  ASTNode copy(ASTNode node) {
+    ASTNode copy = ASTNode.copySubtree(node.getAST(), node);
+    copy.accept(new ASTVisitor(true) {
+      @Override
+      public void preVisit(ASTNode n) {
+        copiedNodeCount++;
+      }
+    });
+    return copy;
+  }
+
+  /**
+   * Replaces a node with another and marks the replacement dirty.
+   *
+   * @param node the node in the tree.
+   * @param replacement the node to put in its place.
+   */
+  void replace(ASTNode node, ASTNode replacement) {
+    TreeModificationUtils.replaceChildInParent(node, replacement);
+    markDirty(replacement);
+    if (replacement instanceof Block && replacement.getParent() instanceof Block) {
+      blocksToFlatten.add((Block) replacement.getParent());
+    }
+  }
+
+  /**
+   * Replaces a node with one of its descendants and marks it dirty. The
+   * descendant is moved rather than copied, so it keeps its identity.
+   *
+   * @param node the node in the tree.
+   * @param descendant the expression below node to put in its place.
+   */
+  void replaceWithDescendant(ASTNode node, Expression descendant) {
+    TreeModificationUtils.replaceChildInParent(descendant, descendant.getAST().newNullLiteral());
+    replace(node, descendant);
+  }
+
+  /**
+   * Removes a node from the tree and marks its parent dirty.
+   *
+   * @param node the node in the tree.
+   */
+  void remove(ASTNode node) {
+    ASTNode parent = node.getParent();
+    TreeModificationUtils.removeChildInParent(node);
+    markDirty(parent);
+  }
+
+  /**
+   * Records the nearest statement enclosing a node as dirty.
+   *
+   * @param node the rewritten node.
+   */
+  void markDirty(ASTNode node) {
+    while (node != null && !(node instanceof Statement)) {
+      node = node.getParent();
+    }
+    if (node != null) {
+      dirtyStatements.add((Statement) node);
+    }
+  }
+
+  boolean needsFlattening(Block block) {
+    return blocksToFlatten.contains(block);
+  }
+
+  int getCopiedNodeCount() {
+    return copiedNodeCount;
+  }
+
+  /**
+   * Returns the dirty statements in the order they were first rewritten.
+   * Some of them may have been replaced or removed by later rewrites.
+   *
+   * @return the nearest statements enclosing the rewrites.
+   */
+  Set<Statement> getDirtyStatements() {
+    return dirtyStatements;
+  }
+}
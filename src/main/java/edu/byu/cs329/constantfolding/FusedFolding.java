@@ -0,0 +1,191 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Applies all of the foldings in a single traversal.
+ *
+ * <p>Every rule is applied when its node is left, so the children of a node
+ * are already folded when the node is considered. A literal produced for a
+ * child is seen by its parent in the same traversal, e.g., {@code !(1 < 2)}
+ * folds to {@code false} and an if statement on it folds right after.
+ *
+ * <p>Every fold records the nearest statement enclosing each of its rewrites
+ * as dirty. Only a dirty statement can hold something the previous fold made
+ * foldable, so later folds need to visit just those statements with
+ * {@link #foldRegions(ASTNode, Set)} rather than the whole tree.
+ *
+ * @see BlockFolding
+ * @see ParenthesizedExpressionFolding
+ * @see OperatorExpressionFolding
+ * @see AlgebraicSimplificationFolding
+ * @see IfStatementFolding
+ */
+public class FusedFolding implements Folding {
+
+  private int copiedNodeCount = 0;
+  private Set<Statement> dirtyStatements = Collections.emptySet();
+
+  class Visitor extends ASTVisitor {
+    boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
+
+    @Override
+    public void endVisit(ParenthesizedExpression node) {
+      didFold = ParenthesizedExpressionFolding.foldNode(node, rewriter) || didFold;
+    }
+
+    @Override
+    public void endVisit(PrefixExpression node) {
+      didFold = (OperatorExpressionFolding.foldNode(node, rewriter)
+          || AlgebraicSimplificationFolding.foldNode(node, rewriter)) || didFold;
+    }
+
+    @Override
+    public void endVisit(InfixExpression node) {
+      didFold = (OperatorExpressionFolding.foldNode(node, rewriter)
+          || AlgebraicSimplificationFolding.foldNode(node, rewriter)) || didFold;
+    }
+
+    @Override
+    public void endVisit(IfStatement node) {
+      didFold = IfStatementFolding.foldNode(node, rewriter) || didFold;
+    }
+
+    @Override
+    public void endVisit(Block node) {
+      didFold = BlockFolding.foldNode(node, rewriter) || didFold;
+    }
+  }
+
+  /**
+   * Applies every folding to the nodes reachable from the root in one
+   * bottom-up traversal.
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   *
+   * @ensures each node is folded by the specification of its folding after
+   *     all of its children are folded
+   *
+   * @param root the root of the tree to traverse.
+   * @return true if any node was folded
+   */
+  @Override
+  public boolean fold(ASTNode root) {
+    checkRequires(root);
+    Visitor visitor = new Visitor();
+    root.accept(visitor);
+    return finish(visitor);
+  }
+
+  /**
+   * Applies every folding to some regions of a tree and to the blocks above
+   * them that got a block as a statement.
+   *
+   * <p>A region that is no longer in the tree of root, or that is inside
+   * another region, is skipped. The statements replacing it are dirty from
+   * the fold that replaced it and are regions of the next fold.
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   * @requires regions != null
+   * @requires every region in the tree of root is a descendant of root
+   *
+   * @ensures each node in a region is folded by the specification of its
+   *     folding after all of its children are folded
+   *
+   * @param root the root of the tree the regions are in.
+   * @param regions the statements to fold.
+   * @return true if any node was folded
+   */
+  public boolean foldRegions(ASTNode root, Set<Statement> regions) {
+    checkRequires(root);
+    ExceptionUtils.requiresNonNull(regions, "Null regions passed to FusedFolding.foldRegions");
+    Visitor visitor = new Visitor();
+    ASTNode treeRoot = root.getRoot();
+    for (Statement region : regions) {
+      if (region.getRoot() != treeRoot || isInsideRegion(region, root, regions)) {
+        continue;
+      }
+      List<Block> enclosingBlocks = getEnclosingBlocks(region, root);
+      region.accept(visitor);
+      for (Block block : enclosingBlocks) {
+        if (visitor.rewriter.needsFlattening(block)) {
+          visitor.endVisit(block);
+        }
+      }
+    }
+    return finish(visitor);
+  }
+
+  /**
+   * Returns the dirty statements of the last fold. A statement that was
+   * replaced after it became dirty is no longer in the tree.
+   *
+   * @return the nearest statements enclosing the rewrites of the last fold.
+   */
+  public Set<Statement> getDirtyStatements() {
+    return Collections.unmodifiableSet(dirtyStatements);
+  }
+
+  /**
+   * Returns how many nodes the last fold copied. Blocks are flattened by
+   * moving statements, so only the branches kept from if statements and
+   * the literals taken out of parentheses are copied.
+   *
+   * @return the number of nodes created by copying subtrees.
+   */
+  public int getCopiedNodeCount() {
+    return copiedNodeCount;
+  }
+
+  private boolean finish(Visitor visitor) {
+    copiedNodeCount = visitor.rewriter.getCopiedNodeCount();
+    dirtyStatements = visitor.rewriter.getDirtyStatements();
+    return visitor.didFold;
+  }
+
+  private static boolean isInsideRegion(ASTNode node, ASTNode root, Set<Statement> regions) {
+    while (node != root) {
+      node = node.getParent();
+      if (regions.contains(node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Block> getEnclosingBlocks(ASTNode node, ASTNode root) {
+    List<Block> blocks = new ArrayList<Block>();
+    while (node != root) {
+      node = node.getParent();
+      if (node instanceof Block) {
+        blocks.add((Block) node);
+      }
+    }
+    return blocks;
+  }
+
+  private void checkRequires(final ASTNode root) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to FusedFolding.fold");
+
+    if (!(root instanceof CompilationUnit) && root.getParent() == null) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-CompilationUnit root with no parent passed to FusedFolding.fold");
+    }
+  }
+}
@@ -1,11 +1,8 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IfStatement;
 import org.slf4j.Logger;
@@ -26,41 +23,52 @@ public class IfStatementFolding implements Folding {
 
   class Visitor extends ASTVisitor {
     public boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
 
     @Override
     public void endVisit(IfStatement n) {
-      // check if expression is boolean literal
-      ASTNode exp = n.getExpression();
-      if (!(exp instanceof BooleanLiteral)) {
-        return;
-      }
+      didFold = foldNode(n, rewriter) || didFold;
+    }
+  }
+
+  /**
+   * Replaces an if statement on a boolean literal with the branch it takes.
+   *
+   * @param n the if statement.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced or removed.
+   */
+  static boolean foldNode(IfStatement n, FoldingRewriter rewriter) {
+    // check if expression is boolean literal
+    ConstantValue condition = ConstantValue.of(n.getExpression());
+    if (condition.getKind() != ConstantValue.Kind.BOOLEAN) {
+      return false;
+    }
 
-      //get expression boolean value
-      boolean value = ((BooleanLiteral) n.getExpression()).booleanValue();
+    //get expression boolean value
+    boolean value = condition.booleanValue();
 
-      
-      if (!value && (n.getElseStatement() == null)) {
-        // no else block and expression is false
-        // remove entire IfStatement
-        TreeModificationUtils.removeChildInParent(n);
+    
+    if (!value && (n.getElseStatement() == null)) {
+      // no else block and expression is false
+      // remove entire IfStatement
+      rewriter.remove(n);
+    } else {
+      // keep only the respective block 
+      // get the then or else block cooresponding to expression value
+      ASTNode respBlock;
+      if (value) {
+        respBlock = n.getThenStatement();
       } else {
-        // keep only the respective block 
-        // get the then or else block cooresponding to expression value
-        ASTNode respBlock;
-        if (value) {
-          respBlock = n.getThenStatement();
-        } else {
-          respBlock = n.getElseStatement();
-        }
-
-        // swap the if statement for the block
-        AST ast = n.getAST();
-        ASTNode newExp = ASTNode.copySubtree(ast, respBlock);
-        TreeModificationUtils.replaceChildInParent(n, newExp);
+        respBlock = n.getElseStatement();
       }
 
-      didFold = true;
+      // swap the if statement for the block
+      ASTNode newExp = rewriter.copy(respBlock);
+      rewriter.replace(n, newExp);
     }
+
+    return true;
   }
 
   /**
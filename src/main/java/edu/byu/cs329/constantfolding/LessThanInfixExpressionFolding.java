@@ -1,14 +1,11 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.InfixExpression;
-import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,31 +24,43 @@ public class LessThanInfixExpressionFolding implements Folding {
 
   class Visitor extends ASTVisitor {
     public boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
 
     @Override
     public void endVisit(InfixExpression n) {
-      // check if uses '<' operator
-      InfixExpression.Operator operator = n.getOperator();
-      if (operator != InfixExpression.Operator.LESS) {
-        return;
-      }
-
-      // check if left and right operands are number literals
-      if (!(n.getLeftOperand() instanceof NumberLiteral)
-            || !(n.getRightOperand() instanceof NumberLiteral)) {
-        return;
-      }
+      didFold = foldNode(n, rewriter) || didFold;
+    }
+  }
 
-      // get expression value
-      boolean value = (Integer.parseInt(((NumberLiteral) n.getLeftOperand()).getToken())
-                      < Integer.parseInt(((NumberLiteral) n.getRightOperand()).getToken()));
+  /**
+   * Replaces a comparison of number literals with its value.
+   *
+   * @param n the infix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(InfixExpression n, FoldingRewriter rewriter) {
+    // check if uses '<' operator
+    InfixExpression.Operator operator = n.getOperator();
+    if (operator != InfixExpression.Operator.LESS) {
+      return false;
+    }
 
-      // make the swap
-      AST ast = n.getAST();
-      BooleanLiteral newNode = ast.newBooleanLiteral(value);
-      TreeModificationUtils.replaceChildInParent(n, newNode);
-      didFold = true;
+    // check if left and right operands are int literals
+    ConstantValue left = ConstantValue.of(n.getLeftOperand());
+    ConstantValue right = ConstantValue.of(n.getRightOperand());
+    if (left.getKind() != ConstantValue.Kind.INT
+        || right.getKind() != ConstantValue.Kind.INT) {
+      return false;
     }
+
+    // get expression value
+    boolean value = left.intValue() < right.intValue();
+
+    // make the swap
+    Expression newNode = ConstantValue.ofBoolean(value).toExpression(n.getAST());
+    rewriter.replace(n, newNode);
+    return true;
   }
 
   /**
@@ -1,20 +1,11 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.BooleanLiteral;
-import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.InfixExpression;
-import org.eclipse.jdt.core.dom.NullLiteral;
-import org.eclipse.jdt.core.dom.NumberLiteral;
-import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.PrefixExpression;
-import org.eclipse.jdt.core.dom.StringLiteral;
-import org.eclipse.jdt.core.dom.TypeLiteral;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,29 +24,38 @@ public class NegationPrefixExpressionFolding implements Folding {
 
   class Visitor extends ASTVisitor {
     public boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
 
     @Override
     public void endVisit(PrefixExpression n) {
-      // check if uses '!' operator
-      PrefixExpression.Operator operator = n.getOperator();
-      if (operator != PrefixExpression.Operator.NOT) {
-        return;
-      }
-
-      // check if operand is boolean literal
-      if (!(n.getOperand() instanceof BooleanLiteral)) {
-        return;
-      }
+      didFold = foldNode(n, rewriter) || didFold;
+    }
+  }
 
-      // get simplified value
-      boolean value = !(((BooleanLiteral) n.getOperand()).booleanValue());
+  /**
+   * Replaces the negation of a boolean literal with its value.
+   *
+   * @param n the prefix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(PrefixExpression n, FoldingRewriter rewriter) {
+    // check if uses '!' operator
+    PrefixExpression.Operator operator = n.getOperator();
+    if (operator != PrefixExpression.Operator.NOT) {
+      return false;
+    }
 
-      // make the swap
-      AST ast = n.getAST();
-      BooleanLiteral newNode = ast.newBooleanLiteral(value);
-      TreeModificationUtils.replaceChildInParent(n, newNode);
-      didFold = true;
+    // check if operand is boolean literal
+    ConstantValue operand = ConstantValue.of(n.getOperand());
+    if (operand.getKind() != ConstantValue.Kind.BOOLEAN) {
+      return false;
     }
+
+    // make the swap
+    Expression newNode = ConstantValue.ofBoolean(!operand.booleanValue()).toExpression(n.getAST());
+    rewriter.replace(n, newNode);
+    return true;
   }
 
   /**
@@ -0,0 +1,127 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.List;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+
+/**
+ * Replaces infix and prefix expressions on literals with their values.
+ *
+ * <p>Every operator is evaluated by {@link OperatorTable} with the
+ * semantics of Java for int, long, char and boolean operands, so this
+ * folding covers {@link PlusInfixExpressionFolding},
+ * {@link LessThanInfixExpressionFolding} and
+ * {@link NegationPrefixExpressionFolding} and every other operator.
+ */
+public class OperatorExpressionFolding implements Folding {
+
+  class Visitor extends ASTVisitor {
+    boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
+
+    @Override
+    public void endVisit(InfixExpression node) {
+      didFold = foldNode(node, rewriter) || didFold;
+    }
+
+    @Override
+    public void endVisit(PrefixExpression node) {
+      didFold = foldNode(node, rewriter) || didFold;
+    }
+  }
+
+  /**
+   * Replaces an infix expression on literals with its value. The extended
+   * operands are applied from left to right as in Java.
+   *
+   * @param node the infix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(InfixExpression node, FoldingRewriter rewriter) {
+    OperatorTable.BinaryEvaluator evaluator = OperatorTable.get(node.getOperator());
+    ConstantValue value = evaluator.apply(ConstantValue.of(node.getLeftOperand()),
+        ConstantValue.of(node.getRightOperand()));
+    List<Expression> extendedOperands = getExpressionList(node.extendedOperands());
+    for (int i = 0; value != null && i < extendedOperands.size(); ++i) {
+      value = evaluator.apply(value, ConstantValue.of(extendedOperands.get(i)));
+    }
+    if (value == null) {
+      return false;
+    }
+    rewriter.replace(node, value.toExpression(node.getAST()));
+    return true;
+  }
+
+  /**
+   * Replaces a prefix expression on a literal with its value.
+   *
+   * @param node the prefix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(PrefixExpression node, FoldingRewriter rewriter) {
+    ConstantValue value = OperatorTable.get(node.getOperator())
+        .apply(ConstantValue.of(node.getOperand()));
+    if (value == null) {
+      return false;
+    }
+    rewriter.replace(node, value.toExpression(node.getAST()));
+    return true;
+  }
+
+  /**
+   * Replaces the infix and prefix expressions on literals in the tree with
+   * their values.
+   *
+   * <p>top := all nodes reachable from root such that each node is an
+   *           infix or prefix expression whose operands are literals, or
+   *           fold to literals, and that evaluates without an exception
+   *
+   * <p>value(n) := the value Java gives n, where an operand that is
+   *                itself in top has its value
+   *
+   * @modifies nodes in parents of old(top)
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   *
+   * @ensures fold(root) == (old(top) != emptyset)
+   * @ensures forall n in old(top) with parent(n) not in old(top),
+   *             exists n' in nodes
+   *             fresh(n')
+   *          /\ isLiteral(n')
+   *          /\ value(n') == value(n)
+   *          /\ parent(n') == parent(n)
+   *
+   * @param root the root of the tree to traverse.
+   * @return true if any expression was replaced in the rooted tree
+   */
+  @Override
+  public boolean fold(final ASTNode root) {
+    checkRequires(root);
+    Visitor visitor = new Visitor();
+    root.accept(visitor);
+    return visitor.didFold;
+  }
+
+  private static List<Expression> getExpressionList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<Expression> expressionList = (List<Expression>) (list);
+    return expressionList;
+  }
+
+  private void checkRequires(final ASTNode root) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to OperatorExpressionFolding.fold");
+
+    if (!(root instanceof CompilationUnit) && root.getParent() == null) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-CompilationUnit root with no parent passed to OperatorExpressionFolding.fold");
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.constantfolding.ConstantValue.Kind;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+
+/**
+ * Evaluation of the infix and prefix operators on constant values with the
+ * semantics of Java.
+ *
+ * <p>Every operator maps to an evaluator for int, long, char and boolean
+ * operands. Integral operands are promoted as in Java: a char becomes an
+ * int, and an int becomes a long when the other operand is a long. The
+ * type of a shift is the promoted type of its left operand alone, and its
+ * distance is masked by the Java operator itself. Integer arithmetic wraps
+ * on overflow.
+ *
+ * <p>An evaluator returns null when it cannot fold: an operand is not
+ * constant, is a float or a double, or has a type the operator does not
+ * take, or an integer division or remainder is by zero.
+ */
+final class OperatorTable {
+
+  /**
+   * Evaluates an infix operator on two values.
+   */
+  interface BinaryEvaluator {
+    ConstantValue apply(ConstantValue left, ConstantValue right);
+  }
+
+  /**
+   * Evaluates a prefix operator on a value.
+   */
+  interface UnaryEvaluator {
+    ConstantValue apply(ConstantValue operand);
+  }
+
+  /**
+   * Compares two integral values.
+   */
+  private interface Comparison {
+    boolean test(long left, long right);
+  }
+
+  /**
+   * Combines two boolean values.
+   */
+  private interface BooleanOperator {
+    boolean apply(boolean left, boolean right);
+  }
+
+  private static final Map<InfixExpression.Operator, BinaryEvaluator> INFIX =
+      new HashMap<InfixExpression.Operator, BinaryEvaluator>();
+  private static final Map<PrefixExpression.Operator, UnaryEvaluator> PREFIX =
+      new HashMap<PrefixExpression.Operator, UnaryEvaluator>();
+
+  static {
+    INFIX.put(InfixExpression.Operator.PLUS, arithmetic((a, b) -> a + b, (a, b) -> a + b));
+    INFIX.put(InfixExpression.Operator.MINUS, arithmetic((a, b) -> a - b, (a, b) -> a - b));
+    INFIX.put(InfixExpression.Operator.TIMES, arithmetic((a, b) -> a * b, (a, b) -> a * b));
+    INFIX.put(InfixExpression.Operator.DIVIDE,
+        nonZeroDivisor(arithmetic((a, b) -> a / b, (a, b) -> a / b)));
+    INFIX.put(InfixExpression.Operator.REMAINDER,
+        nonZeroDivisor(arithmetic((a, b) -> a % b, (a, b) -> a % b)));
+
+    INFIX.put(InfixExpression.Operator.LEFT_SHIFT, shift((a, b) -> a << b, (a, b) -> a << b));
+    INFIX.put(InfixExpression.Operator.RIGHT_SHIFT_SIGNED,
+        shift((a, b) -> a >> b, (a, b) -> a >> b));
+    INFIX.put(InfixExpression.Operator.RIGHT_SHIFT_UNSIGNED,
+        shift((a, b) -> a >>> b, (a, b) -> a >>> b));
+
+    INFIX.put(InfixExpression.Operator.LESS, comparison((a, b) -> a < b));
+    INFIX.put(InfixExpression.Operator.LESS_EQUALS, comparison((a, b) -> a <= b));
+    INFIX.put(InfixExpression.Operator.GREATER, comparison((a, b) -> a > b));
+    INFIX.put(InfixExpression.Operator.GREATER_EQUALS, comparison((a, b) -> a >= b));
+    INFIX.put(InfixExpression.Operator.EQUALS,
+        integralOrBoolean(comparison((a, b) -> a == b), (a, b) -> a == b));
+    INFIX.put(InfixExpression.Operator.NOT_EQUALS,
+        integralOrBoolean(comparison((a, b) -> a != b), (a, b) -> a != b));
+
+    INFIX.put(InfixExpression.Operator.AND,
+        integralOrBoolean(arithmetic((a, b) -> a & b, (a, b) -> a & b), (a, b) -> a & b));
+    INFIX.put(InfixExpression.Operator.OR,
+        integralOrBoolean(arithmetic((a, b) -> a | b, (a, b) -> a | b), (a, b) -> a | b));
+    INFIX.put(InfixExpression.Operator.XOR,
+        integralOrBoolean(arithmetic((a, b) -> a ^ b, (a, b) -> a ^ b), (a, b) -> a ^ b));
+    INFIX.put(InfixExpression.Operator.CONDITIONAL_AND, logical((a, b) -> a && b));
+    INFIX.put(InfixExpression.Operator.CONDITIONAL_OR, logical((a, b) -> a || b));
+
+    PREFIX.put(PrefixExpression.Operator.PLUS, unaryArithmetic(a -> a, a -> a));
+    PREFIX.put(PrefixExpression.Operator.MINUS, unaryArithmetic(a -> -a, a -> -a));
+    PREFIX.put(PrefixExpression.Operator.COMPLEMENT, unaryArithmetic(a -> ~a, a -> ~a));
+    PREFIX.put(PrefixExpression.Operator.NOT,
+        operand -> operand.getKind() == Kind.BOOLEAN
+            ? ConstantValue.ofBoolean(!operand.booleanValue()) : null);
+    // the operand of an increment or a decrement is a variable, never a constant
+    PREFIX.put(PrefixExpression.Operator.INCREMENT, operand -> null);
+    PREFIX.put(PrefixExpression.Operator.DECREMENT, operand -> null);
+  }
+
+  private OperatorTable() {
+  }
+
+  /**
+   * Returns the evaluator of an infix operator.
+   *
+   * @param operator the operator.
+   * @return the evaluator.
+   */
+  static BinaryEvaluator get(InfixExpression.Operator operator) {
+    return INFIX.get(operator);
+  }
+
+  /**
+   * Returns the evaluator of a prefix operator.
+   *
+   * @param operator the operator.
+   * @return the evaluator.
+   */
+  static UnaryEvaluator get(PrefixExpression.Operator operator) {
+    return PREFIX.get(operator);
+  }
+
+  private static boolean isIntegral(ConstantValue value) {
+    Kind kind = value.getKind();
+    return kind == Kind.INT || kind == Kind.LONG || kind == Kind.CHAR;
+  }
+
+  private static BinaryEvaluator arithmetic(IntBinaryOperator intOperator,
+      LongBinaryOperator longOperator) {
+    return (left, right) -> {
+      if (!isIntegral(left) || !isIntegral(right)) {
+        return null;
+      }
+      if (left.getKind() == Kind.LONG || right.getKind() == Kind.LONG) {
+        return ConstantValue.ofLong(
+            longOperator.applyAsLong(left.longValue(), right.longValue()));
+      }
+      return ConstantValue.ofInt(intOperator.applyAsInt(left.intValue(), right.intValue()));
+    };
+  }
+
+  private static BinaryEvaluator nonZeroDivisor(BinaryEvaluator evaluator) {
+    return (left, right) -> {
+      if (isIntegral(right) && right.longValue() == 0) {
+        return null;
+      }
+      return evaluator.apply(left, right);
+    };
+  }
+
+  private static BinaryEvaluator shift(IntBinaryOperator intOperator,
+      LongBinaryOperator longOperator) {
+    return (left, right) -> {
+      if (!isIntegral(left) || !isIntegral(right)) {
+        return null;
+      }
+      int distance = (int) right.longValue();
+      if (left.getKind() == Kind.LONG) {
+        return ConstantValue.ofLong(longOperator.applyAsLong(left.longValue(), distance));
+      }
+      return ConstantValue.ofInt(intOperator.applyAsInt(left.intValue(), distance));
+    };
+  }
+
+  private static BinaryEvaluator comparison(Comparison comparison) {
+    return (left, right) -> {
+      if (!isIntegral(left) || !isIntegral(right)) {
+        return null;
+      }
+      return ConstantValue.ofBoolean(comparison.test(left.longValue(), right.longValue()));
+    };
+  }
+
+  private static BinaryEvaluator integralOrBoolean(BinaryEvaluator integral,
+      BooleanOperator booleanOperator) {
+    return (left, right) -> {
+      if (left.getKind() == Kind.BOOLEAN && right.getKind() == Kind.BOOLEAN) {
+        return ConstantValue.ofBoolean(
+            booleanOperator.apply(left.booleanValue(), right.booleanValue()));
+      }
+      return integral.apply(left, right);
+    };
+  }
+
+  private static BinaryEvaluator logical(BooleanOperator booleanOperator) {
+    return (left, right) -> {
+      if (left.getKind() != Kind.BOOLEAN || right.getKind() != Kind.BOOLEAN) {
+        return null;
+      }
+      return ConstantValue.ofBoolean(
+          booleanOperator.apply(left.booleanValue(), right.booleanValue()));
+    };
+  }
+
+  private static UnaryEvaluator unaryArithmetic(IntUnaryOperator intOperator,
+      LongUnaryOperator longOperator) {
+    return operand -> {
+      if (!isIntegral(operand)) {
+        return null;
+      }
+      if (operand.getKind() == Kind.LONG) {
+        return ConstantValue.ofLong(longOperator.applyAsLong(operand.longValue()));
+      }
+      return ConstantValue.ofInt(intOperator.applyAsInt(operand.intValue()));
+    };
+  }
+}
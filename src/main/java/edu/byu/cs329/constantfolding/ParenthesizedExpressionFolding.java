@@ -1,8 +1,6 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
@@ -26,27 +24,38 @@ public class ParenthesizedExpressionFolding implements Folding {
   
   class Visitor extends ASTVisitor {
     public boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
 
-    private boolean isLiteralExpression(ASTNode exp) {
-      return (exp instanceof BooleanLiteral) 
-        || (exp instanceof CharacterLiteral)
-        || (exp instanceof NullLiteral)
-        || (exp instanceof StringLiteral)
-        || (exp instanceof TypeLiteral)
-        || (exp instanceof NumberLiteral);
-    }
-    
     @Override
     public void endVisit(ParenthesizedExpression node) {
-      ASTNode exp = node.getExpression();
-      if (!isLiteralExpression(exp)) {
-        return;
-      }
-      AST ast = node.getAST();
-      ASTNode newExp = ASTNode.copySubtree(ast, exp);
-      TreeModificationUtils.replaceChildInParent(node, newExp);
-      didFold = true;
+      didFold = foldNode(node, rewriter) || didFold;
+    }
+  }
+
+  private static boolean isLiteralExpression(ASTNode exp) {
+    return (exp instanceof BooleanLiteral) 
+      || (exp instanceof CharacterLiteral)
+      || (exp instanceof NullLiteral)
+      || (exp instanceof StringLiteral)
+      || (exp instanceof TypeLiteral)
+      || (exp instanceof NumberLiteral);
+  }
+
+  /**
+   * Replaces a parenthesized literal with the literal.
+   *
+   * @param node the parenthesized expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(ParenthesizedExpression node, FoldingRewriter rewriter) {
+    ASTNode exp = node.getExpression();
+    if (!isLiteralExpression(exp)) {
+      return false;
     }
+    ASTNode newExp = rewriter.copy(exp);
+    rewriter.replace(node, newExp);
+    return true;
   }
 
   public ParenthesizedExpressionFolding() {
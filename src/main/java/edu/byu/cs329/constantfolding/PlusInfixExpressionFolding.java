@@ -1,15 +1,12 @@
 package edu.byu.cs329.constantfolding;
 
 import edu.byu.cs329.utils.ExceptionUtils;
-import edu.byu.cs329.utils.TreeModificationUtils;
 import java.util.List;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.InfixExpression;
-import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,43 +25,55 @@ public class PlusInfixExpressionFolding implements Folding {
 
   class Visitor extends ASTVisitor {
     public boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
 
     @Override
     public void endVisit(InfixExpression n) {
-      // check if uses '+' operator
-      InfixExpression.Operator operator = n.getOperator();
-      if (operator != InfixExpression.Operator.PLUS) {
-        return;
-      }
+      didFold = foldNode(n, rewriter) || didFold;
+    }
+  }
 
-      // check that left and right operands are number literals
-      if (!(n.getLeftOperand() instanceof NumberLiteral)
-          || !(n.getRightOperand() instanceof NumberLiteral)) {
-        return;
-      }
+  /**
+   * Replaces a sum of number literals with its value.
+   *
+   * @param n the infix expression.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(InfixExpression n, FoldingRewriter rewriter) {
+    // check if uses '+' operator
+    InfixExpression.Operator operator = n.getOperator();
+    if (operator != InfixExpression.Operator.PLUS) {
+      return false;
+    }
 
-      // check that all extended operands are number literals
-      @SuppressWarnings("unchecked")
-      List<Expression> expressions = n.extendedOperands();
-      for (int i = 0; i < expressions.size(); i++) {
-        if (!(expressions.get(i) instanceof NumberLiteral)) {
-          return;
-        }
-      }
+    // check that left and right operands are int literals
+    ConstantValue left = ConstantValue.of(n.getLeftOperand());
+    ConstantValue right = ConstantValue.of(n.getRightOperand());
+    if (left.getKind() != ConstantValue.Kind.INT
+        || right.getKind() != ConstantValue.Kind.INT) {
+      return false;
+    }
 
-      // get simplified value
-      int value = Integer.parseInt(((NumberLiteral) n.getLeftOperand()).getToken())
-                  + Integer.parseInt(((NumberLiteral) n.getRightOperand()).getToken());
-      for (int i = 0; i < expressions.size(); i++) {
-        value += Integer.parseInt(((NumberLiteral) expressions.get(i)).getToken());
+    // check that all extended operands are int literals
+    @SuppressWarnings("unchecked")
+    List<Expression> expressions = n.extendedOperands();
+    for (int i = 0; i < expressions.size(); i++) {
+      if (ConstantValue.of(expressions.get(i)).getKind() != ConstantValue.Kind.INT) {
+        return false;
       }
+    }
 
-      // make the swap
-      AST ast = n.getAST();
-      NumberLiteral newNode = ast.newNumberLiteral(Integer.toString(value));
-      TreeModificationUtils.replaceChildInParent(n, newNode);
-      didFold = true;
+    // get simplified value
+    int value = left.intValue() + right.intValue();
+    for (int i = 0; i < expressions.size(); i++) {
+      value += ConstantValue.of(expressions.get(i)).intValue();
     }
+
+    // make the swap
+    Expression newNode = ConstantValue.ofInt(value).toExpression(n.getAST());
+    rewriter.replace(n, newNode);
+    return true;
   }
 
   /**
@@ -0,0 +1,283 @@
+package edu.byu.cs329.constantfolding;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ArrayAccess;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+
+/**
+ * Replaces multiplications, divisions and remainders by powers of two with
+ * shifts and masks.
+ *
+ * <p>The rules are:
+ * <ul>
+ *   <li>{@code x * 2^k} and {@code 2^k * x} become {@code x << k}, which
+ *       wraps on overflow exactly as the multiplication does.</li>
+ *   <li>{@code x / 2^k} becomes {@code x >> k} when {@code x} is provably
+ *       non-negative, since a division of a negative value rounds toward
+ *       zero and a shift rounds down.</li>
+ *   <li>{@code x % 2^k} becomes {@code x & (2^k - 1)} when {@code x} is
+ *       provably non-negative, since a remainder has the sign of its
+ *       dividend.</li>
+ * </ul>
+ *
+ * <p>A rule applies only to an int or long expression whose type is the
+ * promoted type of {@code x}, so the shift or mask has the type of the
+ * expression it replaces. An operand is provably non-negative if it is a
+ * non-negative literal, a char, a mask with a non-negative operand, an
+ * unsigned shift by a non-zero distance, or a signed shift, division by a
+ * positive literal or remainder of a provably non-negative value.
+ *
+ * <p>The replacement is parenthesized when it is an operand of another
+ * expression, since shifts and masks bind less tightly than the operators
+ * they replace. The operand {@code x} is moved rather than copied.
+ */
+public class StrengthReductionFolding implements Folding {
+
+  /**
+   * The rewrites the folding may apply.
+   */
+  public enum Rule {
+    MULTIPLY_TO_SHIFT,
+    DIVIDE_TO_SHIFT,
+    REMAINDER_TO_MASK
+  }
+
+  private final Set<Rule> rules;
+
+  class Visitor extends ASTVisitor {
+    boolean didFold = false;
+    final FoldingRewriter rewriter = new FoldingRewriter();
+
+    @Override
+    public void endVisit(InfixExpression node) {
+      didFold = foldNode(node, rules, rewriter) || didFold;
+    }
+  }
+
+  /**
+   * Creates a folding with every rule enabled.
+   */
+  public StrengthReductionFolding() {
+    this(EnumSet.allOf(Rule.class));
+  }
+
+  /**
+   * Creates a folding with some of the rules enabled.
+   *
+   * @requires rules != null
+   *
+   * @param rules the rules to apply.
+   */
+  public StrengthReductionFolding(Set<Rule> rules) {
+    ExceptionUtils.requiresNonNull(rules, "Null rules passed to StrengthReductionFolding");
+    this.rules = rules.isEmpty()
+        ? Collections.<Rule>emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(rules));
+  }
+
+  /**
+   * Replaces an infix expression by a power of two with a shift or a mask.
+   *
+   * @param node the infix expression.
+   * @param rules the enabled rules.
+   * @param rewriter the rewriter of the tree.
+   * @return true if the node is replaced.
+   */
+  static boolean foldNode(InfixExpression node, Set<Rule> rules, FoldingRewriter rewriter) {
+    if (node.hasExtendedOperands()) {
+      return false;
+    }
+    InfixExpression.Operator operator = node.getOperator();
+    Expression left = node.getLeftOperand();
+    Expression right = node.getRightOperand();
+    if (operator == InfixExpression.Operator.TIMES
+        && rules.contains(Rule.MULTIPLY_TO_SHIFT)) {
+      if (getExponent(right) > 0) {
+        return reduce(node, left, InfixExpression.Operator.LEFT_SHIFT,
+            ConstantValue.ofInt(getExponent(right)), rewriter);
+      }
+      if (getExponent(left) > 0) {
+        return reduce(node, right, InfixExpression.Operator.LEFT_SHIFT,
+            ConstantValue.ofInt(getExponent(left)), rewriter);
+      }
+    }
+    if (operator == InfixExpression.Operator.DIVIDE
+        && rules.contains(Rule.DIVIDE_TO_SHIFT)
+        && getExponent(right) > 0 && isNonNegative(left)) {
+      return reduce(node, left, InfixExpression.Operator.RIGHT_SHIFT_SIGNED,
+          ConstantValue.ofInt(getExponent(right)), rewriter);
+    }
+    if (operator == InfixExpression.Operator.REMAINDER
+        && rules.contains(Rule.REMAINDER_TO_MASK)
+        && getExponent(right) > 0 && isNonNegative(left)) {
+      long mask = ConstantValue.of(right).longValue() - 1;
+      ConstantValue maskValue = ExpressionTypes.typeOf(node) == PrimitiveType.LONG
+          ? ConstantValue.ofLong(mask) : ConstantValue.ofInt((int) mask);
+      return reduce(node, left, InfixExpression.Operator.AND, maskValue, rewriter);
+    }
+    return false;
+  }
+
+  /**
+   * Applies the enabled rules to the tree.
+   *
+   * <p>top := all nodes reachable from root such that each node is an
+   *           infix expression that an enabled rule applies to
+   *
+   * @modifies nodes in parents of old(top)
+   *
+   * @requires root != null
+   * @requires (root instanceof CompilationUnit) \/ parent(root) != null
+   *
+   * @ensures fold(root) == (old(top) != emptyset)
+   * @ensures forall n in old(top), the shift or mask in place of n has the
+   *          type and value of n
+   *
+   * @param root the root of the tree to traverse.
+   * @return true if any expression was replaced in the rooted tree
+   */
+  @Override
+  public boolean fold(final ASTNode root) {
+    checkRequires(root);
+    Visitor visitor = new Visitor();
+    root.accept(visitor);
+    return visitor.didFold;
+  }
+
+  /**
+   * Replaces a node with an operator applied to one of its operands and a
+   * literal, if the type of the node is the promoted type of the operand.
+   */
+  private static boolean reduce(InfixExpression node, Expression operand,
+      InfixExpression.Operator operator, ConstantValue value, FoldingRewriter rewriter) {
+    PrimitiveType.Code type = ExpressionTypes.typeOf(node);
+    if ((type != PrimitiveType.INT && type != PrimitiveType.LONG)
+        || ExpressionTypes.promotedTypeOf(operand) != type) {
+      return false;
+    }
+    AST ast = node.getAST();
+    TreeModificationUtils.replaceChildInParent(operand, ast.newNullLiteral());
+    InfixExpression reduced = ast.newInfixExpression();
+    reduced.setOperator(operator);
+    reduced.setLeftOperand(operand);
+    reduced.setRightOperand(value.toExpression(ast));
+    if (needsParentheses(node)) {
+      ParenthesizedExpression parenthesized = ast.newParenthesizedExpression();
+      parenthesized.setExpression(reduced);
+      rewriter.replace(node, parenthesized);
+    } else {
+      rewriter.replace(node, reduced);
+    }
+    return true;
+  }
+
+  /**
+   * Decides if a node is an operand of another expression. An argument, an
+   * array index, the value of an assignment or an element of an initializer
+   * is a whole expression of its own.
+   */
+  private static boolean needsParentheses(ASTNode node) {
+    ASTNode parent = node.getParent();
+    if (!(parent instanceof Expression) || parent instanceof ParenthesizedExpression
+        || node.getLocationInParent() == ArrayAccess.INDEX_PROPERTY
+        || node.getLocationInParent() == Assignment.RIGHT_HAND_SIDE_PROPERTY) {
+      return false;
+    }
+    return parent instanceof InfixExpression || !node.getLocationInParent().isChildListProperty();
+  }
+
+  /**
+   * Returns k if the expression is an int or long literal equal to 2^k for
+   * a positive k, and -1 otherwise.
+   */
+  private static int getExponent(Expression exp) {
+    ConstantValue value = ConstantValue.of(exp);
+    if (value.getKind() != ConstantValue.Kind.INT && value.getKind() != ConstantValue.Kind.LONG) {
+      return -1;
+    }
+    long power = value.longValue();
+    if (power <= 1 || Long.bitCount(power) != 1) {
+      return -1;
+    }
+    return Long.numberOfTrailingZeros(power);
+  }
+
+  private static boolean isNonNegative(Expression exp) {
+    ConstantValue value = ConstantValue.of(exp);
+    if (value.getKind() == ConstantValue.Kind.INT || value.getKind() == ConstantValue.Kind.LONG
+        || value.getKind() == ConstantValue.Kind.CHAR) {
+      return value.longValue() >= 0;
+    }
+    if (ExpressionTypes.typeOf(exp) == PrimitiveType.CHAR) {
+      return true;
+    }
+    if (exp instanceof ParenthesizedExpression) {
+      return isNonNegative(((ParenthesizedExpression) exp).getExpression());
+    }
+    if (!(exp instanceof InfixExpression)) {
+      return false;
+    }
+    InfixExpression infix = (InfixExpression) exp;
+    PrimitiveType.Code type = ExpressionTypes.typeOf(infix);
+    if (type != PrimitiveType.INT && type != PrimitiveType.LONG) {
+      return false;
+    }
+    InfixExpression.Operator operator = infix.getOperator();
+    if (operator == InfixExpression.Operator.AND) {
+      for (Expression operand : ExpressionTypes.getOperands(infix)) {
+        if (isNonNegative(operand)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    if (operator == InfixExpression.Operator.RIGHT_SHIFT_UNSIGNED) {
+      ConstantValue distance = ConstantValue.of(infix.getRightOperand());
+      int mask = type == PrimitiveType.LONG ? 63 : 31;
+      return !infix.hasExtendedOperands() && isIntegral(distance)
+          && (distance.longValue() & mask) != 0;
+    }
+    if (operator == InfixExpression.Operator.RIGHT_SHIFT_SIGNED
+        || operator == InfixExpression.Operator.REMAINDER) {
+      return isNonNegative(infix.getLeftOperand());
+    }
+    if (operator == InfixExpression.Operator.DIVIDE) {
+      List<Expression> operands = ExpressionTypes.getOperands(infix);
+      for (Expression operand : operands.subList(1, operands.size())) {
+        ConstantValue divisor = ConstantValue.of(operand);
+        if (!isIntegral(divisor) || divisor.longValue() <= 0) {
+          return false;
+        }
+      }
+      return isNonNegative(infix.getLeftOperand());
+    }
+    return false;
+  }
+
+  private static boolean isIntegral(ConstantValue value) {
+    return value.getKind() == ConstantValue.Kind.INT
+        || value.getKind() == ConstantValue.Kind.LONG
+        || value.getKind() == ConstantValue.Kind.CHAR;
+  }
+
+  private void checkRequires(final ASTNode root) {
+    ExceptionUtils.requiresNonNull(root, "Null root passed to StrengthReductionFolding.fold");
+
+    if (!(root instanceof CompilationUnit) && root.getParent() == null) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-CompilationUnit root with no parent passed to StrengthReductionFolding.fold");
+    }
+  }
+}
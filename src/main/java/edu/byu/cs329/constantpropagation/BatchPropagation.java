@@ -0,0 +1,368 @@
+package edu.byu.cs329.constantpropagation;
+
+import edu.byu.cs329.constantfolding.StrengthReductionFolding;
+import edu.byu.cs329.utils.ExceptionUtils;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Constant propagation over every Java file in a source tree.
+ *
+ * <p>Each file is parsed, propagated and written by its own task on a fixed
+ * pool of worker threads. Every task has its own tree and its own
+ * {@link ConstantPropagation} instance, so tasks share nothing and a single
+ * JVM serves the whole tree.
+ *
+ * <p>With the {@link Schedule#LARGEST_METHOD_FIRST} schedule the tasks are
+ * methods instead of files, ordered by {@link MethodScheduler} so that the
+ * largest methods of the whole tree start first. Both schedules propagate
+ * with the same {@link ConstantPropagation.Engine} and the same strength
+ * reductions, so they write the same output.
+ */
+public class BatchPropagation {
+  static final Logger log = LoggerFactory.getLogger(BatchPropagation.class);
+  private static final String USAGE = "usage: java BatchPropagation <source root> <output root>"
+      + " [thread count] [FILES|LARGEST_METHOD_FIRST] [ITERATIVE|SPARSE_CONDITIONAL]";
+
+  private final int threadCount;
+  private final Schedule schedule;
+  private final ConstantPropagation.Engine engine;
+  private final Set<StrengthReductionFolding.Rule> reductions;
+
+  /**
+   * Unit of work handed to the worker threads.
+   */
+  public enum Schedule {
+    /** Each file is propagated by one task, in file order. */
+    FILES,
+    /**
+     * Each method is propagated by one task, from the most to the least
+     * expensive over all files, on a work-stealing pool.
+     */
+    LARGEST_METHOD_FIRST
+  }
+
+  /**
+   * Time spent on one method by a {@link Schedule#LARGEST_METHOD_FIRST} run.
+   */
+  public static final class TaskTiming {
+    private final Path file;
+    private final String methodName;
+    private final long estimatedCost;
+    private final long startNanos;
+    private final long elapsedNanos;
+
+    TaskTiming(Path file, String methodName, long estimatedCost, long startNanos,
+        long elapsedNanos) {
+      this.file = file;
+      this.methodName = methodName;
+      this.estimatedCost = estimatedCost;
+      this.startNanos = startNanos;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public Path getFile() {
+      return file;
+    }
+
+    public String getMethodName() {
+      return methodName;
+    }
+
+    public long getEstimatedCost() {
+      return estimatedCost;
+    }
+
+    /**
+     * Returns when the task started.
+     *
+     * @return the nanoseconds from the start of the run to the start of the
+     *     task.
+     */
+    public long getStartNanos() {
+      return startNanos;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+  }
+
+  /**
+   * Summary of a batch run.
+   */
+  public static final class Summary {
+    private final int fileCount;
+    private final int failureCount;
+    private final int rewriteCount;
+    private final long wallTimeMillis;
+    private final List<TaskTiming> taskTimings;
+
+    Summary(int fileCount, int failureCount, int rewriteCount, long wallTimeMillis,
+        List<TaskTiming> taskTimings) {
+      this.fileCount = fileCount;
+      this.failureCount = failureCount;
+      this.rewriteCount = rewriteCount;
+      this.wallTimeMillis = wallTimeMillis;
+      this.taskTimings = Collections.unmodifiableList(taskTimings);
+    }
+
+    public int getFileCount() {
+      return fileCount;
+    }
+
+    public int getFailureCount() {
+      return failureCount;
+    }
+
+    public int getRewriteCount() {
+      return rewriteCount;
+    }
+
+    public long getWallTimeMillis() {
+      return wallTimeMillis;
+    }
+
+    /**
+     * Returns the timings of the method tasks, in the order they were
+     * submitted.
+     *
+     * @return the timings, empty unless the schedule was
+     *     {@link Schedule#LARGEST_METHOD_FIRST}.
+     */
+    public List<TaskTiming> getTaskTimings() {
+      return taskTimings;
+    }
+
+    @Override
+    public String toString() {
+      return "files: " + fileCount + ", failures: " + failureCount
+          + ", rewrites: " + rewriteCount + ", wall time: " + wallTimeMillis + " ms";
+    }
+  }
+
+  /**
+   * Creates a batch propagation with a pool of worker threads.
+   *
+   * @requires threadCount > 0
+   *
+   * @param threadCount the number of worker threads.
+   */
+  public BatchPropagation(int threadCount) {
+    this(threadCount, Schedule.FILES);
+  }
+
+  /**
+   * Creates a batch propagation with a pool of worker threads and a
+   * schedule.
+   *
+   * @requires threadCount > 0
+   *
+   * @param threadCount the number of worker threads.
+   * @param schedule the unit of work of each task.
+   */
+  public BatchPropagation(int threadCount, Schedule schedule) {
+    this(threadCount, schedule, ConstantPropagation.Engine.ITERATIVE);
+  }
+
+  /**
+   * Creates a batch propagation with a pool of worker threads, a schedule
+   * and the engine used by every task.
+   *
+   * @requires threadCount > 0
+   *
+   * @param threadCount the number of worker threads.
+   * @param schedule the unit of work of each task.
+   * @param engine the analysis that propagates each method.
+   */
+  public BatchPropagation(int threadCount, Schedule schedule, ConstantPropagation.Engine engine) {
+    this(threadCount, schedule, engine, EnumSet.allOf(StrengthReductionFolding.Rule.class));
+  }
+
+  /**
+   * Creates a batch propagation with a pool of worker threads, a schedule,
+   * the engine used by every task and the strength reductions applied to
+   * every file.
+   *
+   * @requires threadCount > 0
+   * @requires reductions != null
+   *
+   * @param threadCount the number of worker threads.
+   * @param schedule the unit of work of each task.
+   * @param engine the analysis that propagates each method.
+   * @param reductions the strength reduction rules, empty to apply none.
+   */
+  public BatchPropagation(int threadCount, Schedule schedule, ConstantPropagation.Engine engine,
+      Set<StrengthReductionFolding.Rule> reductions) {
+    if (threadCount < 1) {
+      ExceptionUtils.throwRuntimeException(
+          "Non-positive thread count passed to BatchPropagation");
+    }
+    this.threadCount = threadCount;
+    this.schedule = schedule;
+    this.engine = engine;
+    this.reductions = reductions;
+  }
+
+  /**
+   * Performs constant propagation on every Java file in a source tree.
+   *
+   * @param args args[0] is the source root, args[1] is the output root, the
+   *             optional args[2] is the number of worker threads and the
+   *             optional args[3] is the name of the schedule and the
+   *             optional args[4] is the name of the engine
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      log.error("Missing source root or output root on command line");
+      System.out.println(USAGE);
+      return;
+    }
+    if (args.length > 5) {
+      log.error("Too many arguments on command line");
+      System.out.println(USAGE);
+      return;
+    }
+
+    int threadCount = Runtime.getRuntime().availableProcessors();
+    if (args.length >= 3) {
+      try {
+        threadCount = Integer.parseInt(args[2]);
+      } catch (NumberFormatException e) {
+        threadCount = 0;
+      }
+      if (threadCount < 1) {
+        log.error("Invalid thread count " + args[2] + " on command line");
+        System.out.println(USAGE);
+        return;
+      }
+    }
+    Schedule schedule = Schedule.FILES;
+    if (args.length >= 4) {
+      try {
+        schedule = Schedule.valueOf(args[3]);
+      } catch (IllegalArgumentException e) {
+        log.error("Unknown schedule " + args[3] + " on command line");
+        System.out.println(USAGE);
+        return;
+      }
+    }
+    ConstantPropagation.Engine engine = ConstantPropagation.Engine.ITERATIVE;
+    if (args.length == 5) {
+      try {
+        engine = ConstantPropagation.Engine.valueOf(args[4]);
+      } catch (IllegalArgumentException e) {
+        log.error("Unknown engine " + args[4] + " on command line");
+        System.out.println(USAGE);
+        return;
+      }
+    }
+
+    Path sourceRoot = Paths.get(args[0]);
+    if (!Files.isDirectory(sourceRoot)) {
+      log.error("Source root " + args[0] + " is not a directory");
+      System.out.println(USAGE);
+      return;
+    }
+
+    try {
+      Summary summary = new BatchPropagation(threadCount, schedule, engine).run(sourceRoot,
+          Paths.get(args[1]));
+      System.out.println(summary);
+    } catch (IOException | InterruptedException e) {
+      log.error("Failed to propagate " + args[0], e);
+    }
+  }
+
+  /**
+   * Propagates every Java file under the source root and writes the result
+   * to the same relative path under the output root.
+   *
+   * <p>A file that fails is logged and counted; the other files are still
+   * written.
+   *
+   * @requires sourceRoot is a directory
+   *
+   * @param sourceRoot the root of the source tree.
+   * @param outputRoot the root of the output tree.
+   * @return the summary of the run.
+   * @throws IOException if the source tree cannot be listed.
+   * @throws InterruptedException if interrupted while waiting for the workers.
+   */
+  public Summary run(Path sourceRoot, Path outputRoot)
+      throws IOException, InterruptedException {
+    long startTime = System.nanoTime();
+    List<Path> files = findJavaFiles(sourceRoot);
+    if (schedule == Schedule.LARGEST_METHOD_FIRST) {
+      List<Path> outputFiles = new ArrayList<Path>(files.size());
+      for (Path file : files) {
+        outputFiles.add(outputRoot.resolve(sourceRoot.relativize(file)));
+      }
+      return new MethodScheduler(threadCount, engine, reductions)
+          .run(files, outputFiles, startTime);
+    }
+    int failureCount = 0;
+    int rewriteCount = 0;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<Integer>> futures = new ArrayList<Future<Integer>>(files.size());
+      for (Path file : files) {
+        Path outputFile = outputRoot.resolve(sourceRoot.relativize(file));
+        futures.add(executor.submit(() -> propagateFile(file, outputFile, engine, reductions)));
+      }
+      for (int i = 0; i < futures.size(); ++i) {
+        try {
+          rewriteCount += futures.get(i).get();
+        } catch (ExecutionException e) {
+          log.error("Failed to propagate " + files.get(i), e.getCause());
+          failureCount++;
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    long wallTimeMillis = (System.nanoTime() - startTime) / 1_000_000;
+    return new Summary(files.size(), failureCount, rewriteCount, wallTimeMillis,
+        Collections.emptyList());
+  }
+
+  private static List<Path> findJavaFiles(Path sourceRoot) throws IOException {
+    try (Stream<Path> paths = Files.walk(sourceRoot)) {
+      return paths
+          .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".java"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static int propagateFile(Path inputFile, Path outputFile,
+      ConstantPropagation.Engine engine, Set<StrengthReductionFolding.Rule> reductions)
+      throws IOException {
+    ASTNode node = JavaSourceUtils.getCompilationUnit(inputFile.toUri());
+    ConstantPropagation constantPropagation = new ConstantPropagation(engine, null, reductions);
+    constantPropagation.run(node);
+    Files.createDirectories(outputFile.getParent());
+    Files.write(outputFile, node.toString().getBytes(StandardCharsets.UTF_8));
+    return constantPropagation.getRewriteCount();
+  }
+}
@@ -1,36 +1,45 @@
 package edu.byu.cs329.constantpropagation;
 
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
 import edu.byu.cs329.cfg.ControlFlowGraph;
 import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.DepthFirstOrder;
+import edu.byu.cs329.constantfolding.ConstantEvaluator;
 import edu.byu.cs329.constantfolding.ConstantFolding;
+import edu.byu.cs329.constantfolding.ConstantValue;
+import edu.byu.cs329.constantfolding.StrengthReductionFolding;
 import edu.byu.cs329.rd.ReachingDefinitions;
-import edu.byu.cs329.rd.ReachingDefinitions.Definition;
 import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import edu.byu.cs329.rd.UseDefChains;
 import edu.byu.cs329.utils.JavaSourceUtils;
 import edu.byu.cs329.utils.TreeModificationUtils;
 import java.io.File;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import org.eclipse.jdt.core.dom.AST;
+import java.util.concurrent.ForkJoinPool;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Assignment;
-import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.DoStatement;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.ExpressionStatement;
 import org.eclipse.jdt.core.dom.IfStatement;
 import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
-import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.eclipse.jdt.core.dom.ParenthesizedExpression;
 import org.eclipse.jdt.core.dom.PrefixExpression;
 import org.eclipse.jdt.core.dom.ReturnStatement;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.jdt.core.dom.WhileStatement;
@@ -40,34 +49,126 @@ import org.slf4j.LoggerFactory;
 /**
  * Constant Propagation.
  *
+ * <p>An instance owns all of the state of a propagation: its builders, the
+ * analyses of the methods it is working on and the traversal state. Separate
+ * instances share nothing, so they may run on separate threads at the same
+ * time as long as each one works on its own tree. A single instance is not
+ * thread-safe and propagates one tree at a time.
+ *
+ * <p>The engine is chosen when the instance is created. Both engines give
+ * correct output for the same input, so they can be compared on output and
+ * speed. The iterative engine may also be given a pool, on which the control
+ * flow graph and reaching definitions of each method are built as separate
+ * tasks before the methods are traversed in order.
+ *
+ * <p>Once nothing more propagates, {@link StrengthReductionFolding} replaces
+ * multiplications, divisions and remainders by powers of two with shifts and
+ * masks. Its rules are chosen when the instance is created and are all
+ * enabled by default.
+ *
  * @author Eric Mercer
  * @author Austin Cook
  */
 public class ConstantPropagation {
 
   static final Logger log = LoggerFactory.getLogger(ConstantPropagation.class);
+  private static final String USAGE = "usage: java DomViewer <java file to parse>"
+      + " <html file to write> [ITERATIVE|SPARSE_CONDITIONAL]";
+
+  /**
+   * Algorithm used to find and replace the constants.
+   */
+  public enum Engine {
+    /**
+     * Folds, then replaces each use with a unique literal definition, and
+     * repeats on the rewritten statements until nothing changes.
+     */
+    ITERATIVE,
+    /**
+     * Finds the constants and executable edges of each method together with
+     * {@link SparseConditionalPropagation}, rewrites every method once and
+     * folds the rewritten statements.
+     */
+    SPARSE_CONDITIONAL
+  }
+
+  private final Engine engine;
+  private final ForkJoinPool pool;
+  private final Set<StrengthReductionFolding.Rule> reductions;
+  private final ControlFlowGraphBuilder cfgBuilder = new ControlFlowGraphBuilder();
+  private final ReachingDefinitionsBuilder rdBuilder =
+      new ReachingDefinitionsBuilder(ReachingDefinitionsBuilder.Solver.BASIC_BLOCK);
+  private ControlFlowGraph cfg = null;
+  private UseDefChains chains = null;
+  private Set<Statement> rewritten = null;
+  private Map<MethodDeclaration, MethodAnalysis> analyses = null;
+  private int analysisCount = 0;
+  private int rewriteCount = 0;
+
+  public ConstantPropagation() {
+    this(Engine.ITERATIVE);
+  }
+
+  public ConstantPropagation(Engine engine) {
+    this(engine, null);
+  }
+
+  /**
+   * Creates a propagation that analyzes methods on a pool.
+   *
+   * @param engine the engine to use.
+   * @param pool the pool that builds the analyses of the methods, or null to
+   *     build them on the calling thread.
+   */
+  public ConstantPropagation(Engine engine, ForkJoinPool pool) {
+    this(engine, pool, EnumSet.allOf(StrengthReductionFolding.Rule.class));
+  }
 
-  private static boolean changeMade = true;
-  private static ControlFlowGraph cfg = null;
-  private static ReachingDefinitions rd = null;
-  private static Set<Statement> visited = null;
+  /**
+   * Creates a propagation that analyzes methods on a pool and applies some
+   * of the strength reductions to its output.
+   *
+   * @requires reductions != null
+   *
+   * @param engine the engine to use.
+   * @param pool the pool that builds the analyses of the methods, or null to
+   *     build them on the calling thread.
+   * @param reductions the strength reduction rules to apply once nothing
+   *     more propagates, empty to apply none.
+   */
+  public ConstantPropagation(Engine engine, ForkJoinPool pool,
+      Set<StrengthReductionFolding.Rule> reductions) {
+    this.engine = engine;
+    this.pool = pool;
+    this.reductions = reductions;
+  }
 
   /**
    * Performs constant folding an a Java file.
    *
-   * @param args args[0] is the file to fold and args[1] is where to write the
-   *             output
+   * @param args args[0] is the file to fold, args[1] is where to write the
+   *             output and the optional args[2] is the name of the engine
    */
   public static void main(String[] args) {
-    if (args.length != 2) {
+    if (args.length < 2 || args.length > 3) {
       log.error("Missing Java input file or output file on command line");
-      System.out.println("usage: java DomViewer <java file to parse> <html file to write>");
+      System.out.println(USAGE);
       return;
     }
 
+    Engine engine = Engine.ITERATIVE;
+    if (args.length == 3) {
+      try {
+        engine = Engine.valueOf(args[2]);
+      } catch (IllegalArgumentException e) {
+        log.error("Unknown engine " + args[2] + " on command line");
+        System.out.println(USAGE);
+        return;
+      }
+    }
     File inputFile = new File(args[0]);
     ASTNode node = JavaSourceUtils.getCompilationUnit(inputFile.toURI());
-    ConstantPropagation.propagate(node);
+    ConstantPropagation.propagate(node, engine);
 
     try {
       PrintWriter writer = new PrintWriter(args[1], "UTF-8");
@@ -79,50 +180,316 @@ public class ConstantPropagation {
   }
 
   /**
-   * Performs constant propagation.
+   * Performs constant propagation with a new instance.
    *
    * @param node the root node for constant propagation.
    */
   public static void propagate(ASTNode node) {
-    ControlFlowGraphBuilder cfgBuilder = new ControlFlowGraphBuilder();
-    ReachingDefinitionsBuilder rdBuilder = new ReachingDefinitionsBuilder();
-    changeMade = true;
-    while (changeMade) {
-      changeMade = false;
-      node = ConstantFolding.fold(node);
-      List<ControlFlowGraph> cfgList = cfgBuilder.build(node);
-      List<ReachingDefinitions> rdList = rdBuilder.build(cfgList);
-      for (int i = 0; i < cfgList.size(); i++) {
-        initState(cfgList.get(i), rdList.get(i));
-        traverseTree(cfg.getStart());
+    new ConstantPropagation().run(node);
+  }
+
+  /**
+   * Performs constant propagation with a new instance of an engine.
+   *
+   * @param node the root node for constant propagation.
+   * @param engine the engine to use.
+   */
+  public static void propagate(ASTNode node, Engine engine) {
+    new ConstantPropagation(engine).run(node);
+  }
+
+  /**
+   * Performs constant propagation.
+   *
+   * <p>With the sparse conditional engine, the tree is folded, every method
+   * is analyzed and rewritten once, and the rewritten statements are folded.
+   *
+   * <p>With the iterative engine, the first pass analyzes and traverses every
+   * method. After that only
+   * the statements rewritten by the previous pass, and by folding them, are
+   * revisited. Replacing a name with a literal never changes a control flow
+   * graph or its reaching definitions, so a rewritten statement can only
+   * enable the uses it defines. A method is analyzed and traversed again
+   * only when folding replaces or removes one of its statements.
+   *
+   * @requires node is not being modified by another thread
+   *
+   * @param node the root node for constant propagation.
+   */
+  public void run(ASTNode node) {
+    node = beginMethods(node);
+    if (engine == Engine.SPARSE_CONDITIONAL) {
+      SparseConditionalPropagation sparse = new SparseConditionalPropagation(cfgBuilder);
+      for (MethodDeclaration method : getMethodDeclarations(node)) {
+        analysisCount++;
+        rewriteCount += sparse.propagate(method, rewritten);
       }
+    } else {
+      propagateMethods(node, analyses);
+    }
+    finishMethods(node);
+  }
+
+  /**
+   * Starts a propagation whose methods are analyzed and rewritten one at a
+   * time by the caller, with {@link #analyzeMethod}, before
+   * {@link #finishMethods} completes it.
+   *
+   * <p>The sparse conditional engine evaluates expressions, which caches
+   * literal values and local types on the nodes of the tree. Those caches are
+   * filled here, after folding, so that the analyses only read the tree.
+   *
+   * @param node the root node for constant propagation.
+   * @return the folded root node.
+   */
+  ASTNode beginMethods(ASTNode node) {
+    analysisCount = 0;
+    rewriteCount = 0;
+    rewritten = new LinkedHashSet<Statement>();
+    analyses = new IdentityHashMap<MethodDeclaration, MethodAnalysis>();
+    node = ConstantFolding.fold(node);
+    if (engine == Engine.SPARSE_CONDITIONAL) {
+      ConstantEvaluator.cacheProperties(node);
     }
+    return node;
   }
 
-  private static void traverseTree(Statement n) {
-    visited.add(n);
+  /**
+   * Analyzes one method of the tree being propagated. Once
+   * {@link #beginMethods} has filled the caches on the tree, the analysis
+   * only reads the tree and touches no state of this instance, so the
+   * methods of a tree may be analyzed at the same time. The rewrite that is
+   * returned changes the tree and this instance, so rewrites must run one at
+   * a time and not while any method of the tree is being analyzed. The
+   * literals a rewrite adds carry their cached values.
+   *
+   * @requires beginMethods was called and cfg is the graph of one of its methods
+   *
+   * @param cfg the graph of the method.
+   * @return the rewrite that replaces the constants found in the method.
+   */
+  Runnable analyzeMethod(CompactControlFlowGraph cfg) {
+    if (engine == Engine.SPARSE_CONDITIONAL) {
+      SparseConditionalPropagation sparse = new SparseConditionalPropagation(cfgBuilder);
+      sparse.analyze(cfg);
+      return () -> {
+        analysisCount++;
+        rewriteCount += sparse.replaceConstants(rewritten);
+      };
+    }
+    ReachingDefinitions rd = new ReachingDefinitionsBuilder(
+        ReachingDefinitionsBuilder.Solver.BASIC_BLOCK).build(List.of(cfg)).get(0);
+    MethodAnalysis analysis = new MethodAnalysis(cfg, rd);
+    return () -> {
+      analyses.put(cfg.getMethodDeclaration(), analysis);
+      analysisCount++;
+      initState(analysis);
+      traverseTree();
+    };
+  }
 
-    PropagationVisitor visitor = new PropagationVisitor(n);
-    n.accept(visitor);
+  /**
+   * Completes a propagation once every method has been rewritten. The
+   * sparse conditional engine folds the rewritten statements; the iterative
+   * engine revisits them until nothing changes. Then the enabled strength
+   * reductions are applied to the whole tree.
+   *
+   * @requires every method of node was rewritten
+   *
+   * @param node the folded root node returned by {@link #beginMethods}.
+   */
+  void finishMethods(ASTNode node) {
+    if (engine == Engine.SPARSE_CONDITIONAL) {
+      ConstantFolding.foldRegions(node, rewritten);
+    } else {
+      while (!rewritten.isEmpty()) {
+        Set<Statement> dirty = rewritten;
+        dirty.addAll(ConstantFolding.foldRegions(node, rewritten));
+        rewritten = new LinkedHashSet<Statement>();
+        propagateRegions(node.getRoot(), dirty, analyses);
+      }
+    }
+    if (!reductions.isEmpty()) {
+      new StrengthReductionFolding(reductions).fold(node);
+    }
+  }
 
-    // traverse to other statements
-    Set<Statement> succs = cfg.getSuccs(n);
-    if (!(succs == null)) {
-      for (Statement succ : succs) {
-        if (!visited.contains(succ) && succ != cfg.getEnd()) {
-          traverseTree(succ);
+  /**
+   * Returns how many methods were analyzed by the last propagation.
+   *
+   * @return the number of control flow graphs and reaching definitions built.
+   */
+  int getAnalysisCount() {
+    return analysisCount;
+  }
+
+  /**
+   * Returns how many names were replaced by literals in the last propagation.
+   *
+   * @return the number of rewrites.
+   */
+  public int getRewriteCount() {
+    return rewriteCount;
+  }
+
+  /**
+   * Control flow graph, reaching definitions and use-def chains of one
+   * method. The chains lose a use whenever it is replaced by a literal.
+   */
+  private static class MethodAnalysis {
+    final CompactControlFlowGraph cfg;
+    final UseDefChains chains;
+
+    MethodAnalysis(CompactControlFlowGraph cfg, ReachingDefinitions rd) {
+      this.cfg = cfg;
+      chains = new UseDefChains(cfg, rd);
+    }
+
+    /**
+     * Decides if the analysis still describes its method. Folding changes
+     * control structure only by replacing or removing statements, so the
+     * analysis is current as long as all of its statements are still in the
+     * tree.
+     *
+     * @param root the root of the tree.
+     * @return true if every statement of the graph is under root.
+     */
+    boolean isCurrent(ASTNode root) {
+      for (int id = 0; id < cfg.size(); ++id) {
+        if (cfg.statementOf(id).getRoot() != root) {
+          return false;
         }
       }
+      return true;
     }
   }
 
-  static class PropagationVisitor extends ASTVisitor {
-    public ArrayList<SimpleName> varOccList = new ArrayList<>();
-    private Set<Definition> defs;
+  private static List<MethodDeclaration> getMethodDeclarations(ASTNode node) {
+    final List<MethodDeclaration> methods = new ArrayList<MethodDeclaration>();
+    node.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(MethodDeclaration method) {
+        if (method.getBody() != null) {
+          methods.add(method);
+        }
+        return true;
+      }
+    });
+    return methods;
+  }
+
+  /**
+   * Analyzes and traverses every method declared in a node, including the
+   * node itself. All of the methods are analyzed before the first one is
+   * traversed; replacing names with literals does not change the analyses.
+   */
+  private void propagateMethods(ASTNode node, Map<MethodDeclaration, MethodAnalysis> analyses) {
+    Map<MethodDeclaration, MethodAnalysis> built = analyzeMethods(node);
+    for (MethodDeclaration method : getMethodDeclarations(node)) {
+      MethodAnalysis analysis = built.get(method);
+      analyses.put(method, analysis);
+      analysisCount++;
+      initState(analysis);
+      traverseTree();
+    }
+  }
 
-    public PropagationVisitor(Statement n) {
-      this.defs = rd.getReachingDefinitions(n);
+  /**
+   * Builds the analysis of every method declared in a node, on the pool if
+   * there is one.
+   */
+  private Map<MethodDeclaration, MethodAnalysis> analyzeMethods(ASTNode node) {
+    List<CompactControlFlowGraph> cfgList;
+    List<ReachingDefinitions> rdList;
+    if (pool == null) {
+      cfgList = cfgBuilder.buildCompact(node);
+      rdList = rdBuilder.build(cfgList);
+    } else {
+      cfgList = cfgBuilder.buildCompact(node, pool);
+      rdList = rdBuilder.build(cfgList, pool);
+    }
+    Map<MethodDeclaration, MethodAnalysis> built =
+        new IdentityHashMap<MethodDeclaration, MethodAnalysis>();
+    for (int i = 0; i < cfgList.size(); ++i) {
+      CompactControlFlowGraph cfg = cfgList.get(i);
+      built.put(cfg.getMethodDeclaration(), new MethodAnalysis(cfg, rdList.get(i)));
     }
+    return built;
+  }
+
+  /**
+   * Revisits the uses defined by the statements that are still in the tree.
+   * A method with a statement folding replaced or removed is propagated
+   * again as a whole instead. Every method holding a region was analyzed:
+   * the methods present at the start are analyzed by the first pass, and a
+   * method copied by folding is inside a method that is propagated again.
+   */
+  private void propagateRegions(ASTNode root, Set<Statement> regions,
+      Map<MethodDeclaration, MethodAnalysis> analyses) {
+    Map<MethodDeclaration, List<Statement>> regionsByMethod =
+        new LinkedHashMap<MethodDeclaration, List<Statement>>();
+    for (Statement region : regions) {
+      if (region.getRoot() == root) {
+        regionsByMethod.computeIfAbsent(getEnclosingMethod(region),
+            k -> new ArrayList<Statement>()).add(region);
+      }
+    }
+    for (Map.Entry<MethodDeclaration, List<Statement>> entry : regionsByMethod.entrySet()) {
+      MethodAnalysis analysis = analyses.get(entry.getKey());
+      if (!analysis.isCurrent(root)) {
+        propagateMethods(entry.getKey(), analyses);
+        continue;
+      }
+      initState(analysis);
+      PropagationVisitor visitor = new PropagationVisitor();
+      for (Statement region : entry.getValue()) {
+        for (SimpleName use : new ArrayList<SimpleName>(chains.getUses(region))) {
+          if (PROPAGATION_SITES.contains(use.getLocationInParent())) {
+            visitor.replaceIfPossible(use);
+          }
+        }
+      }
+    }
+  }
+
+  private static MethodDeclaration getEnclosingMethod(ASTNode node) {
+    while (!(node instanceof MethodDeclaration)) {
+      node = node.getParent();
+    }
+    return (MethodDeclaration) node;
+  }
+
+  /**
+   * Visits the statements reachable from the start in depth-first preorder,
+   * the order of a recursive search along the successors, without recursing.
+   */
+  private void traverseTree() {
+    for (Statement statement : new DepthFirstOrder(cfg).getPreorder()) {
+      if (statement != cfg.getEnd()) {
+        statement.accept(new PropagationVisitor());
+      }
+    }
+  }
+
+  /**
+   * Locations of the names that {@link PropagationVisitor} replaces.
+   */
+  static final Set<StructuralPropertyDescriptor> PROPAGATION_SITES = Set.of(
+      IfStatement.EXPRESSION_PROPERTY,
+      WhileStatement.EXPRESSION_PROPERTY,
+      DoStatement.EXPRESSION_PROPERTY,
+      InfixExpression.LEFT_OPERAND_PROPERTY,
+      InfixExpression.RIGHT_OPERAND_PROPERTY,
+      InfixExpression.EXTENDED_OPERANDS_PROPERTY,
+      PrefixExpression.OPERAND_PROPERTY,
+      ParenthesizedExpression.EXPRESSION_PROPERTY,
+      VariableDeclarationFragment.INITIALIZER_PROPERTY,
+      Assignment.RIGHT_HAND_SIDE_PROPERTY,
+      MethodInvocation.ARGUMENTS_PROPERTY,
+      ReturnStatement.EXPRESSION_PROPERTY);
+
+  class PropagationVisitor extends ASTVisitor {
+    public ArrayList<SimpleName> varOccList = new ArrayList<>();
 
     @Override
     public void endVisit(IfStatement ifStatement) {
@@ -191,41 +558,33 @@ public class ConstantPropagation {
       SimpleName replacee = (SimpleName) exp;
 
       // 1) replacee has 1 rd defining a replacement
-      Statement defStmt = getRdIfOnlyOne(replacee);
+      Statement defStmt = chains.getUniqueDefinition(replacee);
       if (defStmt == null) {
         return;
       }
       // 2) replacement defines a literal
-      ASTNode replacement = extractDefinition(defStmt);
-      if (replacement == null || !isLiteralExpression(replacement)) {
+      ConstantValue value = ConstantValue.of(extractDefinition(defStmt));
+      if (!value.isConstant()) {
         return;
       }
 
       // swap for replacement
-      ASTNode replacementCopy = copyLiteral(replacement);
+      Expression replacementCopy = value.toExpression(replacee.getAST());
+      rewritten.add(getEnclosingStatement(replacee));
       TreeModificationUtils.replaceChildInParent(replacee, replacementCopy);
-      changeMade = true;
+      chains.removeUse(replacee);
+      rewriteCount++;
     }
 
-    private Statement getRdIfOnlyOne(SimpleName replacee) {
-      String replaceName = replacee.getIdentifier();
-      Statement replacement = null;
-
-      for (Definition d : defs) {
-        if (replaceName.equals(d.name.getIdentifier())) {
-          if (replacement != null) {
-            // match already found - too many reaching definitions
-            return null;
-          }
-          replacement = d.statement;
-        }
+    private static Statement getEnclosingStatement(ASTNode node) {
+      while (!(node instanceof Statement)) {
+        node = node.getParent();
       }
-
-      return replacement;
+      return (Statement) node;
     }
 
-    private static ASTNode extractDefinition(Statement n) {
-      ASTNode def = null;
+    private static Expression extractDefinition(Statement n) {
+      Expression def = null;
 
       // get definition value if literal
       if (n instanceof ExpressionStatement) {
@@ -249,25 +608,6 @@ public class ConstantPropagation {
       return def;
     }
 
-    private static boolean isLiteralExpression(ASTNode exp) {
-      return (exp instanceof BooleanLiteral) 
-          || (exp instanceof NumberLiteral);
-    }
-
-    private static ASTNode copyLiteral(ASTNode exp) {
-      AST ast = exp.getAST();
-      ASTNode copy = null;
-
-      if (exp instanceof BooleanLiteral) {
-        copy = ast.newBooleanLiteral(((BooleanLiteral) exp).booleanValue());
-      } else {
-        // assert (exp instanceof NumberLiteral);
-        copy = ast.newNumberLiteral(((NumberLiteral) exp).getToken());
-      }
-
-      return copy;
-    }
-
     private static List<VariableDeclarationFragment> 
         getVariableDeclarationFragmentList(Object list) {
       @SuppressWarnings("unchecked")
@@ -282,9 +622,8 @@ public class ConstantPropagation {
     }
   }
 
-  private static void initState(ControlFlowGraph newCfg, ReachingDefinitions newRd) {
-    cfg = newCfg;
-    rd = newRd;
-    visited = new HashSet<>();
+  private void initState(MethodAnalysis analysis) {
+    cfg = analysis.cfg;
+    chains = analysis.chains;
   }
 }
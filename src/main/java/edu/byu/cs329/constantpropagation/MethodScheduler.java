@@ -0,0 +1,265 @@
+package edu.byu.cs329.constantpropagation;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantfolding.StrengthReductionFolding;
+import edu.byu.cs329.constantpropagation.BatchPropagation.Summary;
+import edu.byu.cs329.constantpropagation.BatchPropagation.TaskTiming;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+/**
+ * Largest-first scheduling of the methods of a batch of files.
+ *
+ * <p>The work runs in three rounds on one work-stealing pool. First every
+ * file is parsed, folded and linked into control flow graphs by its own
+ * task. Then the cost of every method of every file is estimated from its
+ * graph, and the methods are submitted from the most to the least
+ * expensive, so the largest methods start first instead of deciding when
+ * the batch ends. Last, the statements rewritten in each file are folded
+ * and the file is written.
+ *
+ * <p>Each file is propagated by its own {@link ConstantPropagation} with the
+ * engine of the scheduler, one method at a time. The analysis of a method
+ * holds the read lock of its compilation unit and its rewrite holds the
+ * write lock, so the methods of one file are analyzed in parallel but a
+ * tree is never read while it is being changed.
+ */
+final class MethodScheduler {
+  private final int threadCount;
+  private final ConstantPropagation.Engine engine;
+  private final Set<StrengthReductionFolding.Rule> reductions;
+
+  /**
+   * A file of the batch and the state shared by the tasks of its methods.
+   */
+  private static final class Unit {
+    final Path inputFile;
+    final Path outputFile;
+    final ConstantPropagation propagation;
+    final ControlFlowGraphBuilder cfgBuilder = new ControlFlowGraphBuilder();
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+    ASTNode node = null;
+    List<CompactControlFlowGraph> cfgList = null;
+    int rewriteCount = 0;
+    boolean failed = false;
+
+    Unit(Path inputFile, Path outputFile, ConstantPropagation.Engine engine,
+        Set<StrengthReductionFolding.Rule> reductions) {
+      this.inputFile = inputFile;
+      this.outputFile = outputFile;
+      this.propagation = new ConstantPropagation(engine, null, reductions);
+    }
+  }
+
+  /**
+   * A method of a unit and its estimated cost.
+   */
+  private static final class Method {
+    final Unit unit;
+    final CompactControlFlowGraph cfg;
+    final String name;
+    final long estimatedCost;
+
+    Method(Unit unit, CompactControlFlowGraph cfg) {
+      this.unit = unit;
+      this.cfg = cfg;
+      this.name = cfg.getMethodDeclaration().getName().getIdentifier();
+      this.estimatedCost = estimateCost(cfg);
+    }
+  }
+
+  /**
+   * Creates a scheduler.
+   *
+   * @requires threadCount > 0
+   *
+   * @param threadCount the parallelism of the pool.
+   * @param engine the engine that propagates the methods.
+   * @param reductions the strength reduction rules applied to every file.
+   */
+  MethodScheduler(int threadCount, ConstantPropagation.Engine engine,
+      Set<StrengthReductionFolding.Rule> reductions) {
+    this.threadCount = threadCount;
+    this.engine = engine;
+    this.reductions = reductions;
+  }
+
+  /**
+   * Estimates the cost of propagating a method from its graph. The work of
+   * the analysis grows with the number of statements, and each level of
+   * loop nesting can send the worklist around the statements once more.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the graph of the method.
+   * @return the statement count times one more than the loop depth.
+   */
+  static long estimateCost(CompactControlFlowGraph cfg) {
+    int loopDepth = 0;
+    for (int id = 0; id < cfg.size(); ++id) {
+      loopDepth = Math.max(loopDepth, getLoopDepth(cfg.statementOf(id)));
+    }
+    return (long) cfg.size() * (1 + loopDepth);
+  }
+
+  /**
+   * Counts the while statements around a statement, up to its method.
+   */
+  private static int getLoopDepth(Statement statement) {
+    int depth = 0;
+    for (ASTNode node = statement.getParent(); !(node instanceof MethodDeclaration);
+        node = node.getParent()) {
+      if (node instanceof WhileStatement) {
+        depth++;
+      }
+    }
+    return depth;
+  }
+
+  /**
+   * Propagates every file and writes the result to its output file.
+   *
+   * <p>A file that fails in any round is logged and counted, and is not
+   * written; the other files are still written.
+   *
+   * @requires files.size() == outputFiles.size()
+   *
+   * @param files the Java files to propagate.
+   * @param outputFiles where to write each file.
+   * @param startTime the value of {@link System#nanoTime()} when the batch
+   *     started.
+   * @return the summary of the run, with a timing for every method that was
+   *     propagated, in the order the methods were submitted.
+   */
+  Summary run(List<Path> files, List<Path> outputFiles, long startTime) {
+    List<Unit> units = new ArrayList<Unit>(files.size());
+    for (int i = 0; i < files.size(); ++i) {
+      units.add(new Unit(files.get(i), outputFiles.get(i), engine, reductions));
+    }
+    List<TaskTiming> timings = new ArrayList<TaskTiming>();
+
+    ForkJoinPool pool = new ForkJoinPool(threadCount);
+    try {
+      List<ForkJoinTask<Unit>> prepareTasks = new ArrayList<ForkJoinTask<Unit>>(units.size());
+      for (Unit unit : units) {
+        prepareTasks.add(pool.submit(() -> prepare(unit)));
+      }
+      List<Method> methods = new ArrayList<Method>();
+      for (int i = 0; i < units.size(); ++i) {
+        try {
+          for (CompactControlFlowGraph cfg : prepareTasks.get(i).join().cfgList) {
+            methods.add(new Method(units.get(i), cfg));
+          }
+        } catch (RuntimeException e) {
+          fail(units.get(i), e);
+        }
+      }
+
+      // a stable sort keeps the methods of equal cost in source order
+      methods.sort(Comparator.comparingLong((Method method) -> method.estimatedCost).reversed());
+      List<ForkJoinTask<TaskTiming>> methodTasks =
+          new ArrayList<ForkJoinTask<TaskTiming>>(methods.size());
+      for (Method method : methods) {
+        methodTasks.add(pool.submit(() -> propagate(method, startTime)));
+      }
+      for (int i = 0; i < methods.size(); ++i) {
+        try {
+          timings.add(methodTasks.get(i).join());
+        } catch (RuntimeException e) {
+          fail(methods.get(i).unit, e);
+        }
+      }
+
+      List<Unit> finished = new ArrayList<Unit>(units.size());
+      List<ForkJoinTask<Unit>> finishTasks = new ArrayList<ForkJoinTask<Unit>>(units.size());
+      for (Unit unit : units) {
+        if (!unit.failed) {
+          finished.add(unit);
+          finishTasks.add(pool.submit(() -> finish(unit)));
+        }
+      }
+      for (int i = 0; i < finished.size(); ++i) {
+        try {
+          finishTasks.get(i).join();
+        } catch (RuntimeException e) {
+          fail(finished.get(i), e);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    int failureCount = 0;
+    int rewriteCount = 0;
+    for (Unit unit : units) {
+      if (unit.failed) {
+        failureCount++;
+      } else {
+        rewriteCount += unit.rewriteCount;
+      }
+    }
+    long wallTimeMillis = (System.nanoTime() - startTime) / 1_000_000;
+    return new Summary(files.size(), failureCount, rewriteCount, wallTimeMillis, timings);
+  }
+
+  private static void fail(Unit unit, RuntimeException e) {
+    BatchPropagation.log.error("Failed to propagate " + unit.inputFile, e);
+    unit.failed = true;
+  }
+
+  private static Unit prepare(Unit unit) {
+    unit.node = unit.propagation.beginMethods(
+        JavaSourceUtils.getCompilationUnit(unit.inputFile.toUri()));
+    unit.cfgList = unit.cfgBuilder.buildCompact(unit.node);
+    return unit;
+  }
+
+  private static TaskTiming propagate(Method method, long startTime) {
+    long taskStartTime = System.nanoTime();
+    rewriteMethod(method);
+    long endTime = System.nanoTime();
+    return new TaskTiming(method.unit.inputFile, method.name, method.estimatedCost,
+        taskStartTime - startTime, endTime - taskStartTime);
+  }
+
+  private static void rewriteMethod(Method method) {
+    Unit unit = method.unit;
+    Runnable rewrite;
+    unit.lock.readLock().lock();
+    try {
+      rewrite = unit.propagation.analyzeMethod(method.cfg);
+    } finally {
+      unit.lock.readLock().unlock();
+    }
+    unit.lock.writeLock().lock();
+    try {
+      rewrite.run();
+    } finally {
+      unit.lock.writeLock().unlock();
+    }
+  }
+
+  private static Unit finish(Unit unit) throws IOException {
+    unit.propagation.finishMethods(unit.node);
+    unit.rewriteCount = unit.propagation.getRewriteCount();
+    Files.createDirectories(unit.outputFile.getParent());
+    Files.write(unit.outputFile, unit.node.toString().getBytes(StandardCharsets.UTF_8));
+    return unit;
+  }
+}
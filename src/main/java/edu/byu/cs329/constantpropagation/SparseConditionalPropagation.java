@@ -0,0 +1,426 @@
+package edu.byu.cs329.constantpropagation;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.constantfolding.ConstantEvaluator;
+import edu.byu.cs329.constantfolding.ConstantValue;
+import edu.byu.cs329.rd.UseDefChains;
+import edu.byu.cs329.utils.TreeModificationUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+/**
+ * Sparse conditional constant propagation on the control flow graph of a
+ * method.
+ *
+ * <p>The analysis tracks which edges of the graph can execute and the value
+ * of every local variable at the entry and exit of every statement at the
+ * same time. A value is null while no executable definition has reached it,
+ * a constant, or NOT_CONSTANT. An if or while statement whose condition is a
+ * constant makes only one of its edges executable, so the definitions in a
+ * branch that never runs do not reach the statements after it. Statements
+ * are taken from the worklist in reverse postorder and the analysis stops
+ * when no state changes.
+ *
+ * <p>A statement that assigns a local variable only at its top level is
+ * evaluated. Any other statement, including a nested block, loop or try
+ * statement that the graph does not expand, makes every variable it
+ * assigns NOT_CONSTANT. Only locals declared in the method are tracked, so
+ * a field is never constant.
+ *
+ * <p>Once the analysis is done, every use at a propagation site of an
+ * executable statement whose variable is constant at the entry of the
+ * statement is replaced by a literal, in a single pass over the method.
+ */
+final class SparseConditionalPropagation {
+  private final ControlFlowGraphBuilder cfgBuilder;
+  private CompactControlFlowGraph cfg = null;
+  private Map<String, Integer> variables = null;
+  private ConstantValue[][] entryStates = null;
+  private ConstantValue[][] exitStates = null;
+  private BitSet[] executableSuccs = null;
+
+  SparseConditionalPropagation(ControlFlowGraphBuilder cfgBuilder) {
+    this.cfgBuilder = cfgBuilder;
+  }
+
+  /**
+   * Analyzes a method and replaces the uses of its constant variables.
+   *
+   * @param method the method.
+   * @param rewritten the statements with a replaced use are added to it.
+   * @return the number of uses replaced.
+   */
+  int propagate(MethodDeclaration method, Set<Statement> rewritten) {
+    List<ControlFlowGraph> cfgList = cfgBuilder.build(method);
+    analyze(CompactControlFlowGraph.of(cfgList.get(cfgList.size() - 1)));
+    return replaceConstants(rewritten);
+  }
+
+  /**
+   * Analyzes the method of a graph. The tree is only read.
+   *
+   * @requires cfg is the graph of a method whose tree is not being modified
+   *
+   * @param cfg the graph of the method.
+   */
+  void analyze(CompactControlFlowGraph cfg) {
+    this.cfg = cfg;
+    variables = collectVariables(cfg.getMethodDeclaration());
+    solve();
+  }
+
+  /**
+   * Replaces the uses of the constants found by the last analysis.
+   *
+   * @requires analyze was called and the method has not changed since
+   *
+   * @param rewritten the statements with a replaced use are added to it.
+   * @return the number of uses replaced.
+   */
+  int replaceConstants(Set<Statement> rewritten) {
+    int rewriteCount = 0;
+    for (int id = 0; id < cfg.size(); ++id) {
+      if (entryStates[id] != null) {
+        rewriteCount += rewrite(cfg.statementOf(id), entryStates[id], rewritten);
+      }
+    }
+    return rewriteCount;
+  }
+
+  private void solve() {
+    int size = cfg.size();
+    entryStates = new ConstantValue[size][];
+    exitStates = new ConstantValue[size][];
+    executableSuccs = new BitSet[size];
+    BitSet worklist = new BitSet(size);
+    worklist.set(cfg.startId());
+    while (!worklist.isEmpty()) {
+      int id = worklist.nextSetBit(0);
+      worklist.clear(id);
+      Statement statement = cfg.statementOf(id);
+      ConstantValue[] entry = meetPredecessors(id);
+      ConstantValue[] exit = entry.clone();
+      transfer(statement, exit);
+      BitSet succs = getExecutableSuccs(id, statement, entry);
+      entryStates[id] = entry;
+      // The successors of a branch change only with its entry, which is its exit
+      if (!Arrays.equals(exit, exitStates[id])) {
+        exitStates[id] = exit;
+        executableSuccs[id] = succs;
+        worklist.or(succs);
+      }
+    }
+  }
+
+  /**
+   * Meets the exit states of the predecessors with an executable edge to a
+   * statement, and the parameters if it is the start.
+   */
+  private ConstantValue[] meetPredecessors(int id) {
+    ConstantValue[] entry = null;
+    if (id == cfg.startId()) {
+      entry = new ConstantValue[variables.size()];
+      for (Object parameter : cfg.getMethodDeclaration().parameters()) {
+        entry[variables.get(((SingleVariableDeclaration) parameter).getName().getIdentifier())] =
+            ConstantValue.NOT_CONSTANT;
+      }
+    }
+    for (int k = 0; k < cfg.predCount(id); ++k) {
+      int pred = cfg.predId(id, k);
+      if (executableSuccs[pred] == null || !executableSuccs[pred].get(id)) {
+        continue;
+      }
+      if (entry == null) {
+        entry = exitStates[pred].clone();
+      } else {
+        for (int v = 0; v < entry.length; ++v) {
+          entry[v] = meet(entry[v], exitStates[pred][v]);
+        }
+      }
+    }
+    return entry;
+  }
+
+  private static ConstantValue meet(ConstantValue left, ConstantValue right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null || left.equals(right)) {
+      return left;
+    }
+    return ConstantValue.NOT_CONSTANT;
+  }
+
+  private void transfer(Statement statement, ConstantValue[] state) {
+    List<SimpleName> assigned = collectAssigned(statement);
+    if (isTopLevelAssignment(statement, assigned)) {
+      Assignment assignment = (Assignment) ((ExpressionStatement) statement).getExpression();
+      SimpleName name = (SimpleName) assignment.getLeftHandSide();
+      int variable = variables.get(name.getIdentifier());
+      ConstantValue value = evaluate(assignment.getRightHandSide(), state);
+      ConstantValue current = state[variable];
+      if (value == null
+          || (assignment.getOperator() != Assignment.Operator.ASSIGN && current == null)) {
+        state[variable] = null;
+      } else {
+        state[variable] = ConstantEvaluator.assign(name, assignment.getOperator(), current, value);
+      }
+      return;
+    }
+    if (isTopLevelDeclaration(statement, assigned)) {
+      for (Object object : ((VariableDeclarationStatement) statement).fragments()) {
+        VariableDeclarationFragment fragment = (VariableDeclarationFragment) object;
+        ConstantValue value = fragment.getInitializer() == null
+            ? null : evaluate(fragment.getInitializer(), state);
+        state[variables.get(fragment.getName().getIdentifier())] = value == null
+            ? null : ConstantEvaluator.assign(fragment.getName(), Assignment.Operator.ASSIGN,
+                null, value);
+      }
+      return;
+    }
+    for (SimpleName name : assigned) {
+      state[variables.get(name.getIdentifier())] = ConstantValue.NOT_CONSTANT;
+    }
+  }
+
+  /**
+   * Returns the executable successors of a statement. An if or while
+   * statement with a constant condition takes one branch, and one whose
+   * condition has no value yet takes none.
+   */
+  private BitSet getExecutableSuccs(int id, Statement statement, ConstantValue[] entry) {
+    BitSet succs = new BitSet();
+    Statement taken = null;
+    Statement notTaken = null;
+    if ((statement instanceof IfStatement || statement instanceof WhileStatement)
+        && collectAssigned(statement).isEmpty()) {
+      Expression condition = statement instanceof IfStatement
+          ? ((IfStatement) statement).getExpression()
+          : ((WhileStatement) statement).getExpression();
+      ConstantValue value = evaluate(condition, entry);
+      if (value == null) {
+        return succs;
+      }
+      if (value.getKind() == ConstantValue.Kind.BOOLEAN) {
+        Statement[] targets = getBranchTargets(statement);
+        taken = value.booleanValue() ? targets[0] : targets[1];
+        notTaken = value.booleanValue() ? targets[1] : targets[0];
+      }
+    }
+    for (int k = 0; k < cfg.succCount(id); ++k) {
+      int succ = cfg.succId(id, k);
+      Statement target = cfg.statementOf(succ);
+      if (taken == null ? target != notTaken : target == taken) {
+        succs.set(succ);
+      }
+    }
+    return succs;
+  }
+
+  /**
+   * Returns the first statements of the true and false branches of an if or
+   * while statement. A null branch target is the statement after it.
+   */
+  private static Statement[] getBranchTargets(Statement statement) {
+    if (statement instanceof WhileStatement) {
+      Statement body = getFirstStatement(((WhileStatement) statement).getBody());
+      return new Statement[] {body == null ? statement : body, null};
+    }
+    IfStatement ifStatement = (IfStatement) statement;
+    return new Statement[] {getFirstStatement(ifStatement.getThenStatement()),
+        getFirstStatement(ifStatement.getElseStatement())};
+  }
+
+  /**
+   * Returns the first statement of a branch. A branch that is not a block,
+   * e.g., the if-statement of an else-if, is its own first statement, as in
+   * the control flow graph.
+   */
+  private static Statement getFirstStatement(Statement branch) {
+    if (!(branch instanceof Block)) {
+      return branch;
+    }
+    List<?> statements = ((Block) branch).statements();
+    return statements.isEmpty() ? null : (Statement) statements.get(0);
+  }
+
+  /**
+   * Evaluates an expression in a state.
+   *
+   * @return the value, or null if a variable in it has no value yet.
+   */
+  private ConstantValue evaluate(Expression exp, ConstantValue[] state) {
+    boolean[] undefined = {false};
+    ConstantValue value = ConstantEvaluator.evaluate(exp, name -> {
+      Integer variable = variables.get(name.getIdentifier());
+      if (variable == null) {
+        return ConstantValue.NOT_CONSTANT;
+      }
+      if (state[variable] == null) {
+        undefined[0] = true;
+        return ConstantValue.NOT_CONSTANT;
+      }
+      return state[variable];
+    });
+    return undefined[0] ? null : value;
+  }
+
+  /**
+   * Replaces the uses of constants in a statement. A use of a variable the
+   * statement also assigns is kept unless the statement is a top-level
+   * assignment, which reads all of its uses before it assigns.
+   */
+  private int rewrite(Statement statement, ConstantValue[] entry, Set<Statement> rewritten) {
+    List<SimpleName> assigned = collectAssigned(statement);
+    boolean readsEntry = isTopLevelAssignment(statement, assigned);
+    List<String> assignedIdentifiers = new ArrayList<String>();
+    for (SimpleName name : assigned) {
+      assignedIdentifiers.add(name.getIdentifier());
+    }
+    int rewriteCount = 0;
+    for (SimpleName use : UseDefChains.collectUses(statement)) {
+      Integer variable = variables.get(use.getIdentifier());
+      if (variable == null
+          || !ConstantPropagation.PROPAGATION_SITES.contains(use.getLocationInParent())
+          || (!readsEntry && assignedIdentifiers.contains(use.getIdentifier()))
+          || entry[variable] == null || !entry[variable].isConstant()) {
+        continue;
+      }
+      TreeModificationUtils.replaceChildInParent(use, entry[variable].toExpression(use.getAST()));
+      rewritten.add(statement);
+      rewriteCount++;
+    }
+    return rewriteCount;
+  }
+
+  private boolean isTopLevelAssignment(Statement statement, List<SimpleName> assigned) {
+    if (!(statement instanceof ExpressionStatement)
+        || !(((ExpressionStatement) statement).getExpression() instanceof Assignment)) {
+      return false;
+    }
+    Expression lhs = ((Assignment) ((ExpressionStatement) statement).getExpression())
+        .getLeftHandSide();
+    return assigned.size() == 1 && assigned.get(0) == lhs;
+  }
+
+  private static boolean isTopLevelDeclaration(Statement statement, List<SimpleName> assigned) {
+    return statement instanceof VariableDeclarationStatement
+        && assigned.size() == ((VariableDeclarationStatement) statement).fragments().size();
+  }
+
+  /**
+   * Collects the names of tracked variables that a statement assigns,
+   * declares, increments or decrements, including in the statements nested
+   * in it that are not in the graph.
+   */
+  private List<SimpleName> collectAssigned(final Statement statement) {
+    final List<SimpleName> assigned = new ArrayList<SimpleName>();
+    statement.accept(new ASTVisitor() {
+      @Override
+      public boolean preVisit2(ASTNode node) {
+        if (node instanceof TypeDeclarationStatement) {
+          return false;
+        }
+        return node == statement || !(node instanceof Statement)
+            || cfg.idOf((Statement) node) < 0;
+      }
+
+      @Override
+      public boolean visit(Assignment node) {
+        add(node.getLeftHandSide());
+        return true;
+      }
+
+      @Override
+      public boolean visit(VariableDeclarationFragment node) {
+        add(node.getName());
+        return true;
+      }
+
+      @Override
+      public boolean visit(SingleVariableDeclaration node) {
+        add(node.getName());
+        return true;
+      }
+
+      @Override
+      public boolean visit(PrefixExpression node) {
+        if (node.getOperator() == PrefixExpression.Operator.INCREMENT
+            || node.getOperator() == PrefixExpression.Operator.DECREMENT) {
+          add(node.getOperand());
+        }
+        return true;
+      }
+
+      @Override
+      public boolean visit(PostfixExpression node) {
+        add(node.getOperand());
+        return true;
+      }
+
+      private void add(Expression exp) {
+        if (exp instanceof SimpleName
+            && variables.containsKey(((SimpleName) exp).getIdentifier())) {
+          assigned.add((SimpleName) exp);
+        }
+      }
+    });
+    return assigned;
+  }
+
+  /**
+   * Numbers the parameters and the local variables declared in a method.
+   */
+  private static Map<String, Integer> collectVariables(MethodDeclaration method) {
+    final Map<String, Integer> variables = new HashMap<String, Integer>();
+    method.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(AnonymousClassDeclaration node) {
+        return false;
+      }
+
+      @Override
+      public boolean visit(TypeDeclarationStatement node) {
+        return false;
+      }
+
+      @Override
+      public boolean visit(VariableDeclarationFragment node) {
+        variables.putIfAbsent(node.getName().getIdentifier(), variables.size());
+        return true;
+      }
+
+      @Override
+      public boolean visit(SingleVariableDeclaration node) {
+        variables.putIfAbsent(node.getName().getIdentifier(), variables.size());
+        return true;
+      }
+    });
+    return variables;
+  }
+}
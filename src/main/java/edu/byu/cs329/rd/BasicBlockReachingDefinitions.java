@@ -0,0 +1,202 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.BasicBlockGraph;
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Reaching definitions solved with bit vectors over basic blocks.
+ *
+ * <p>The gen and kill sets of the statements of a block are composed into
+ * one gen and one kill set for the block, and the worklist algorithm keeps
+ * only the entry set of each block. The entry set of a statement is
+ * recovered by applying the statements before it in its block to the entry
+ * set of the block. The scan keeps its position, so asking for the
+ * statements of a block in order, as {@link UseDefChains} does, applies
+ * every statement once. Because of that position, one instance must not be
+ * queried by several threads at once.
+ */
+class BasicBlockReachingDefinitions implements NumberedReachingDefinitions {
+  private final CompactControlFlowGraph cfg;
+  private final BasicBlockGraph blocks;
+  private final VariableTable variableTable;
+  private final int[] genDefinition;
+  private final BitSet[] blockEntrySets;
+  private final Set<Definition>[] materialized;
+  private final BitSet scanSet;
+  private int scanId = -1;
+  private int evaluationCount = 0;
+
+  @SuppressWarnings("unchecked")
+  BasicBlockReachingDefinitions(ControlFlowGraph graph) {
+    cfg = CompactControlFlowGraph.of(graph);
+    blocks = cfg.getBasicBlockGraph();
+    int size = cfg.size();
+    genDefinition = new int[size];
+    blockEntrySets = new BitSet[blocks.size()];
+    materialized = new Set[size];
+
+    List<Statement> statementList = new ArrayList<Statement>(size);
+    for (int id = 0; id < size; ++id) {
+      statementList.add(cfg.statementOf(id));
+    }
+    variableTable = new VariableTable(graph.getMethodDeclaration(), statementList);
+    for (int id = 0; id < size; ++id) {
+      genDefinition[id] = variableTable.getDefinitionNumber(cfg.statementOf(id));
+    }
+    scanSet = new BitSet(variableTable.getDefinitionCount());
+    solve();
+  }
+
+  @Override
+  public Set<Definition> getReachingDefinitions(final Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return null;
+    }
+    if (materialized[id] == null) {
+      BitSet entrySet = getEntrySet(s);
+      if (entrySet == null) {
+        return null;
+      }
+      Set<Definition> set = new HashSet<Definition>();
+      for (int i = entrySet.nextSetBit(0); i >= 0; i = entrySet.nextSetBit(i + 1)) {
+        set.add(variableTable.getDefinition(i));
+      }
+      materialized[id] = Collections.unmodifiableSet(set);
+    }
+    return materialized[id];
+  }
+
+  int getEvaluationCount() {
+    return evaluationCount;
+  }
+
+  @Override
+  public VariableTable getVariableTable() {
+    return variableTable;
+  }
+
+  /**
+   * Returns the definitions reaching a statement by scanning its block
+   * forward, from the last statement asked for if it is earlier in the same
+   * block, otherwise from the entry of the block.
+   *
+   * @param s the statement.
+   * @return the entry set, reused by the next call, or null if the statement
+   *     is not reached.
+   */
+  @Override
+  public BitSet getEntrySet(Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return null;
+    }
+    int block = blocks.blockOf(id);
+    if (blockEntrySets[block] == null) {
+      return null;
+    }
+    if (scanId < 0 || blocks.blockOf(scanId) != block || scanId > id) {
+      scanSet.clear();
+      scanSet.or(blockEntrySets[block]);
+      scanId = blocks.firstId(block);
+    }
+    for (; scanId < id; ++scanId) {
+      transfer(scanId, scanSet);
+    }
+    return scanSet;
+  }
+
+  /**
+   * Applies the transfer function of a statement, (set \ kill) U gen.
+   */
+  private void transfer(int id, BitSet set) {
+    if (genDefinition[id] >= 0) {
+      int variable = variableTable.getVariableOfDefinition(genDefinition[id]);
+      set.andNot(variableTable.getDefinitionMask(variable));
+      set.set(genDefinition[id]);
+    }
+  }
+
+  /**
+   * Runs the worklist algorithm over blocks. Blocks are numbered in the
+   * reverse postorder of their first statements, so they order the worklist
+   * directly.
+   *
+   * @modifies blockEntrySets, evaluationCount
+   */
+  private void solve() {
+    int blockCount = blocks.size();
+    int definitionCount = variableTable.getDefinitionCount();
+    BitSet[] genSets = new BitSet[blockCount];
+    BitSet[] killSets = new BitSet[blockCount];
+    for (int b = 0; b < blockCount; ++b) {
+      BitSet gen = new BitSet(definitionCount);
+      BitSet kill = new BitSet(definitionCount);
+      for (int id = blocks.firstId(b); id <= blocks.lastId(b); ++id) {
+        if (genDefinition[id] >= 0) {
+          int variable = variableTable.getVariableOfDefinition(genDefinition[id]);
+          kill.or(variableTable.getDefinitionMask(variable));
+          transfer(id, gen);
+        }
+      }
+      genSets[b] = gen;
+      killSets[b] = kill;
+    }
+
+    BitSet[] exitSets = new BitSet[blockCount];
+    BitSet newExitSet = new BitSet(definitionCount);
+    Worklist workList = new Worklist(blockCount);
+    workList.add(blocks.startBlock());
+
+    while (!workList.isEmpty()) {
+      int b = workList.remove();
+      evaluationCount++;
+
+      // entry set is union of exit sets of all predecessors
+      BitSet entrySet = blockEntrySets[b];
+      if (entrySet == null) {
+        entrySet = new BitSet(definitionCount);
+        blockEntrySets[b] = entrySet;
+      } else {
+        entrySet.clear();
+      }
+      if (b == blocks.startBlock()) {
+        entrySet.or(variableTable.getParameterDefinitions());
+      }
+      for (int k = 0; k < blocks.predCount(b); ++k) {
+        BitSet predExitSet = exitSets[blocks.predId(b, k)];
+        if (predExitSet != null) {
+          entrySet.or(predExitSet);
+        }
+      }
+
+      // exit set is (entry \ kill) U gen
+      newExitSet.clear();
+      newExitSet.or(entrySet);
+      newExitSet.andNot(killSets[b]);
+      newExitSet.or(genSets[b]);
+
+      // add successors to workList if exitSet changed
+      BitSet oldExitSet = exitSets[b];
+      if (oldExitSet == null || !oldExitSet.equals(newExitSet)) {
+        if (oldExitSet == null) {
+          exitSets[b] = (BitSet) newExitSet.clone();
+        } else {
+          oldExitSet.clear();
+          oldExitSet.or(newExitSet);
+        }
+        for (int k = 0; k < blocks.succCount(b); ++k) {
+          workList.add(blocks.succId(b, k));
+        }
+      }
+    }
+  }
+}
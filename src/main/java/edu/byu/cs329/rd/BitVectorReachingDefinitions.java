@@ -0,0 +1,147 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Reaching definitions solved with bit vectors.
+ *
+ * <p>Every definition of the method is numbered once by a {@link VariableTable}.
+ * The gen set of each statement is a definition number and its kill set is
+ * the mask of its variable, so the transfer function is an in-place and-not
+ * followed by a set, and the sets of definitions are only materialized when
+ * {@link #getReachingDefinitions(Statement)} asks for them.
+ */
+class BitVectorReachingDefinitions implements NumberedReachingDefinitions {
+  private final CompactControlFlowGraph cfg;
+  private final VariableTable variableTable;
+  private final int[] genDefinition;
+  private final BitSet[] killMasks;
+  private final BitSet[] entrySets;
+  private final Set<Definition>[] materialized;
+  private int evaluationCount = 0;
+
+  @SuppressWarnings("unchecked")
+  BitVectorReachingDefinitions(ControlFlowGraph graph) {
+    cfg = CompactControlFlowGraph.of(graph);
+    int size = cfg.size();
+    genDefinition = new int[size];
+    killMasks = new BitSet[size];
+    entrySets = new BitSet[size];
+    materialized = new Set[size];
+
+    List<Statement> statementList = new ArrayList<Statement>(size);
+    for (int id = 0; id < size; ++id) {
+      statementList.add(cfg.statementOf(id));
+    }
+    variableTable = new VariableTable(graph.getMethodDeclaration(), statementList);
+    for (int id = 0; id < size; ++id) {
+      genDefinition[id] = variableTable.getDefinitionNumber(cfg.statementOf(id));
+      if (genDefinition[id] >= 0) {
+        int variable = variableTable.getVariableOfDefinition(genDefinition[id]);
+        killMasks[id] = variableTable.getDefinitionMask(variable);
+      }
+    }
+    solve();
+  }
+
+  @Override
+  public Set<Definition> getReachingDefinitions(final Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return null;
+    }
+    if (materialized[id] == null) {
+      BitSet entrySet = entrySets[id];
+      Set<Definition> set = new HashSet<Definition>();
+      for (int i = entrySet.nextSetBit(0); i >= 0; i = entrySet.nextSetBit(i + 1)) {
+        set.add(variableTable.getDefinition(i));
+      }
+      materialized[id] = Collections.unmodifiableSet(set);
+    }
+    return materialized[id];
+  }
+
+  int getEvaluationCount() {
+    return evaluationCount;
+  }
+
+  @Override
+  public VariableTable getVariableTable() {
+    return variableTable;
+  }
+
+  @Override
+  public BitSet getEntrySet(Statement s) {
+    int id = cfg.idOf(s);
+    if (id < 0) {
+      return null;
+    }
+    return entrySets[id];
+  }
+
+  /**
+   * Runs the worklist algorithm over statement ids. The ids of a compact
+   * graph are in reverse postorder, so they order the worklist directly.
+   *
+   * @modifies entrySets, evaluationCount
+   */
+  private void solve() {
+    BitSet[] exitSets = new BitSet[cfg.size()];
+    BitSet newExitSet = new BitSet(variableTable.getDefinitionCount());
+    Worklist workList = new Worklist(cfg.size());
+    workList.add(cfg.startId());
+
+    while (!workList.isEmpty()) {
+      int n = workList.remove();
+      evaluationCount++;
+
+      // entry set is union of exit sets of all predecessors
+      BitSet entrySet = entrySets[n];
+      if (entrySet == null) {
+        entrySet = new BitSet(variableTable.getDefinitionCount());
+        entrySets[n] = entrySet;
+      } else {
+        entrySet.clear();
+      }
+      if (n == cfg.startId()) {
+        entrySet.or(variableTable.getParameterDefinitions());
+      }
+      for (int k = 0; k < cfg.predCount(n); ++k) {
+        BitSet predExitSet = exitSets[cfg.predId(n, k)];
+        if (predExitSet != null) {
+          entrySet.or(predExitSet);
+        }
+      }
+
+      // exit set is (entry \ kill) U gen
+      newExitSet.clear();
+      newExitSet.or(entrySet);
+      if (genDefinition[n] >= 0) {
+        newExitSet.andNot(killMasks[n]);
+        newExitSet.set(genDefinition[n]);
+      }
+
+      // add successors to workList if exitSet changed
+      BitSet oldExitSet = exitSets[n];
+      if (oldExitSet == null || !oldExitSet.equals(newExitSet)) {
+        if (oldExitSet == null) {
+          exitSets[n] = (BitSet) newExitSet.clone();
+        } else {
+          oldExitSet.clear();
+          oldExitSet.or(newExitSet);
+        }
+        for (int k = 0; k < cfg.succCount(n); ++k) {
+          workList.add(cfg.succId(n, k));
+        }
+      }
+    }
+  }
+}
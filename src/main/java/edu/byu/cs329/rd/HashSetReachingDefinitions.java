@@ -0,0 +1,163 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.DepthFirstOrder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Reaching definitions solved with hash sets of definitions.
+ *
+ * <p>All of the state of the worklist algorithm belongs to one graph, so
+ * graphs can be solved at the same time by separate instances.
+ */
+class HashSetReachingDefinitions implements ReachingDefinitions {
+  private final ControlFlowGraph cfg;
+  private final Map<Statement, Set<Definition>> entrySetMap;
+  private final Map<Statement, Set<Definition>> exitSetMap;
+  private final Map<Statement, Set<Definition>> killSetMap;
+  private final Map<Statement, Set<Definition>> genSetMap;
+  private final Map<Statement, Set<Definition>> reachingDefinitions;
+  private VariableTable variableTable = null;
+  private Set<Definition> parameterDefinitions = null;
+  private List<Statement> statementList = null;
+  private DepthFirstOrder order = null;
+  private int evaluationCount = 0;
+
+  HashSetReachingDefinitions(ControlFlowGraph cfg) {
+    this.cfg = cfg;
+    entrySetMap = new HashMap<Statement, Set<Definition>>();
+    exitSetMap = new HashMap<Statement, Set<Definition>>();
+    killSetMap = new HashMap<Statement, Set<Definition>>();
+    genSetMap = new HashMap<Statement, Set<Definition>>();
+
+    computeKillAndGenSets();
+    parameterDefinitions = variableTable.getParameterDefinitionSet();
+    buildEntrySetMap();
+    reachingDefinitions = Collections.unmodifiableMap(entrySetMap);
+  }
+
+  @Override
+  public Set<Definition> getReachingDefinitions(final Statement s) {
+    Set<Definition> returnValue = null;
+    if (reachingDefinitions.containsKey(s)) {
+      returnValue = reachingDefinitions.get(s);
+    }
+    return returnValue;
+  }
+
+  int getEvaluationCount() {
+    return evaluationCount;
+  }
+
+  /**
+   * Computes the kill and gen sets for each statement in a cfg. These sets are
+   * not modified once computed. The kill set of a statement is the shared set
+   * of all definitions of the variable it defines.
+   *
+   * @modifies statementList, order, variableTable, killSetMap and genSetMap
+   */
+  private void computeKillAndGenSets() {
+    order = new DepthFirstOrder(cfg);
+    statementList = order.getReversePostorder();
+
+    variableTable = new VariableTable(cfg.getMethodDeclaration(), statementList);
+    for (Statement n : statementList) {
+      int number = variableTable.getDefinitionNumber(n);
+      if (number < 0) {
+        killSetMap.put(n, Collections.emptySet());
+        genSetMap.put(n, Collections.emptySet());
+      } else {
+        int variable = variableTable.getVariableOfDefinition(number);
+        killSetMap.put(n, variableTable.getDefinitionSet(variable));
+        genSetMap.put(n, Collections.singleton(variableTable.getDefinition(number)));
+      }
+    }
+  }
+
+  /**
+   * Computes the entry sets for all statements in a method. The worklist
+   * visits statements in reverse postorder and never holds one twice.
+   *
+   * @modifies exitSetMap, entrySetMap, evaluationCount
+   */
+  private void buildEntrySetMap() {
+    Worklist workList = new Worklist(statementList.size());
+    workList.add(reversePostorderNumber(cfg.getStart()));
+
+    // WorkList algorithm
+    while (!workList.isEmpty()) {
+      Statement n = statementList.get(workList.remove());
+      evaluationCount++;
+
+      // save oldExitSet for later reference
+      Set<Definition> oldExitSet = null;
+      if (exitSetMap.containsKey(n)) {
+        oldExitSet = exitSetMap.get(n);
+      }
+
+      // compute entry set for n
+      Set<Definition> newEntrySet = computeEntrySet(n);
+      entrySetMap.put(n, newEntrySet);
+
+      // compute new exit set for n
+      Set<Definition> newExitSet = new HashSet<>(newEntrySet);
+      subtractKillSet(n, newExitSet);
+      unionGenSet(n, newExitSet);
+      exitSetMap.put(n, newExitSet);
+
+      // add successors to workList if exitSet changed
+      if (oldExitSet == null || !oldExitSet.equals(newExitSet)) {
+        Set<Statement> succs = cfg.getSuccs(n);
+        if (succs != null) {
+          for (Statement succ : succs) {
+            workList.add(reversePostorderNumber(succ));
+          }
+        }
+      }
+    }
+  }
+
+  private int reversePostorderNumber(Statement n) {
+    return statementList.size() - 1 - order.getPostorderNumber(n);
+  }
+
+  private Set<Definition> computeEntrySet(Statement n) {
+    Set<Definition> newEntrySet;
+    if (n == cfg.getStart()) {
+      // entry set for first statement contains params (set previously)
+      newEntrySet = new HashSet<>(parameterDefinitions);
+    } else {
+      newEntrySet = new HashSet<>();
+    }
+
+    // entry set is union of exit sets of all predecessors
+    Set<Statement> preds = cfg.getPreds(n);
+    if (preds != null) {
+      for (Statement pred : preds) {
+        if (exitSetMap.containsKey(pred)) {
+          Set<Definition> predExitSet = exitSetMap.get(pred);
+          // union pred's defs to n's entry set
+          for (Definition predExitDef : predExitSet) {
+            newEntrySet.add(predExitDef);
+          }
+        }
+      }
+    }
+
+    return newEntrySet;
+  }
+
+  private void subtractKillSet(Statement n, Set<Definition> newExitSet) {
+    newExitSet.removeAll(killSetMap.get(n));
+  }
+
+  private void unionGenSet(Statement n, Set<Definition> newExitSet) {
+    newExitSet.addAll(genSetMap.get(n));
+  }
+}
@@ -0,0 +1,23 @@
+package edu.byu.cs329.rd;
+
+import java.util.BitSet;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Reaching definitions that number the definitions with a
+ * {@link VariableTable} and can answer with bit vectors, so a client such as
+ * {@link UseDefChains} never materializes sets of definitions.
+ */
+interface NumberedReachingDefinitions extends ReachingDefinitions {
+  VariableTable getVariableTable();
+
+  /**
+   * Returns the definitions reaching a statement as numbers of the variable
+   * table without materializing them.
+   *
+   * @param s the statement.
+   * @return the entry set, which must not be modified and may be reused by
+   *     the next call, or null if the statement is not reached.
+   */
+  BitSet getEntrySet(Statement s);
+}
@@ -1,251 +1,128 @@
 package edu.byu.cs329.rd;
 
 import edu.byu.cs329.cfg.ControlFlowGraph;
-import edu.byu.cs329.rd.ReachingDefinitions.Definition;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import org.eclipse.jdt.core.dom.Assignment;
-import org.eclipse.jdt.core.dom.ExpressionStatement;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.dom.Statement;
-import org.eclipse.jdt.core.dom.VariableDeclaration;
-import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
-import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 
 /**
  * Builder for reaching definitions on a control flow graph.
+ *
+ * <p>Each graph is solved by its own solver instance and the builder keeps
+ * only the evaluation count of the last build, so the graphs of a build can
+ * be solved as independent tasks.
  */
 public class ReachingDefinitionsBuilder {
-  private List<ReachingDefinitions> rdList = null;
-  private Map<Statement, Set<Definition>> entrySetMap = null;
-  private Map<Statement, Set<Definition>> exitSetMap = null;
-  private Map<Statement, Set<SimpleName>> killSetMap = null;
-  private Map<Statement, Set<SimpleName>> genSetMap = null;
-  private ControlFlowGraph cfg = null;
-  private Set<Definition> parameterDefinitions = null;
-
   /**
-   * Computes the reaching definitions for each control flow graph.
-   *
-   * @param cfgList the list of control flow graphs.
-   * @return the coresponding reaching definitions for each graph.
+   * Representation used to solve the dataflow equations.
    */
-  public List<ReachingDefinitions> build(List<ControlFlowGraph> cfgList) {
-    rdList = new ArrayList<ReachingDefinitions>();
-    for (ControlFlowGraph cfg : cfgList) {
-      this.cfg = cfg;
-      ReachingDefinitions rd = computeReachingDefinitions();
-      rdList.add(rd);
-    }
-    return rdList;
+  public enum Solver {
+    /** Entry and exit sets are hash sets of definitions. */
+    HASH_SET,
+    /** Definitions are numbered and entry and exit sets are bit vectors. */
+    BIT_VECTOR,
+    /**
+     * Like BIT_VECTOR, but the sets are kept per basic block and the set of
+     * a statement is recovered by a forward scan of its block.
+     */
+    BASIC_BLOCK
   }
 
-  private ReachingDefinitions computeReachingDefinitions() {
-    entrySetMap = new HashMap<Statement, Set<Definition>>();
-    exitSetMap = new HashMap<Statement, Set<Definition>>();
-    killSetMap = new HashMap<Statement, Set<SimpleName>>();
-    genSetMap = new HashMap<Statement, Set<SimpleName>>();
-    
-    parameterDefinitions = createParameterDefinitions(cfg.getMethodDeclaration());
-    computeKillAndGenSets();
-    buildEntrySetMap();
-    
-    return new ReachingDefinitions() {
-      final Map<Statement, Set<Definition>> reachingDefinitions = 
-          Collections.unmodifiableMap(entrySetMap);
+  private final Solver solver;
+  private int evaluationCount = 0;
 
-      @Override 
-      public Set<Definition> getReachingDefinitions(final Statement s) {
-        Set<Definition> returnValue = null;
-        if (reachingDefinitions.containsKey(s)) {
-          returnValue = reachingDefinitions.get(s);
-        }
-        return returnValue;
-      }
-    };
+  public ReachingDefinitionsBuilder() {
+    this(Solver.HASH_SET);
   }
 
-  private Set<Definition> createParameterDefinitions(MethodDeclaration methodDeclaration) {
-    List<VariableDeclaration> parameterList = 
-        getParameterList(methodDeclaration.parameters());
-    Set<Definition> set = new HashSet<Definition>();
-
-    for (VariableDeclaration parameter : parameterList) {
-      Definition definition = createDefinition(parameter.getName(), null);
-      set.add(definition);  
-    }
-
-    return set;
+  public ReachingDefinitionsBuilder(Solver solver) {
+    this.solver = solver;
   }
 
   /**
-   * Computes the kill and gen sets for each statement in a cfg. These sets are
-   * not modified once computed. 
-   *
-   * @modifies killSetMap and genSetMap
+   * Reaching definitions of one graph and the work it took to solve them.
    */
-  private void computeKillAndGenSets() {
-    Statement start = cfg.getStart();
-    Set<Statement> visited = new HashSet<>();
-    computeKillAndGenSetsHelper(start, visited);
+  private static final class Solution {
+    final ReachingDefinitions rd;
+    final int evaluationCount;
+
+    Solution(ReachingDefinitions rd, int evaluationCount) {
+      this.rd = rd;
+      this.evaluationCount = evaluationCount;
+    }
   }
 
   /**
-   * Computes the entry sets for all statements in a method.
+   * Computes the reaching definitions for each control flow graph.
    *
-   * @modifies exitSetMap, entrySetMap
+   * @param cfgList the list of control flow graphs.
+   * @return the coresponding reaching definitions for each graph.
    */
-  private void buildEntrySetMap() {
-    Statement start = cfg.getStart();
-    LinkedList<Statement> workList = new LinkedList<>();
-    workList.add(start);
-    
-    // WorkList algorithm
-    while (!workList.isEmpty()) {
-      Statement n = workList.removeFirst();
-
-      // save oldExitSet for later reference
-      Set<Definition> oldExitSet = null;
-      if (exitSetMap.containsKey(n)) {
-        oldExitSet = exitSetMap.get(n);
-      }
-
-      // compute entry set for n
-      Set<Definition> newEntrySet = computeEntrySet(n);
-      entrySetMap.put(n, newEntrySet);
-
-      // compute new exit set for n
-      Set<Definition> newExitSet = new HashSet<>(newEntrySet);
-      subtractKillSet(n, newExitSet);
-      unionGenSet(n, newExitSet);
-      exitSetMap.put(n, newExitSet);
-
-      // add successors to workList if exitSet changed
-      if (oldExitSet == null || !oldExitSet.equals(newExitSet)) {
-        Set<Statement> succs = cfg.getSuccs(n);
-        if (succs != null) {
-          for (Statement succ : succs) {
-            workList.add(succ);
-          }
-        }
-      }
+  public List<ReachingDefinitions> build(List<? extends ControlFlowGraph> cfgList) {
+    List<ReachingDefinitions> rdList = new ArrayList<ReachingDefinitions>(cfgList.size());
+    evaluationCount = 0;
+    for (ControlFlowGraph cfg : cfgList) {
+      Solution solution = solve(cfg);
+      evaluationCount += solution.evaluationCount;
+      rdList.add(solution.rd);
     }
+    return rdList;
   }
 
   /**
-   * Recursive helper to compute the kill and gen sets for each statement in a
-   * cfg.
+   * Computes the reaching definitions for each control flow graph, solving
+   * every graph as its own task on a pool.
+   *
+   * @requires pool != null
+   * @requires no graph in cfgList is being modified
    *
-   * @modifies killSetMap and genSetMap.
-   * @param n The current statement for which to generate kill and gen sets.
-   * @param visited The statements that have already been visited, as a set.
+   * @param cfgList the list of control flow graphs.
+   * @param pool the pool that runs the tasks.
+   * @return the coresponding reaching definitions for each graph, in the
+   *     order of cfgList.
    */
-  private void computeKillAndGenSetsHelper(Statement n, Set<Statement> visited) {
-    Set<SimpleName> killSet = new HashSet<SimpleName>();
-    Set<SimpleName> genSet = new HashSet<SimpleName>();
-    visited.add(n);
-
-    // compute kill and gen sets
-    if (n instanceof ExpressionStatement) {
-      // is ExpressionStatement
-      ExpressionStatement exp = (ExpressionStatement) n;
-      if (exp.getExpression() instanceof Assignment) {
-        // is Assignment (case 1)
-        Assignment assignment = (Assignment) exp.getExpression();
-        SimpleName name = (SimpleName) assignment.getLeftHandSide();
-        killSet.add(name);
-        genSet.add(name);
-      }
-    } else if (n instanceof VariableDeclarationStatement) {
-      // is VariableDeclarationStatement (case 2)
-      List<VariableDeclarationFragment> varDeclFragList =
-          getVariableDeclarationFragmentList(((VariableDeclarationStatement) n).fragments());
-      VariableDeclarationFragment varDeclFrag = varDeclFragList.get(0);
-      SimpleName name = varDeclFrag.getName();
-      killSet.add(name);
-      genSet.add(name);
-    }
-    killSetMap.put(n, killSet);
-    genSetMap.put(n, genSet);
-
-    // recursively visit successors
-    Set<Statement> successorSet = cfg.getSuccs(n);
-    if (successorSet != null) {
-      for (Statement succ : successorSet) {
-        if (!visited.contains(succ)) {
-          computeKillAndGenSetsHelper(succ, visited);
-        }
-      }
-    }
-  }
-
-  private Set<Definition> computeEntrySet(Statement n) {
-    Set<Definition> newEntrySet;
-    if (n == cfg.getStart()) {
-      // entry set for first statement contains params (set previously)
-      newEntrySet = new HashSet<>(parameterDefinitions);
-    } else {
-      newEntrySet = new HashSet<>();
+  public List<ReachingDefinitions> build(List<? extends ControlFlowGraph> cfgList,
+      ForkJoinPool pool) {
+    List<ForkJoinTask<Solution>> tasks = new ArrayList<ForkJoinTask<Solution>>(cfgList.size());
+    for (ControlFlowGraph cfg : cfgList) {
+      tasks.add(pool.submit(() -> solve(cfg)));
     }
-
-    // entry set is union of exit sets of all predecessors
-    Set<Statement> preds = cfg.getPreds(n);
-    if (preds != null) {
-      for (Statement pred : preds) {
-        if (exitSetMap.containsKey(pred)) {
-          Set<Definition> predExitSet = exitSetMap.get(pred);
-          // union pred's defs to n's entry set
-          for (Definition predExitDef : predExitSet) {
-            newEntrySet.add(predExitDef);
-          }
-        }
-      }
+    List<ReachingDefinitions> rdList = new ArrayList<ReachingDefinitions>(cfgList.size());
+    evaluationCount = 0;
+    for (ForkJoinTask<Solution> task : tasks) {
+      Solution solution = task.join();
+      evaluationCount += solution.evaluationCount;
+      rdList.add(solution.rd);
     }
-
-    return newEntrySet;
+    return rdList;
   }
 
-  private void subtractKillSet(Statement n, Set<Definition> newExitSet) {
-    Set<SimpleName> killSet = killSetMap.get(n);
-    for (SimpleName name : killSet) {
-      newExitSet.removeIf(definition -> 
-          definition.name.getIdentifier().equals(name.getIdentifier()));
-    }
+  /**
+   * Returns how many times the transfer function was evaluated. The
+   * BASIC_BLOCK solver evaluates the transfer function of a whole block at
+   * once and counts it once.
+   *
+   * @return the number of evaluations over all graphs of the last build.
+   */
+  public int getEvaluationCount() {
+    return evaluationCount;
   }
 
-  private void unionGenSet(Statement n, Set<Definition> newExitSet) {
-    Set<SimpleName> genSet = genSetMap.get(n);
-    for (SimpleName genName : genSet) {
-      // add a definition for each item in the gen set
-      Definition definition = createDefinition(genName, n);
-      newExitSet.add(definition);
+  /**
+   * Solves one graph. Reads only the solver, so it is safe to call from
+   * several tasks at once.
+   */
+  private Solution solve(ControlFlowGraph cfg) {
+    if (solver == Solver.BIT_VECTOR) {
+      BitVectorReachingDefinitions rd = new BitVectorReachingDefinitions(cfg);
+      return new Solution(rd, rd.getEvaluationCount());
+    } else if (solver == Solver.BASIC_BLOCK) {
+      BasicBlockReachingDefinitions rd = new BasicBlockReachingDefinitions(cfg);
+      return new Solution(rd, rd.getEvaluationCount());
     }
-  }
-
-  private Definition createDefinition(SimpleName name, Statement statement) {
-    Definition definition = new Definition();
-    definition.name = name;
-    definition.statement = statement;
-    return definition;
-  }
-
-  private List<VariableDeclaration> getParameterList(Object list) {
-    @SuppressWarnings("unchecked")
-    List<VariableDeclaration> statementList = (List<VariableDeclaration>) (list);
-    return statementList;
-  }
-
-  private List<VariableDeclarationFragment> getVariableDeclarationFragmentList(Object list) {
-    @SuppressWarnings("unchecked")
-    List<VariableDeclarationFragment> varDeclList = (List<VariableDeclarationFragment>) (list);
-    return varDeclList;
+    HashSetReachingDefinitions rd = new HashSetReachingDefinitions(cfg);
+    return new Solution(rd, rd.getEvaluationCount());
   }
 }
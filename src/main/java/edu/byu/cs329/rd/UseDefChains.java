@@ -0,0 +1,253 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.BreakStatement;
+import org.eclipse.jdt.core.dom.ContinueStatement;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.LabeledStatement;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.SuperFieldAccess;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * Use-def and def-use chains built from reaching definitions.
+ *
+ * <p>A use is a {@link SimpleName} that reads a variable. It belongs to the
+ * innermost statement of the control flow graph that contains it, and is
+ * linked to the definitions of its variable that reach that statement. The
+ * chains are keyed by the use node itself, so asking for the unique
+ * definition of a use is a constant time lookup.
+ *
+ * <p>Uses in unreachable statements have no chains.
+ */
+public final class UseDefChains {
+  private final Map<SimpleName, List<Definition>> useDefs =
+      new IdentityHashMap<SimpleName, List<Definition>>();
+  private final Map<Statement, Set<SimpleName>> defUses =
+      new IdentityHashMap<Statement, Set<SimpleName>>();
+
+  /**
+   * Links every use in a graph to its reaching definitions.
+   *
+   * @requires cfg != null
+   * @requires rd are the reaching definitions of cfg
+   *
+   * @param cfg the control flow graph.
+   * @param rd the reaching definitions for the graph.
+   */
+  public UseDefChains(ControlFlowGraph cfg, ReachingDefinitions rd) {
+    CompactControlFlowGraph compactCfg = CompactControlFlowGraph.of(cfg);
+    for (int id = 0; id < compactCfg.size(); ++id) {
+      Statement statement = compactCfg.statementOf(id);
+      List<SimpleName> uses = collectUses(statement);
+      if (uses.isEmpty()) {
+        continue;
+      }
+      if (rd instanceof NumberedReachingDefinitions) {
+        linkUses(uses, statement, (NumberedReachingDefinitions) rd);
+      } else {
+        linkUses(uses, rd.getReachingDefinitions(statement));
+      }
+    }
+  }
+
+  /**
+   * Returns the only definition that reaches a use.
+   *
+   * @param use the use.
+   * @return the defining statement if exactly one definition reaches the use
+   *     and it is not a parameter, otherwise null.
+   */
+  public Statement getUniqueDefinition(SimpleName use) {
+    List<Definition> definitions = useDefs.get(use);
+    if (definitions == null || definitions.size() != 1) {
+      return null;
+    }
+    return definitions.get(0).statement;
+  }
+
+  /**
+   * Returns the definitions that reach a use.
+   *
+   * @param use the use.
+   * @return the reaching definitions, empty if the use is not in the chains.
+   */
+  public List<Definition> getDefinitions(SimpleName use) {
+    List<Definition> definitions = useDefs.get(use);
+    if (definitions == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(definitions);
+  }
+
+  /**
+   * Returns the uses reached by a defining statement.
+   *
+   * @param statement the defining statement.
+   * @return the uses, empty if the statement reaches none.
+   */
+  public Set<SimpleName> getUses(Statement statement) {
+    Set<SimpleName> uses = defUses.get(statement);
+    if (uses == null) {
+      return Collections.emptySet();
+    }
+    return Collections.unmodifiableSet(uses);
+  }
+
+  /**
+   * Removes a use from the chains, e.g., after it is replaced by a literal.
+   *
+   * @param use the use to remove.
+   */
+  public void removeUse(SimpleName use) {
+    List<Definition> definitions = useDefs.remove(use);
+    if (definitions == null) {
+      return;
+    }
+    for (Definition definition : definitions) {
+      Set<SimpleName> uses = defUses.get(definition.statement);
+      if (uses != null) {
+        uses.remove(use);
+      }
+    }
+  }
+
+  /**
+   * Decides if a name reads a variable.
+   *
+   * <p>Declared names, assigned names, names of methods, fields, types and
+   * labels, and the operands of increments and decrements are not uses.
+   *
+   * @param name the name.
+   * @return true if the name may read a local variable or parameter.
+   */
+  public static boolean isUse(SimpleName name) {
+    StructuralPropertyDescriptor location = name.getLocationInParent();
+    ASTNode parent = name.getParent();
+    if (location == Assignment.LEFT_HAND_SIDE_PROPERTY
+        || location == VariableDeclarationFragment.NAME_PROPERTY
+        || location == SingleVariableDeclaration.NAME_PROPERTY
+        || location == MethodInvocation.NAME_PROPERTY
+        || location == SuperMethodInvocation.NAME_PROPERTY
+        || location == FieldAccess.NAME_PROPERTY
+        || location == SuperFieldAccess.NAME_PROPERTY
+        || location == QualifiedName.NAME_PROPERTY
+        || location == SimpleType.NAME_PROPERTY
+        || location == LabeledStatement.LABEL_PROPERTY
+        || location == BreakStatement.LABEL_PROPERTY
+        || location == ContinueStatement.LABEL_PROPERTY
+        || location == PostfixExpression.OPERAND_PROPERTY) {
+      return false;
+    }
+    if (location == PrefixExpression.OPERAND_PROPERTY) {
+      PrefixExpression.Operator operator = ((PrefixExpression) parent).getOperator();
+      return operator != PrefixExpression.Operator.INCREMENT
+          && operator != PrefixExpression.Operator.DECREMENT;
+    }
+    return true;
+  }
+
+  /**
+   * Collects the uses that belong to a statement and not to a statement
+   * nested in it.
+   *
+   * @param statement the statement.
+   * @return the uses in source order.
+   */
+  public static List<SimpleName> collectUses(final Statement statement) {
+    final List<SimpleName> uses = new ArrayList<SimpleName>();
+    statement.accept(new ASTVisitor() {
+      @Override
+      public boolean preVisit2(ASTNode node) {
+        return node == statement
+            || !(node instanceof Statement || node instanceof AnonymousClassDeclaration);
+      }
+
+      @Override
+      public boolean visit(SimpleName node) {
+        if (isUse(node)) {
+          uses.add(node);
+        }
+        return false;
+      }
+    });
+    return uses;
+  }
+
+  private void linkUses(List<SimpleName> uses, Set<Definition> reachingDefinitions) {
+    if (reachingDefinitions == null) {
+      return;
+    }
+    Map<String, List<Definition>> definitionsByName = new HashMap<String, List<Definition>>();
+    for (Definition definition : reachingDefinitions) {
+      definitionsByName.computeIfAbsent(definition.name.getIdentifier(),
+          k -> new ArrayList<Definition>()).add(definition);
+    }
+    for (SimpleName use : uses) {
+      List<Definition> definitions = definitionsByName.get(use.getIdentifier());
+      if (definitions != null) {
+        link(use, definitions);
+      }
+    }
+  }
+
+  private void linkUses(List<SimpleName> uses, Statement statement,
+      NumberedReachingDefinitions rd) {
+    VariableTable variableTable = rd.getVariableTable();
+    BitSet entrySet = rd.getEntrySet(statement);
+    if (entrySet == null) {
+      return;
+    }
+    BitSet reaching = new BitSet();
+    for (SimpleName use : uses) {
+      int variable = variableTable.getVariable(use.getIdentifier());
+      if (variable < 0) {
+        continue;
+      }
+      reaching.clear();
+      reaching.or(variableTable.getDefinitionMask(variable));
+      reaching.and(entrySet);
+      List<Definition> definitions = new ArrayList<Definition>(reaching.cardinality());
+      for (int i = reaching.nextSetBit(0); i >= 0; i = reaching.nextSetBit(i + 1)) {
+        definitions.add(variableTable.getDefinition(i));
+      }
+      if (!definitions.isEmpty()) {
+        link(use, definitions);
+      }
+    }
+  }
+
+  private void link(SimpleName use, List<Definition> definitions) {
+    useDefs.put(use, definitions);
+    for (Definition definition : definitions) {
+      if (definition.statement != null) {
+        defUses.computeIfAbsent(definition.statement,
+            k -> Collections.newSetFromMap(new IdentityHashMap<SimpleName, Boolean>()))
+            .add(use);
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package edu.byu.cs329.rd;
+
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.VariableDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+/**
+ * Per-method table of variables and their definitions.
+ *
+ * <p>The definitions of a method are numbered once: the parameters first and
+ * then one definition for each defining statement, in the order the
+ * statements are given. Variables are numbered by identifier, so identifiers
+ * are only compared while the table is built, and each variable maps to the
+ * mask (and set) of all its definitions. Killing a variable in a dataflow
+ * analysis is then one and-not with {@link #getDefinitionMask(int)} or one
+ * removeAll with {@link #getDefinitionSet(int)}.
+ *
+ * <p>The masks returned by the table are shared and must not be modified.
+ */
+public final class VariableTable {
+  private final List<Definition> definitions = new ArrayList<Definition>();
+  private final List<Integer> definitionVariables = new ArrayList<Integer>();
+  private final List<String> identifiers = new ArrayList<String>();
+  private final List<BitSet> definitionMasks = new ArrayList<BitSet>();
+  private final List<Set<Definition>> definitionSets = new ArrayList<Set<Definition>>();
+  private final Map<String, Integer> variables = new HashMap<String, Integer>();
+  private final Map<Statement, Integer> statementDefinitions =
+      new IdentityHashMap<Statement, Integer>();
+  private final BitSet parameterDefinitions = new BitSet();
+  private final Set<Definition> parameterDefinitionSet = new HashSet<Definition>();
+
+  /**
+   * Builds the table for a method.
+   *
+   * @requires methodDeclaration != null
+   * @requires statements != null
+   *
+   * @param methodDeclaration the method, for its parameters.
+   * @param statements the statements of the method to number.
+   */
+  public VariableTable(MethodDeclaration methodDeclaration, List<Statement> statements) {
+    List<VariableDeclaration> parameterList = getParameterList(methodDeclaration.parameters());
+    for (VariableDeclaration parameter : parameterList) {
+      int number = addDefinition(parameter.getName(), null);
+      parameterDefinitions.set(number);
+      parameterDefinitionSet.add(definitions.get(number));
+    }
+
+    for (Statement statement : statements) {
+      SimpleName name = getDefinedName(statement);
+      if (name != null && !statementDefinitions.containsKey(statement)) {
+        statementDefinitions.put(statement, addDefinition(name, statement));
+      }
+    }
+  }
+
+  /**
+   * Returns the name a statement defines.
+   *
+   * @param n the statement.
+   * @return the assigned or declared name, or null if n defines nothing.
+   */
+  public static SimpleName getDefinedName(Statement n) {
+    if (n instanceof ExpressionStatement) {
+      // is ExpressionStatement
+      ExpressionStatement exp = (ExpressionStatement) n;
+      if (exp.getExpression() instanceof Assignment) {
+        // is Assignment (case 1)
+        Assignment assignment = (Assignment) exp.getExpression();
+        return (SimpleName) assignment.getLeftHandSide();
+      }
+    } else if (n instanceof VariableDeclarationStatement) {
+      // is VariableDeclarationStatement (case 2)
+      List<VariableDeclarationFragment> varDeclFragList =
+          getVariableDeclarationFragmentList(((VariableDeclarationStatement) n).fragments());
+      VariableDeclarationFragment varDeclFrag = varDeclFragList.get(0);
+      return varDeclFrag.getName();
+    }
+    return null;
+  }
+
+  public int getDefinitionCount() {
+    return definitions.size();
+  }
+
+  public Definition getDefinition(int number) {
+    return definitions.get(number);
+  }
+
+  public int getVariableCount() {
+    return identifiers.size();
+  }
+
+  public String getIdentifier(int variable) {
+    return identifiers.get(variable);
+  }
+
+  /**
+   * Returns the number of a variable.
+   *
+   * @param identifier the identifier of the variable.
+   * @return the variable number or -1 if the method never defines it.
+   */
+  public int getVariable(String identifier) {
+    Integer variable = variables.get(identifier);
+    if (variable == null) {
+      return -1;
+    }
+    return variable;
+  }
+
+  public int getVariableOfDefinition(int number) {
+    return definitionVariables.get(number);
+  }
+
+  /**
+   * Returns the number of the definition a statement generates.
+   *
+   * @param statement the statement.
+   * @return the definition number or -1 if the statement defines nothing.
+   */
+  public int getDefinitionNumber(Statement statement) {
+    Integer number = statementDefinitions.get(statement);
+    if (number == null) {
+      return -1;
+    }
+    return number;
+  }
+
+  public BitSet getParameterDefinitions() {
+    return parameterDefinitions;
+  }
+
+  public Set<Definition> getParameterDefinitionSet() {
+    return Collections.unmodifiableSet(parameterDefinitionSet);
+  }
+
+  public BitSet getDefinitionMask(int variable) {
+    return definitionMasks.get(variable);
+  }
+
+  public Set<Definition> getDefinitionSet(int variable) {
+    return Collections.unmodifiableSet(definitionSets.get(variable));
+  }
+
+  private int addDefinition(SimpleName name, Statement statement) {
+    Definition definition = new Definition();
+    definition.name = name;
+    definition.statement = statement;
+
+    String identifier = name.getIdentifier();
+    Integer variable = variables.get(identifier);
+    if (variable == null) {
+      variable = identifiers.size();
+      variables.put(identifier, variable);
+      identifiers.add(identifier);
+      definitionMasks.add(new BitSet());
+      definitionSets.add(new HashSet<Definition>());
+    }
+
+    int number = definitions.size();
+    definitions.add(definition);
+    definitionVariables.add(variable);
+    definitionMasks.get(variable).set(number);
+    definitionSets.get(variable).add(definition);
+    return number;
+  }
+
+  private static List<VariableDeclaration> getParameterList(Object list) {
+    @SuppressWarnings("unchecked")
+    List<VariableDeclaration> parameterList = (List<VariableDeclaration>) (list);
+    return parameterList;
+  }
+
+  private static List<VariableDeclarationFragment> getVariableDeclarationFragmentList(
+      Object list) {
+    @SuppressWarnings("unchecked")
+    List<VariableDeclarationFragment> varDeclList = (List<VariableDeclarationFragment>) (list);
+    return varDeclList;
+  }
+}
@@ -0,0 +1,33 @@
+package edu.byu.cs329.rd;
+
+import java.util.BitSet;
+
+/**
+ * Worklist of node numbers ordered by reverse postorder.
+ *
+ * <p>Nodes are numbered in reverse postorder, so always removing the lowest
+ * pending number visits every node after its forward predecessors. The
+ * pending numbers are kept in a bitmap, so adding a node that is already
+ * queued does nothing.
+ */
+final class Worklist {
+  private final BitSet pending;
+
+  Worklist(int size) {
+    pending = new BitSet(size);
+  }
+
+  void add(int n) {
+    pending.set(n);
+  }
+
+  boolean isEmpty() {
+    return pending.isEmpty();
+  }
+
+  int remove() {
+    int n = pending.nextSetBit(0);
+    pending.clear(n);
+    return n;
+  }
+}
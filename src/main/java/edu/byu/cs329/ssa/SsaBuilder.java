@@ -0,0 +1,532 @@
+package edu.byu.cs329.ssa;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.DominatorTree;
+import edu.byu.cs329.rd.UseDefChains;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.WhileStatement;
+
+/**
+ * Builder for the static single assignment form of control flow graphs.
+ *
+ * <p>The phis of a variable are placed at the iterated dominance frontier of
+ * the statements that assign it, and a walk of the dominator tree then links
+ * every use to the value on top of the stack of its variable. The phis are
+ * minimal but not pruned, so a phi may merge a variable that is dead.
+ *
+ * <p>The statements are the nodes of the graph, so the uses and definitions
+ * in a statement are renamed in the order Java evaluates them, e.g., the
+ * second fragment of {@code int a = 1, b = a;} reads the first. A statement
+ * with statements nested in it that are not in the graph, e.g., a for loop
+ * or a nested block, is opaque: its uses are not linked and each variable it
+ * assigns gets one conditional value.
+ */
+public class SsaBuilder {
+  private enum EventKind {
+    USE,
+    READ,
+    DEFINITION
+  }
+
+  /**
+   * A use, read or definition of a variable in a statement. A read saves the
+   * value of a variable for a later definition that updates it.
+   */
+  private static final class Event {
+    final EventKind kind;
+    final int variable;
+    final SimpleName name;
+    final boolean conditional;
+    final Event read;
+    int value = SsaForm.NO_VALUE;
+
+    Event(EventKind kind, int variable, SimpleName name, boolean conditional, Event read) {
+      this.kind = kind;
+      this.variable = variable;
+      this.name = name;
+      this.conditional = conditional;
+      this.read = read;
+    }
+  }
+
+  private CompactControlFlowGraph cfg = null;
+  private DominatorTree dominatorTree = null;
+  private SsaForm form = null;
+  private List<List<Event>> events = null;
+  private List<List<Integer>> phis = null;
+  private int[][] valueStacks = null;
+  private int[] heights = null;
+  private int[] undoLog = null;
+  private int undoSize = 0;
+
+  /**
+   * Builds the static single assignment form of each control flow graph.
+   *
+   * @requires cfgList != null
+   *
+   * @param cfgList the list of control flow graphs.
+   * @return the corresponding form for each graph.
+   */
+  public List<SsaForm> build(List<? extends ControlFlowGraph> cfgList) {
+    List<SsaForm> formList = new ArrayList<SsaForm>();
+    for (ControlFlowGraph cfg : cfgList) {
+      formList.add(build(cfg));
+    }
+    return formList;
+  }
+
+  /**
+   * Builds the static single assignment form of a control flow graph.
+   *
+   * @requires cfg != null
+   *
+   * @param cfg the control flow graph.
+   * @return the form of the method of cfg.
+   */
+  public SsaForm build(ControlFlowGraph cfg) {
+    this.cfg = CompactControlFlowGraph.of(cfg);
+    dominatorTree = this.cfg.getDominatorTree();
+    form = new SsaForm(this.cfg);
+    collectVariables(cfg.getMethodDeclaration());
+    collectEvents();
+    placePhis();
+    rename();
+    this.cfg = null;
+    dominatorTree = null;
+    events = null;
+    phis = null;
+    SsaForm result = form;
+    form = null;
+    return result;
+  }
+
+  /**
+   * Numbers the parameters and the local variables declared in a method and
+   * creates the values of the parameters.
+   */
+  private void collectVariables(MethodDeclaration method) {
+    for (Object parameter : method.parameters()) {
+      SimpleName name = ((SingleVariableDeclaration) parameter).getName();
+      form.addValue(SsaForm.Kind.PARAMETER, form.addVariable(name.getIdentifier()), null, name,
+          SsaForm.NO_VALUE, false);
+    }
+    method.getBody().accept(new ASTVisitor() {
+      @Override
+      public boolean visit(AnonymousClassDeclaration node) {
+        return false;
+      }
+
+      @Override
+      public boolean visit(TypeDeclarationStatement node) {
+        return false;
+      }
+
+      @Override
+      public boolean visit(VariableDeclarationFragment node) {
+        form.addVariable(node.getName().getIdentifier());
+        return true;
+      }
+
+      @Override
+      public boolean visit(SingleVariableDeclaration node) {
+        form.addVariable(node.getName().getIdentifier());
+        return true;
+      }
+    });
+  }
+
+  private void collectEvents() {
+    events = new ArrayList<List<Event>>(cfg.size());
+    for (int id = 0; id < cfg.size(); ++id) {
+      Statement statement = cfg.statementOf(id);
+      if (id == cfg.endId() || !isReachable(id)
+          || statement instanceof TypeDeclarationStatement) {
+        events.add(new ArrayList<Event>());
+      } else if (isOpaque(statement)) {
+        events.add(collectOpaqueEvents(statement));
+      } else {
+        events.add(collectStatementEvents(statement));
+      }
+    }
+  }
+
+  private boolean isReachable(int id) {
+    return id == cfg.startId() || dominatorTree.idom(id) >= 0;
+  }
+
+  /**
+   * Decides if a statement has statements nested in it that are not in the
+   * graph. The branches of an if statement and the body of a while
+   * statement are in the graph.
+   */
+  private static boolean isOpaque(final Statement statement) {
+    if (statement instanceof IfStatement || statement instanceof WhileStatement) {
+      return false;
+    }
+    final boolean[] opaque = {false};
+    statement.accept(new ASTVisitor() {
+      @Override
+      public boolean preVisit2(ASTNode node) {
+        if (node == statement) {
+          return true;
+        }
+        if (node instanceof Statement) {
+          opaque[0] = true;
+        }
+        return !opaque[0] && !(node instanceof AnonymousClassDeclaration);
+      }
+    });
+    return opaque[0];
+  }
+
+  /**
+   * Collects one conditional definition for each variable an opaque
+   * statement assigns.
+   */
+  private List<Event> collectOpaqueEvents(Statement statement) {
+    final Map<Integer, SimpleName> assigned = new LinkedHashMap<Integer, SimpleName>();
+    statement.accept(new ASTVisitor() {
+      @Override
+      public boolean preVisit2(ASTNode node) {
+        return !(node instanceof AnonymousClassDeclaration
+            || node instanceof TypeDeclarationStatement);
+      }
+
+      @Override
+      public boolean visit(Assignment node) {
+        add(node.getLeftHandSide());
+        return true;
+      }
+
+      @Override
+      public boolean visit(VariableDeclarationFragment node) {
+        add(node.getName());
+        return true;
+      }
+
+      @Override
+      public boolean visit(SingleVariableDeclaration node) {
+        add(node.getName());
+        return true;
+      }
+
+      @Override
+      public boolean visit(PrefixExpression node) {
+        if (isIncrementOrDecrement(node)) {
+          add(node.getOperand());
+        }
+        return true;
+      }
+
+      @Override
+      public boolean visit(PostfixExpression node) {
+        add(node.getOperand());
+        return true;
+      }
+
+      private void add(Expression exp) {
+        int variable = getVariable(exp);
+        if (variable >= 0 && !assigned.containsKey(variable)) {
+          assigned.put(variable, (SimpleName) exp);
+        }
+      }
+    });
+    List<Event> opaqueEvents = new ArrayList<Event>();
+    for (Map.Entry<Integer, SimpleName> entry : assigned.entrySet()) {
+      Event read = new Event(EventKind.READ, entry.getKey(), null, false, null);
+      opaqueEvents.add(read);
+      opaqueEvents.add(new Event(EventKind.DEFINITION, entry.getKey(), entry.getValue(), true,
+          read));
+    }
+    return opaqueEvents;
+  }
+
+  /**
+   * Collects the uses and definitions of a statement in evaluation order.
+   * The left hand side of an assignment is evaluated before its right hand
+   * side and assigned after it.
+   */
+  private List<Event> collectStatementEvents(final Statement statement) {
+    final List<Event> statementEvents = new ArrayList<Event>();
+    statement.accept(new ASTVisitor() {
+      final Map<Assignment, Event> reads = new IdentityHashMap<Assignment, Event>();
+
+      @Override
+      public boolean preVisit2(ASTNode node) {
+        return node == statement
+            || !(node instanceof Statement || node instanceof AnonymousClassDeclaration);
+      }
+
+      @Override
+      public boolean visit(SimpleName node) {
+        int variable = getVariable(node);
+        if (variable >= 0 && UseDefChains.isUse(node)) {
+          statementEvents.add(new Event(EventKind.USE, variable, node, false, null));
+        }
+        return false;
+      }
+
+      @Override
+      public boolean visit(Assignment node) {
+        int variable = getVariable(node.getLeftHandSide());
+        if (variable >= 0 && node.getOperator() != Assignment.Operator.ASSIGN) {
+          Event read = new Event(EventKind.READ, variable, null, false, null);
+          statementEvents.add(read);
+          reads.put(node, read);
+        }
+        return true;
+      }
+
+      @Override
+      public void endVisit(Assignment node) {
+        define(node.getLeftHandSide(), reads.get(node), node);
+      }
+
+      @Override
+      public void endVisit(VariableDeclarationFragment node) {
+        define(node.getName(), null, node);
+      }
+
+      @Override
+      public void endVisit(PrefixExpression node) {
+        if (isIncrementOrDecrement(node)) {
+          readAndDefine(node.getOperand(), node);
+        }
+      }
+
+      @Override
+      public void endVisit(PostfixExpression node) {
+        readAndDefine(node.getOperand(), node);
+      }
+
+      private void readAndDefine(Expression operand, ASTNode node) {
+        int variable = getVariable(operand);
+        if (variable >= 0) {
+          Event read = new Event(EventKind.READ, variable, null, false, null);
+          statementEvents.add(read);
+          define(operand, read, node);
+        }
+      }
+
+      private void define(Expression target, Event read, ASTNode node) {
+        int variable = getVariable(target);
+        if (variable < 0) {
+          return;
+        }
+        boolean conditional = isConditional(node, statement);
+        if (conditional && read == null) {
+          read = new Event(EventKind.READ, variable, null, false, null);
+          statementEvents.add(read);
+        }
+        statementEvents.add(new Event(EventKind.DEFINITION, variable, (SimpleName) target,
+            conditional, read));
+      }
+    });
+    return statementEvents;
+  }
+
+  /**
+   * Decides if a node in a statement may not be evaluated, because it is in
+   * a branch of a conditional expression or after the first operand of
+   * {@code &&} or {@code ||}.
+   */
+  private static boolean isConditional(ASTNode node, Statement statement) {
+    for (ASTNode child = node; child != statement; child = child.getParent()) {
+      StructuralPropertyDescriptor location = child.getLocationInParent();
+      if (location == ConditionalExpression.THEN_EXPRESSION_PROPERTY
+          || location == ConditionalExpression.ELSE_EXPRESSION_PROPERTY) {
+        return true;
+      }
+      ASTNode parent = child.getParent();
+      if (parent instanceof InfixExpression
+          && location != InfixExpression.LEFT_OPERAND_PROPERTY
+          && (((InfixExpression) parent).getOperator() == InfixExpression.Operator.CONDITIONAL_AND
+          || ((InfixExpression) parent).getOperator() == InfixExpression.Operator.CONDITIONAL_OR)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isIncrementOrDecrement(PrefixExpression node) {
+    return node.getOperator() == PrefixExpression.Operator.INCREMENT
+        || node.getOperator() == PrefixExpression.Operator.DECREMENT;
+  }
+
+  private int getVariable(Expression exp) {
+    if (!(exp instanceof SimpleName)) {
+      return -1;
+    }
+    return form.getVariable(((SimpleName) exp).getIdentifier());
+  }
+
+  /**
+   * Places a phi for each variable at the iterated dominance frontier of the
+   * statements that define it. The end of the graph gets no phis, since
+   * nothing reads them.
+   */
+  private void placePhis() {
+    int size = cfg.size();
+    phis = new ArrayList<List<Integer>>(size);
+    List<List<Integer>> definitionSites = new ArrayList<List<Integer>>();
+    for (int variable = 0; variable < form.getVariableCount(); ++variable) {
+      definitionSites.add(new ArrayList<Integer>());
+    }
+    for (int id = 0; id < size; ++id) {
+      phis.add(new ArrayList<Integer>());
+      for (Event event : events.get(id)) {
+        List<Integer> sites = definitionSites.get(event.variable);
+        if (event.kind == EventKind.DEFINITION
+            && (sites.isEmpty() || sites.get(sites.size() - 1) != id)) {
+          sites.add(id);
+        }
+      }
+    }
+
+    int[] hasPhi = new int[size];
+    int[] queued = new int[size];
+    Arrays.fill(hasPhi, -1);
+    Arrays.fill(queued, -1);
+    Deque<Integer> worklist = new ArrayDeque<Integer>();
+    for (int variable = 0; variable < form.getVariableCount(); ++variable) {
+      for (int site : definitionSites.get(variable)) {
+        queued[site] = variable;
+        worklist.push(site);
+      }
+      while (!worklist.isEmpty()) {
+        int id = worklist.pop();
+        for (int k = 0; k < dominatorTree.frontierCount(id); ++k) {
+          int frontier = dominatorTree.frontierId(id, k);
+          if (frontier == cfg.endId() || hasPhi[frontier] == variable) {
+            continue;
+          }
+          hasPhi[frontier] = variable;
+          int operandCount = cfg.predCount(frontier) + (frontier == cfg.startId() ? 1 : 0);
+          phis.get(frontier).add(form.addPhi(variable, cfg.statementOf(frontier), operandCount));
+          if (queued[frontier] != variable) {
+            queued[frontier] = variable;
+            worklist.push(frontier);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Renames the uses and definitions in a preorder walk of the dominator
+   * tree. The walk uses an explicit stack so long methods do not overflow
+   * the thread stack, and pops the values a statement pushed when it leaves
+   * the subtree of the statement.
+   */
+  private void rename() {
+    valueStacks = new int[form.getVariableCount()][4];
+    heights = new int[form.getVariableCount()];
+    undoLog = new int[16];
+    undoSize = 0;
+    for (int value = 0; value < form.getValueCount(); ++value) {
+      if (form.getKind(value) == SsaForm.Kind.PARAMETER) {
+        push(form.getVariableOfValue(value), value);
+      }
+    }
+    for (int phi : phis.get(cfg.startId())) {
+      form.setPhiOperand(phi, 0, top(form.getVariableOfValue(phi)));
+    }
+
+    int[] marks = new int[cfg.size()];
+    Deque<Integer> walk = new ArrayDeque<Integer>();
+    walk.push(cfg.startId());
+    while (!walk.isEmpty()) {
+      int id = walk.pop();
+      if (id < 0) {
+        while (undoSize > marks[~id]) {
+          heights[undoLog[--undoSize]]--;
+        }
+        continue;
+      }
+      marks[id] = undoSize;
+      for (int phi : phis.get(id)) {
+        push(form.getVariableOfValue(phi), phi);
+      }
+      for (Event event : events.get(id)) {
+        if (event.kind == EventKind.USE) {
+          if (top(event.variable) != SsaForm.NO_VALUE) {
+            form.link(event.name, top(event.variable));
+          }
+        } else if (event.kind == EventKind.READ) {
+          event.value = top(event.variable);
+        } else {
+          int previous = event.read == null ? SsaForm.NO_VALUE : event.read.value;
+          push(event.variable, form.addValue(SsaForm.Kind.DEFINITION, event.variable,
+              cfg.statementOf(id), event.name, previous, event.conditional));
+        }
+      }
+      for (int k = 0; k < cfg.succCount(id); ++k) {
+        int succ = cfg.succId(id, k);
+        int operand = getOperandIndex(succ, id);
+        for (int phi : phis.get(succ)) {
+          form.setPhiOperand(phi, operand, top(form.getVariableOfValue(phi)));
+        }
+      }
+      walk.push(~id);
+      for (int k = dominatorTree.childCount(id) - 1; k >= 0; --k) {
+        walk.push(dominatorTree.childId(id, k));
+      }
+    }
+    valueStacks = null;
+    heights = null;
+    undoLog = null;
+  }
+
+  private void push(int variable, int value) {
+    if (heights[variable] == valueStacks[variable].length) {
+      valueStacks[variable] = Arrays.copyOf(valueStacks[variable], 2 * heights[variable]);
+    }
+    valueStacks[variable][heights[variable]++] = value;
+    if (undoSize == undoLog.length) {
+      undoLog = Arrays.copyOf(undoLog, 2 * undoSize);
+    }
+    undoLog[undoSize++] = variable;
+  }
+
+  private int top(int variable) {
+    if (heights[variable] == 0) {
+      return SsaForm.NO_VALUE;
+    }
+    return valueStacks[variable][heights[variable] - 1];
+  }
+
+  private int getOperandIndex(int id, int pred) {
+    int offset = id == cfg.startId() ? 1 : 0;
+    for (int k = 0; k < cfg.predCount(id); ++k) {
+      if (cfg.predId(id, k) == pred) {
+        return offset + k;
+      }
+    }
+    return -1;
+  }
+}
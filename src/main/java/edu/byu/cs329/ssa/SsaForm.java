@@ -0,0 +1,289 @@
+package edu.byu.cs329.ssa;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Static single assignment form of a method, kept next to its tree.
+ *
+ * <p>Every parameter, assignment, declaration, increment and decrement of a
+ * local variable creates a value numbered in {@code [0, getValueCount())},
+ * and so does every phi, which merges the values of a variable at a
+ * statement with several predecessors. Each use of a variable maps to the
+ * one value it reads, and each value maps back to the statement that
+ * creates it, so an analysis can follow def-use edges instead of solving
+ * dataflow equations over sets of definitions.
+ *
+ * <p>A value may read an earlier value of its variable: a compound
+ * assignment, an increment or a decrement reads the value it updates, and a
+ * conditional value, created by an assignment that may not run, is either
+ * the value it assigns or the earlier value. {@link #NO_VALUE} stands for
+ * a variable that is not defined yet, e.g., in a phi on a path where the
+ * variable is not declared.
+ *
+ * <p>Variables are numbered by identifier, like in the reaching definitions.
+ */
+public final class SsaForm {
+  /**
+   * What creates a value.
+   */
+  public enum Kind {
+    /** The value of a parameter on entry to the method. */
+    PARAMETER,
+    /** An assignment, declaration, increment or decrement. */
+    DEFINITION,
+    /** A merge of the values that reach a statement from its predecessors. */
+    PHI
+  }
+
+  /** The value of a variable that is not defined. */
+  public static final int NO_VALUE = -1;
+
+  private final CompactControlFlowGraph cfg;
+  private final List<String> identifiers = new ArrayList<String>();
+  private final Map<String, Integer> variables = new HashMap<String, Integer>();
+  private int valueCount = 0;
+  private Kind[] kinds = new Kind[16];
+  private int[] valueVariables = new int[16];
+  private Statement[] statements = new Statement[16];
+  private SimpleName[] names = new SimpleName[16];
+  private int[] previousValues = new int[16];
+  private int[][] phiOperands = new int[16][];
+  private final BitSet conditionalValues = new BitSet();
+  private final List<List<SimpleName>> uses = new ArrayList<List<SimpleName>>();
+  private final Map<SimpleName, Integer> useValues = new IdentityHashMap<SimpleName, Integer>();
+  private final Map<Statement, List<Integer>> statementValues =
+      new IdentityHashMap<Statement, List<Integer>>();
+
+  SsaForm(CompactControlFlowGraph cfg) {
+    this.cfg = cfg;
+  }
+
+  public CompactControlFlowGraph getControlFlowGraph() {
+    return cfg;
+  }
+
+  public int getVariableCount() {
+    return identifiers.size();
+  }
+
+  public String getIdentifier(int variable) {
+    return identifiers.get(variable);
+  }
+
+  /**
+   * Returns the number of a variable.
+   *
+   * @param identifier the identifier of the variable.
+   * @return the variable number, or -1 if it is not a parameter or a local
+   *     variable of the method.
+   */
+  public int getVariable(String identifier) {
+    Integer variable = variables.get(identifier);
+    if (variable == null) {
+      return -1;
+    }
+    return variable;
+  }
+
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  public Kind getKind(int value) {
+    return kinds[value];
+  }
+
+  public int getVariableOfValue(int value) {
+    return valueVariables[value];
+  }
+
+  /**
+   * Returns the statement that creates a value.
+   *
+   * @requires 0 <= value < getValueCount()
+   *
+   * @param value the value.
+   * @return the defining statement, the statement a phi is at, or null for
+   *     a parameter.
+   */
+  public Statement getStatement(int value) {
+    return statements[value];
+  }
+
+  /**
+   * Returns the name a value is assigned to.
+   *
+   * @requires 0 <= value < getValueCount()
+   *
+   * @param value the value.
+   * @return the declared, assigned, incremented or decremented name, or null
+   *     for a phi.
+   */
+  public SimpleName getName(int value) {
+    return names[value];
+  }
+
+  /**
+   * Returns the value that a value updates or may keep.
+   *
+   * @requires 0 <= value < getValueCount()
+   *
+   * @param value the value.
+   * @return the earlier value of the variable read by a compound assignment,
+   *     increment, decrement or conditional value, otherwise NO_VALUE.
+   */
+  public int getPrevious(int value) {
+    return previousValues[value];
+  }
+
+  /**
+   * Decides if a value may not be assigned, e.g., because it is assigned in
+   * the right operand of {@code &&} or in a loop that is not in the graph.
+   *
+   * @param value the value.
+   * @return true if the variable may keep getPrevious(value) instead.
+   */
+  public boolean isConditional(int value) {
+    return conditionalValues.get(value);
+  }
+
+  /**
+   * Returns the number of operands of a phi. At the start of the graph the
+   * first operand is the value on entry to the method; the others follow
+   * the predecessors of the statement in the order of the graph.
+   *
+   * @requires getKind(value) == Kind.PHI
+   *
+   * @param value the phi.
+   * @return the number of operands.
+   */
+  public int getPhiOperandCount(int value) {
+    return phiOperands[value].length;
+  }
+
+  public int getPhiOperand(int value, int k) {
+    return phiOperands[value][k];
+  }
+
+  /**
+   * Returns the predecessor an operand of a phi flows from.
+   *
+   * @requires getKind(value) == Kind.PHI
+   * @requires 0 <= k < getPhiOperandCount(value)
+   *
+   * @param value the phi.
+   * @param k the index of the operand.
+   * @return the predecessor statement, or null for the entry to the method.
+   */
+  public Statement getPhiPredecessor(int value, int k) {
+    int id = cfg.idOf(statements[value]);
+    if (id == cfg.startId()) {
+      return k == 0 ? null : cfg.statementOf(cfg.predId(id, k - 1));
+    }
+    return cfg.statementOf(cfg.predId(id, k));
+  }
+
+  /**
+   * Returns the value a use reads.
+   *
+   * @param use the use.
+   * @return the value, or NO_VALUE if the use is not a use of a variable in
+   *     a reachable statement of the graph or the variable is not defined.
+   */
+  public int getValue(SimpleName use) {
+    Integer value = useValues.get(use);
+    if (value == null) {
+      return NO_VALUE;
+    }
+    return value;
+  }
+
+  /**
+   * Returns the uses that read a value.
+   *
+   * @requires 0 <= value < getValueCount()
+   *
+   * @param value the value.
+   * @return the uses in the order the renaming met them.
+   */
+  public List<SimpleName> getUses(int value) {
+    return Collections.unmodifiableList(uses.get(value));
+  }
+
+  /**
+   * Returns the values created at a statement.
+   *
+   * @param statement the statement.
+   * @return its phis and then its definitions in evaluation order, empty if
+   *     it creates none.
+   */
+  public List<Integer> getValues(Statement statement) {
+    List<Integer> values = statementValues.get(statement);
+    if (values == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  int addVariable(String identifier) {
+    Integer variable = variables.get(identifier);
+    if (variable == null) {
+      variable = identifiers.size();
+      variables.put(identifier, variable);
+      identifiers.add(identifier);
+    }
+    return variable;
+  }
+
+  int addValue(Kind kind, int variable, Statement statement, SimpleName name, int previous,
+      boolean conditional) {
+    int value = valueCount++;
+    if (value == kinds.length) {
+      int capacity = 2 * value;
+      kinds = Arrays.copyOf(kinds, capacity);
+      valueVariables = Arrays.copyOf(valueVariables, capacity);
+      statements = Arrays.copyOf(statements, capacity);
+      names = Arrays.copyOf(names, capacity);
+      previousValues = Arrays.copyOf(previousValues, capacity);
+      phiOperands = Arrays.copyOf(phiOperands, capacity);
+    }
+    kinds[value] = kind;
+    valueVariables[value] = variable;
+    statements[value] = statement;
+    names[value] = name;
+    previousValues[value] = previous;
+    conditionalValues.set(value, conditional);
+    uses.add(new ArrayList<SimpleName>());
+    if (statement != null) {
+      statementValues.computeIfAbsent(statement, k -> new ArrayList<Integer>()).add(value);
+    }
+    return value;
+  }
+
+  int addPhi(int variable, Statement statement, int operandCount) {
+    int value = addValue(Kind.PHI, variable, statement, null, NO_VALUE, false);
+    int[] operands = new int[operandCount];
+    Arrays.fill(operands, NO_VALUE);
+    phiOperands[value] = operands;
+    return value;
+  }
+
+  void setPhiOperand(int value, int k, int operand) {
+    phiOperands[value][k] = operand;
+  }
+
+  void link(SimpleName use, int value) {
+    useValues.put(use, value);
+    uses.get(value).add(use);
+  }
+}
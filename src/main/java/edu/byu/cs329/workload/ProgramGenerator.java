@@ -0,0 +1,293 @@
+package edu.byu.cs329.workload;
+
+import edu.byu.cs329.utils.ExceptionUtils;
+import java.util.Map;
+import java.util.Random;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+
+/**
+ * Seeded generator of Java programs in the subset the optimizer supports.
+ *
+ * <p>A program is a class with one method {@code int run(int p, boolean q)}.
+ * The method declares int and boolean locals with literal initializers and
+ * then mixes assignments, if/else statements, while loops and early returns
+ * over the operators {@code +}, {@code <} and {@code !}. Foldable expressions
+ * are built from literals only, the others read a local or a parameter. The
+ * same seed and settings always give the same program.
+ *
+ * <p>A nested if or while statement is never larger than what is left of
+ * the block around it, and at most one arm of an if statement ends in a
+ * return, so every program compiles.
+ */
+public final class ProgramGenerator {
+  private static final int INT_VARIABLE_COUNT = 6;
+  private static final int BOOLEAN_VARIABLE_COUNT = 3;
+  private static final int MAX_BLOCK_SIZE = 8;
+  private static final int DEFAULT_MAX_NESTING_DEPTH = 8;
+  private static final int BODY_DEPTH = 2;
+  private static final double LOOP_SHARE = 1.0 / 3.0;
+  private static final double RETURN_CHANCE = 0.05;
+
+  private final long seed;
+  private final int statementCount;
+  private final double branchFraction;
+  private final int maxLoopNesting;
+  private final double foldableFraction;
+  private final int maxNestingDepth;
+  private final int maxLoopCount;
+
+  private Random random;
+  private StringBuilder source;
+  private int remaining;
+  private int loopsLeft;
+
+  /**
+   * Creates a generator whose if and while statements nest at most eight
+   * deep, with no bound on the number of while statements.
+   *
+   * @requires statementCount >= INT_VARIABLE_COUNT + BOOLEAN_VARIABLE_COUNT + 1
+   * @requires 0 <= branchFraction <= 1
+   * @requires maxLoopNesting >= 0
+   * @requires 0 <= foldableFraction <= 1
+   *
+   * @param seed the seed of the random choices.
+   * @param statementCount the number of statements in the method, counting
+   *     the declarations, the final return and every if and while but not
+   *     blocks.
+   * @param branchFraction the chance that a statement is an if/else or a
+   *     while statement.
+   * @param maxLoopNesting the deepest nesting of while statements.
+   * @param foldableFraction the chance that an expression is foldable.
+   */
+  public ProgramGenerator(long seed, int statementCount, double branchFraction,
+      int maxLoopNesting, double foldableFraction) {
+    this(seed, statementCount, branchFraction, maxLoopNesting, foldableFraction,
+        DEFAULT_MAX_NESTING_DEPTH, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a generator that also bounds the nesting of if and while
+   * statements and the number of while statements.
+   *
+   * @requires statementCount >= INT_VARIABLE_COUNT + BOOLEAN_VARIABLE_COUNT + 1
+   * @requires 0 <= branchFraction <= 1
+   * @requires maxLoopNesting >= 0
+   * @requires 0 <= foldableFraction <= 1
+   * @requires maxNestingDepth >= 0
+   * @requires maxLoopCount >= 0
+   *
+   * @param seed the seed of the random choices.
+   * @param statementCount the number of statements in the method.
+   * @param branchFraction the chance that a statement is an if/else or a
+   *     while statement.
+   * @param maxLoopNesting the deepest nesting of while statements.
+   * @param foldableFraction the chance that an expression is foldable.
+   * @param maxNestingDepth the deepest nesting of if and while statements,
+   *     where 0 gives straight-line code.
+   * @param maxLoopCount the most while statements in the method; once they
+   *     are used up every branch is an if statement.
+   */
+  public ProgramGenerator(long seed, int statementCount, double branchFraction,
+      int maxLoopNesting, double foldableFraction, int maxNestingDepth, int maxLoopCount) {
+    if (statementCount < INT_VARIABLE_COUNT + BOOLEAN_VARIABLE_COUNT + 1
+        || branchFraction < 0 || branchFraction > 1 || maxLoopNesting < 0
+        || foldableFraction < 0 || foldableFraction > 1 || maxNestingDepth < 0
+        || maxLoopCount < 0) {
+      ExceptionUtils.throwRuntimeException("Invalid settings passed to ProgramGenerator");
+    }
+    this.seed = seed;
+    this.statementCount = statementCount;
+    this.branchFraction = branchFraction;
+    this.maxLoopNesting = maxLoopNesting;
+    this.foldableFraction = foldableFraction;
+    this.maxNestingDepth = maxNestingDepth;
+    this.maxLoopCount = maxLoopCount;
+  }
+
+  /**
+   * Generates the source of the program.
+   *
+   * @return the source text.
+   */
+  public String generate() {
+    random = new Random(seed);
+    source = new StringBuilder();
+    source.append("public class Generated {\n");
+    source.append("  public int run(int p, boolean q) {\n");
+    for (int i = 0; i < INT_VARIABLE_COUNT; ++i) {
+      indent(BODY_DEPTH).append("int i").append(i).append(" = ").append(random.nextInt(10))
+          .append(";\n");
+    }
+    for (int i = 0; i < BOOLEAN_VARIABLE_COUNT; ++i) {
+      indent(BODY_DEPTH).append("boolean b").append(i).append(" = ").append(random.nextBoolean())
+          .append(";\n");
+    }
+
+    remaining = statementCount - INT_VARIABLE_COUNT - BOOLEAN_VARIABLE_COUNT - 1;
+    loopsLeft = maxLoopCount;
+    appendStatements(remaining, BODY_DEPTH, 0);
+    indent(BODY_DEPTH).append("return ").append(intVariable()).append(";\n");
+    source.append("  }\n");
+    source.append("}\n");
+
+    String program = source.toString();
+    source = null;
+    return program;
+  }
+
+  /**
+   * Generates the program and parses it the way the optimizer's tests do.
+   *
+   * @return the compilation unit of the program.
+   */
+  public ASTNode generateCompilationUnit() {
+    return parse(generate());
+  }
+
+  /**
+   * Parses Java source as a compilation unit at the 1.7 language level.
+   *
+   * @param program the source text.
+   * @return the compilation unit.
+   */
+  public static ASTNode parse(String program) {
+    ASTParser parser = ASTParser.newParser(AST.JLS3);
+    parser.setKind(ASTParser.K_COMPILATION_UNIT);
+    parser.setSource(program.toCharArray());
+    Map<?, ?> options = JavaCore.getOptions();
+    JavaCore.setComplianceOptions(JavaCore.VERSION_1_7, options);
+    parser.setCompilerOptions(options);
+    return parser.createAST(null);
+  }
+
+  /**
+   * Appends a block of statements.
+   *
+   * @requires count <= remaining
+   */
+  private void appendStatements(int count, int depth, int loopDepth) {
+    int stop = remaining - count;
+    while (remaining > stop) {
+      appendStatement(depth, loopDepth, remaining - stop);
+    }
+  }
+
+  /**
+   * Appends one statement of a block that has budget statements left,
+   * counting this one. An if or while statement takes the statements of its
+   * body from that budget.
+   */
+  private void appendStatement(int depth, int loopDepth, int budget) {
+    remaining--;
+    if (budget > 1 && depth - BODY_DEPTH < maxNestingDepth
+        && random.nextDouble() < branchFraction) {
+      int size = 1 + random.nextInt(Math.min(budget - 1, MAX_BLOCK_SIZE));
+      if (loopDepth < maxLoopNesting && loopsLeft > 0 && random.nextDouble() < LOOP_SHARE) {
+        loopsLeft--;
+        appendWhile(size, depth, loopDepth);
+      } else {
+        appendIf(size, depth, loopDepth);
+      }
+    } else if (random.nextBoolean()) {
+      indent(depth).append(intVariable()).append(" = ").append(intExpression()).append(";\n");
+    } else {
+      indent(depth).append(booleanVariable()).append(" = ").append(booleanExpression())
+          .append(";\n");
+    }
+  }
+
+  private void appendIf(int size, int depth, int loopDepth) {
+    int thenSize = (size + 1) / 2;
+    indent(depth).append("if (").append(booleanExpression()).append(") {\n");
+    boolean returned = appendArm(thenSize, depth + 1, loopDepth, true);
+    if (size > thenSize) {
+      indent(depth).append("} else {\n");
+      appendArm(size - thenSize, depth + 1, loopDepth, !returned);
+    }
+    indent(depth).append("}\n");
+  }
+
+  /**
+   * Appends an arm of an if statement. When both arms ended in a return the
+   * statements after the if would be unreachable, so only an arm that may
+   * return does.
+   *
+   * @return whether the arm ends in a return.
+   */
+  private boolean appendArm(int size, int depth, int loopDepth, boolean mayReturn) {
+    if (mayReturn && size > 1 && random.nextDouble() < RETURN_CHANCE) {
+      appendStatements(size - 1, depth, loopDepth);
+      remaining--;
+      indent(depth).append("return ").append(intExpression()).append(";\n");
+      return true;
+    }
+    appendStatements(size, depth, loopDepth);
+    return false;
+  }
+
+  private void appendWhile(int size, int depth, int loopDepth) {
+    indent(depth).append("while (").append(intVariable()).append(" < p) {\n");
+    appendStatements(size, depth + 1, loopDepth + 1);
+    indent(depth).append("}\n");
+  }
+
+  private String intExpression() {
+    if (random.nextDouble() < foldableFraction) {
+      switch (random.nextInt(3)) {
+        case 0:
+          return Integer.toString(random.nextInt(100));
+        case 1:
+          return random.nextInt(100) + " + " + random.nextInt(100);
+        default:
+          return "(" + random.nextInt(100) + " + " + random.nextInt(100) + ")";
+      }
+    }
+    switch (random.nextInt(3)) {
+      case 0:
+        return intVariable();
+      case 1:
+        return intVariable() + " + " + random.nextInt(100);
+      default:
+        return intVariable() + " + p";
+    }
+  }
+
+  private String booleanExpression() {
+    if (random.nextDouble() < foldableFraction) {
+      switch (random.nextInt(3)) {
+        case 0:
+          return Boolean.toString(random.nextBoolean());
+        case 1:
+          return random.nextInt(100) + " < " + random.nextInt(100);
+        default:
+          return "!" + random.nextBoolean();
+      }
+    }
+    switch (random.nextInt(3)) {
+      case 0:
+        return booleanVariable();
+      case 1:
+        return intVariable() + " < " + intVariable();
+      default:
+        return random.nextBoolean() ? "!q" : "!(" + intVariable() + " < p)";
+    }
+  }
+
+  private String intVariable() {
+    return "i" + random.nextInt(INT_VARIABLE_COUNT);
+  }
+
+  private String booleanVariable() {
+    return "b" + random.nextInt(BOOLEAN_VARIABLE_COUNT);
+  }
+
+  private StringBuilder indent(int depth) {
+    for (int i = 0; i < depth; ++i) {
+      source.append("  ");
+    }
+    return source;
+  }
+}
@@ -0,0 +1,155 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for BasicBlockGraph")
+public class BasicBlockGraphTests {
+  CompactControlFlowGraph cfg = null;
+  BasicBlockGraph blocks = null;
+  List<Statement> statements = null;
+
+  void init(String body) {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { " + body + " } }");
+    statements = new ArrayList<Statement>();
+    root.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode node) {
+        if (node instanceof Statement && !(node instanceof Block)) {
+          statements.add((Statement) node);
+        }
+      }
+    });
+    cfg = new ControlFlowGraphBuilder().buildCompact(root).get(0);
+    blocks = cfg.getBasicBlockGraph();
+  }
+
+  private int blockOf(int statement) {
+    return blocks.blockOf(statements.get(statement));
+  }
+
+  @Test
+  @Tag("BasicBlocks")
+  @DisplayName("Should make one block when code is straight line")
+  void should_MakeOneBlock_when_CodeIsStraightLine() {
+    init("int a = p; a = a + 1; p = a; return p;");
+    assertAll(
+        () -> assertEquals(1, blocks.size()),
+        () -> assertEquals(0, blocks.startBlock()),
+        () -> assertEquals(0, blocks.endBlock()),
+        () -> assertEquals(5, blocks.statementCount(0)),
+        () -> assertEquals(cfg.startId(), blocks.firstId(0)),
+        () -> assertEquals(cfg.endId(), blocks.lastId(0)),
+        () -> assertEquals(0, blocks.succCount(0)),
+        () -> assertEquals(0, blocks.predCount(0)),
+        () -> assertEquals(-1, blocks.blockOf(cfg.getStart().getAST().newEmptyStatement()))
+    );
+  }
+
+  @Test
+  @Tag("BasicBlocks")
+  @DisplayName("Should split at branches and joins when an if statement has two branches")
+  void should_SplitAtBranchesAndJoins_when_IfStatementHasTwoBranches() {
+    init("int a = 0; if (p > 0) { a = 1; p = 2; } else { a = 2; } a = a + p; return a;");
+    assertAll(
+        () -> assertEquals(4, blocks.size()),
+        () -> assertEquals(blockOf(0), blockOf(1)),
+        () -> assertEquals(blockOf(2), blockOf(3)),
+        () -> assertEquals(blockOf(5), blockOf(6)),
+        () -> assertEquals(cfg.idOf(statements.get(1)), blocks.lastId(blockOf(0))),
+        () -> assertEquals(2, blocks.succCount(blockOf(0))),
+        () -> assertEquals(2, blocks.predCount(blockOf(5))),
+        () -> assertEquals(blocks.endBlock(), blockOf(6)),
+        () -> assertEquals(Set.of(blockOf(2), blockOf(4)),
+            Set.of(blocks.succId(blockOf(0), 0), blocks.succId(blockOf(0), 1))),
+        () -> assertEquals(Set.of(blockOf(3), blockOf(4)),
+            Set.of(blocks.predId(blockOf(5), 0), blocks.predId(blockOf(5), 1)))
+    );
+  }
+
+  @Test
+  @Tag("BasicBlocks")
+  @DisplayName("Should start a block at the header when a while loop starts the method")
+  void should_StartBlockAtHeader_when_WhileLoopStartsMethod() {
+    init("while (p > 0) { p = p - 1; p = p - 1; } return p;");
+    assertAll(
+        () -> assertEquals(3, blocks.size()),
+        () -> assertEquals(blocks.startBlock(), blockOf(0)),
+        () -> assertEquals(1, blocks.statementCount(blockOf(0))),
+        () -> assertEquals(blockOf(1), blockOf(2)),
+        () -> assertEquals(blockOf(0), blocks.succId(blockOf(1), 0)),
+        () -> assertEquals(1, blocks.predCount(blockOf(0)))
+    );
+  }
+
+  @Test
+  @Tag("BasicBlocks")
+  @DisplayName("Should group blocks once when queried again")
+  void should_GroupBlocksOnce_when_QueriedAgain() {
+    init("return p;");
+    assertAll(
+        () -> assertSame(blocks, BasicBlockGraph.of(cfg)),
+        () -> assertSame(cfg, blocks.getControlFlowGraph())
+    );
+  }
+
+  @Test
+  @Tag("BasicBlocks")
+  @DisplayName("Should group blocks once when queried through a built graph")
+  void should_GroupBlocksOnce_when_QueriedThroughBuiltGraph() {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { return p; } }");
+    ControlFlowGraph built = new ControlFlowGraphBuilder().build(root).get(0);
+    assertSame(BasicBlockGraph.of(built), BasicBlockGraph.of(built));
+  }
+
+  @ParameterizedTest
+  @Tag("BasicBlocks")
+  @DisplayName("Should keep the edges of the graph when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_KeepEdgesOfGraph_when_GivenGeneratedPrograms(long seed) {
+    ASTNode root = new ProgramGenerator(seed, 300, 0.3, 2, 0.5).generateCompilationUnit();
+    cfg = new ControlFlowGraphBuilder().buildCompact(root).get(0);
+    blocks = cfg.getBasicBlockGraph();
+    Set<List<Integer>> expected = new HashSet<List<Integer>>();
+    Set<List<Integer>> actual = new HashSet<List<Integer>>();
+    for (int id = 0; id < cfg.size(); ++id) {
+      for (int k = 0; k < cfg.succCount(id); ++k) {
+        expected.add(List.of(id, cfg.succId(id, k)));
+      }
+    }
+    for (int b = 0; b < blocks.size(); ++b) {
+      for (int id = blocks.firstId(b); id < blocks.lastId(b); ++id) {
+        assertEquals(b, blocks.blockOf(id + 1));
+        actual.add(List.of(id, id + 1));
+      }
+      for (int k = 0; k < blocks.succCount(b); ++k) {
+        actual.add(List.of(blocks.lastId(b), blocks.firstId(blocks.succId(b, k))));
+      }
+      for (int k = 0; k < blocks.predCount(b); ++k) {
+        assertTrue(expected.contains(
+            List.of(blocks.lastId(blocks.predId(b, k)), blocks.firstId(b))));
+      }
+    }
+    assertEquals(expected, actual);
+    assertTrue(blocks.size() < cfg.size());
+  }
+}
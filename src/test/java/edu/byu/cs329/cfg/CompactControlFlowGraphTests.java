@@ -0,0 +1,100 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import edu.byu.cs329.TestUtils;
+
+@DisplayName("Tests for CompactControlFlowGraph")
+public class CompactControlFlowGraphTests {
+  ControlFlowGraph controlFlowGraph = null;
+  CompactControlFlowGraph compactGraph = null;
+
+  void init(String fileName) {
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    assertEquals(1, cfgList.size());
+    controlFlowGraph = cfgList.get(0);
+    compactGraph = CompactControlFlowGraph.of(controlFlowGraph);
+  }
+
+  @ParameterizedTest
+  @Tag("Compact")
+  @DisplayName("Should have the same edges as the hash map graph")
+  @ValueSource(strings = {
+      "cfgInputs/methodDeclarationInputs/should_SetStartAndEndSame_when_EmptyMethodDeclaration.java",
+      "cfgInputs/blockInputs/should_LinkToReturn_when_BlockHasReturn.java",
+      "cfgInputs/ifStatementInputs/should_LinkAll_when_ExistsElseBlock.java",
+      "cfgInputs/ifStatementInputs/should_NotLinkFromReturn_when_NoElseBlockAndThenBlockReturns.java",
+      "cfgInputs/whileStatementInputs/should_LinkAll_when_ExistsWhileBlock.java",
+      "cfgInputs/whileStatementInputs/should_NotLinkFromReturn_when_WhileBlockReturns.java",
+      "cfgRdIntegrationTestInputs/IntegratedStatements.java"
+  })
+  void should_HaveSameEdges_when_BuiltFromHashMapGraph(String fileName) {
+    init(fileName);
+    assertAll(
+        () -> assertSame(controlFlowGraph.getStart(), compactGraph.getStart()),
+        () -> assertSame(controlFlowGraph.getEnd(), compactGraph.getEnd()),
+        () -> assertSame(controlFlowGraph.getMethodDeclaration(),
+            compactGraph.getMethodDeclaration()),
+        () -> assertEquals(0, compactGraph.startId())
+    );
+    for (int id = 0; id < compactGraph.size(); ++id) {
+      Statement s = compactGraph.statementOf(id);
+      assertEquals(id, compactGraph.idOf(s));
+      assertEquals(controlFlowGraph.getSuccs(s), compactGraph.getSuccs(s));
+      assertEquals(controlFlowGraph.getPreds(s), compactGraph.getPreds(s));
+      assertEquals(toStatements(compactGraph.succIds(id)), orEmpty(controlFlowGraph.getSuccs(s)));
+      assertEquals(toStatements(compactGraph.predIds(id)), orEmpty(controlFlowGraph.getPreds(s)));
+    }
+  }
+
+  @Test
+  @Tag("Compact")
+  @DisplayName("Should not number statements when they are unreachable")
+  void should_NotNumberStatements_when_Unreachable() {
+    init("cfgInputs/blockInputs/should_LinkToReturn_when_BlockHasReturn.java");
+    StatementTracker statementTracker = new StatementTracker(
+        controlFlowGraph.getMethodDeclaration().getRoot());
+    Statement unreachable = statementTracker.getExpressionStatement(0);
+    assertAll(
+        () -> assertEquals(-1, compactGraph.idOf(unreachable)),
+        () -> assertNull(compactGraph.getSuccs(unreachable)),
+        () -> assertNull(compactGraph.getPreds(unreachable)),
+        () -> assertNull(compactGraph.getSuccs(compactGraph.getEnd()))
+    );
+  }
+
+  @Test
+  @Tag("Compact")
+  @DisplayName("Should return itself when already compact")
+  void should_ReturnItself_when_AlreadyCompact() {
+    init("cfgInputs/blockInputs/should_LinkAll_when_BlockHasNoReturn.java");
+    assertSame(compactGraph, CompactControlFlowGraph.of(compactGraph));
+  }
+
+  private Set<Statement> toStatements(int[] ids) {
+    Set<Statement> set = new HashSet<Statement>();
+    for (int id : ids) {
+      set.add(compactGraph.statementOf(id));
+    }
+    return set;
+  }
+
+  private Set<Statement> orEmpty(Set<Statement> set) {
+    return set == null ? Set.of() : set;
+  }
+}
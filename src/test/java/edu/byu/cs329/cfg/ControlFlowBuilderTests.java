@@ -5,11 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Statement;
@@ -50,6 +53,28 @@ public class ControlFlowBuilderTests {
     );
   }
 
+  @Test
+  @Tag("MethodDeclaration")
+  @DisplayName("Should skip a method when the method has no body")
+  void should_SkipMethod_when_MethodHasNoBody() {
+    String fileName = "cfgInputs/methodDeclarationInputs/should_SkipMethod_when_MethodHasNoBody.java";
+    init(fileName);
+    ASTNode node = controlFlowGraph.getMethodDeclaration().getRoot();
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      List<ControlFlowGraph> parallelList = unitUnderTest.build(node, pool);
+      assertAll(
+          () -> assertEquals("other",
+              controlFlowGraph.getMethodDeclaration().getName().getIdentifier()),
+          () -> assertEquals(1, parallelList.size()),
+          () -> assertSame(controlFlowGraph.getMethodDeclaration(),
+              parallelList.get(0).getMethodDeclaration())
+      );
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   @Tag("MethodDeclaration")
   @DisplayName("Should set start to first statement and end different when non-empty method declaration")
@@ -93,6 +118,22 @@ public class ControlFlowBuilderTests {
     );
   }
 
+  @Test
+  @Tag("Block")
+  @DisplayName("Should not reach statements when they follow return")
+  void should_NotReachStatements_when_TheyFollowReturn() {
+    String fileName = "cfgInputs/blockInputs/should_NotReachStatements_when_TheyFollowReturn.java";
+    init(fileName);
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    Statement whileStatement = statementTracker.getWhileStatement(0);
+    Statement ifStatement = statementTracker.getIfStatement(0);
+    assertAll(
+        () -> assertTrue(hasEdge(returnStatement, controlFlowGraph.getEnd())),
+        () -> assertNull(controlFlowGraph.getSuccs(whileStatement)),
+        () -> assertNull(controlFlowGraph.getPreds(ifStatement))
+    );
+  }
+
   /**
    * if:    -> ..1, end
    *  ..1
@@ -292,6 +333,113 @@ public class ControlFlowBuilderTests {
     );
   }
 
+  /**
+   * if:        -> ..1, if
+   *  ..1       -> ..3
+   * else if:   -> ..2, ..3
+   *  ..2       -> ..3
+   * ..3        -> end
+   */
+  @Test
+  @Tag("IfStatement")
+  @DisplayName("Should link nested if when else branch is if statement")
+  void should_LinkNestedIf_when_ElseBranchIsIfStatement() {
+    String fileName = "cfgInputs/ifStatementInputs/should_LinkNestedIf_when_ElseBranchIsIfStatement.java";
+    init(fileName);
+    Statement ifStatement = statementTracker.getIfStatement(0);
+    Statement elseIfStatement = statementTracker.getIfStatement(1);
+    Statement expression1 = statementTracker.getExpressionStatement(0);
+    Statement expression2 = statementTracker.getExpressionStatement(1);
+    Statement expression3 = statementTracker.getExpressionStatement(2);
+    assertAll(
+        () -> assertTrue(hasEdge(ifStatement, expression1)),
+        () -> assertTrue(hasEdge(ifStatement, elseIfStatement)),
+        () -> assertTrue(hasEdge(elseIfStatement, expression2)),
+        () -> assertTrue(hasEdge(elseIfStatement, expression3)),
+        () -> assertTrue(hasEdge(expression1, expression3)),
+        () -> assertTrue(hasEdge(expression2, expression3)),
+        () -> assertFalse(hasEdge(ifStatement, expression3))
+    );
+  }
+
+  /**
+   * for:     -> block
+   * block:   -> ..3
+   * ..3      -> end
+   */
+  @Test
+  @Tag("Block")
+  @DisplayName("Should not link inside when statement is not if or while")
+  void should_NotLinkInside_when_StatementIsNotIfOrWhile() {
+    String fileName = "cfgInputs/blockInputs/should_NotLinkInside_when_StatementIsNotIfOrWhile.java";
+    init(fileName);
+    Statement forStatement = controlFlowGraph.getStart();
+    Statement block = statementTracker.getBlock(3);
+    Statement expression3 = statementTracker.getExpressionStatement(2);
+    assertAll(
+        () -> assertTrue(hasEdge(forStatement, block)),
+        () -> assertTrue(hasEdge(block, expression3)),
+        () -> assertEquals(1, controlFlowGraph.getSuccs(forStatement).size()),
+        () -> assertNull(controlFlowGraph.getPreds(statementTracker.getIfStatement(0))),
+        () -> assertNull(controlFlowGraph.getSuccs(statementTracker.getIfStatement(0))),
+        () -> assertNull(controlFlowGraph.getPreds(statementTracker.getWhileStatement(0))),
+        () -> assertNull(controlFlowGraph.getSuccs(statementTracker.getExpressionStatement(1)))
+    );
+  }
+
+  @Test
+  @Tag("MethodDeclaration")
+  @DisplayName("Should build every method when anonymous class precedes while")
+  void should_BuildEveryMethod_when_AnonymousClassPrecedesWhile() {
+    String fileName = "cfgInputs/methodDeclarationInputs/should_BuildEveryMethod_when_AnonymousClassPrecedesWhile.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<ControlFlowGraph> cfgList = unitUnderTest.build(node);
+    statementTracker = new StatementTracker(node);
+    controlFlowGraph = cfgList.get(1);
+    Statement whileStatement = statementTracker.getWhileStatement(0);
+    assertAll(
+        () -> assertEquals(2, cfgList.size()),
+        () -> assertEquals("hashCode",
+            cfgList.get(0).getMethodDeclaration().getName().getIdentifier()),
+        () -> assertEquals("name",
+            controlFlowGraph.getMethodDeclaration().getName().getIdentifier()),
+        () -> assertTrue(hasEdge(statementTracker.getVariableDeclarationStatement(0),
+            whileStatement)),
+        () -> assertTrue(hasEdge(whileStatement, statementTracker.getExpressionStatement(0))),
+        () -> assertTrue(hasEdge(whileStatement, statementTracker.getReturnStatement(1)))
+    );
+  }
+
+  @Test
+  @Tag("MethodDeclaration")
+  @DisplayName("Should build the same graphs in the same order when methods are linked on a pool")
+  void should_BuildSameGraphsInSameOrder_when_MethodsAreLinkedOnPool() {
+    String fileName = "cfgInputs/methodDeclarationInputs/should_BuildEveryMethod_when_AnonymousClassPrecedesWhile.java";
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<ControlFlowGraph> expectedList = unitUnderTest.build(node);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      List<ControlFlowGraph> actualList = unitUnderTest.build(node, pool);
+      List<CompactControlFlowGraph> compactList = unitUnderTest.buildCompact(node, pool);
+      assertEquals(expectedList.size(), actualList.size());
+      assertEquals(expectedList.size(), compactList.size());
+      for (int i = 0; i < expectedList.size(); ++i) {
+        ControlFlowGraph expected = expectedList.get(i);
+        ControlFlowGraph actual = actualList.get(i);
+        assertSame(expected.getMethodDeclaration(), actual.getMethodDeclaration());
+        assertSame(expected.getMethodDeclaration(), compactList.get(i).getMethodDeclaration());
+        assertSame(expected.getStart(), actual.getStart());
+        assertSame(expected.getEnd(), actual.getEnd());
+        for (Statement s : new DepthFirstOrder(expected).getPreorder()) {
+          assertEquals(expected.getSuccs(s), actual.getSuccs(s));
+          assertEquals(expected.getPreds(s), actual.getPreds(s));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   private boolean hasEdge(Statement source, Statement dest) {
     Set<Statement> successors = controlFlowGraph.getSuccs(source);
     Set<Statement> predecessors = controlFlowGraph.getPreds(dest);
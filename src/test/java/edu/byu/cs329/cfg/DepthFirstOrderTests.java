@@ -0,0 +1,67 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for DepthFirstOrder")
+public class DepthFirstOrderTests {
+
+  private static ControlFlowGraph build(String body) {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { " + body + " } }");
+    return new ControlFlowGraphBuilder().build(root).get(0);
+  }
+
+  @Test
+  @Tag("Order")
+  @DisplayName("Should number statements consistently when searching a loop")
+  void should_NumberStatementsConsistently_when_SearchingLoop() {
+    ControlFlowGraph cfg = build("int i = 0; while (i < p) { i = i + 1; } return i;");
+    DepthFirstOrder order = new DepthFirstOrder(cfg);
+    List<Statement> preorder = order.getPreorder();
+    List<Statement> reversePostorder = order.getReversePostorder();
+    Statement other = cfg.getStart().getAST().newEmptyStatement();
+    assertAll(
+        () -> assertEquals(5, preorder.size()),
+        () -> assertSame(cfg.getStart(), preorder.get(0)),
+        () -> assertSame(cfg.getStart(), reversePostorder.get(0)),
+        () -> assertEquals(-1, order.getPreorderNumber(other)),
+        () -> assertEquals(-1, order.getPostorderNumber(other))
+    );
+    for (int k = 0; k < preorder.size(); ++k) {
+      Statement s = preorder.get(k);
+      assertEquals(k, order.getPreorderNumber(s));
+      assertSame(s, reversePostorder.get(
+          reversePostorder.size() - 1 - order.getPostorderNumber(s)));
+    }
+  }
+
+  @Test
+  @Tag("Order")
+  @DisplayName("Should not overflow the stack when a method is long")
+  void should_NotOverflowStack_when_MethodIsLong() {
+    StringBuilder body = new StringBuilder("int a = p;");
+    for (int k = 0; k < 50000; ++k) {
+      body.append(" a = a + 1;");
+    }
+    body.append(" return a;");
+    ControlFlowGraph cfg = build(body.toString());
+    DepthFirstOrder order = new DepthFirstOrder(cfg);
+    assertAll(
+        () -> assertEquals(50003, order.getPreorder().size()),
+        () -> assertEquals(0, order.getPostorderNumber(cfg.getEnd())),
+        () -> assertTrue(order.getPreorder().equals(order.getReversePostorder()))
+    );
+  }
+}
@@ -0,0 +1,318 @@
+package edu.byu.cs329.cfg;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for DominatorTree")
+public class DominatorTreeTests {
+  CompactControlFlowGraph cfg = null;
+  DominatorTree tree = null;
+  List<Statement> statements = null;
+
+  void init(String body) {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { " + body + " } }");
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    statements = new ArrayList<Statement>();
+    collectStatements(type.getMethods()[0].getBody(), statements);
+    cfg = CompactControlFlowGraph.of(new ControlFlowGraphBuilder().build(root).get(0));
+    tree = cfg.getDominatorTree();
+  }
+
+  private static void collectStatements(Block block, List<Statement> statements) {
+    for (Object object : block.statements()) {
+      Statement statement = (Statement) object;
+      statements.add(statement);
+      if (statement instanceof IfStatement) {
+        collectStatements((Block) ((IfStatement) statement).getThenStatement(), statements);
+        if (((IfStatement) statement).getElseStatement() != null) {
+          collectStatements((Block) ((IfStatement) statement).getElseStatement(), statements);
+        }
+      } else if (statement instanceof WhileStatement) {
+        collectStatements((Block) ((WhileStatement) statement).getBody(), statements);
+      }
+    }
+  }
+
+  private int id(int statement) {
+    return cfg.idOf(statements.get(statement));
+  }
+
+  private Set<Integer> frontier(int id) {
+    Set<Integer> frontier = new HashSet<Integer>();
+    for (int k = 0; k < tree.frontierCount(id); ++k) {
+      frontier.add(tree.frontierId(id, k));
+    }
+    return frontier;
+  }
+
+  private static Set<Integer> setOf(int... ids) {
+    Set<Integer> set = new HashSet<Integer>();
+    for (int id : ids) {
+      set.add(id);
+    }
+    return set;
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should merge at the join when an if statement has two branches")
+  void should_MergeAtJoin_when_IfStatementHasTwoBranches() {
+    init("int a = 0; if (p > 0) { a = 1; } else { a = 2; } return a;");
+    assertAll(
+        () -> assertEquals(-1, tree.idom(id(0))),
+        () -> assertEquals(id(0), tree.idom(id(1))),
+        () -> assertEquals(id(1), tree.idom(id(2))),
+        () -> assertEquals(id(1), tree.idom(id(3))),
+        () -> assertEquals(id(1), tree.idom(id(4))),
+        () -> assertEquals(id(4), tree.idom(cfg.endId())),
+        () -> assertEquals(setOf(id(4)), frontier(id(2))),
+        () -> assertEquals(setOf(id(4)), frontier(id(3))),
+        () -> assertEquals(setOf(), frontier(id(1))),
+        () -> assertEquals(3, tree.childCount(id(1))),
+        () -> assertEquals(Math.min(id(2), id(3)), tree.childId(id(1), 0))
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should put the header in its own frontier when a while loop has a body")
+  void should_PutHeaderInOwnFrontier_when_WhileLoopHasBody() {
+    init("int i = 0; while (i < p) { i = i + 1; } return i;");
+    assertAll(
+        () -> assertEquals(id(0), tree.idom(id(1))),
+        () -> assertEquals(id(1), tree.idom(id(2))),
+        () -> assertEquals(id(1), tree.idom(id(3))),
+        () -> assertEquals(setOf(id(1)), frontier(id(2))),
+        () -> assertEquals(setOf(id(1)), frontier(id(1))),
+        () -> assertEquals(setOf(), frontier(id(0)))
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should put the start in frontiers when the start is a loop header")
+  void should_PutStartInFrontiers_when_StartIsLoopHeader() {
+    init("while (p > 0) { p = p - 1; }");
+    assertAll(
+        () -> assertEquals(-1, tree.idom(cfg.startId())),
+        () -> assertEquals(cfg.startId(), tree.idom(id(1))),
+        () -> assertEquals(setOf(cfg.startId()), frontier(id(1))),
+        () -> assertEquals(setOf(cfg.startId()), frontier(cfg.startId()))
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should put the start in its own frontier when an empty while loop starts the method")
+  void should_PutStartInOwnFrontier_when_EmptyWhileLoopStartsMethod() {
+    init("while (p > 0) { } return p;");
+    assertAll(
+        () -> assertEquals(setOf(cfg.startId()), frontier(cfg.startId())),
+        () -> assertEquals(cfg.startId(), tree.idom(id(1)))
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should answer with statements when queried with statements")
+  void should_AnswerWithStatements_when_QueriedWithStatements() {
+    init("int a = 0; if (p > 0) { a = 1; } else { a = 2; } return a;");
+    Statement other = statements.get(0).getAST().newEmptyStatement();
+    assertAll(
+        () -> assertSame(statements.get(1), tree.idom(statements.get(2))),
+        () -> assertNull(tree.idom(statements.get(0))),
+        () -> assertNull(tree.idom(other)),
+        () -> assertTrue(tree.dominates(statements.get(1), statements.get(4))),
+        () -> assertTrue(tree.dominates(statements.get(4), statements.get(4))),
+        () -> assertFalse(tree.dominates(statements.get(2), statements.get(4))),
+        () -> assertFalse(tree.dominates(other, statements.get(4))),
+        () -> assertFalse(tree.dominates(statements.get(4), other)),
+        () -> assertTrue(tree.strictlyDominates(id(0), id(4))),
+        () -> assertFalse(tree.strictlyDominates(id(4), id(4))),
+        () -> assertEquals(Set.of(statements.get(4)), tree.getFrontier(statements.get(2))),
+        () -> assertEquals(Set.of(), tree.getFrontier(statements.get(1))),
+        () -> assertEquals(Set.of(), tree.getFrontier(other)),
+        () -> assertEquals(cfg.startId(), tree.rootId()),
+        () -> assertFalse(tree.isPostDominatorTree())
+    );
+  }
+
+  @Test
+  @Tag("PostDominators")
+  @DisplayName("Should make branches control dependences when building post-dominators")
+  void should_MakeBranchesControlDependences_when_BuildingPostDominators() {
+    init("int a = 0; if (p > 0) { a = 1; } else { a = 2; } while (a < p) { a = a + 1; } "
+        + "return a;");
+    DominatorTree postTree = cfg.getPostDominatorTree();
+    Statement end = cfg.getEnd();
+    assertAll(
+        () -> assertTrue(postTree.isPostDominatorTree()),
+        () -> assertEquals(cfg.endId(), postTree.rootId()),
+        () -> assertNull(postTree.idom(end)),
+        () -> assertSame(statements.get(4), postTree.idom(statements.get(2))),
+        () -> assertSame(statements.get(4), postTree.idom(statements.get(1))),
+        () -> assertSame(statements.get(6), postTree.idom(statements.get(4))),
+        () -> assertSame(end, postTree.idom(statements.get(6))),
+        () -> assertTrue(postTree.dominates(statements.get(4), statements.get(0))),
+        () -> assertFalse(postTree.dominates(statements.get(2), statements.get(1))),
+        () -> assertEquals(Set.of(statements.get(1)), postTree.getFrontier(statements.get(2))),
+        () -> assertEquals(Set.of(statements.get(4)), postTree.getFrontier(statements.get(5))),
+        () -> assertEquals(Set.of(statements.get(4)), postTree.getFrontier(statements.get(4))),
+        () -> assertEquals(Set.of(), postTree.getFrontier(statements.get(0)))
+    );
+  }
+
+  @Test
+  @Tag("PostDominators")
+  @DisplayName("Should root post-dominators at the end when code is straight line")
+  void should_RootPostDominatorsAtEnd_when_CodeIsStraightLine() {
+    init("int a = 0; return a;");
+    DominatorTree postTree = cfg.getPostDominatorTree();
+    assertAll(
+        () -> assertSame(statements.get(1), postTree.idom(statements.get(0))),
+        () -> assertEquals(cfg.endId(), postTree.idom(id(1))),
+        () -> assertTrue(postTree.dominates(cfg.endId(), id(0)))
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should compute each tree once when queried again")
+  void should_ComputeTreeOnce_when_QueriedAgain() {
+    init("int a = 0; return a;");
+    assertAll(
+        () -> assertSame(tree, cfg.getDominatorTree()),
+        () -> assertSame(tree, DominatorTree.of(cfg)),
+        () -> assertSame(cfg.getPostDominatorTree(), DominatorTree.postDominatorsOf(cfg)),
+        () -> assertSame(cfg, tree.getControlFlowGraph())
+    );
+  }
+
+  @Test
+  @Tag("Dominators")
+  @DisplayName("Should compute each tree once when queried through a built graph")
+  void should_ComputeTreeOnce_when_QueriedThroughBuiltGraph() {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { int a = p; return a; } }");
+    ControlFlowGraph built = new ControlFlowGraphBuilder().build(root).get(0);
+    DominatorTree first = DominatorTree.of(built);
+    assertAll(
+        () -> assertSame(CompactControlFlowGraph.of(built), CompactControlFlowGraph.of(built)),
+        () -> assertSame(first, DominatorTree.of(built)),
+        () -> assertSame(DominatorTree.postDominatorsOf(built),
+            DominatorTree.postDominatorsOf(built)),
+        () -> assertSame(CompactControlFlowGraph.of(built), first.getControlFlowGraph())
+    );
+  }
+
+  @ParameterizedTest
+  @Tag("Dominators")
+  @DisplayName("Should match the definition of dominance when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_MatchDefinitionOfDominance_when_GivenGeneratedPrograms(long seed) {
+    ASTNode root = new ProgramGenerator(seed, 200, 0.3, 2, 0.5).generateCompilationUnit();
+    cfg = CompactControlFlowGraph.of(new ControlFlowGraphBuilder().build(root).get(0));
+    assertMatchesDefinition(cfg.getDominatorTree());
+  }
+
+  @ParameterizedTest
+  @Tag("PostDominators")
+  @DisplayName("Should match the definition of post-dominance when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_MatchDefinitionOfPostDominance_when_GivenGeneratedPrograms(long seed) {
+    ASTNode root = new ProgramGenerator(seed, 200, 0.3, 2, 0.5).generateCompilationUnit();
+    cfg = CompactControlFlowGraph.of(new ControlFlowGraphBuilder().build(root).get(0));
+    assertMatchesDefinition(cfg.getPostDominatorTree());
+  }
+
+  private void assertMatchesDefinition(DominatorTree tree) {
+    this.tree = tree;
+    boolean post = tree.isPostDominatorTree();
+    int size = cfg.size();
+    BitSet[] dominators = new BitSet[size];
+    for (int id = 0; id < size; ++id) {
+      dominators[id] = new BitSet();
+    }
+    BitSet reachable = reachableWithout(-1, post);
+    for (int d = 0; d < size; ++d) {
+      BitSet avoiding = reachableWithout(d, post);
+      for (int id = reachable.nextSetBit(0); id >= 0; id = reachable.nextSetBit(id + 1)) {
+        if (id == d || !avoiding.get(id)) {
+          dominators[id].set(d);
+        }
+      }
+    }
+    for (int id = 0; id < size; ++id) {
+      int expectedIdom = -1;
+      for (int d = dominators[id].nextSetBit(0); d >= 0; d = dominators[id].nextSetBit(d + 1)) {
+        if (d != id && (expectedIdom < 0
+            || dominators[d].cardinality() > dominators[expectedIdom].cardinality())) {
+          expectedIdom = d;
+        }
+      }
+      assertEquals(expectedIdom, tree.idom(id));
+      Set<Integer> expectedFrontier = new HashSet<Integer>();
+      for (int y = 0; y < size; ++y) {
+        boolean strictlyDominated = y != id && dominators[y].get(id);
+        int[] ins = post ? cfg.succIds(y) : cfg.predIds(y);
+        for (int in : ins) {
+          if (dominators[in].get(id) && !strictlyDominated) {
+            expectedFrontier.add(y);
+          }
+        }
+      }
+      assertEquals(expectedFrontier, frontier(id));
+      for (int d = 0; d < size; ++d) {
+        assertEquals(dominators[id].get(d), tree.dominates(d, id));
+      }
+    }
+    assertTrue(size > 10);
+  }
+
+  private BitSet reachableWithout(int removed, boolean post) {
+    BitSet reached = new BitSet();
+    int root = post ? cfg.endId() : cfg.startId();
+    if (removed == root) {
+      return reached;
+    }
+    Deque<Integer> stack = new ArrayDeque<Integer>();
+    stack.push(root);
+    reached.set(root);
+    while (!stack.isEmpty()) {
+      int id = stack.pop();
+      for (int succ : post ? cfg.predIds(id) : cfg.succIds(id)) {
+        if (succ != removed && !reached.get(succ)) {
+          reached.set(succ);
+          stack.push(succ);
+        }
+      }
+    }
+    return reached;
+  }
+}
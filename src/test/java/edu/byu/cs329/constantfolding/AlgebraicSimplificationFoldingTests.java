@@ -0,0 +1,117 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for simplifying algebraic identities")
+public class AlgebraicSimplificationFoldingTests {
+  AlgebraicSimplificationFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new AlgebraicSimplificationFolding();
+  }
+
+  private ReturnStatement getReturn(ASTNode root) {
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    return (ReturnStatement) type.getMethods()[0].getBody().statements().get(0);
+  }
+
+  /**
+   * Tests requires 1: root != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  /**
+   * Tests requires 2: (root instanceof CompilationUnit) \/ parent(root)
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should not simplify anything when identities do not hold")
+  @Tag("postcondition")
+  void should_notSimplifyAnything_when_identitiesDoNotHold() {
+    String rootName = "foldingInputs/algebraicLiterals/should_notSimplifyAnything_when_identitiesDoNotHold.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should simplify when given identities")
+  @Tag("postcondition")
+  void should_simplify_when_givenIdentities() {
+    String rootName = "foldingInputs/algebraicLiterals/should_simplify_when_givenIdentities-root.java";
+    String expectedName = "foldingInputs/algebraicLiterals/should_simplify_when_givenIdentities.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should keep the operand node when simplifying")
+  @Tag("postcondition")
+  void should_keepOperandNode_when_simplifying() {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { int name(int x) { return x * 1 + 0; } }");
+    InfixExpression sum = (InfixExpression) getReturn(root).getExpression();
+    Expression name = ((InfixExpression) sum.getLeftOperand()).getLeftOperand();
+    folderUnderTest.fold(root);
+    assertSame(name, getReturn(root).getExpression());
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should simplify like Java when operands are of one type")
+  @Tag("postcondition")
+  @CsvSource(delimiter = ';', value = {
+      "int x; x - 0 - 0; x",
+      "int x; 1 * x * 1 * x; x * x",
+      "int x; x * 0 * x; 0",
+      "long x; x + 0L; x",
+      "long x; x * 1; x * 1",
+      "int x; (x) - (x); 0",
+      "int x; x - x - x; x - x - x",
+      "boolean x; true && x && true; x",
+      "boolean x; x || x || false; x || x",
+      "boolean x; x && x == false; x && x == false"
+  })
+  void should_simplifyLikeJava_when_operandsAreOfOneType(String parameter, String expression,
+      String expected) {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { Object name(" + parameter + ") { return " + expression + "; } }");
+    folderUnderTest.fold(root);
+    assertEquals(expected, getReturn(root).getExpression().toString());
+  }
+}
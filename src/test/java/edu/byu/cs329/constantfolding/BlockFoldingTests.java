@@ -0,0 +1,88 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.StatementTracker;
+
+@DisplayName("Tests for folding nested blocks")
+public class BlockFoldingTests {
+  BlockFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new BlockFolding();
+  }
+
+  /**
+   * Tests requires 1: root != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  /**
+   * Tests requires 2: (root instanceof CompilationUnit) \/ parent(root)
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should not fold anything when there are no nested blocks")
+  @Tag("postcondition")
+  void should_notFoldAnything_when_thereAreNoNestedBlocks() {
+    String rootName = "foldingInputs/blockLiterals/should_fold_when_givenNestedBlocks.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should fold when given nested blocks")
+  @Tag("postcondition")
+  void should_fold_when_givenNestedBlocks() {
+    String rootName = "foldingInputs/blockLiterals/should_fold_when_givenNestedBlocks-root.java";
+    String expectedName = "foldingInputs/blockLiterals/should_fold_when_givenNestedBlocks.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should move statements and keep blocks when given nested blocks")
+  @Tag("postcondition")
+  void should_moveStatementsAndKeepBlocks_when_givenNestedBlocks() {
+    String rootName = "foldingInputs/blockLiterals/should_fold_when_givenNestedBlocks-root.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    StatementTracker statementTracker = new StatementTracker(root);
+    Statement body = statementTracker.getBlock(0);
+    Statement aEq3 = statementTracker.getExpressionStatement(2);
+    Statement whileStatement = statementTracker.getWhileStatement(0);
+
+    assertTrue(folderUnderTest.fold(root));
+    assertSame(root, body.getRoot());
+    assertSame(body, aEq3.getParent());
+    assertSame(body, whileStatement.getParent());
+  }
+}
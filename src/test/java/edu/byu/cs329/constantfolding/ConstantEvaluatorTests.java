@@ -0,0 +1,131 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for evaluating expressions with constant names")
+public class ConstantEvaluatorTests {
+  private static final String PARAMETERS = "int x, long y, char c, boolean b, double d";
+
+  Map<String, ConstantValue> values = null;
+
+  @BeforeEach
+  void beforeEach() {
+    values = new HashMap<String, ConstantValue>();
+    values.put("x", ConstantValue.ofInt(3));
+    values.put("y", ConstantValue.ofLong(5));
+    values.put("c", ConstantValue.ofChar('a'));
+    values.put("b", ConstantValue.ofBoolean(true));
+  }
+
+  private Statement parseStatement(String statement) {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { Object name(" + PARAMETERS + ") { " + statement + " } }");
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    return (Statement) type.getMethods()[0].getBody().statements().get(0);
+  }
+
+  private ConstantValue lookup(SimpleName name) {
+    ConstantValue value = values.get(name.getIdentifier());
+    return value == null ? ConstantValue.NOT_CONSTANT : value;
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should evaluate like Java when names are constant")
+  @Tag("evaluate")
+  @CsvSource(delimiter = ';', quoteCharacter = '"', value = {
+      "x + 1 * 2; INT 5",
+      "(x) * x; INT 9",
+      "-x + y; LONG 2",
+      "x + c; INT 100",
+      "(long) x << 40; LONG 3298534883328",
+      "(char) (c + 1); 'b'",
+      "!b || x > 2; true",
+      "x + d; NOT_CONSTANT 0",
+      "x / (x - 3); NOT_CONSTANT 0",
+      "(double) x; NOT_CONSTANT 0",
+      "(String) null; NOT_CONSTANT 0",
+      "null; NOT_CONSTANT 0"
+  })
+  void should_evaluateLikeJava_when_namesAreConstant(String expression, String expected) {
+    Expression exp = ((ReturnStatement) parseStatement("return " + expression + ";"))
+        .getExpression();
+    assertEquals(expected, ConstantEvaluator.evaluate(exp, this::lookup).toString());
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should convert to the declared type when assigning")
+  @Tag("assign")
+  @CsvSource(delimiter = ';', quoteCharacter = '"', value = {
+      "x = 7; INT 7",
+      "x += 2147483647; INT -2147483646",
+      "x = 'a'; INT 97",
+      "y = 7; LONG 7",
+      "y *= 1000000000; LONG 5000000000",
+      "c += 1; 'b'",
+      "b &= false; false",
+      "d = 1; NOT_CONSTANT 0",
+      "x = d; NOT_CONSTANT 0"
+  })
+  void should_convertToDeclaredType_when_assigning(String statement, String expected) {
+    Assignment assignment = (Assignment) ((ExpressionStatement) parseStatement(statement + ";"))
+        .getExpression();
+    SimpleName variable = (SimpleName) assignment.getLeftHandSide();
+    ConstantValue value = ConstantEvaluator.evaluate(assignment.getRightHandSide(), this::lookup);
+    assertEquals(expected, ConstantEvaluator.assign(variable, assignment.getOperator(),
+        lookup(variable), value).toString());
+  }
+
+  @Test
+  @DisplayName("Should cache every literal and method when caching properties")
+  @Tag("cache")
+  void should_cacheEveryLiteralAndMethod_when_cachingProperties() {
+    ASTNode root = ProgramGenerator.parse("class Name { int name(int a) { "
+        + "Runnable r = new Runnable() { public void run() { char c = 'c'; boolean b = true; } }; "
+        + "return a + 1; } }");
+    ConstantEvaluator.cacheProperties(root);
+    List<ASTNode> cached = new ArrayList<ASTNode>();
+    root.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode node) {
+        if (node instanceof NumberLiteral || node instanceof BooleanLiteral
+            || node instanceof CharacterLiteral) {
+          assertNotNull(node.getProperty(ConstantValue.PROPERTY));
+          cached.add(node);
+        } else if (node instanceof MethodDeclaration) {
+          assertNotNull(node.getProperty(ExpressionTypes.PROPERTY));
+          cached.add(node);
+        }
+      }
+    });
+    assertEquals(5, cached.size());
+  }
+}
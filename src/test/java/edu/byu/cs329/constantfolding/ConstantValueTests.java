@@ -0,0 +1,152 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("Tests for the values of constant expressions")
+public class ConstantValueTests {
+  AST ast = null;
+
+  @BeforeEach
+  void beforeEach() {
+    ast = AST.newAST(AST.JLS3);
+  }
+
+  private NumberLiteral number(String token) {
+    return ast.newNumberLiteral(token);
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should parse int when given int literal")
+  @Tag("parse")
+  @CsvSource({
+      "42, 42",
+      "-7, -7",
+      "0, 0",
+      "0x1F, 31",
+      "0XFFFFFFFF, -1",
+      "017, 15",
+      "0b101, 5",
+      "1_000_000, 1000000",
+      "-2147483648, -2147483648",
+      "0x80000000, -2147483648"
+  })
+  void should_parseInt_when_givenIntLiteral(String token, int expected) {
+    assertEquals(ConstantValue.ofInt(expected), ConstantValue.parseNumber(token));
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should parse long when given long literal")
+  @Tag("parse")
+  @CsvSource({
+      "42L, 42",
+      "-7l, -7",
+      "0x7FFFFFFFFFFFFFFFL, 9223372036854775807",
+      "0xFFFFFFFFFFFFFFFFL, -1",
+      "0777L, 511",
+      "2147483648L, 2147483648"
+  })
+  void should_parseLong_when_givenLongLiteral(String token, long expected) {
+    assertEquals(ConstantValue.ofLong(expected), ConstantValue.parseNumber(token));
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should parse double when given floating point literal")
+  @Tag("parse")
+  @CsvSource({
+      "1.5, 1.5",
+      "2e3, 2000.0",
+      "3d, 3.0",
+      "-0.25, -0.25",
+      "0x1p3, 8.0"
+  })
+  void should_parseDouble_when_givenFloatingPointLiteral(String token, double expected) {
+    assertEquals(ConstantValue.ofDouble(expected), ConstantValue.parseNumber(token));
+  }
+
+  @Test
+  @DisplayName("Should parse float when given float literal")
+  @Tag("parse")
+  void should_parseFloat_when_givenFloatLiteral() {
+    assertEquals(ConstantValue.ofFloat(0.1f), ConstantValue.of(number("0.1f")));
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should not be constant when literal is out of range")
+  @Tag("parse")
+  @ValueSource(strings = {"2147483648", "0x100000000", "9223372036854775808L", "1e999", "1e99f"})
+  void should_notBeConstant_when_literalIsOutOfRange(String token) {
+    assertFalse(ConstantValue.of(number(token)).isConstant());
+  }
+
+  @Test
+  @DisplayName("Should parse boolean and char when given boolean and char literals")
+  @Tag("parse")
+  void should_parseBooleanAndChar_when_givenBooleanAndCharLiterals() {
+    CharacterLiteral character = ast.newCharacterLiteral();
+    character.setCharValue('x');
+    assertEquals(ConstantValue.ofBoolean(true), ConstantValue.of(ast.newBooleanLiteral(true)));
+    assertEquals(ConstantValue.ofChar('x'), ConstantValue.of(character));
+    assertEquals('x', ConstantValue.of(character).intValue());
+  }
+
+  @Test
+  @DisplayName("Should not be constant when not a literal of a primitive type")
+  @Tag("parse")
+  void should_notBeConstant_when_notALiteralOfAPrimitiveType() {
+    StringLiteral string = ast.newStringLiteral();
+    string.setLiteralValue("1");
+    assertSame(ConstantValue.NOT_CONSTANT, ConstantValue.of(string));
+    assertSame(ConstantValue.NOT_CONSTANT, ConstantValue.of(ast.newSimpleName("x")));
+    assertSame(ConstantValue.NOT_CONSTANT, ConstantValue.of(null));
+  }
+
+  @Test
+  @DisplayName("Should parse a literal once when asked many times")
+  @Tag("cache")
+  void should_parseLiteralOnce_when_askedManyTimes() {
+    NumberLiteral literal = number("0x10");
+    ConstantValue value = ConstantValue.of(literal);
+    assertSame(value, literal.getProperty(ConstantValue.PROPERTY));
+    assertSame(value, ConstantValue.of(literal));
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should round trip when creating a literal from a value")
+  @Tag("cache")
+  @ValueSource(strings = {"-5", "12L", "1.5", "2.5F", "true", "'c'"})
+  void should_roundTrip_when_creatingLiteralFromValue(String source) {
+    Expression original;
+    if (source.equals("true")) {
+      original = ast.newBooleanLiteral(true);
+    } else if (source.startsWith("'")) {
+      CharacterLiteral character = ast.newCharacterLiteral();
+      character.setEscapedValue(source);
+      original = character;
+    } else {
+      original = number(source);
+    }
+    ConstantValue value = ConstantValue.of(original);
+    assertTrue(value.isConstant());
+
+    Expression literal = value.toExpression(ast);
+    assertSame(value, literal.getProperty(ConstantValue.PROPERTY));
+    literal.setProperty(ConstantValue.PROPERTY, null);
+    assertEquals(value, ConstantValue.of(literal));
+  }
+}
@@ -0,0 +1,185 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for folding with all foldings in one traversal")
+public class FusedFoldingTests {
+  FusedFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new FusedFolding();
+  }
+
+  private static void foldSeparately(ASTNode root) {
+    List<Folding> foldingList = List.of(
+        new BlockFolding(),
+        new ParenthesizedExpressionFolding(),
+        new NegationPrefixExpressionFolding(),
+        new PlusInfixExpressionFolding(),
+        new LessThanInfixExpressionFolding(),
+        new OperatorExpressionFolding(),
+        new AlgebraicSimplificationFolding(),
+        new IfStatementFolding()
+    );
+    boolean isChanged = true;
+    while (isChanged) {
+      isChanged = false;
+      for (Folding folding : foldingList) {
+        isChanged = folding.fold(root) || isChanged;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Statement> getBodyStatements(ASTNode root) {
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    return (List<Statement>) type.getMethods()[0].getBody().statements();
+  }
+
+  /**
+   * Tests requires 1: root != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  /**
+   * Tests requires 2: (root instanceof CompilationUnit) \/ parent(root)
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should fold in one traversal when given nested foldable expressions")
+  @Tag("postcondition")
+  void should_foldInOneTraversal_when_givenNestedFoldableExpressions() {
+    String rootName = "foldingInputs/fusedLiterals/should_foldInOneTraversal_when_givenNestedFoldableExpressions-root.java";
+    String expectedName = "foldingInputs/fusedLiterals/should_foldInOneTraversal_when_givenNestedFoldableExpressions.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    assertTrue(folderUnderTest.fold(root));
+    assertFalse(folderUnderTest.fold(root));
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root));
+  }
+
+  @Test
+  @DisplayName("Should not fold anything when there is nothing to fold")
+  @Tag("postcondition")
+  void should_notFoldAnything_when_thereIsNothingToFold() {
+    String rootName = "foldingInputs/constantFoldingIntegrationInputs/should_notFoldAnything_when_thereIsNothingToFold.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folderUnderTest);
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should fold like the separate foldings when given generated programs")
+  @Tag("postcondition")
+  @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+  void should_foldLikeSeparateFoldings_when_givenGeneratedPrograms(long seed) {
+    ProgramGenerator generator = new ProgramGenerator(seed, 300, 0.4, 2, 0.7);
+    ASTNode expected = generator.generateCompilationUnit();
+    foldSeparately(expected);
+    ASTNode actual = generator.generateCompilationUnit();
+    assertTrue(folderUnderTest.fold(actual));
+    assertFalse(folderUnderTest.fold(actual));
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), actual));
+  }
+
+  @Test
+  @DisplayName("Should copy only the kept branch and literals when folding")
+  @Tag("postcondition")
+  void should_copyOnlyKeptBranchAndLiterals_when_folding() {
+    String rootName = "foldingInputs/fusedLiterals/should_foldInOneTraversal_when_givenNestedFoldableExpressions-root.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    assertTrue(folderUnderTest.fold(root));
+    // the literals out of (2 + 3), (1 + 5) and (1 + 2)
+    assertEquals(3, folderUnderTest.getCopiedNodeCount());
+    assertFalse(folderUnderTest.fold(root));
+    assertEquals(0, folderUnderTest.getCopiedNodeCount());
+  }
+
+  /**
+   * Tests requires 3: regions != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when regions is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_regionsIsNull() {
+    String rootName = "foldingInputs/fusedLiterals/should_foldOnlyRegions_when_givenDirtyStatements-root.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.foldRegions(root, null);
+    });
+  }
+
+  @Test
+  @DisplayName("Should fold only regions when given dirty statements")
+  @Tag("postcondition")
+  void should_foldOnlyRegions_when_givenDirtyStatements() {
+    String rootName = "foldingInputs/fusedLiterals/should_foldOnlyRegions_when_givenDirtyStatements-root.java";
+    String expectedName = "foldingInputs/fusedLiterals/should_foldOnlyRegions_when_givenDirtyStatements.java";
+    ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+    List<Statement> statements = getBodyStatements(root);
+    Statement declaration = statements.get(0);
+    Statement ifStatement = statements.get(2);
+    assertTrue(folderUnderTest.foldRegions(root, Set.of(declaration, ifStatement)));
+    ASTNode expected = TestUtils.getASTNodeFor(this, expectedName);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), root));
+    // the kept branch is flattened into the body, so the body is dirty too
+    Block body = (Block) declaration.getParent();
+    assertTrue(folderUnderTest.getDirtyStatements().containsAll(List.of(declaration, body)));
+    assertFalse(folderUnderTest.foldRegions(root, Set.of(ifStatement)));
+    assertTrue(folderUnderTest.getDirtyStatements().isEmpty());
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should fold like the separate foldings when folding dirty regions of generated programs")
+  @Tag("postcondition")
+  @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+  void should_foldLikeSeparateFoldings_when_foldingDirtyRegionsOfGeneratedPrograms(long seed) {
+    ProgramGenerator generator = new ProgramGenerator(seed, 300, 0.4, 2, 0.7);
+    ASTNode expected = generator.generateCompilationUnit();
+    foldSeparately(expected);
+    ASTNode actual = generator.generateCompilationUnit();
+    ConstantFolding.fold(actual);
+    assertTrue(expected.subtreeMatch(new ASTMatcher(), actual));
+    assertFalse(folderUnderTest.fold(actual));
+  }
+}
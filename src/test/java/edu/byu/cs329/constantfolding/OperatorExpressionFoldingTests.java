@@ -0,0 +1,140 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for folding InfixExpression and PrefixExpression types with any operator")
+public class OperatorExpressionFoldingTests {
+  OperatorExpressionFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new OperatorExpressionFolding();
+  }
+
+  private Expression foldReturnedExpression(String expression) {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { Object name() { return " + expression + "; } }");
+    folderUnderTest.fold(root);
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    return ((ReturnStatement) type.getMethods()[0].getBody().statements().get(0))
+        .getExpression();
+  }
+
+  /**
+   * Tests requires 1: root != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  /**
+   * Tests requires 2: (root instanceof CompilationUnit) \/ parent(root)
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should not fold anything when operators do not fold")
+  @Tag("postcondition")
+  void should_notFoldAnything_when_operatorsDoNotFold() {
+    String rootName = "foldingInputs/operatorLiterals/should_notFoldAnything_when_operatorsDoNotFold.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should fold when given operators on literals")
+  @Tag("postcondition")
+  void should_fold_when_givenOperatorsOnLiterals() {
+    String rootName = "foldingInputs/operatorLiterals/should_fold_when_givenOperatorsOnLiterals-root.java";
+    String expectedName = "foldingInputs/operatorLiterals/should_fold_when_givenOperatorsOnLiterals.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  static Stream<Arguments> javaExpressions() {
+    return Stream.of(
+        Arguments.of("2147483647 + 1", ConstantValue.ofInt(2147483647 + 1)),
+        Arguments.of("-2147483648 / -1", ConstantValue.ofInt(-2147483648 / -1)),
+        Arguments.of("-7 / 2", ConstantValue.ofInt(-7 / 2)),
+        Arguments.of("-7 % 3", ConstantValue.ofInt(-7 % 3)),
+        Arguments.of("3 - 10", ConstantValue.ofInt(3 - 10)),
+        Arguments.of("100000 * 100000", ConstantValue.ofInt(100000 * 100000)),
+        Arguments.of("100000L * 100000", ConstantValue.ofLong(100000L * 100000)),
+        Arguments.of("1 << 33", ConstantValue.ofInt(1 << 33)),
+        Arguments.of("1L << 65", ConstantValue.ofLong(1L << 65)),
+        Arguments.of("1 << 40L", ConstantValue.ofInt(1 << 40L)),
+        Arguments.of("-16 >> 2", ConstantValue.ofInt(-16 >> 2)),
+        Arguments.of("-16 >>> 28", ConstantValue.ofInt(-16 >>> 28)),
+        Arguments.of("-16L >>> 60", ConstantValue.ofLong(-16L >>> 60)),
+        Arguments.of("0xF0 & 0x3C", ConstantValue.ofInt(0xF0 & 0x3C)),
+        Arguments.of("0xF0 | 0x0F", ConstantValue.ofInt(0xF0 | 0x0F)),
+        Arguments.of("0xF0 ^ 0xFF", ConstantValue.ofInt(0xF0 ^ 0xFF)),
+        Arguments.of("~0L", ConstantValue.ofLong(~0L)),
+        Arguments.of("+'a'", ConstantValue.ofInt(+'a')),
+        Arguments.of("'a' + 'b'", ConstantValue.ofInt('a' + 'b')),
+        Arguments.of("'z' > 'a'", ConstantValue.ofBoolean('z' > 'a')),
+        Arguments.of("3L <= 3", ConstantValue.ofBoolean(3L <= 3)),
+        Arguments.of("2 == 2L", ConstantValue.ofBoolean(2 == 2L)),
+        Arguments.of("true != false", ConstantValue.ofBoolean(true != false)),
+        Arguments.of("true & false", ConstantValue.ofBoolean(true & false)),
+        Arguments.of("true ^ true", ConstantValue.ofBoolean(true ^ true)),
+        Arguments.of("false || true || false", ConstantValue.ofBoolean(false || true || false)),
+        Arguments.of("true && true && false", ConstantValue.ofBoolean(true && true && false)),
+        Arguments.of("!false", ConstantValue.ofBoolean(!false)),
+        Arguments.of("1 + 2 + 3L", ConstantValue.ofLong(1 + 2 + 3L))
+    );
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should fold like Java when given operators on literals")
+  @Tag("postcondition")
+  @MethodSource("javaExpressions")
+  void should_foldLikeJava_when_givenOperatorsOnLiterals(String expression,
+      ConstantValue expected) {
+    assertEquals(expected, ConstantValue.of(foldReturnedExpression(expression)));
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should not fold when operands do not fold")
+  @Tag("postcondition")
+  @ValueSource(strings = {"1 / 0", "1L % 0", "1.5 + 1", "1 + true", "true && 1",
+      "-true", "!1", "\"a\" + 1", "1 < 2.0", "true < false", "1 << 2.0"})
+  void should_notFold_when_operandsDoNotFold(String expression) {
+    assertEquals(ConstantValue.NOT_CONSTANT,
+        ConstantValue.of(foldReturnedExpression(expression)));
+  }
+}
@@ -95,4 +95,13 @@ public class PlusInfixExpressionFoldingTests {
     String expectedName = "foldingInputs/plusInfixLiterals/should_fold_when_givenNumberLiteralsWithExtendedOperands.java";
     TestUtils.assertDidFold(this, rootname, expectedName, folderUnderTest);
   }
+
+  @Test
+  @DisplayName("Should fold when given hex, octal and binary literals")
+  @Tag("postcondition")
+  void should_fold_when_givenHexOctalAndBinaryLiterals() {
+    String rootname = "foldingInputs/plusInfixLiterals/should_fold_when_givenHexOctalAndBinaryLiterals-root.java";
+    String expectedName = "foldingInputs/plusInfixLiterals/should_fold_when_givenHexOctalAndBinaryLiterals.java";
+    TestUtils.assertDidFold(this, rootname, expectedName, folderUnderTest);
+  }
 }
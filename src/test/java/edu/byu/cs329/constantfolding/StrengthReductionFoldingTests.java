@@ -0,0 +1,128 @@
+package edu.byu.cs329.constantfolding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.EnumSet;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for reducing multiplications, divisions and remainders by powers of two")
+public class StrengthReductionFoldingTests {
+  StrengthReductionFolding folderUnderTest = null;
+
+  @BeforeEach
+  void beforeEach() {
+    folderUnderTest = new StrengthReductionFolding();
+  }
+
+  private String foldReturnedExpression(StrengthReductionFolding folding, String parameters,
+      String expression) {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { Object name(" + parameters + ") { return " + expression + "; } }");
+    folding.fold(root);
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    return ((ReturnStatement) type.getMethods()[0].getBody().statements().get(0))
+        .getExpression().toString();
+  }
+
+  /**
+   * Tests requires 1: root != null
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      folderUnderTest.fold(null);
+    });
+  }
+
+  /**
+   * Tests requires 2: (root instanceof CompilationUnit) \/ parent(root)
+   */
+  @Test
+  @DisplayName("Should throw RuntimeException when root is not a CompilationUnit and has no parent")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rootIsNotACompilationUnitAndHasNoParent() {
+    assertThrows(RuntimeException.class, () -> {
+      URI uri = TestUtils.getUri(this, "");
+      ASTNode compilationUnit = TestUtils.getCompilationUnit(uri);
+      ASTNode root = compilationUnit.getAST().newNullLiteral();
+      folderUnderTest.fold(root);
+    });
+  }
+
+  @Test
+  @DisplayName("Should throw RuntimeException when rules is null")
+  @Tag("precondition")
+  void should_throwRuntimeException_when_rulesIsNull() {
+    assertThrows(RuntimeException.class, () -> {
+      new StrengthReductionFolding(null);
+    });
+  }
+
+  @Test
+  @DisplayName("Should not reduce anything when rules do not apply")
+  @Tag("postcondition")
+  void should_notReduceAnything_when_rulesDoNotApply() {
+    String rootName = "foldingInputs/strengthReductionLiterals/should_notReduceAnything_when_rulesDoNotApply.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should reduce when given powers of two")
+  @Tag("postcondition")
+  void should_reduce_when_givenPowersOfTwo() {
+    String rootName = "foldingInputs/strengthReductionLiterals/should_reduce_when_givenPowersOfTwo-root.java";
+    String expectedName = "foldingInputs/strengthReductionLiterals/should_reduce_when_givenPowersOfTwo.java";
+    TestUtils.assertDidFold(this, rootName, expectedName, folderUnderTest);
+  }
+
+  @Test
+  @DisplayName("Should not reduce anything when no rule is enabled")
+  @Tag("postcondition")
+  void should_notReduceAnything_when_noRuleIsEnabled() {
+    StrengthReductionFolding folding =
+        new StrengthReductionFolding(EnumSet.noneOf(StrengthReductionFolding.Rule.class));
+    String rootName = "foldingInputs/strengthReductionLiterals/should_reduce_when_givenPowersOfTwo-root.java";
+    TestUtils.assertDidNotFold(this, rootName, rootName, folding);
+  }
+
+  @ParameterizedTest
+  @DisplayName("Should apply only the enabled rule when one rule is enabled")
+  @Tag("postcondition")
+  @CsvSource(delimiter = ';', value = {
+      "MULTIPLY_TO_SHIFT; (x << 2) + (c / 2) + (c % 2)",
+      "DIVIDE_TO_SHIFT; x * 4 + (c >> 1) + (c % 2)",
+      "REMAINDER_TO_MASK; x * 4 + (c / 2) + (c & 1)"
+  })
+  void should_applyOnlyEnabledRule_when_oneRuleIsEnabled(StrengthReductionFolding.Rule rule,
+      String expected) {
+    StrengthReductionFolding folding = new StrengthReductionFolding(EnumSet.of(rule));
+    assertEquals(expected, foldReturnedExpression(folding, "int x, char c",
+        "x * 4 + (c / 2) + (c % 2)"));
+  }
+
+  @Test
+  @DisplayName("Should not parenthesize when reducing a whole expression")
+  @Tag("postcondition")
+  void should_notParenthesize_when_reducingAWholeExpression() {
+    assertEquals("f(x << 4,x)", foldReturnedExpression(folderUnderTest, "int x", "f(x * 16, x)"));
+    assertEquals("-(x << 4)", foldReturnedExpression(folderUnderTest, "int x", "-(x * 16)"));
+    assertEquals("x=x << 4", foldReturnedExpression(folderUnderTest, "int x", "x = x * 16"));
+  }
+}
@@ -0,0 +1,259 @@
+package edu.byu.cs329.constantpropagation;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.utils.JavaSourceUtils;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for BatchPropagation")
+public class BatchPropagationTests {
+    private static final Path INPUTS = Paths.get("src/test/resources/constantPropagationInputs");
+    private static final String ONE_DEFINITION = "should_Propagate_when_ThereIsOneDefinition";
+    private static final String FOLDING = "should_Propagate_when_MultipleLevelsToPropegateAndFolding";
+
+    private static Path createSourceTree(Path sourceRoot) throws IOException {
+        Files.createDirectories(sourceRoot.resolve("a/b"));
+        Files.copy(INPUTS.resolve(ONE_DEFINITION + "-root.java"), sourceRoot.resolve("One.java"));
+        Files.copy(INPUTS.resolve(FOLDING + "-root.java"), sourceRoot.resolve("a/b/Folding.java"));
+        Files.writeString(sourceRoot.resolve("a/README.txt"), "not java");
+        return sourceRoot;
+    }
+
+    private static String generateClass(long... sizes) {
+        StringBuilder source = new StringBuilder("public class Generated {\n");
+        for (int i = 0; i < sizes.length; ++i) {
+            String program = new ProgramGenerator(i + 1, (int) sizes[i], 0.3, 2, 0.5).generate();
+            String method = program.substring(program.indexOf("  public int run"), program.lastIndexOf('}'));
+            source.append(method.replace("run(", "run" + i + "("));
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String read(Path file) {
+        return JavaSourceUtils.getCompilationUnit(file.toUri()).toString();
+    }
+
+    private void assertFileEquals(String expectedName, Path actualFile) {
+        ASTNode expected = TestUtils.getASTNodeFor(this, "constantPropagationInputs/" + expectedName);
+        ASTNode actual = JavaSourceUtils.getCompilationUnit(actualFile.toUri());
+        assertTrue(expected.subtreeMatch(new ASTMatcher(), actual));
+    }
+
+    @Test
+    @Tag("Batch")
+    @DisplayName("Should propagate every Java file when given a source tree")
+    void should_PropagateEveryJavaFile_when_GivenSourceTree(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = tempDir.resolve("out");
+
+        BatchPropagation.Summary summary = new BatchPropagation(2).run(sourceRoot, outputRoot);
+
+        assertAll(
+            () -> assertEquals(2, summary.getFileCount()),
+            () -> assertEquals(0, summary.getFailureCount()),
+            () -> assertTrue(summary.getRewriteCount() > 0),
+            () -> assertTrue(summary.getWallTimeMillis() >= 0),
+            () -> assertTrue(summary.toString().startsWith("files: 2, failures: 0, rewrites: ")),
+            () -> assertFileEquals(ONE_DEFINITION + ".java", outputRoot.resolve("One.java")),
+            () -> assertFileEquals(FOLDING + ".java", outputRoot.resolve("a/b/Folding.java")),
+            () -> assertTrue(Files.notExists(outputRoot.resolve("a/README.txt")))
+        );
+    }
+
+    @Test
+    @Tag("Batch")
+    @DisplayName("Should count failures when output cannot be written")
+    void should_CountFailures_when_OutputCannotBeWritten(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = Files.writeString(tempDir.resolve("out"), "a file, not a directory");
+
+        BatchPropagation.Summary summary = new BatchPropagation(1).run(sourceRoot, outputRoot);
+
+        assertAll(
+            () -> assertEquals(2, summary.getFileCount()),
+            () -> assertEquals(2, summary.getFailureCount()),
+            () -> assertEquals(0, summary.getRewriteCount())
+        );
+    }
+
+    @ParameterizedTest
+    @Tag("Batch")
+    @DisplayName("Should propagate like the files schedule when the schedule is largest method first")
+    @EnumSource(ConstantPropagation.Engine.class)
+    void should_PropagateLikeFilesSchedule_when_ScheduleIsLargestMethodFirst(ConstantPropagation.Engine engine,
+            @TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Files.writeString(sourceRoot.resolve("a/Generated.java"), generateClass(40, 400, 40, 80));
+        Path outputRoot = tempDir.resolve("out");
+        Path filesRoot = tempDir.resolve("files");
+
+        BatchPropagation.Summary summary = new BatchPropagation(3,
+            BatchPropagation.Schedule.LARGEST_METHOD_FIRST, engine).run(sourceRoot, outputRoot);
+        BatchPropagation.Summary filesSummary = new BatchPropagation(3,
+            BatchPropagation.Schedule.FILES, engine).run(sourceRoot, filesRoot);
+
+        List<BatchPropagation.TaskTiming> timings = summary.getTaskTimings();
+        assertAll(
+            () -> assertEquals(3, summary.getFileCount()),
+            () -> assertEquals(0, summary.getFailureCount()),
+            () -> assertTrue(summary.getRewriteCount() > 0),
+            () -> assertEquals(filesSummary.getRewriteCount(), summary.getRewriteCount()),
+            () -> assertEquals(7, timings.size()),
+            () -> assertEquals("run1", timings.get(0).getMethodName()),
+            () -> assertEquals(sourceRoot.resolve("a/Generated.java"), timings.get(0).getFile()),
+            () -> assertTrue(timings.get(0).getStartNanos() >= 0),
+            () -> assertTrue(timings.get(0).getElapsedNanos() > 0)
+        );
+        for (int i = 1; i < timings.size(); ++i) {
+            assertTrue(timings.get(i - 1).getEstimatedCost() >= timings.get(i).getEstimatedCost());
+        }
+        for (String name : new String[] {"One.java", "a/b/Folding.java", "a/Generated.java"}) {
+            assertEquals(read(filesRoot.resolve(name)), read(outputRoot.resolve(name)));
+        }
+    }
+
+    @ParameterizedTest
+    @Tag("Batch")
+    @DisplayName("Should reduce strength in every file when given the rules")
+    @EnumSource(BatchPropagation.Schedule.class)
+    void should_ReduceStrength_when_GivenRules(BatchPropagation.Schedule schedule, @TempDir Path tempDir)
+            throws Exception {
+        String reduction = "strengthReduction/should_ReduceStrength_when_PropagatedOperandIsPowerOfTwo";
+        Path sourceRoot = Files.createDirectories(tempDir.resolve("src"));
+        Files.copy(INPUTS.resolve(reduction + "-root.java"), sourceRoot.resolve("C.java"));
+
+        new BatchPropagation(2, schedule).run(sourceRoot, tempDir.resolve("all"));
+        new BatchPropagation(2, schedule, ConstantPropagation.Engine.ITERATIVE, Set.of())
+            .run(sourceRoot, tempDir.resolve("none"));
+
+        assertAll(
+            () -> assertFileEquals(reduction + ".java", tempDir.resolve("all/C.java")),
+            () -> assertFileEquals("strengthReduction/should_NotReduceStrength_when_GivenNoRules.java",
+                tempDir.resolve("none/C.java"))
+        );
+    }
+
+    @Test
+    @Tag("Batch")
+    @DisplayName("Should copy a file through when its methods have no body")
+    void should_CopyFileThrough_when_MethodsHaveNoBody(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = Files.createDirectories(tempDir.resolve("src"));
+        Files.writeString(sourceRoot.resolve("Shape.java"), "interface Shape { int area(); }");
+        Files.writeString(sourceRoot.resolve("Base.java"),
+            "abstract class Base { abstract int area(); int twice() { int a = 2; return a + a; } }");
+        for (BatchPropagation.Schedule schedule : BatchPropagation.Schedule.values()) {
+            Path outputRoot = tempDir.resolve("out-" + schedule);
+
+            BatchPropagation.Summary summary = new BatchPropagation(2, schedule).run(sourceRoot, outputRoot);
+
+            assertAll(
+                () -> assertEquals(2, summary.getFileCount()),
+                () -> assertEquals(0, summary.getFailureCount()),
+                () -> assertTrue(summary.getRewriteCount() > 0),
+                () -> assertEquals(
+                    JavaSourceUtils.getCompilationUnit(sourceRoot.resolve("Shape.java").toUri()).toString(),
+                    JavaSourceUtils.getCompilationUnit(outputRoot.resolve("Shape.java").toUri()).toString()),
+                () -> assertTrue(Files.exists(outputRoot.resolve("Base.java")))
+            );
+        }
+    }
+
+    @Test
+    @Tag("Batch")
+    @DisplayName("Should count failures when output cannot be written and the schedule is largest method first")
+    void should_CountFailures_when_OutputCannotBeWrittenAndScheduleIsLargestMethodFirst(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = Files.writeString(tempDir.resolve("out"), "a file, not a directory");
+
+        BatchPropagation.Summary summary = new BatchPropagation(2,
+            BatchPropagation.Schedule.LARGEST_METHOD_FIRST).run(sourceRoot, outputRoot);
+
+        assertAll(
+            () -> assertEquals(2, summary.getFileCount()),
+            () -> assertEquals(2, summary.getFailureCount()),
+            () -> assertEquals(0, summary.getRewriteCount())
+        );
+    }
+
+    @Test
+    @Tag("Batch")
+    @DisplayName("Should throw RuntimeException when thread count is not positive")
+    void should_ThrowRuntimeException_when_ThreadCountIsNotPositive() {
+        assertThrows(RuntimeException.class, () -> new BatchPropagation(0));
+    }
+
+    @Test
+    @Tag("Batch")
+    @Tag("Main")
+    @DisplayName("Should write the output tree when main run with a thread count")
+    void should_WriteOutputTree_when_MainRunWithThreadCount(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = tempDir.resolve("out");
+        BatchPropagation.main(new String[] {sourceRoot.toString(), outputRoot.toString(), "3"});
+        assertFileEquals(ONE_DEFINITION + ".java", outputRoot.resolve("One.java"));
+    }
+
+    @Test
+    @Tag("Batch")
+    @Tag("Main")
+    @DisplayName("Should write the output tree when main run with a schedule")
+    void should_WriteOutputTree_when_MainRunWithSchedule(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = tempDir.resolve("out");
+        BatchPropagation.main(new String[] {sourceRoot.toString(), outputRoot.toString(), "2",
+            "LARGEST_METHOD_FIRST"});
+        assertFileEquals(ONE_DEFINITION + ".java", outputRoot.resolve("One.java"));
+    }
+
+    @Test
+    @Tag("Batch")
+    @Tag("Main")
+    @DisplayName("Should write the output tree when main run with an engine")
+    void should_WriteOutputTree_when_MainRunWithEngine(@TempDir Path tempDir) throws Exception {
+        Path sourceRoot = createSourceTree(tempDir.resolve("src"));
+        Path outputRoot = tempDir.resolve("out");
+        BatchPropagation.main(new String[] {sourceRoot.toString(), outputRoot.toString(), "2",
+            "FILES", "SPARSE_CONDITIONAL"});
+        ASTNode expected = JavaSourceUtils.getCompilationUnit(sourceRoot.resolve("One.java").toUri());
+        ConstantPropagation.propagate(expected, ConstantPropagation.Engine.SPARSE_CONDITIONAL);
+        assertEquals(expected.toString(), read(outputRoot.resolve("One.java")));
+    }
+
+    @Test
+    @Tag("Batch")
+    @Tag("Main")
+    @DisplayName("Should not throw exception when main run with invalid args")
+    void should_NotThrowException_when_MainRunWithInvalidArgs(@TempDir Path tempDir) {
+        String missing = tempDir.resolve("missing").toString();
+        assertAll(
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {missing})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {"a", "b", "1", "c"})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {"a", "b", "1", "FILES", "e"})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {"a", "b", "1", "FILES", "ITERATIVE", "f"})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {missing, missing, "x"})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {missing, missing, "0"})),
+            () -> assertDoesNotThrow(() -> BatchPropagation.main(new String[] {missing, missing}))
+        );
+    }
+}
@@ -1,13 +1,33 @@
 package edu.byu.cs329.constantpropagation;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.constantfolding.StrengthReductionFolding;
+import edu.byu.cs329.workload.ProgramGenerator;
 
 @DisplayName("Tests for ConstantPropagation")
 public class ConstantPropagationTests {
@@ -135,5 +155,326 @@ public class ConstantPropagationTests {
             String expectedName = "constantPropagationInputs/whiteBox/should_NotPropagate_when_LiteralNotNumberOrBoolean-root.java";
             TestUtils.assertEquals_ConstantPropagation(this, rootName, expectedName);
         }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should skip a method when the method has no body")
+        public void should_SkipMethod_when_MethodHasNoBody() {
+            String source = "abstract class C { interface I { int m(); } abstract int n(int a);"
+                + " int k() { int a = 1; return a; } }";
+            for (ConstantPropagation.Engine engine : ConstantPropagation.Engine.values()) {
+                ASTNode root = ProgramGenerator.parse(source);
+                ConstantPropagation constantPropagation = new ConstantPropagation(engine);
+                constantPropagation.run(root);
+                assertEquals(1, constantPropagation.getAnalysisCount());
+                assertEquals(1, constantPropagation.getRewriteCount());
+            }
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should analyze a method once when folding does not change its statements")
+        public void should_AnalyzeMethodOnce_when_FoldingDoesNotChangeItsStatements() {
+            String rootName = "constantPropagationInputs/should_Propagate_when_MultipleLevelsToPropegateAndNoFolding-root.java";
+            ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+            ConstantPropagation constantPropagation = new ConstantPropagation();
+            constantPropagation.run(root);
+            assertEquals(1, constantPropagation.getAnalysisCount());
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should analyze a method again when folding replaces one of its statements")
+        public void should_AnalyzeMethodAgain_when_FoldingReplacesOneOfItsStatements() {
+            String rootName = "constantPropagationInputs/whiteBox/should_AnalyzeMethodAgain_when_FoldingReplacesOneOfItsStatements-root.java";
+            String expectedName = "constantPropagationInputs/whiteBox/should_AnalyzeMethodAgain_when_FoldingReplacesOneOfItsStatements.java";
+            ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+            ConstantPropagation constantPropagation = new ConstantPropagation();
+            constantPropagation.run(root);
+            assertEquals(2, constantPropagation.getAnalysisCount());
+            assertTrue(TestUtils.getASTNodeFor(this, expectedName).subtreeMatch(new ASTMatcher(), root));
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should revisit only propagation sites when folding makes a definition literal")
+        public void should_RevisitOnlyPropagationSites_when_FoldingMakesADefinitionLiteral() {
+            String rootName = "constantPropagationInputs/whiteBox/should_RevisitOnlyPropagationSites_when_FoldingMakesADefinitionLiteral-root.java";
+            String expectedName = "constantPropagationInputs/whiteBox/should_RevisitOnlyPropagationSites_when_FoldingMakesADefinitionLiteral.java";
+            ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+            ConstantPropagation constantPropagation = new ConstantPropagation();
+            constantPropagation.run(root);
+            assertEquals(1, constantPropagation.getAnalysisCount());
+            assertEquals(3, constantPropagation.getRewriteCount());
+            assertTrue(TestUtils.getASTNodeFor(this, expectedName).subtreeMatch(new ASTMatcher(), root));
+        }
+
+        @ParameterizedTest
+        @Tag("WhiteBox")
+        @DisplayName("Should reach a fixed point when given generated programs")
+        @ValueSource(longs = {1, 2, 3, 4, 5})
+        public void should_ReachFixedPoint_when_GivenGeneratedPrograms(long seed) {
+            ASTNode root = new ProgramGenerator(seed, 400, 0.3, 2, 0.5).generateCompilationUnit();
+            new ConstantPropagation().run(root);
+            String propagated = root.toString();
+            ConstantPropagation again = new ConstantPropagation();
+            again.run(root);
+            assertEquals(0, again.getRewriteCount());
+            assertEquals(propagated, root.toString());
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should propagate every tree when separate instances run in parallel")
+        public void should_PropagateEveryTree_when_SeparateInstancesRunInParallel() throws Exception {
+            String[] rootNames = {
+                "constantPropagationInputs/should_Propagate_when_ThereIsOneDefinition-root.java",
+                "constantPropagationInputs/should_Propagate_when_MultipleLevelsToPropegateAndNoFolding-root.java",
+                "constantPropagationInputs/should_Propagate_when_MultipleLevelsToPropegateAndFolding-root.java",
+                "constantPropagationInputs/whiteBox/should_AnalyzeMethodAgain_when_FoldingReplacesOneOfItsStatements-root.java"
+            };
+            String[] expectedNames = {
+                "constantPropagationInputs/should_Propagate_when_ThereIsOneDefinition.java",
+                "constantPropagationInputs/should_Propagate_when_MultipleLevelsToPropegateAndNoFolding.java",
+                "constantPropagationInputs/should_Propagate_when_MultipleLevelsToPropegateAndFolding.java",
+                "constantPropagationInputs/whiteBox/should_AnalyzeMethodAgain_when_FoldingReplacesOneOfItsStatements.java"
+            };
+            ExecutorService executor = Executors.newFixedThreadPool(rootNames.length);
+            try {
+                List<ASTNode> roots = new ArrayList<>();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int round = 0; round < 8; ++round) {
+                    for (String rootName : rootNames) {
+                        ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+                        roots.add(root);
+                        futures.add(executor.submit(() -> new ConstantPropagation().run(root)));
+                    }
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                for (int i = 0; i < roots.size(); ++i) {
+                    ASTNode expected = TestUtils.getASTNodeFor(this, expectedNames[i % expectedNames.length]);
+                    assertTrue(expected.subtreeMatch(new ASTMatcher(), roots.get(i)));
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should propagate like one thread when methods are analyzed on a pool")
+        public void should_PropagateLikeOneThread_when_MethodsAreAnalyzedOnPool() {
+            StringBuilder source = new StringBuilder("public class Generated {\n");
+            for (long seed = 1; seed <= 8; ++seed) {
+                String program = new ProgramGenerator(seed, 200, 0.3, 2, 0.5).generate();
+                String method = program.substring(program.indexOf("  public int run"), program.lastIndexOf('}'));
+                source.append(method.replace("run(", "run" + seed + "("));
+            }
+            source.append("}\n");
+            ASTNode expected = ProgramGenerator.parse(source.toString());
+            ASTNode actual = ProgramGenerator.parse(source.toString());
+            ConstantPropagation sequential = new ConstantPropagation();
+            sequential.run(expected);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ConstantPropagation parallel = new ConstantPropagation(ConstantPropagation.Engine.ITERATIVE, pool);
+                parallel.run(actual);
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals(sequential.getRewriteCount(), parallel.getRewriteCount());
+                assertEquals(sequential.getAnalysisCount(), parallel.getAnalysisCount());
+                assertTrue(parallel.getAnalysisCount() >= 8);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should not overflow the stack when a method is long")
+        public void should_NotOverflowStack_when_MethodIsLong() {
+            StringBuilder body = new StringBuilder("int a = 1;");
+            for (int k = 0; k < 20000; ++k) {
+                body.append(" m(a);");
+            }
+            ASTNode root = ProgramGenerator.parse("class C { void m(int p) { " + body + " } }");
+            ConstantPropagation constantPropagation = new ConstantPropagation();
+            constantPropagation.run(root);
+            assertEquals(20000, constantPropagation.getRewriteCount());
+        }
+    }
+
+    @Nested
+    class StrengthReductionTests {
+        private static final String INPUTS = "constantPropagationInputs/strengthReduction/";
+        private static final String ROOT = INPUTS + "should_ReduceStrength_when_PropagatedOperandIsPowerOfTwo-root.java";
+
+        private void assertPropagates(ConstantPropagation constantPropagation, String expectedName) {
+            ASTNode root = TestUtils.getASTNodeFor(this, ROOT);
+            constantPropagation.run(root);
+            assertTrue(TestUtils.getASTNodeFor(this, INPUTS + expectedName).subtreeMatch(new ASTMatcher(), root));
+        }
+
+        @ParameterizedTest
+        @Tag("Change")
+        @DisplayName("Should reduce strength when a propagated operand is a power of two")
+        @EnumSource(ConstantPropagation.Engine.class)
+        public void should_ReduceStrength_when_PropagatedOperandIsPowerOfTwo(ConstantPropagation.Engine engine) {
+            assertPropagates(new ConstantPropagation(engine),
+                "should_ReduceStrength_when_PropagatedOperandIsPowerOfTwo.java");
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should reduce only the enabled rules when given some rules")
+        public void should_ReduceOnlyEnabledRules_when_GivenSomeRules() {
+            Set<StrengthReductionFolding.Rule> rules = EnumSet.of(StrengthReductionFolding.Rule.MULTIPLY_TO_SHIFT);
+            assertPropagates(new ConstantPropagation(ConstantPropagation.Engine.ITERATIVE, null, rules),
+                "should_ReduceOnlyEnabledRules_when_GivenSomeRules.java");
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should not reduce strength when given no rules")
+        public void should_NotReduceStrength_when_GivenNoRules() {
+            assertPropagates(new ConstantPropagation(ConstantPropagation.Engine.SPARSE_CONDITIONAL, null, Set.of()),
+                "should_NotReduceStrength_when_GivenNoRules.java");
+        }
+    }
+
+    @Nested
+    class SparseConditionalTests {
+        private void assertPropagatesSparse(String rootName, String expectedName) {
+            ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+            ConstantPropagation.propagate(root, ConstantPropagation.Engine.SPARSE_CONDITIONAL);
+            assertTrue(TestUtils.getASTNodeFor(this, expectedName).subtreeMatch(new ASTMatcher(), root));
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should propagate a constant when the branch assigning it never runs")
+        public void should_PropagateConstant_when_BranchAssigningItNeverRuns() {
+            String rootName = "constantPropagationInputs/sparse/should_PropagateConstant_when_BranchAssigningItNeverRuns-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_PropagateConstant_when_BranchAssigningItNeverRuns.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should take one branch when the else branch is an if statement")
+        public void should_TakeOneBranch_when_ElseBranchIsIfStatement() {
+            String rootName = "constantPropagationInputs/sparse/should_TakeOneBranch_when_ElseBranchIsIfStatement-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_TakeOneBranch_when_ElseBranchIsIfStatement.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should take one branch when branches are not blocks")
+        public void should_TakeOneBranch_when_BranchesAreNotBlocks() {
+            String rootName = "constantPropagationInputs/sparse/should_TakeOneBranch_when_BranchesAreNotBlocks-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_TakeOneBranch_when_BranchesAreNotBlocks.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should convert like Java when assigning constants")
+        public void should_ConvertLikeJava_when_AssigningConstants() {
+            String rootName = "constantPropagationInputs/sparse/should_ConvertLikeJava_when_AssigningConstants-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_ConvertLikeJava_when_AssigningConstants.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should kill variables when statements assign inside them")
+        public void should_KillVariables_when_StatementsAssignInsideThem() {
+            String rootName = "constantPropagationInputs/sparse/should_KillVariables_when_StatementsAssignInsideThem-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_KillVariables_when_StatementsAssignInsideThem.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("Change")
+        @DisplayName("Should follow only executable edges when conditions are constant")
+        public void should_FollowOnlyExecutableEdges_when_ConditionsAreConstant() {
+            String rootName = "constantPropagationInputs/sparse/should_FollowOnlyExecutableEdges_when_ConditionsAreConstant-root.java";
+            String expectedName = "constantPropagationInputs/sparse/should_FollowOnlyExecutableEdges_when_ConditionsAreConstant.java";
+            assertPropagatesSparse(rootName, expectedName);
+        }
+
+        @Test
+        @Tag("NoChange")
+        @DisplayName("Should not rewrite branches when the condition has no value")
+        public void should_NotRewriteBranches_when_ConditionHasNoValue() {
+            String rootName = "constantPropagationInputs/sparse/should_NotRewriteBranches_when_ConditionHasNoValue-root.java";
+            assertPropagatesSparse(rootName, rootName);
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @DisplayName("Should analyze each method once when given the sparse conditional engine")
+        public void should_AnalyzeEachMethodOnce_when_GivenSparseConditionalEngine() {
+            String rootName = "constantPropagationInputs/sparse/should_PropagateConstant_when_BranchAssigningItNeverRuns-root.java";
+            ASTNode root = TestUtils.getASTNodeFor(this, rootName);
+            ConstantPropagation constantPropagation =
+                new ConstantPropagation(ConstantPropagation.Engine.SPARSE_CONDITIONAL);
+            constantPropagation.run(root);
+            assertEquals(1, constantPropagation.getAnalysisCount());
+            assertEquals(2, constantPropagation.getRewriteCount());
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @Tag("Main")
+        @DisplayName("Should not throw exception when main run with too many args")
+        public void should_NotThrowException_when_MainRunWithTooManyArgs() {
+            String root = "src/test/resources/constantPropagationInputs/should_NotPropagate_when_ThereIsNothingToPropagate-root.java";
+            String[] args = {root, root, "SPARSE_CONDITIONAL", "ITERATIVE"};
+            assertDoesNotThrow(() -> {
+                ConstantPropagation.main(args);
+            });
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @Tag("Main")
+        @DisplayName("Should not throw exception when main run with an unknown engine")
+        public void should_NotThrowException_when_MainRunWithUnknownEngine() {
+            String root = "src/test/resources/constantPropagationInputs/should_NotPropagate_when_ThereIsNothingToPropagate-root.java";
+            String[] args = {root, root, "DENSE"};
+            assertDoesNotThrow(() -> {
+                ConstantPropagation.main(args);
+            });
+        }
+
+        @Test
+        @Tag("WhiteBox")
+        @Tag("Main")
+        @DisplayName("Should run when the engine is given to main")
+        public void should_Run_when_EngineIsGivenToMain() {
+            String root = "constantPropagationInputs/sparse/should_PropagateConstant_when_BranchAssigningItNeverRuns-root.java";
+            String actual = "constantPropagationInputs/whiteBox/out/should_PropagateConstant_when_BranchAssigningItNeverRuns.java";
+            String[] args = {"src/test/resources/" + root, "src/test/resources/" + actual, "SPARSE_CONDITIONAL"};
+            ConstantPropagation.main(args);
+            ASTNode propagated = TestUtils.getCompilationUnit(new File(args[1]).toURI());
+            ASTNode expected = TestUtils.getASTNodeFor(this,
+                "constantPropagationInputs/sparse/should_PropagateConstant_when_BranchAssigningItNeverRuns.java");
+            assertTrue(expected.subtreeMatch(new ASTMatcher(), propagated));
+        }
+
+        @ParameterizedTest
+        @Tag("WhiteBox")
+        @DisplayName("Should leave nothing for the iterative engine when given generated programs")
+        @ValueSource(longs = {1, 2, 3, 4, 5})
+        public void should_LeaveNothingForIterativeEngine_when_GivenGeneratedPrograms(long seed) {
+            ASTNode root = new ProgramGenerator(seed, 400, 0.3, 2, 0.5).generateCompilationUnit();
+            new ConstantPropagation(ConstantPropagation.Engine.SPARSE_CONDITIONAL).run(root);
+            ConstantPropagation iterative = new ConstantPropagation();
+            iterative.run(root);
+            assertEquals(0, iterative.getRewriteCount());
+        }
     }
 }
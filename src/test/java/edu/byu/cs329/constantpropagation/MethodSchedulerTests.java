@@ -0,0 +1,67 @@
+package edu.byu.cs329.constantpropagation;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for MethodScheduler")
+public class MethodSchedulerTests {
+
+    @ParameterizedTest
+    @Tag("Schedule")
+    @DisplayName("Should scale the statement count by loop depth when estimating cost")
+    @CsvSource(delimiter = '|', value = {
+        "int a = p; a = a + 1; return a;|4",
+        "int a = p; while (a > 0) { a = a - 1; } return a;|10",
+        "int a = p; while (a > 0) { while (p > 0) { p = p - 1; } a = a - 1; } return a;|21",
+        "int a = p; while (a > 0) { a = a - 1; } while (p > 0) { p = p - 1; } return a;|14",
+        "int a = p; do { a = a - 1; } while (a > 0); return a;|4"
+    })
+    void should_ScaleStatementCountByLoopDepth_when_EstimatingCost(String body, long expected) {
+        ASTNode root = ProgramGenerator.parse("class Name { int name(int p) { " + body + " } }");
+        CompactControlFlowGraph cfg = new ControlFlowGraphBuilder().buildCompact(root).get(0);
+        assertEquals(expected, MethodScheduler.estimateCost(cfg));
+    }
+
+    @ParameterizedTest
+    @Tag("Schedule")
+    @DisplayName("Should count a failure and write the other files when a file cannot be read")
+    @EnumSource(ConstantPropagation.Engine.class)
+    void should_CountFailure_when_FileCannotBeRead(ConstantPropagation.Engine engine, @TempDir Path tempDir)
+            throws Exception {
+        Path missing = tempDir.resolve("Missing.java");
+        Path present = Files.writeString(tempDir.resolve("Present.java"),
+            "class Present { int name() { int a = 1; return a; } }");
+        Path outputRoot = tempDir.resolve("out");
+
+        BatchPropagation.Summary summary = new MethodScheduler(2, engine, Set.of()).run(
+            List.of(missing, present),
+            List.of(outputRoot.resolve("Missing.java"), outputRoot.resolve("Present.java")), System.nanoTime());
+
+        assertAll(
+            () -> assertEquals(2, summary.getFileCount()),
+            () -> assertEquals(1, summary.getFailureCount()),
+            () -> assertEquals(1, summary.getRewriteCount()),
+            () -> assertEquals(1, summary.getTaskTimings().size()),
+            () -> assertTrue(Files.notExists(outputRoot.resolve("Missing.java"))),
+            () -> assertTrue(Files.exists(outputRoot.resolve("Present.java")))
+        );
+    }
+}
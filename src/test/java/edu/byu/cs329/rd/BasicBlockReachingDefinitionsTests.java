@@ -0,0 +1,110 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder.Solver;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for the basic block reaching definitions solver")
+public class BasicBlockReachingDefinitionsTests {
+
+  @ParameterizedTest
+  @Tag("BasicBlock")
+  @DisplayName("Should compute the same definitions as the hash set solver")
+  @ValueSource(strings = {
+      "rdInputs/AssignBranch.java",
+      "rdInputs/AssignBranchReturn.java",
+      "rdInputs/AssignLinear.java",
+      "rdInputs/AssignLoop.java",
+      "rdInputs/AssignLoopReturn.java",
+      "rdInputs/DeclareLinear.java",
+      "cfgRdIntegrationTestInputs/IntegratedStatements.java",
+      "cfgRdIntegrationTestInputs/TwoMethods.java"
+  })
+  void should_ComputeSameDefinitions_when_ComparedToHashSetSolver(String fileName) {
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<CompactControlFlowGraph> cfgList = new ControlFlowGraphBuilder().buildCompact(node);
+    List<ReachingDefinitions> expectedList =
+        new ReachingDefinitionsBuilder(Solver.HASH_SET).build(cfgList);
+    List<ReachingDefinitions> actualList =
+        new ReachingDefinitionsBuilder(Solver.BASIC_BLOCK).build(cfgList);
+
+    for (int i = 0; i < cfgList.size(); ++i) {
+      CompactControlFlowGraph cfg = cfgList.get(i);
+      for (int id = cfg.size() - 1; id >= 0; --id) {
+        Statement s = cfg.statementOf(id);
+        assertEquals(expectedList.get(i).getReachingDefinitions(s),
+            actualList.get(i).getReachingDefinitions(s));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @Tag("BasicBlock")
+  @DisplayName("Should compute the same definitions as the hash set solver when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_ComputeSameDefinitions_when_GivenGeneratedPrograms(long seed) {
+    ASTNode node = new ProgramGenerator(seed, 400, 0.3, 2, 0.5).generateCompilationUnit();
+    CompactControlFlowGraph cfg = new ControlFlowGraphBuilder().buildCompact(node).get(0);
+    ReachingDefinitions expected =
+        new ReachingDefinitionsBuilder(Solver.HASH_SET).build(List.of(cfg)).get(0);
+    ReachingDefinitions actual =
+        new ReachingDefinitionsBuilder(Solver.BASIC_BLOCK).build(List.of(cfg)).get(0);
+
+    // skip around so the scan both continues and starts over inside blocks
+    for (int start = 0; start < 3; ++start) {
+      for (int id = start; id < cfg.size(); id += 3) {
+        Statement s = cfg.statementOf(id);
+        assertEquals(expected.getReachingDefinitions(s), actual.getReachingDefinitions(s));
+      }
+    }
+  }
+
+  @Test
+  @Tag("BasicBlock")
+  @DisplayName("Should return null and unmodifiable sets when querying statements")
+  void should_ReturnNullAndUnmodifiableSets_when_QueryingStatements() {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/AssignLoopReturn.java");
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    NumberedReachingDefinitions rd = (NumberedReachingDefinitions)
+        new ReachingDefinitionsBuilder(Solver.BASIC_BLOCK).build(cfgList).get(0);
+    StatementTracker statementTracker = new StatementTracker(node);
+
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    Set<Definition> definitions = rd.getReachingDefinitions(returnStatement);
+    Statement other = node.getAST().newEmptyStatement();
+    assertThrows(UnsupportedOperationException.class, () -> definitions.clear());
+    assertNull(rd.getReachingDefinitions(other));
+    assertNull(rd.getEntrySet(other));
+  }
+
+  @Test
+  @Tag("BasicBlock")
+  @Tag("Mock")
+  @DisplayName("Should have a definition for each parameter at start when the method declaration has parameters")
+  void should_HaveDefinitionForEachParameterAtStart_when_MethodDeclarationHasParameters() {
+    ControlFlowGraph cfg = MockUtils.newMockForEmptyMethodWithTwoParameters("a", "b");
+    ReachingDefinitions rd = new ReachingDefinitionsBuilder(Solver.BASIC_BLOCK)
+        .build(List.of(cfg)).get(0);
+    assertEquals(2, rd.getReachingDefinitions(cfg.getStart()).size());
+  }
+}
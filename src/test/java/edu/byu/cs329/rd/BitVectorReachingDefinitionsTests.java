@@ -0,0 +1,105 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder.Solver;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for the bit vector reaching definitions solver")
+public class BitVectorReachingDefinitionsTests {
+
+  @ParameterizedTest
+  @Tag("BitVector")
+  @DisplayName("Should compute the same definitions as the hash set solver")
+  @ValueSource(strings = {
+      "rdInputs/AssignBranch.java",
+      "rdInputs/AssignBranchReturn.java",
+      "rdInputs/AssignLinear.java",
+      "rdInputs/AssignLoop.java",
+      "rdInputs/AssignLoopReturn.java",
+      "rdInputs/DeclareLinear.java",
+      "cfgRdIntegrationTestInputs/IntegratedStatements.java",
+      "cfgRdIntegrationTestInputs/TwoMethods.java"
+  })
+  void should_ComputeSameDefinitions_when_ComparedToHashSetSolver(String fileName) {
+    ASTNode node = TestUtils.getASTNodeFor(this, fileName);
+    List<CompactControlFlowGraph> cfgList = new ControlFlowGraphBuilder().buildCompact(node);
+    List<ReachingDefinitions> expectedList =
+        new ReachingDefinitionsBuilder(Solver.HASH_SET).build(cfgList);
+    List<ReachingDefinitions> actualList =
+        new ReachingDefinitionsBuilder(Solver.BIT_VECTOR).build(cfgList);
+
+    for (int i = 0; i < cfgList.size(); ++i) {
+      CompactControlFlowGraph cfg = cfgList.get(i);
+      for (int id = 0; id < cfg.size(); ++id) {
+        Statement s = cfg.statementOf(id);
+        assertEquals(expectedList.get(i).getReachingDefinitions(s),
+            actualList.get(i).getReachingDefinitions(s));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @Tag("BitVector")
+  @DisplayName("Should compute the same definitions as the hash set solver when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_ComputeSameDefinitions_when_GivenGeneratedPrograms(long seed) {
+    ASTNode node = new ProgramGenerator(seed, 400, 0.3, 2, 0.5).generateCompilationUnit();
+    CompactControlFlowGraph cfg = new ControlFlowGraphBuilder().buildCompact(node).get(0);
+    ReachingDefinitions expected =
+        new ReachingDefinitionsBuilder(Solver.HASH_SET).build(List.of(cfg)).get(0);
+    ReachingDefinitions actual =
+        new ReachingDefinitionsBuilder(Solver.BIT_VECTOR).build(List.of(cfg)).get(0);
+
+    for (int id = 0; id < cfg.size(); ++id) {
+      Statement s = cfg.statementOf(id);
+      assertEquals(expected.getReachingDefinitions(s), actual.getReachingDefinitions(s));
+    }
+  }
+
+  @Test
+  @Tag("BitVector")
+  @DisplayName("Should return null and unmodifiable sets when querying statements")
+  void should_ReturnNullAndUnmodifiableSets_when_QueryingStatements() {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/AssignLoopReturn.java");
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    ReachingDefinitions rd = new ReachingDefinitionsBuilder(Solver.BIT_VECTOR)
+        .build(cfgList).get(0);
+    StatementTracker statementTracker = new StatementTracker(node);
+
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+    Set<Definition> definitions = rd.getReachingDefinitions(returnStatement);
+    assertThrows(UnsupportedOperationException.class, () -> definitions.clear());
+    assertNull(rd.getReachingDefinitions(node.getAST().newEmptyStatement()));
+  }
+
+  @Test
+  @Tag("BitVector")
+  @Tag("Mock")
+  @DisplayName("Should have a definition for each parameter at start when the method declaration has parameters")
+  void should_HaveDefinitionForEachParameterAtStart_when_MethodDeclarationHasParameters() {
+    ControlFlowGraph cfg = MockUtils.newMockForEmptyMethodWithTwoParameters("a", "b");
+    ReachingDefinitions rd = new ReachingDefinitionsBuilder(Solver.BIT_VECTOR)
+        .build(List.of(cfg)).get(0);
+    assertEquals(2, rd.getReachingDefinitions(cfg.getStart()).size());
+  }
+}
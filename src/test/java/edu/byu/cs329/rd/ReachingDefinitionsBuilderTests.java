@@ -11,6 +11,7 @@ import static org.mockito.Mockito.verify;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Statement;
@@ -18,8 +19,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.BasicBlockGraph;
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
 import edu.byu.cs329.cfg.ControlFlowGraph;
 import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
 import edu.byu.cs329.cfg.StatementTracker;
@@ -331,6 +336,78 @@ public class ReachingDefinitionsBuilderTests {
     assertTrue(doesDefine("a", aDecl, endDefinitions));
   }
 
+  @ParameterizedTest
+  @Tag("Worklist")
+  @DisplayName("Should evaluate each statement once when the graph is acyclic")
+  @EnumSource(value = ReachingDefinitionsBuilder.Solver.class, names = {"HASH_SET", "BIT_VECTOR"})
+  void should_EvaluateEachStatementOnce_when_GraphIsAcyclic(ReachingDefinitionsBuilder.Solver solver) {
+    cfgInit("rdInputs/AssignBranchReturn.java");
+    ReachingDefinitionsBuilder builder = new ReachingDefinitionsBuilder(solver);
+    builder.build(List.of(cfg));
+    assertEquals(CompactControlFlowGraph.of(cfg).size(), builder.getEvaluationCount());
+  }
+
+  @ParameterizedTest
+  @Tag("Worklist")
+  @DisplayName("Should evaluate each statement at most twice when the graph has one loop")
+  @EnumSource(value = ReachingDefinitionsBuilder.Solver.class, names = {"HASH_SET", "BIT_VECTOR"})
+  void should_EvaluateEachStatementAtMostTwice_when_GraphHasOneLoop(ReachingDefinitionsBuilder.Solver solver) {
+    cfgInit("rdInputs/AssignLoop.java");
+    ReachingDefinitionsBuilder builder = new ReachingDefinitionsBuilder(solver);
+    builder.build(List.of(cfg));
+    assertTrue(builder.getEvaluationCount() <= 2 * CompactControlFlowGraph.of(cfg).size());
+  }
+
+  @Test
+  @Tag("Worklist")
+  @DisplayName("Should evaluate each block once when the graph is acyclic")
+  void should_EvaluateEachBlockOnce_when_GraphIsAcyclic() {
+    cfgInit("rdInputs/AssignBranchReturn.java");
+    ReachingDefinitionsBuilder builder =
+        new ReachingDefinitionsBuilder(ReachingDefinitionsBuilder.Solver.BASIC_BLOCK);
+    builder.build(List.of(cfg));
+    assertEquals(BasicBlockGraph.of(cfg).size(), builder.getEvaluationCount());
+  }
+
+  @Test
+  @Tag("Worklist")
+  @DisplayName("Should evaluate each block at most twice when the graph has one loop")
+  void should_EvaluateEachBlockAtMostTwice_when_GraphHasOneLoop() {
+    cfgInit("rdInputs/AssignLoop.java");
+    ReachingDefinitionsBuilder builder =
+        new ReachingDefinitionsBuilder(ReachingDefinitionsBuilder.Solver.BASIC_BLOCK);
+    builder.build(List.of(cfg));
+    assertTrue(builder.getEvaluationCount() <= 2 * BasicBlockGraph.of(cfg).size());
+  }
+
+  @ParameterizedTest
+  @Tag("Parallel")
+  @DisplayName("Should compute the same definitions in the same order when graphs are solved on a pool")
+  @EnumSource(ReachingDefinitionsBuilder.Solver.class)
+  void should_ComputeSameDefinitionsInSameOrder_when_GraphsAreSolvedOnPool(
+      ReachingDefinitionsBuilder.Solver solver) {
+    ASTNode node = TestUtils.getASTNodeFor(this, "cfgRdIntegrationTestInputs/TwoMethods.java");
+    List<CompactControlFlowGraph> cfgList = new ControlFlowGraphBuilder().buildCompact(node);
+    ReachingDefinitionsBuilder builder = new ReachingDefinitionsBuilder(solver);
+    List<ReachingDefinitions> expectedList = builder.build(cfgList);
+    int expectedCount = builder.getEvaluationCount();
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      List<ReachingDefinitions> actualList = builder.build(cfgList, pool);
+      assertEquals(2, actualList.size());
+      assertEquals(expectedCount, builder.getEvaluationCount());
+      for (int i = 0; i < cfgList.size(); ++i) {
+        for (int id = 0; id < cfgList.get(i).size(); ++id) {
+          Statement s = cfgList.get(i).statementOf(id);
+          assertEquals(expectedList.get(i).getReachingDefinitions(s),
+              actualList.get(i).getReachingDefinitions(s));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   private boolean doesDefine(String name, Statement statement, final Set<Definition> definitions) {
     for (Definition definition : definitions) {
       if (definition.name.getIdentifier().equals(name) && definition.statement == statement) {
@@ -0,0 +1,105 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder.Solver;
+
+@DisplayName("Tests for UseDefChains")
+public class UseDefChainsTests {
+
+  private static UseDefChains buildChains(ASTNode node, Solver solver) {
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(node);
+    List<ReachingDefinitions> rdList = new ReachingDefinitionsBuilder(solver).build(cfgList);
+    return new UseDefChains(cfgList.get(0), rdList.get(0));
+  }
+
+  /**
+   * params(int a)
+   * int b = 1
+   * if (a < b)
+   *   b = 2
+   * a++
+   * return a + foo(b)
+   * end
+   */
+  @ParameterizedTest
+  @Tag("UseDefChains")
+  @DisplayName("Should link uses to their reaching definitions when built from either solver")
+  @EnumSource(Solver.class)
+  void should_LinkUsesToReachingDefinitions_when_BuiltFromEitherSolver(Solver solver) {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/UseChains.java");
+    UseDefChains chains = buildChains(node, solver);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement intB = statementTracker.getVariableDeclarationStatement(0);
+    Statement ifStatement = statementTracker.getIfStatement(0);
+    Statement bEq2 = statementTracker.getExpressionStatement(0);
+    Statement returnStatement = statementTracker.getReturnStatement(0);
+
+    List<SimpleName> ifUses = UseDefChains.collectUses(ifStatement);
+    List<SimpleName> returnUses = UseDefChains.collectUses(returnStatement);
+    SimpleName ifA = ifUses.get(0);
+    SimpleName ifB = ifUses.get(1);
+    SimpleName returnA = returnUses.get(0);
+    SimpleName returnB = returnUses.get(1);
+
+    assertAll(
+        () -> assertEquals(2, ifUses.size()),
+        () -> assertEquals(2, returnUses.size()),
+        () -> assertTrue(UseDefChains.collectUses(bEq2).isEmpty()),
+        () -> assertTrue(UseDefChains.collectUses(statementTracker.getExpressionStatement(1))
+            .isEmpty()),
+        () -> assertNull(chains.getUniqueDefinition(ifA)),
+        () -> assertEquals(1, chains.getDefinitions(ifA).size()),
+        () -> assertSame(intB, chains.getUniqueDefinition(ifB)),
+        () -> assertNull(chains.getUniqueDefinition(returnA)),
+        () -> assertNull(chains.getUniqueDefinition(returnB)),
+        () -> assertEquals(2, chains.getDefinitions(returnB).size()),
+        () -> assertEquals(2, chains.getUses(intB).size()),
+        () -> assertTrue(chains.getUses(bEq2).contains(returnB)),
+        () -> assertTrue(chains.getUses(returnStatement).isEmpty())
+    );
+  }
+
+  @Test
+  @Tag("UseDefChains")
+  @DisplayName("Should forget a use when the use is removed")
+  void should_ForgetUse_when_UseIsRemoved() {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/UseChains.java");
+    UseDefChains chains = buildChains(node, Solver.BIT_VECTOR);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement intB = statementTracker.getVariableDeclarationStatement(0);
+    SimpleName ifB = UseDefChains.collectUses(statementTracker.getIfStatement(0)).get(1);
+    SimpleName ifA = UseDefChains.collectUses(statementTracker.getIfStatement(0)).get(0);
+
+    chains.removeUse(ifB);
+    chains.removeUse(ifA);
+    chains.removeUse(ifB);
+
+    assertAll(
+        () -> assertNull(chains.getUniqueDefinition(ifB)),
+        () -> assertTrue(chains.getDefinitions(ifB).isEmpty()),
+        () -> assertFalse(chains.getUses(intB).contains(ifB)),
+        () -> assertEquals(1, chains.getUses(intB).size())
+    );
+  }
+}
@@ -0,0 +1,88 @@
+package edu.byu.cs329.rd;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.byu.cs329.TestUtils;
+import edu.byu.cs329.cfg.CompactControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.cfg.StatementTracker;
+
+@DisplayName("Tests for VariableTable")
+public class VariableTableTests {
+
+  /**
+   * params(int a)
+   * while (true)
+   *   a = 1
+   *   a = 2
+   * end
+   */
+  @Test
+  @Tag("VariableTable")
+  @DisplayName("Should group definitions by variable when a variable is defined many times")
+  void should_GroupDefinitionsByVariable_when_VariableIsDefinedManyTimes() {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/AssignLoop.java");
+    CompactControlFlowGraph cfg = new ControlFlowGraphBuilder().buildCompact(node).get(0);
+    List<Statement> statementList = new ArrayList<Statement>();
+    for (int id = 0; id < cfg.size(); ++id) {
+      statementList.add(cfg.statementOf(id));
+    }
+    VariableTable table = new VariableTable(cfg.getMethodDeclaration(), statementList);
+    StatementTracker statementTracker = new StatementTracker(node);
+    Statement whileTrue = statementTracker.getWhileStatement(0);
+    Statement aEq1 = statementTracker.getExpressionStatement(0);
+    Statement aEq2 = statementTracker.getExpressionStatement(1);
+
+    int a = table.getVariable("a");
+    int aEq1Number = table.getDefinitionNumber(aEq1);
+    int aEq2Number = table.getDefinitionNumber(aEq2);
+    BitSet parameters = table.getParameterDefinitions();
+    BitSet expectedMask = new BitSet();
+    expectedMask.or(parameters);
+    expectedMask.set(aEq1Number);
+    expectedMask.set(aEq2Number);
+
+    assertAll(
+        () -> assertEquals(1, table.getVariableCount()),
+        () -> assertEquals(3, table.getDefinitionCount()),
+        () -> assertEquals("a", table.getIdentifier(a)),
+        () -> assertEquals(-1, table.getVariable("b")),
+        () -> assertEquals(-1, table.getDefinitionNumber(whileTrue)),
+        () -> assertEquals(1, parameters.cardinality()),
+        () -> assertNull(table.getDefinition(parameters.nextSetBit(0)).statement),
+        () -> assertSame(aEq1, table.getDefinition(aEq1Number).statement),
+        () -> assertEquals(a, table.getVariableOfDefinition(aEq2Number)),
+        () -> assertEquals(expectedMask, table.getDefinitionMask(a)),
+        () -> assertEquals(3, table.getDefinitionSet(a).size()),
+        () -> assertTrue(table.getDefinitionSet(a).containsAll(table.getParameterDefinitionSet()))
+    );
+  }
+
+  @Test
+  @Tag("VariableTable")
+  @DisplayName("Should return no defined name when the statement is not a definition")
+  void should_ReturnNoDefinedName_when_StatementIsNotDefinition() {
+    ASTNode node = TestUtils.getASTNodeFor(this, "rdInputs/AssignLoop.java");
+    StatementTracker statementTracker = new StatementTracker(node);
+    assertAll(
+        () -> assertNull(VariableTable.getDefinedName(statementTracker.getWhileStatement(0))),
+        () -> assertEquals("a",
+            VariableTable.getDefinedName(statementTracker.getExpressionStatement(0))
+                .getIdentifier())
+    );
+  }
+}
@@ -0,0 +1,276 @@
+package edu.byu.cs329.ssa;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.byu.cs329.cfg.ControlFlowGraph;
+import edu.byu.cs329.cfg.ControlFlowGraphBuilder;
+import edu.byu.cs329.rd.ReachingDefinitions;
+import edu.byu.cs329.rd.ReachingDefinitions.Definition;
+import edu.byu.cs329.rd.ReachingDefinitionsBuilder;
+import edu.byu.cs329.rd.UseDefChains;
+import edu.byu.cs329.workload.ProgramGenerator;
+
+@DisplayName("Tests for SsaBuilder")
+public class SsaBuilderTests {
+  SsaForm form = null;
+  List<Statement> statements = null;
+  List<SimpleName> names = null;
+
+  void init(String body) {
+    ASTNode root = ProgramGenerator.parse(
+        "class Name { int field; int name(int p, boolean q) { " + body + " } }");
+    TypeDeclaration type = (TypeDeclaration) ((CompilationUnit) root).types().get(0);
+    Block methodBody = type.getMethods()[0].getBody();
+    statements = new ArrayList<Statement>();
+    names = new ArrayList<SimpleName>();
+    methodBody.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(SimpleName node) {
+        names.add(node);
+        return true;
+      }
+
+      @Override
+      public void preVisit(ASTNode node) {
+        if (node instanceof Statement && !(node instanceof Block)) {
+          statements.add((Statement) node);
+        }
+      }
+    });
+    form = new SsaBuilder().build(new ControlFlowGraphBuilder().build(root).get(0));
+  }
+
+  /**
+   * Returns the value read by the n-th name with an identifier in the body.
+   */
+  private int valueOf(String identifier, int n) {
+    int count = 0;
+    for (SimpleName name : names) {
+      if (name.getIdentifier().equals(identifier) && count++ == n) {
+        return form.getValue(name);
+      }
+    }
+    throw new IllegalArgumentException(identifier);
+  }
+
+  private int definitionAt(int statement, String identifier) {
+    for (int value : form.getValues(statements.get(statement))) {
+      if (form.getKind(value) != SsaForm.Kind.PHI
+          && form.getName(value).getIdentifier().equals(identifier)) {
+        return value;
+      }
+    }
+    return SsaForm.NO_VALUE;
+  }
+
+  private int phiAt(int statement, String identifier) {
+    for (int value : form.getValues(statements.get(statement))) {
+      if (form.getKind(value) == SsaForm.Kind.PHI
+          && form.getIdentifier(form.getVariableOfValue(value)).equals(identifier)) {
+        return value;
+      }
+    }
+    return SsaForm.NO_VALUE;
+  }
+
+  @Test
+  @Tag("Rename")
+  @DisplayName("Should link each use to the last definition when code is straight line")
+  void should_LinkUseToLastDefinition_when_CodeIsStraightLine() {
+    init("int a = p; a = a + 1; return a;");
+    int parameter = form.getValue(names.get(1));
+    assertAll(
+        () -> assertEquals(SsaForm.Kind.PARAMETER, form.getKind(parameter)),
+        () -> assertNull(form.getStatement(parameter)),
+        () -> assertEquals(definitionAt(0, "a"), valueOf("a", 2)),
+        () -> assertEquals(definitionAt(1, "a"), valueOf("a", 3)),
+        () -> assertEquals(SsaForm.Kind.DEFINITION, form.getKind(valueOf("a", 3))),
+        () -> assertSame(statements.get(1), form.getStatement(valueOf("a", 3))),
+        () -> assertEquals(List.of(names.get(4)), form.getUses(definitionAt(1, "a"))),
+        () -> assertEquals(-1, form.getVariable("field"))
+    );
+  }
+
+  @Test
+  @Tag("Phi")
+  @DisplayName("Should merge at the join when both branches assign")
+  void should_MergeAtJoin_when_BothBranchesAssign() {
+    init("int a = 0; if (q) { a = 1; } else { a = 2; } return a;");
+    int phi = phiAt(4, "a");
+    Set<Integer> operands = new HashSet<Integer>();
+    Set<Statement> predecessors = new HashSet<Statement>();
+    for (int k = 0; k < form.getPhiOperandCount(phi); ++k) {
+      operands.add(form.getPhiOperand(phi, k));
+      predecessors.add(form.getPhiPredecessor(phi, k));
+    }
+    assertAll(
+        () -> assertEquals(phi, valueOf("a", 3)),
+        () -> assertEquals(2, form.getPhiOperandCount(phi)),
+        () -> assertEquals(Set.of(definitionAt(2, "a"), definitionAt(3, "a")), operands),
+        () -> assertEquals(Set.of(statements.get(2), statements.get(3)), predecessors),
+        () -> assertNull(form.getName(phi)),
+        () -> assertEquals(SsaForm.NO_VALUE, phiAt(1, "a"))
+    );
+  }
+
+  @Test
+  @Tag("Phi")
+  @DisplayName("Should merge at the header when a loop assigns")
+  void should_MergeAtHeader_when_LoopAssigns() {
+    init("int i = 0; while (i < p) { i += 1; } return i;");
+    int phi = phiAt(1, "i");
+    int increment = definitionAt(2, "i");
+    assertAll(
+        () -> assertEquals(phi, valueOf("i", 1)),
+        () -> assertEquals(phi, valueOf("i", 3)),
+        () -> assertEquals(phi, form.getPrevious(increment)),
+        () -> assertFalse(form.isConditional(increment)),
+        () -> assertTrue(Set.of(form.getPhiOperand(phi, 0), form.getPhiOperand(phi, 1))
+            .equals(Set.of(definitionAt(0, "i"), increment)))
+    );
+  }
+
+  @Test
+  @Tag("Phi")
+  @DisplayName("Should merge the parameter at the start when the start is a loop header")
+  void should_MergeParameterAtStart_when_StartIsLoopHeader() {
+    init("while (p > 0) { p = p - 1; } return p;");
+    int phi = phiAt(0, "p");
+    assertAll(
+        () -> assertEquals(2, form.getPhiOperandCount(phi)),
+        () -> assertNull(form.getPhiPredecessor(phi, 0)),
+        () -> assertEquals(SsaForm.Kind.PARAMETER, form.getKind(form.getPhiOperand(phi, 0))),
+        () -> assertEquals(definitionAt(1, "p"), form.getPhiOperand(phi, 1)),
+        () -> assertSame(statements.get(1), form.getPhiPredecessor(phi, 1)),
+        () -> assertEquals(phi, valueOf("p", 0))
+    );
+  }
+
+  @Test
+  @Tag("Rename")
+  @DisplayName("Should rename in evaluation order when a statement defines several values")
+  void should_RenameInEvaluationOrder_when_StatementDefinesSeveralValues() {
+    init("int a = 1, b = a; a = a++ + a; p = --a; return b;");
+    int first = form.getValues(statements.get(0)).get(0);
+    List<Integer> values = form.getValues(statements.get(1));
+    assertAll(
+        () -> assertEquals(first, valueOf("a", 1)),
+        () -> assertEquals(SsaForm.NO_VALUE, valueOf("a", 3)),
+        () -> assertSame(names.get(4), form.getName(values.get(0))),
+        () -> assertEquals(2, values.size()),
+        () -> assertEquals(first, form.getPrevious(values.get(0))),
+        () -> assertEquals(values.get(0), valueOf("a", 4)),
+        () -> assertEquals(SsaForm.NO_VALUE, valueOf("a", 5)),
+        () -> assertEquals(SsaForm.NO_VALUE, form.getPrevious(values.get(1))),
+        () -> assertEquals(values.get(1), form.getPrevious(definitionAt(2, "a")))
+    );
+  }
+
+  @Test
+  @Tag("Rename")
+  @DisplayName("Should keep the previous value when an assignment may not run")
+  void should_KeepPreviousValue_when_AssignmentMayNotRun() {
+    init("int a = 0; q = q && (a = 1) > 0; p = q ? a : (a = 2); return a;");
+    int andValue = definitionAt(1, "a");
+    int conditionalValue = definitionAt(2, "a");
+    assertAll(
+        () -> assertTrue(form.isConditional(andValue)),
+        () -> assertEquals(definitionAt(0, "a"), form.getPrevious(andValue)),
+        () -> assertFalse(form.isConditional(definitionAt(1, "q"))),
+        () -> assertTrue(form.isConditional(conditionalValue)),
+        () -> assertEquals(andValue, form.getPrevious(conditionalValue)),
+        () -> assertEquals(andValue, valueOf("a", 2)),
+        () -> assertEquals(conditionalValue, valueOf("a", 4))
+    );
+  }
+
+  @Test
+  @Tag("Rename")
+  @DisplayName("Should not link uses when a statement is opaque")
+  void should_NotLinkUses_when_StatementIsOpaque() {
+    init("int s = 0; for (int k = 0; k < p; k++) { s = s + k; } field = s; "
+        + "class Local { int s = 1; } return s;");
+    int loopValue = definitionAt(1, "s");
+    assertAll(
+        () -> assertTrue(form.isConditional(loopValue)),
+        () -> assertEquals(definitionAt(0, "s"), form.getPrevious(loopValue)),
+        () -> assertTrue(form.isConditional(definitionAt(1, "k"))),
+        () -> assertEquals(SsaForm.NO_VALUE, valueOf("p", 0)),
+        () -> assertEquals(SsaForm.NO_VALUE, valueOf("s", 2)),
+        () -> assertEquals(loopValue, valueOf("s", 3)),
+        () -> assertEquals(SsaForm.NO_VALUE, valueOf("s", 4)),
+        () -> assertEquals(loopValue, valueOf("s", 5)),
+        () -> assertEquals(List.of(), form.getValues(statements.get(4)))
+    );
+  }
+
+  @ParameterizedTest
+  @Tag("Rename")
+  @DisplayName("Should match reaching definitions when given generated programs")
+  @ValueSource(longs = {1, 2, 3, 4, 5})
+  void should_MatchReachingDefinitions_when_GivenGeneratedPrograms(long seed) {
+    ASTNode root = new ProgramGenerator(seed, 300, 0.3, 2, 0.5).generateCompilationUnit();
+    List<ControlFlowGraph> cfgList = new ControlFlowGraphBuilder().build(root);
+    ReachingDefinitions rd = new ReachingDefinitionsBuilder().build(cfgList).get(0);
+    UseDefChains chains = new UseDefChains(cfgList.get(0), rd);
+    form = new SsaBuilder().build(cfgList.get(0));
+    int useCount = 0;
+    for (int id = 0; id < form.getControlFlowGraph().size(); ++id) {
+      Statement statement = form.getControlFlowGraph().statementOf(id);
+      for (SimpleName use : UseDefChains.collectUses(statement)) {
+        if (form.getVariable(use.getIdentifier()) < 0) {
+          continue;
+        }
+        Set<Statement> expected = new HashSet<Statement>();
+        for (Definition definition : chains.getDefinitions(use)) {
+          expected.add(definition.statement);
+        }
+        Set<Statement> actual = new HashSet<Statement>();
+        collectDefinitions(form.getValue(use), new HashSet<Integer>(), actual);
+        assertEquals(expected, actual);
+        useCount++;
+      }
+    }
+    assertTrue(useCount > 100);
+  }
+
+  /**
+   * Collects the statements of the definitions and parameters, as null, that
+   * a value stands for through phis.
+   */
+  private void collectDefinitions(int value, Set<Integer> visited, Set<Statement> statements) {
+    if (value == SsaForm.NO_VALUE || !visited.add(value)) {
+      return;
+    }
+    if (form.getKind(value) != SsaForm.Kind.PHI) {
+      statements.add(form.getStatement(value));
+      return;
+    }
+    for (int k = 0; k < form.getPhiOperandCount(value); ++k) {
+      collectDefinitions(form.getPhiOperand(value, k), visited, statements);
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package edu.byu.cs329.workload;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.LongStream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.eclipse.jdt.core.dom.ASTMatcher;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.byu.cs329.constantfolding.ConstantFolding;
+
+@DisplayName("Tests for ProgramGenerator")
+public class ProgramGeneratorTests {
+
+  private static int countStatements(ASTNode node) {
+    int[] count = {0};
+    node.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode n) {
+        if (n instanceof Statement && !(n instanceof Block)) {
+          count[0]++;
+        }
+      }
+    });
+    return count[0];
+  }
+
+  private static int maxLoopNesting(ASTNode node) {
+    int[] depth = {0, 0};
+    node.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(WhileStatement n) {
+        depth[0]++;
+        depth[1] = Math.max(depth[0], depth[1]);
+        return true;
+      }
+
+      @Override
+      public void endVisit(WhileStatement n) {
+        depth[0]--;
+      }
+    });
+    return depth[1];
+  }
+
+  private static int maxNesting(ASTNode node) {
+    int[] depth = {0, 0};
+    node.accept(new ASTVisitor() {
+      @Override
+      public void preVisit(ASTNode n) {
+        if (n instanceof IfStatement || n instanceof WhileStatement) {
+          depth[0]++;
+          depth[1] = Math.max(depth[0], depth[1]);
+        }
+      }
+
+      @Override
+      public void postVisit(ASTNode n) {
+        if (n instanceof IfStatement || n instanceof WhileStatement) {
+          depth[0]--;
+        }
+      }
+    });
+    return depth[1];
+  }
+
+  private static int countLoops(ASTNode node) {
+    int[] count = {0};
+    node.accept(new ASTVisitor() {
+      @Override
+      public boolean visit(WhileStatement n) {
+        count[0]++;
+        return true;
+      }
+    });
+    return count[0];
+  }
+
+  private static LongStream seeds() {
+    return LongStream.rangeClosed(1, 40);
+  }
+
+  private static boolean compiles(String program) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///Generated.java"),
+        JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return program;
+      }
+    };
+    StringWriter diagnostics = new StringWriter();
+    return compiler.getTask(diagnostics, null, null, List.of("-proc:none", "-d",
+        System.getProperty("java.io.tmpdir")), null, List.of(file)).call();
+  }
+
+  @ParameterizedTest
+  @Tag("ProgramGenerator")
+  @DisplayName("Should generate a valid program with the requested shape when given settings")
+  @CsvSource({
+      "1, 10, 0.0, 0, 0.0",
+      "2, 200, 0.3, 2, 0.5",
+      "3, 500, 0.5, 3, 1.0",
+      "4, 2000, 0.2, 1, 0.3"
+  })
+  void should_GenerateValidProgramWithRequestedShape_when_GivenSettings(long seed,
+      int statementCount, double branchFraction, int maxLoopNesting, double foldableFraction) {
+    ProgramGenerator generator = new ProgramGenerator(seed, statementCount, branchFraction,
+        maxLoopNesting, foldableFraction);
+    String program = generator.generate();
+    CompilationUnit compilationUnit = (CompilationUnit) ProgramGenerator.parse(program);
+
+    assertAll(
+        () -> assertEquals(0, compilationUnit.getProblems().length),
+        () -> assertEquals(statementCount, countStatements(compilationUnit)),
+        () -> assertTrue(maxLoopNesting(compilationUnit) <= maxLoopNesting),
+        () -> assertTrue(compiles(program))
+    );
+  }
+
+  @ParameterizedTest
+  @Tag("ProgramGenerator")
+  @DisplayName("Should generate a program that compiles when given any seed")
+  @MethodSource("seeds")
+  void should_GenerateProgramThatCompiles_when_GivenAnySeed(long seed) {
+    String program = new ProgramGenerator(seed, 2000, 0.3, 2, 0.5).generate();
+    assertTrue(compiles(program));
+  }
+
+  @Test
+  @Tag("ProgramGenerator")
+  @DisplayName("Should keep nesting shallow when most statements branch")
+  void should_KeepNestingShallow_when_MostStatementsBranch() {
+    for (double branchFraction : new double[] {0.3, 0.5, 1.0}) {
+      ASTNode program = new ProgramGenerator(329, 10000, branchFraction, 2, 0.5)
+          .generateCompilationUnit();
+      assertAll(
+          () -> assertEquals(10000, countStatements(program)),
+          () -> assertTrue(maxNesting(program) <= 8)
+      );
+    }
+  }
+
+  @ParameterizedTest
+  @Tag("ProgramGenerator")
+  @DisplayName("Should bound nesting and loops when given a nesting depth and loop count")
+  @CsvSource({
+      "0, 100",
+      "2, 0",
+      "2, 5",
+      "8, 100"
+  })
+  void should_BoundNestingAndLoops_when_GivenNestingDepthAndLoopCount(int maxNestingDepth,
+      int maxLoopCount) {
+    String program = new ProgramGenerator(13, 1000, 0.3, maxNestingDepth, 0.5, maxNestingDepth,
+        maxLoopCount).generate();
+    ASTNode compilationUnit = ProgramGenerator.parse(program);
+    assertAll(
+        () -> assertEquals(1000, countStatements(compilationUnit)),
+        () -> assertTrue(maxNesting(compilationUnit) <= maxNestingDepth),
+        () -> assertTrue(countLoops(compilationUnit) <= maxLoopCount),
+        () -> assertTrue(compiles(program))
+    );
+  }
+
+  @Test
+  @Tag("ProgramGenerator")
+  @DisplayName("Should generate the same program when given the same seed")
+  void should_GenerateSameProgram_when_GivenSameSeed() {
+    ProgramGenerator generator = new ProgramGenerator(7, 300, 0.3, 2, 0.5);
+    String program = generator.generate();
+    assertAll(
+        () -> assertEquals(program, generator.generate()),
+        () -> assertEquals(program, new ProgramGenerator(7, 300, 0.3, 2, 0.5).generate()),
+        () -> assertNotEquals(program, new ProgramGenerator(8, 300, 0.3, 2, 0.5).generate()),
+        () -> assertTrue(generator.generateCompilationUnit()
+            .subtreeMatch(new ASTMatcher(), ProgramGenerator.parse(program)))
+    );
+  }
+
+  @Test
+  @Tag("ProgramGenerator")
+  @DisplayName("Should generate nothing to fold when no expression is foldable")
+  void should_GenerateNothingToFold_when_NoExpressionIsFoldable() {
+    ProgramGenerator generator = new ProgramGenerator(11, 400, 0.3, 2, 0.0);
+    ASTNode folded = ConstantFolding.fold(generator.generateCompilationUnit());
+    assertTrue(folded.subtreeMatch(new ASTMatcher(), generator.generateCompilationUnit()));
+  }
+
+  @Test
+  @Tag("ProgramGenerator")
+  @DisplayName("Should fold something when every expression is foldable")
+  void should_FoldSomething_when_EveryExpressionIsFoldable() {
+    ProgramGenerator generator = new ProgramGenerator(11, 400, 0.3, 2, 1.0);
+    ASTNode folded = ConstantFolding.fold(generator.generateCompilationUnit());
+    assertFalse(folded.subtreeMatch(new ASTMatcher(), generator.generateCompilationUnit()));
+  }
+
+  @Test
+  @Tag("ProgramGenerator")
+  @DisplayName("Should throw RuntimeException when given invalid settings")
+  void should_ThrowRuntimeException_when_GivenInvalidSettings() {
+    assertAll(
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 9, 0, 0, 0)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, -0.1, 0, 0)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 1.1, 0, 0)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 0, -1, 0)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 0, 0, -0.1)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 0, 0, 1.1)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 0, 0, 0, -1, 0)),
+        () -> assertThrows(RuntimeException.class, () -> new ProgramGenerator(1, 10, 0, 0, 0, 0, -1))
+    );
+  }
+}
@@ -0,0 +1,17 @@
+package cfgInputs;
+
+public class should_NotLinkInside_when_StatementIsNotIfOrWhile {
+    void name(int p) {
+        for (int k = 0; k < p; k++) {
+            if (k > 1) {
+                p = 1;
+            }
+        }
+        {
+            p = 2;
+            while (p > 0) {
+            }
+        }
+        p = 3;
+    }
+}
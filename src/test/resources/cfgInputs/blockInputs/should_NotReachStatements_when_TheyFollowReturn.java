@@ -0,0 +1,14 @@
+package cfgInputs;
+
+public class should_NotReachStatements_when_TheyFollowReturn {
+  int name(int p) {
+    int i = 1;
+    return i;
+    while (i < p) {
+      i = i + 1;
+    }
+    if (i < p) {
+      i = 2;
+    }
+  }
+}
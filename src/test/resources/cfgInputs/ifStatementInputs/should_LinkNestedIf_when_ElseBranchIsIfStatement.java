@@ -0,0 +1,14 @@
+package cfgInputs;
+
+public class should_LinkNestedIf_when_ElseBranchIsIfStatement {
+    void name(int p) {
+        int i;
+
+        if (p > 0) {
+            i = 1;
+        } else if (p < 0) {
+            i = 2;
+        }
+        i = 3;
+    }
+}
@@ -0,0 +1,15 @@
+package cfgInputs;
+
+public class should_BuildEveryMethod_when_AnonymousClassPrecedesWhile {
+    int name(int p) {
+        Object o = new Object() {
+            public int hashCode() {
+                return 1;
+            }
+        };
+        while (p > 0) {
+            p = p - 1;
+        }
+        return p;
+    }
+}
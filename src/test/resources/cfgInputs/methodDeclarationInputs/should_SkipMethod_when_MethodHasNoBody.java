@@ -0,0 +1,13 @@
+package cfgInputs;
+
+public abstract class should_SkipMethod_when_MethodHasNoBody {
+  interface Shape {
+    int area();
+  }
+
+  abstract int name(int a);
+
+  int other(int a) {
+    return a;
+  }
+}
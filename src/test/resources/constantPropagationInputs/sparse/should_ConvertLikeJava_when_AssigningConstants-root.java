@@ -0,0 +1,20 @@
+public class Name {
+    int field;
+
+    public long name(int p, int[] xs) {
+        int e;
+        e = 3;
+        e += 2;
+        long f = 5;
+        f *= 1000000000;
+        char g = 'a';
+        g += 1;
+        int h = g;
+        double z = 1.5;
+        boolean b = e > 4;
+        field = 4;
+        p = field;
+        foo(e);
+        return f + h + xs[e] + (z > 1 ? 1 : 0) + (b ? 1 : 0) + p;
+    }
+}
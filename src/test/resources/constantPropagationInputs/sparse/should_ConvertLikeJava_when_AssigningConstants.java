@@ -0,0 +1,20 @@
+public class Name {
+    int field;
+
+    public long name(int p, int[] xs) {
+        int e;
+        e = 3;
+        e += 2;
+        long f = 5;
+        f *= 1000000000;
+        char g = 'a';
+        g += 1;
+        int h = 'b';
+        double z = 1.5;
+        boolean b = true;
+        field = 4;
+        p = field;
+        foo(5);
+        return 5000000000L + 98 + xs[e] + (z > 1 ? 1 : 0) + (b ? 1 : 0) + p;
+    }
+}
@@ -0,0 +1,33 @@
+public class Name {
+    public int name(int p, int[] xs) {
+        boolean done = false;
+        boolean run = true;
+        int q;
+        if (p > 0) {
+            q = 1;
+        }
+        int r;
+        if (p > 0) {
+        } else {
+            r = 1;
+        }
+        int y;
+        int z;
+        if (p > 0) {
+            y = 1;
+        } else {
+            z = 1;
+        }
+        q = 2;
+        if (run) {
+            p = 2;
+        }
+        while (done) {
+        }
+        while (run) {
+            xs[0] = p;
+            run = false;
+        }
+        return q + p;
+    }
+}
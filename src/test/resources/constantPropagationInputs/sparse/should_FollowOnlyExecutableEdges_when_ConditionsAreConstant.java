@@ -0,0 +1,31 @@
+public class Name {
+    public int name(int p, int[] xs) {
+        boolean done = false;
+        boolean run = true;
+        int q;
+        if (p > 0) {
+            q = 1;
+        }
+        int r;
+        if (p > 0) {
+        } else {
+            r = 1;
+        }
+        int y;
+        int z;
+        if (p > 0) {
+            y = 1;
+        } else {
+            z = 1;
+        }
+        q = 2;
+        p = 2;
+        while (false) {
+        }
+        while (run) {
+            xs[0] = 2;
+            run = false;
+        }
+        return 4;
+    }
+}
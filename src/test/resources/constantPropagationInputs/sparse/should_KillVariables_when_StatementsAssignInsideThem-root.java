@@ -0,0 +1,30 @@
+public class Name {
+    int field;
+
+    public int name(int p) {
+        int a = 1;
+        int b = a++;
+        int c = 2, d = c + 1;
+        int s = 0;
+        for (int k = 0; k < c; k++) {
+            s = s + d;
+        }
+        field = a++;
+        int m = -p;
+        ++m;
+        --m;
+        class Local {
+            int t = 3;
+        }
+        int t = 4;
+        t = t = 5;
+        while ((p = p - 1) > a) {
+            t = 5;
+        }
+        if (b > c) {
+        } else {
+            t = 5;
+        }
+        return a + b + c + d + s + t + p;
+    }
+}
@@ -0,0 +1,16 @@
+public class Name {
+    public int name(int p) {
+        int u;
+        int v = 1;
+        int w = u;
+        w = u;
+        u += 1;
+        if (u > 0) {
+            v = 2;
+        } else {
+        }
+        while (p > 0) {
+        }
+        return v;
+    }
+}
@@ -0,0 +1,12 @@
+public class Name {
+    public int name(int p) {
+        int i = 1;
+        while (p > 0) {
+            if (i != 1) {
+                i = 2;
+            }
+            p = p - 1;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,9 @@
+public class Name {
+    public int name(int p) {
+        int i = 1;
+        while (p > 0) {
+            p = p - 1;
+        }
+        return 1;
+    }
+}
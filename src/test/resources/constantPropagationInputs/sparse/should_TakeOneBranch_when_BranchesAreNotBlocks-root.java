@@ -0,0 +1,15 @@
+public class Name {
+    public int name(int p) {
+        boolean b = true;
+        int x = 1;
+        if (b) x = 2;
+        return x;
+    }
+
+    public int other(int p) {
+        boolean b = false;
+        int x = 1;
+        while (b) x = 2;
+        return x;
+    }
+}
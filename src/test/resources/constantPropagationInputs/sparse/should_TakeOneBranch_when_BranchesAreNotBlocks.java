@@ -0,0 +1,15 @@
+public class Name {
+    public int name(int p) {
+        boolean b = true;
+        int x = 1;
+        x = 2;
+        return 2;
+    }
+
+    public int other(int p) {
+        boolean b = false;
+        int x = 1;
+        while (false) x = 2;
+        return 1;
+    }
+}
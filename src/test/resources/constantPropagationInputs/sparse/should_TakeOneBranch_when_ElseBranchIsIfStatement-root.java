@@ -0,0 +1,12 @@
+public class Name {
+    public int name(int p) {
+        boolean b = false;
+        int x = 1;
+        if (b) {
+            x = 2;
+        } else if (p > 0) {
+            p = 3;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,10 @@
+public class Name {
+    public int name(int p) {
+        boolean b = false;
+        int x = 1;
+        if (p > 0) {
+            p = 3;
+        }
+        return 1;
+    }
+}
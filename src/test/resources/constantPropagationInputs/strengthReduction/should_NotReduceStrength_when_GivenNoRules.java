@@ -0,0 +1,10 @@
+public class C {
+    int name(int i, char c) {
+        int a = 8;
+        int b = i * 8;
+        int d = c / 4;
+        int e = c % 16;
+        int f = i / 4;
+        return b + d + e + f;
+    }
+}
@@ -0,0 +1,10 @@
+public class C {
+    int name(int i, char c) {
+        int a = 8;
+        int b = i << 3;
+        int d = c >> 2;
+        int e = c & 15;
+        int f = i / 4;
+        return b + d + e + f;
+    }
+}
@@ -0,0 +1,10 @@
+public class Name {
+    public int name() {
+        boolean b = true;
+        int n = 0;
+        if (b) {
+            n = 1;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,8 @@
+public class Name {
+    public int name() {
+        boolean b = true;
+        int n = 0;
+        n = 1;
+        return 1;
+    }
+}
@@ -0,0 +1,9 @@
+public class Name {
+    public long name() {
+        int x = 1;
+        int y = x + 1;
+        int z = y;
+        long w = (long) y;
+        return w + z;
+    }
+}
@@ -0,0 +1,9 @@
+public class Name {
+    public long name() {
+        int x = 1;
+        int y = 2;
+        int z = 2;
+        long w = (long) y;
+        return w + 2;
+    }
+}
@@ -0,0 +1,34 @@
+public class Name {
+    Integer boxed;
+
+    public int name(int x, char c, short s, double d, Boolean flag, long y) {
+        int a = c + 0;
+        int b = s * 1;
+        double e = d * 0;
+        int f = boxed + 0;
+        int g = next() * 0;
+        long h = x + 0L;
+        int i = x++ - x++;
+        boolean j = flag && true;
+        boolean k = check() || true;
+        String l = "a" + 0;
+        int m = 0 - x;
+        int n = x * 2;
+        {
+            int v = 1;
+        }
+        {
+            char v = 'a';
+            int w = v + 0;
+        }
+        return x;
+    }
+
+    int next() {
+        return 0;
+    }
+
+    boolean check() {
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+public class Name {
+    int field;
+
+    public int name(int x, long y, boolean b, int[] xs) {
+        int a = x + 0;
+        int c = 0 + x + 0 + x;
+        long d = y * 1L;
+        int e = x * 0;
+        long f = y - y;
+        int g = (x * 2) - 0;
+        boolean h = b && true;
+        boolean i = b || false;
+        boolean j = !!b;
+        boolean k = !(!(x < 1));
+        boolean l = b && false;
+        boolean m = false && xs[0] > 0;
+        boolean n = b || x > 0 || true;
+        int o = field * 1;
+        return a;
+    }
+}
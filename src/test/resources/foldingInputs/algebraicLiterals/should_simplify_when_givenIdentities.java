@@ -0,0 +1,21 @@
+public class Name {
+    int field;
+
+    public int name(int x, long y, boolean b, int[] xs) {
+        int a = x;
+        int c = x + x;
+        long d = y;
+        int e = 0;
+        long f = 0L;
+        int g = (x * 2);
+        boolean h = b;
+        boolean i = b;
+        boolean j = b;
+        boolean k = (x < 1);
+        boolean l = false;
+        boolean m = false;
+        boolean n = true;
+        int o = field;
+        return a;
+    }
+}
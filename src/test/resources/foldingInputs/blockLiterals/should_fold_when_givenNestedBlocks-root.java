@@ -0,0 +1,16 @@
+public class Name {
+    public void name(int a) {
+        a = 1;
+        {
+            a = 2;
+            {
+                a = 3;
+            }
+        }
+        while (a < 10) {
+            {
+                a = a + 1;
+            }
+        }
+    }
+}
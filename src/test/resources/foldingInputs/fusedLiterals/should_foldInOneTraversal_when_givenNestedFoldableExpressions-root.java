@@ -0,0 +1,16 @@
+public class Name {
+    public int name(int a) {
+        int b = (1 + (2 + 3));
+        if (!(b < (1 + 2))) {
+            {
+                a = 1;
+            }
+        } else {
+            a = 2;
+        }
+        if (!true) {
+            a = 3;
+        }
+        return a;
+    }
+}
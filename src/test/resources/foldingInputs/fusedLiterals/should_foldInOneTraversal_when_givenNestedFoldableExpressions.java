@@ -0,0 +1,11 @@
+public class Name {
+    public int name(int a) {
+        int b = 6;
+        if (!(b < 3)) {
+            a = 1;
+        } else {
+            a = 2;
+        }
+        return a;
+    }
+}
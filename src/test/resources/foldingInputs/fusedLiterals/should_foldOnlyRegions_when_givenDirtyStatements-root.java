@@ -0,0 +1,10 @@
+public class Name {
+    int name(int p) {
+        int a = 1 + 2;
+        int b = 3 + 4;
+        if (true) {
+            a = a + p;
+        }
+        return a + b;
+    }
+}
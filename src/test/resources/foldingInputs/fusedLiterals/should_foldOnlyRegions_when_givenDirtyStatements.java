@@ -0,0 +1,8 @@
+public class Name {
+    int name(int p) {
+        int a = 3;
+        int b = 3 + 4;
+        a = a + p;
+        return a + b;
+    }
+}
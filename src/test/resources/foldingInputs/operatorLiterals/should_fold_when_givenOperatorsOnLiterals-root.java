@@ -0,0 +1,10 @@
+public class Name {
+    public int name(int x) {
+        int a = 6 * 7 - 2 / 2 + 9 % 4;
+        long b = 1L << 40 | 0xFF & ~0x0F;
+        boolean c = 3 >= 2 && 4 != 5 || false;
+        int d = x * 4 - 1;
+        int e = -3 + 'a';
+        return a + x;
+    }
+}
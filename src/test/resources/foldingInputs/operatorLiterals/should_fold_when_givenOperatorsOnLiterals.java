@@ -0,0 +1,10 @@
+public class Name {
+    public int name(int x) {
+        int a = 42;
+        long b = 1099511628016L;
+        boolean c = true;
+        int d = x * 4 - 1;
+        int e = 94;
+        return a + x;
+    }
+}
@@ -0,0 +1,12 @@
+public class Name {
+    public double name(int x, boolean y) {
+        int a = 1 / 0;
+        long b = 5L % 0L;
+        double c = 1.5 * 2;
+        boolean d = y && true;
+        String e = "a" + 1;
+        int f = x + 1 + 2;
+        x++;
+        return c;
+    }
+}
@@ -0,0 +1,8 @@
+public class Name {
+    public int name() {
+        int a = 0x10 + 010 + 0b11;
+        int b = 1_000 + 0xFFFFFFFF;
+        long c = 1L + 2L;
+        return a + b;
+    }
+}
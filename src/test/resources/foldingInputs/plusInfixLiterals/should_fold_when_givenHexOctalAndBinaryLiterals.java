@@ -0,0 +1,8 @@
+public class Name {
+    public int name() {
+        int a = 27;
+        int b = 999;
+        long c = 1L + 2L;
+        return a + b;
+    }
+}
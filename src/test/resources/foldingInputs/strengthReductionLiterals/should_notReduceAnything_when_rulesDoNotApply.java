@@ -0,0 +1,16 @@
+public class Name {
+    public int name(int i, long n, double d, Integer boxed) {
+        int a = i * 6;
+        int b = i / 4;
+        int c = i % 8;
+        long e = i * 8L;
+        double f = d * 2;
+        int g = boxed * 2;
+        int h = (i >>> 32) % 4;
+        int j = (i - 1) / 2;
+        int k = i * 2 * 2;
+        int l = i * 1;
+        int m = i * -2;
+        return a;
+    }
+}
@@ -0,0 +1,14 @@
+public class Name {
+    public int name(int i, long n, char c, short s, int[] xs) {
+        int a = i * 8;
+        long b = 4 * n;
+        int d = s * 2;
+        int e = c / 4;
+        int f = (i & 0xFF) % 16;
+        long g = (n >>> 1) % 1024L;
+        int h = (i >> 1 & 7) / 2 + i * 2;
+        boolean j = (i >>> 3) % 8 == 0;
+        int k = xs[c % 4];
+        return a;
+    }
+}
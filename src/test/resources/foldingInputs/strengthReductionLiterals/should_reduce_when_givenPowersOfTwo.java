@@ -0,0 +1,14 @@
+public class Name {
+    public int name(int i, long n, char c, short s, int[] xs) {
+        int a = i << 3;
+        long b = n << 2;
+        int d = s << 1;
+        int e = c >> 2;
+        int f = (i & 0xFF) & 15;
+        long g = (n >>> 1) & 1023L;
+        int h = ((i >> 1 & 7) >> 1) + (i << 1);
+        boolean j = ((i >>> 3) & 7) == 0;
+        int k = xs[c & 3];
+        return a;
+    }
+}
@@ -0,0 +1,12 @@
+package rdInputs;
+
+public class UseChains {
+    public int name(int a) {
+        int b = 1;          // (a, *)
+        if (a < b) {        // (a, *), (b, "int b = 1")
+            b = 2;          // (a, *), (b, "int b = 1")
+        }
+        a++;                // (a, *), (b, "int b = 1"), (b, "b = 2")
+        return a + foo(b);  // (a, *), (b, "int b = 1"), (b, "b = 2")
+    }
+}